@@ -14,7 +14,7 @@ import {
 import type { TextInput } from 'react-native';
 
 import { theme } from 'theme';
-import { api } from '../services/api';
+import { api, newAutocompleteSessionToken } from '../services/api';
 import type { AutocompleteSuggestion } from '../services/api';
 import MidloInput from './MidloInput';
 
@@ -41,6 +41,7 @@ export default function AddressAutocompleteInput({
   const abortRef = React.useRef<AbortController | null>(null);
   const blurTimerRef = React.useRef<ReturnType<typeof setTimeout> | null>(null);
   const committedValueRef = React.useRef<string | null>(null);
+  const sessionTokenRef = React.useRef<string | null>(null);
 
   const fadeAnim = React.useRef(new Animated.Value(0)).current;
 
@@ -80,9 +81,14 @@ export default function AddressAutocompleteInput({
       setLoading(true);
       setError(null);
 
+      if (!sessionTokenRef.current) {
+        sessionTokenRef.current = newAutocompleteSessionToken();
+      }
+
       api
-        .autocomplete(query, controller.signal)
+        .autocomplete(query, sessionTokenRef.current, controller.signal)
         .then((s) => {
+          if (s === null) return;
           setSuggestions(s);
           if (s.length > 0) {
             setOpen(true);
@@ -130,6 +136,8 @@ export default function AddressAutocompleteInput({
     committedValueRef.current = (s.description ?? '').trim();
     abortRef.current?.abort();
     abortRef.current = null;
+    // The next keystroke starts a new session.
+    sessionTokenRef.current = null;
     setOpen(false);
     setError(null);
     setSuggestions([]);
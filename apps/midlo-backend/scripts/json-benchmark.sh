@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+#
+# Serialization throughput for cache-hit response bodies: plain Jackson,
+# Jackson with the Blackbird module, and pre-encoded bytes.
+#
+# Usage:
+#   scripts/json-benchmark.sh [seconds-per-case]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CP_FILE="$(mktemp -t midlo-json-bench.XXXXXX)"
+trap 'rm -f "$CP_FILE"' EXIT
+
+mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile="$CP_FILE" >/dev/null
+java -cp "target/test-classes:target/classes:$(cat "$CP_FILE")" \
+	com.midlo.backend.shared.json.JsonSerializationBenchmark "${1:-5}"
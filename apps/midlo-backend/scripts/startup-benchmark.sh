@@ -0,0 +1,117 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-ready: from process/container launch until the readiness
+# probe (/actuator/health/readiness) answers 200. Also reports Spring's own
+# "Started ... in N seconds" figure, which excludes JVM boot and probe wiring.
+#
+# Usage:
+#   scripts/startup-benchmark.sh [-n runs] [-p port] --image <image>
+#   scripts/startup-benchmark.sh [-n runs] [-p port] --jar <path/to/app.jar>
+#   scripts/startup-benchmark.sh [-n runs] [-p port] -- <command...>
+#
+# The custom command must honour $PORT. Examples:
+#   scripts/startup-benchmark.sh -n 5 --jar target/midlo-backend-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh -n 5 --image midlo-backend:latest
+#   scripts/startup-benchmark.sh -- sh -c 'cd /tmp/app && java -XX:SharedArchiveFile=app.jsa -jar app.jar'
+set -euo pipefail
+
+RUNS=5
+PORT=18080
+TIMEOUT_SECS=120
+MODE=""
+TARGET=""
+
+while [[ $# -gt 0 ]]; do
+	case "$1" in
+		-n) RUNS="$2"; shift 2 ;;
+		-p) PORT="$2"; shift 2 ;;
+		-t) TIMEOUT_SECS="$2"; shift 2 ;;
+		--image) MODE=image; TARGET="$2"; shift 2 ;;
+		--jar) MODE=jar; TARGET="$2"; shift 2 ;;
+		--) MODE=cmd; shift; break ;;
+		-h|--help) sed -n '2,18p' "$0"; exit 0 ;;
+		*) echo "Unknown argument: $1" >&2; exit 2 ;;
+	esac
+done
+
+if [[ -z "$MODE" ]]; then
+	echo "One of --image, --jar or -- <command> is required" >&2
+	exit 2
+fi
+CMD=("$@")
+
+READY_URL="http://127.0.0.1:${PORT}/actuator/health/readiness"
+LOG_FILE="$(mktemp -t midlo-startup.XXXXXX)"
+CONTAINER=""
+PID=""
+
+now_ms() {
+	date +%s%3N
+}
+
+stop() {
+	if [[ -n "$CONTAINER" ]]; then
+		docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+		CONTAINER=""
+	fi
+	if [[ -n "$PID" ]]; then
+		kill "$PID" >/dev/null 2>&1 || true
+		wait "$PID" 2>/dev/null || true
+		PID=""
+	fi
+}
+trap 'stop; rm -f "$LOG_FILE"' EXIT
+
+launch() {
+	: >"$LOG_FILE"
+	case "$MODE" in
+		image)
+			CONTAINER="midlo-startup-$$-$1"
+			docker run -d --name "$CONTAINER" -p "${PORT}:8080" "$TARGET" >/dev/null
+			docker logs -f "$CONTAINER" >"$LOG_FILE" 2>&1 &
+			;;
+		jar)
+			PORT="$PORT" java ${JAVA_OPTS:-} -jar "$TARGET" >"$LOG_FILE" 2>&1 &
+			PID=$!
+			;;
+		cmd)
+			PORT="$PORT" "${CMD[@]}" >"$LOG_FILE" 2>&1 &
+			PID=$!
+			;;
+	esac
+}
+
+declare -a READY=()
+declare -a STARTED=()
+
+for ((i = 1; i <= RUNS; i++)); do
+	start=$(now_ms)
+	launch "$i"
+	deadline=$((start + TIMEOUT_SECS * 1000))
+	ready=""
+	while [[ $(now_ms) -lt $deadline ]]; do
+		code=$(curl -s -o /dev/null -w '%{http_code}' "$READY_URL" || true)
+		if [[ "$code" == "200" ]]; then
+			ready=$(( $(now_ms) - start ))
+			break
+		fi
+		sleep 0.05
+	done
+	started=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$LOG_FILE" | grep -o '[0-9.]* seconds' | cut -d' ' -f1 || true)
+	stop
+
+	if [[ -z "$ready" ]]; then
+		echo "run $i: not ready after ${TIMEOUT_SECS}s; last log lines:" >&2
+		tail -20 "$LOG_FILE" >&2
+		exit 1
+	fi
+	READY+=("$ready")
+	STARTED+=("${started:-?}")
+	printf 'run %d: ready=%dms spring_started=%ss\n' "$i" "$ready" "${started:-?}"
+done
+
+sorted=($(printf '%s\n' "${READY[@]}" | sort -n))
+n=${#sorted[@]}
+median=${sorted[$((n / 2))]}
+printf 'time_to_ready_ms runs=%d min=%d median=%d max=%d url=%s\n' \
+	"$n" "${sorted[0]}" "$median" "${sorted[$((n - 1))]}" "$READY_URL"
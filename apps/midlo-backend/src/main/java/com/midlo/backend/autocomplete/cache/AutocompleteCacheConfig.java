@@ -0,0 +1,9 @@
+package com.midlo.backend.autocomplete.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AutocompleteCacheProperties.class)
+public class AutocompleteCacheConfig {
+}
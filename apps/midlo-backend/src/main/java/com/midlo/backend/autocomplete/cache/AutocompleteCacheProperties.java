@@ -0,0 +1,20 @@
+package com.midlo.backend.autocomplete.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.autocomplete.cache")
+public record AutocompleteCacheProperties(
+		Boolean enabled,
+		Duration ttl,
+		Integer maxEntries,
+		Integer maxKeyLength
+) {
+	public AutocompleteCacheProperties {
+		enabled = enabled == null || enabled;
+		ttl = (ttl == null || ttl.isNegative() || ttl.isZero()) ? Duration.ofMinutes(10) : ttl;
+		maxEntries = (maxEntries == null || maxEntries <= 0) ? 20_000 : maxEntries;
+		maxKeyLength = (maxKeyLength == null || maxKeyLength <= 0) ? 64 : maxKeyLength;
+	}
+}
@@ -0,0 +1,493 @@
+package com.midlo.backend.autocomplete.cache;
+
+import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import com.midlo.backend.shared.cache.snapshot.Snapshottable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Radix-tree cache of recent autocomplete suggestion lists, keyed by normalized
+ * input.
+ *
+ * Reads are lock-free: nodes publish their children and entries through
+ * volatile fields, and structural changes (splits, merges, pruning) swap in
+ * new nodes instead of mutating ones a reader may be walking. Writes only
+ * happen on upstream misses, so they share a single lock.
+ *
+ * A lookup that misses on the exact key can still be answered from the deepest
+ * cached ancestor prefix when every one of its suggestions still matches the
+ * longer input ("123 ma" → "123 mai").
+ */
+@Component
+public class AutocompletePrefixCache implements Snapshottable<String, List<AutocompleteSuggestion>> {
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+	private static final int MIN_PREFIX_LENGTH = 3;
+
+	private final AutocompleteCacheProperties properties;
+	private final Node root = new Node("", NO_CHILDREN, null);
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final AtomicInteger size = new AtomicInteger();
+	private final long ttlMillis;
+
+	private final LongAdder exactHits = new LongAdder();
+	private final LongAdder prefixHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private long nextSweepAtMillis;
+
+	public AutocompletePrefixCache(AutocompleteCacheProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.ttlMillis = properties.ttl().toMillis();
+		this.nextSweepAtMillis = System.currentTimeMillis() + ttlMillis;
+
+		FunctionCounter.builder("midlo.autocomplete.cache.requests", exactHits, LongAdder::sum)
+				.tag("result", "hit")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.autocomplete.cache.requests", prefixHits, LongAdder::sum)
+				.tag("result", "prefix_hit")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.autocomplete.cache.requests", misses, LongAdder::sum)
+				.tag("result", "miss")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.autocomplete.cache.evictions", evictions, LongAdder::sum)
+				.register(meterRegistry);
+		Gauge.builder("midlo.autocomplete.cache.size", size, AtomicInteger::get)
+				.register(meterRegistry);
+		Gauge.builder("midlo.autocomplete.cache.hit.ratio", this, AutocompletePrefixCache::hitRatio)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Lowercases, trims and collapses whitespace so "123  Main" and "123 main"
+	 * share a key.
+	 */
+	public static String normalize(String input) {
+		if (input == null) {
+			return "";
+		}
+		return input.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns cached suggestions for a normalized key, or null on a miss.
+	 */
+	public List<AutocompleteSuggestion> lookup(String key) {
+		if (!properties.enabled() || key == null || key.isEmpty()) {
+			return null;
+		}
+
+		long now = System.currentTimeMillis();
+		Entry ancestor = null;
+		Node node = root;
+		int pos = 0;
+		while (true) {
+			Entry entry = node.entry;
+			if (pos == key.length()) {
+				if (isLive(entry, now)) {
+					entry.lastAccessMillis = now;
+					exactHits.increment();
+					return entry.suggestions;
+				}
+				break;
+			}
+			if (pos >= MIN_PREFIX_LENGTH && isLive(entry, now) && !entry.suggestions.isEmpty()) {
+				ancestor = entry;
+			}
+			Node child = findChild(node.children, key.charAt(pos));
+			if (child == null || !key.startsWith(child.label, pos)) {
+				break;
+			}
+			pos += child.label.length();
+			node = child;
+		}
+
+		if (ancestor != null && matchesAll(ancestor.suggestions, key)) {
+			ancestor.lastAccessMillis = now;
+			prefixHits.increment();
+			return ancestor.suggestions;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	public void put(String key, List<AutocompleteSuggestion> suggestions) {
+		if (!properties.enabled() || key == null || key.isEmpty() || suggestions == null) {
+			return;
+		}
+		if (key.length() > properties.maxKeyLength()) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		Entry entry = new Entry(List.copyOf(suggestions), now + ttlMillis, now);
+
+		writeLock.lock();
+		try {
+			insertLocked(key, entry);
+			if (size.get() > properties.maxEntries() || now >= nextSweepAtMillis) {
+				evictLocked(now);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	@Override
+	public String name() {
+		return "autocomplete-prefix";
+	}
+
+	@Override
+	public List<SnapshotEntry<String, List<AutocompleteSuggestion>>> hottest(int limit) {
+		long now = System.currentTimeMillis();
+		List<SnapshotEntry<String, List<AutocompleteSuggestion>>> live = new ArrayList<>();
+		List<Long> lastAccess = new ArrayList<>();
+		writeLock.lock();
+		try {
+			collectKeysLocked(root, "", now, live, lastAccess);
+		} finally {
+			writeLock.unlock();
+		}
+		Integer[] order = new Integer[live.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong((Integer i) -> lastAccess.get(i)).reversed());
+		List<SnapshotEntry<String, List<AutocompleteSuggestion>>> out = new ArrayList<>(Math.min(limit, order.length));
+		for (int i = 0; i < order.length && out.size() < limit; i++) {
+			out.add(live.get(order[i]));
+		}
+		return out;
+	}
+
+	@Override
+	public void restore(String key, List<AutocompleteSuggestion> suggestions, long expiresAtMillis,
+			long idleMillis) {
+		if (!properties.enabled() || key == null || key.isEmpty() || suggestions == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (expiresAtMillis <= now || key.length() > properties.maxKeyLength()) {
+			return;
+		}
+		// Never extend an entry past what the current TTL would allow.
+		Entry entry = new Entry(List.copyOf(suggestions), Math.min(expiresAtMillis, now + ttlMillis),
+				now - Math.max(0, idleMillis));
+
+		writeLock.lock();
+		try {
+			insertLocked(key, entry);
+			if (size.get() > properties.maxEntries()) {
+				evictLocked(now);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Snapshot encoding for this cache: the key, then each suggestion's place
+	 * id (nullable) and description.
+	 */
+	public static CacheCodec<String, List<AutocompleteSuggestion>> snapshotCodec() {
+		return new CacheCodec<>() {
+			@Override
+			public int version() {
+				return 1;
+			}
+
+			@Override
+			public void writeKey(DataOutput out, String key) throws IOException {
+				out.writeUTF(key);
+			}
+
+			@Override
+			public String readKey(DataInput in) throws IOException {
+				return in.readUTF();
+			}
+
+			@Override
+			public void writeValue(DataOutput out, List<AutocompleteSuggestion> suggestions) throws IOException {
+				out.writeShort(suggestions.size());
+				for (AutocompleteSuggestion s : suggestions) {
+					CacheCodec.writeNullableUtf(out, s.placeId());
+					CacheCodec.writeNullableUtf(out, s.description());
+				}
+			}
+
+			@Override
+			public List<AutocompleteSuggestion> readValue(DataInput in) throws IOException {
+				int n = in.readUnsignedShort();
+				List<AutocompleteSuggestion> suggestions = new ArrayList<>(n);
+				for (int i = 0; i < n; i++) {
+					suggestions.add(new AutocompleteSuggestion(CacheCodec.readNullableUtf(in), CacheCodec.readNullableUtf(in)));
+				}
+				return suggestions;
+			}
+		};
+	}
+
+	public double hitRatio() {
+		long hits = exactHits.sum() + prefixHits.sum();
+		long total = hits + misses.sum();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	private void insertLocked(String key, Entry entry) {
+		Node parent = root;
+		int pos = 0;
+		while (true) {
+			if (pos == key.length()) {
+				if (parent.entry == null) {
+					size.incrementAndGet();
+				}
+				parent.entry = entry;
+				return;
+			}
+
+			Node[] kids = parent.children;
+			int idx = indexOf(kids, key.charAt(pos));
+			if (idx < 0) {
+				Node leaf = new Node(key.substring(pos), NO_CHILDREN, entry);
+				parent.children = insertSorted(kids, leaf);
+				size.incrementAndGet();
+				return;
+			}
+
+			Node child = kids[idx];
+			int common = commonPrefixLength(child.label, key, pos);
+			if (common < child.label.length()) {
+				// Split the edge. The old child stays intact for readers already
+				// holding it; new readers see the split path.
+				Node tail = new Node(child.label.substring(common), child.children, child.entry);
+				Node mid = new Node(child.label.substring(0, common), new Node[] { tail }, null);
+				parent.children = replace(kids, idx, mid);
+				child = mid;
+			}
+			parent = child;
+			pos += common;
+		}
+	}
+
+	private void evictLocked(long now) {
+		nextSweepAtMillis = now + ttlMillis;
+
+		List<Slot> live = new ArrayList<>();
+		collectLocked(root, now, live);
+
+		int target = (int) (properties.maxEntries() * 0.9);
+		if (live.size() > target && size.get() > properties.maxEntries()) {
+			live.sort(Comparator.comparingLong(s -> s.entry.lastAccessMillis));
+			int excess = live.size() - target;
+			for (int i = 0; i < excess; i++) {
+				live.get(i).node.entry = null;
+				size.decrementAndGet();
+				evictions.increment();
+			}
+		}
+
+		Node[] pruned = pruneChildren(root.children);
+		if (pruned != root.children) {
+			root.children = pruned;
+		}
+	}
+
+	private void collectLocked(Node node, long now, List<Slot> out) {
+		Entry entry = node.entry;
+		if (entry != null) {
+			if (isLive(entry, now)) {
+				out.add(new Slot(node, entry));
+			} else {
+				node.entry = null;
+				size.decrementAndGet();
+				evictions.increment();
+			}
+		}
+		for (Node child : node.children) {
+			collectLocked(child, now, out);
+		}
+	}
+
+	private void collectKeysLocked(Node node, String path, long now,
+			List<SnapshotEntry<String, List<AutocompleteSuggestion>>> out, List<Long> lastAccess) {
+		String key = path + node.label;
+		Entry entry = node.entry;
+		if (isLive(entry, now)) {
+			out.add(new SnapshotEntry<>(key, entry.suggestions, entry.expiresAtMillis,
+					Math.max(0, now - entry.lastAccessMillis)));
+			lastAccess.add(entry.lastAccessMillis);
+		}
+		for (Node child : node.children) {
+			collectKeysLocked(child, key, now, out, lastAccess);
+		}
+	}
+
+	private static Node[] pruneChildren(Node[] kids) {
+		List<Node> out = new ArrayList<>(kids.length);
+		boolean changed = false;
+		for (Node child : kids) {
+			Node pruned = pruneNode(child);
+			if (pruned != child) {
+				changed = true;
+			}
+			if (pruned != null) {
+				out.add(pruned);
+			}
+		}
+		return changed ? out.toArray(NO_CHILDREN) : kids;
+	}
+
+	private static Node pruneNode(Node node) {
+		Node[] kids = pruneChildren(node.children);
+		if (kids != node.children) {
+			node.children = kids;
+		}
+		if (node.entry != null) {
+			return node;
+		}
+		if (kids.length == 0) {
+			return null;
+		}
+		if (kids.length == 1) {
+			Node only = kids[0];
+			return new Node(node.label + only.label, only.children, only.entry);
+		}
+		return node;
+	}
+
+	static boolean matchesAll(List<AutocompleteSuggestion> suggestions, String key) {
+		String[] inputTokens = tokenize(key);
+		if (inputTokens.length == 0) {
+			return false;
+		}
+		for (AutocompleteSuggestion s : suggestions) {
+			if (!tokensMatch(inputTokens, tokenize(normalize(s.description())))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean tokensMatch(String[] inputTokens, String[] descriptionTokens) {
+		// Each input token must prefix a description token, in order.
+		int d = 0;
+		for (String token : inputTokens) {
+			while (d < descriptionTokens.length && !descriptionTokens[d].startsWith(token)) {
+				d++;
+			}
+			if (d == descriptionTokens.length) {
+				return false;
+			}
+			d++;
+		}
+		return true;
+	}
+
+	private static String[] tokenize(String s) {
+		String[] parts = s.split("[^\\p{L}\\p{N}]+");
+		return Arrays.stream(parts).filter(p -> !p.isEmpty()).toArray(String[]::new);
+	}
+
+	private static boolean isLive(Entry entry, long now) {
+		return entry != null && entry.expiresAtMillis > now;
+	}
+
+	private static Node findChild(Node[] kids, char c) {
+		int idx = indexOf(kids, c);
+		return idx < 0 ? null : kids[idx];
+	}
+
+	private static int indexOf(Node[] kids, char c) {
+		int lo = 0;
+		int hi = kids.length - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			char m = kids[mid].label.charAt(0);
+			if (m < c) {
+				lo = mid + 1;
+			} else if (m > c) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private static Node[] insertSorted(Node[] kids, Node node) {
+		char c = node.label.charAt(0);
+		int at = 0;
+		while (at < kids.length && kids[at].label.charAt(0) < c) {
+			at++;
+		}
+		Node[] out = new Node[kids.length + 1];
+		System.arraycopy(kids, 0, out, 0, at);
+		out[at] = node;
+		System.arraycopy(kids, at, out, at + 1, kids.length - at);
+		return out;
+	}
+
+	private static Node[] replace(Node[] kids, int idx, Node node) {
+		Node[] out = kids.clone();
+		out[idx] = node;
+		return out;
+	}
+
+	private static int commonPrefixLength(String label, String key, int pos) {
+		int max = Math.min(label.length(), key.length() - pos);
+		int i = 0;
+		while (i < max && label.charAt(i) == key.charAt(pos + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static final class Node {
+		final String label;
+		volatile Node[] children;
+		volatile Entry entry;
+
+		Node(String label, Node[] children, Entry entry) {
+			this.label = label;
+			this.children = children;
+			this.entry = entry;
+		}
+	}
+
+	private static final class Entry {
+		final List<AutocompleteSuggestion> suggestions;
+		final long expiresAtMillis;
+		volatile long lastAccessMillis;
+
+		Entry(List<AutocompleteSuggestion> suggestions, long expiresAtMillis, long lastAccessMillis) {
+			this.suggestions = suggestions;
+			this.expiresAtMillis = expiresAtMillis;
+			this.lastAccessMillis = lastAccessMillis;
+		}
+	}
+
+	private record Slot(Node node, Entry entry) {
+	}
+}
@@ -1,8 +1,10 @@
 package com.midlo.backend.autocomplete.controller;
 
 import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
-import com.midlo.backend.autocomplete.service.AutocompleteService;
+import com.midlo.backend.autocomplete.session.AutocompleteResult;
+import com.midlo.backend.autocomplete.session.AutocompleteSessionService;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,14 +14,37 @@ import java.util.List;
 @RestController
 public class AutocompleteController {
 
-	private final AutocompleteService autocompleteService;
+	static final String SESSION_TOKEN_HEADER = "X-Midlo-Session-Token";
+	static final String SUPERSEDED_HEADER = "X-Midlo-Superseded";
 
-	public AutocompleteController(AutocompleteService autocompleteService) {
-		this.autocompleteService = autocompleteService;
+	private final AutocompleteSessionService autocompleteSessionService;
+
+	public AutocompleteController(AutocompleteSessionService autocompleteSessionService) {
+		this.autocompleteSessionService = autocompleteSessionService;
 	}
 
+	/**
+	 * Clients may send a sessionToken (8-36 of [A-Za-z0-9_-]) on every
+	 * keystroke and on the final /places/{placeId} lookup; it is echoed in
+	 * X-Midlo-Session-Token. With a token, a keystroke replaced by a newer one
+	 * comes back empty with X-Midlo-Superseded: true and should be ignored.
+	 * Without one every keystroke is answered on its own.
+	 */
 	@GetMapping(value = "/autocomplete", produces = MediaType.APPLICATION_JSON_VALUE)
-	public List<AutocompleteSuggestion> autocomplete(@RequestParam(name = "input") String input) {
-		return autocompleteService.suggest(input);
+	public ResponseEntity<List<AutocompleteSuggestion>> autocomplete(
+			@RequestParam(name = "input") String input,
+			@RequestParam(name = "sessionToken", required = false) String sessionToken) {
+		return toResponse(autocompleteSessionService.suggest(input, sessionToken));
+	}
+
+	private static ResponseEntity<List<AutocompleteSuggestion>> toResponse(AutocompleteResult result) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+		if (result.sessionToken() != null) {
+			builder.header(SESSION_TOKEN_HEADER, result.sessionToken());
+		}
+		if (result.superseded()) {
+			builder.header(SUPERSEDED_HEADER, "true");
+		}
+		return builder.body(result.suggestions());
 	}
 }
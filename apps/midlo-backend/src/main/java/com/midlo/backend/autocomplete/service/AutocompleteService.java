@@ -1,8 +1,14 @@
 package com.midlo.backend.autocomplete.service;
 
+import com.midlo.backend.autocomplete.cache.AutocompletePrefixCache;
 import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+import com.midlo.backend.integrations.gazetteer.Gazetteer;
+import com.midlo.backend.integrations.gazetteer.GazetteerEntry;
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
 import com.midlo.backend.integrations.google.GoogleMapsProperties;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotter;
 import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
 import org.springframework.core.env.Environment;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -16,8 +22,14 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.Objects;
 import java.util.Arrays;
 import java.nio.charset.StandardCharsets;
@@ -26,31 +38,48 @@ import java.util.zip.CRC32;
 @Service
 public class AutocompleteService {
 
+	private static final int MAX_SUGGESTIONS = 6;
+
 	private final GoogleMapsProperties googleMapsProperties;
 	private final boolean allowMockGoogle;
 	private final RestTemplate restTemplate;
+	private final AutocompletePrefixCache prefixCache;
+	private final Gazetteer gazetteer;
 
-	public AutocompleteService(GoogleMapsProperties googleMapsProperties, Environment environment) {
+	public AutocompleteService(GoogleMapsProperties googleMapsProperties, Environment environment,
+			AutocompletePrefixCache prefixCache, Gazetteer gazetteer, GoogleApiMetrics googleApiMetrics,
+			CacheSnapshotter cacheSnapshotter) {
 		this.googleMapsProperties = googleMapsProperties;
+		this.prefixCache = prefixCache;
+		cacheSnapshotter.register(prefixCache, AutocompletePrefixCache.snapshotCodec());
+		this.gazetteer = gazetteer;
 		this.allowMockGoogle = Arrays.asList(environment.getActiveProfiles()).contains("local");
 		this.restTemplate = new RestTemplate();
+		this.restTemplate.getInterceptors().add(googleApiMetrics);
 	}
 
 	public List<AutocompleteSuggestion> suggest(String input) {
-		String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
-		String trimmed = input == null ? "" : input.trim();
-		if (trimmed.length() < 3) {
-			return List.of();
+		return suggest(input, null);
+	}
+
+	/**
+	 * @param sessionToken Google session token grouping a typing session with
+	 *                     the final place details lookup; may be null
+	 */
+	public List<AutocompleteSuggestion> suggest(String input, String sessionToken) {
+		List<AutocompleteSuggestion> local = suggestLocally(input);
+		if (local != null) {
+			return local;
 		}
 
+		String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
 		if (apiKey.isBlank()) {
-			if (allowMockGoogle) {
-				return mockSuggestions(trimmed);
-			}
 			throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE,
 					"Missing GOOGLE_MAPS_API_KEY (Google Maps Platform)");
 		}
 
+		String trimmed = input.trim();
+		String cacheKey = AutocompletePrefixCache.normalize(trimmed);
 		String endpoint = "https://places.googleapis.com/v1/places:autocomplete";
 
 		HttpHeaders headers = new HttpHeaders();
@@ -58,17 +87,20 @@ public class AutocompleteService {
 		headers.set("X-Goog-Api-Key", apiKey);
 		headers.set("X-Goog-FieldMask", "suggestions.placePrediction.placeId,suggestions.placePrediction.text");
 
-		Map<String, Object> body = Map.of(
-				"input", trimmed);
+		Map<String, Object> body = new HashMap<>();
+		body.put("input", trimmed);
+		if (sessionToken != null && !sessionToken.isBlank()) {
+			body.put("sessionToken", sessionToken);
+		}
 
 		ResponseEntity<Map<String, Object>> resp;
 		try {
-			resp = restTemplate.exchange(
+			resp = RequestTrace.timed("autocomplete", "google", () -> restTemplate.exchange(
 					endpoint,
 					Objects.requireNonNull(HttpMethod.POST),
 					new HttpEntity<>(body, headers),
 					new ParameterizedTypeReference<>() {
-					});
+					}));
 		} catch (HttpStatusCodeException e) {
 			String details = e.getResponseBodyAsString() == null ? "" : e.getResponseBodyAsString().trim();
 			String suffix = details.isBlank() ? "" : " - " + details;
@@ -77,7 +109,74 @@ public class AutocompleteService {
 			throw new ApiException(HttpStatus.BAD_GATEWAY, "Autocomplete service unavailable");
 		}
 
-		Map<String, Object> respBody = resp.getBody();
+		List<AutocompleteSuggestion> suggestions = parseSuggestions(resp.getBody());
+		prefixCache.put(cacheKey, suggestions);
+		return withGazetteer(trimmed, suggestions);
+	}
+
+	/**
+	 * Answers without calling Google when possible: short input, input that is
+	 * exactly a gazetteer city, state or ZIP, local mock mode, or a prefix
+	 * cache hit. Returns null when an upstream call is needed.
+	 *
+	 * Input that only starts like a gazetteer entry ("Port", "Portland
+	 * Coffee") may name a venue or neighborhood, so it goes upstream and the
+	 * matching gazetteer rows are merged after Google's suggestions.
+	 */
+	public List<AutocompleteSuggestion> suggestLocally(String input) {
+		String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
+		String trimmed = input == null ? "" : input.trim();
+		if (trimmed.length() < 3) {
+			return List.of();
+		}
+
+		// A complete city, state or ZIP never needs a Google round trip.
+		Optional<GazetteerEntry> exact = gazetteer.resolve(trimmed);
+		if (exact.isPresent()) {
+			return List.of(toSuggestion(exact.get()));
+		}
+
+		if (apiKey.isBlank()) {
+			return allowMockGoogle ? withGazetteer(trimmed, mockSuggestions(trimmed)) : null;
+		}
+
+		// Most keystroke traffic repeats popular prefixes; answer those locally.
+		List<AutocompleteSuggestion> cached = prefixCache.lookup(AutocompletePrefixCache.normalize(trimmed));
+		RequestTrace.mark("cache", cached == null ? "autocomplete-prefix miss" : "autocomplete-prefix hit");
+		return cached == null ? null : withGazetteer(trimmed, cached);
+	}
+
+	/**
+	 * Upstream suggestions followed by gazetteer rows the input is a prefix
+	 * of, skipping rows Google already suggested. Street-level input (digits
+	 * mixed with words) gets no gazetteer rows.
+	 */
+	private List<AutocompleteSuggestion> withGazetteer(String input, List<AutocompleteSuggestion> upstream) {
+		if (upstream.size() >= MAX_SUGGESTIONS || isStreetLevel(input)) {
+			return upstream;
+		}
+		List<GazetteerEntry> rows = gazetteer.suggest(input, MAX_SUGGESTIONS - upstream.size());
+		if (rows.isEmpty()) {
+			return upstream;
+		}
+		Set<String> seen = new HashSet<>();
+		for (AutocompleteSuggestion s : upstream) {
+			seen.add(s.description().toLowerCase(Locale.ROOT));
+		}
+		List<AutocompleteSuggestion> merged = new ArrayList<>(upstream);
+		for (GazetteerEntry row : rows) {
+			if (seen.add(row.description().toLowerCase(Locale.ROOT))) {
+				merged.add(toSuggestion(row));
+			}
+		}
+		return merged;
+	}
+
+	private static AutocompleteSuggestion toSuggestion(GazetteerEntry entry) {
+		return new AutocompleteSuggestion(entry.id(), entry.description());
+	}
+
+	private static List<AutocompleteSuggestion> parseSuggestions(Map<String, Object> respBody) {
 		if (respBody == null) {
 			return List.of();
 		}
@@ -88,7 +187,7 @@ public class AutocompleteService {
 		}
 
 		return suggestionsList.stream()
-				.limit(6)
+				.limit(MAX_SUGGESTIONS)
 				.map((Object s) -> {
 					if (!(s instanceof Map<?, ?> sMap))
 						return null;
@@ -115,6 +214,17 @@ public class AutocompleteService {
 				.toList();
 	}
 
+	private static boolean isStreetLevel(String input) {
+		boolean hasDigit = false;
+		boolean hasLetter = false;
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			hasDigit |= Character.isDigit(c);
+			hasLetter |= Character.isLetter(c);
+		}
+		return hasDigit && hasLetter;
+	}
+
 	private static List<AutocompleteSuggestion> mockSuggestions(String trimmed) {
 		// Small, deterministic list for UI testing.
 		String base = trimmed.replaceAll("\\s+", " ").trim();
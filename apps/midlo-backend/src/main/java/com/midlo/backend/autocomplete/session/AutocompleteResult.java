@@ -0,0 +1,12 @@
+package com.midlo.backend.autocomplete.session;
+
+import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+
+import java.util.List;
+
+public record AutocompleteResult(
+		List<AutocompleteSuggestion> suggestions,
+		String sessionToken,
+		boolean superseded
+) {
+}
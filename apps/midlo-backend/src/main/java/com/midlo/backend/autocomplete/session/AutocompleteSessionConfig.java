@@ -0,0 +1,9 @@
+package com.midlo.backend.autocomplete.session;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AutocompleteSessionProperties.class)
+public class AutocompleteSessionConfig {
+}
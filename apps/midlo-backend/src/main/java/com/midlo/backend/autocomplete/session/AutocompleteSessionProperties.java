@@ -0,0 +1,28 @@
+package com.midlo.backend.autocomplete.session;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.autocomplete.session")
+public record AutocompleteSessionProperties(
+		Duration debounce,
+		Duration idleTimeout,
+		Integer maxSessions,
+		Integer workerThreads,
+		Integer maxQueued,
+		Duration timeout
+) {
+	public AutocompleteSessionProperties {
+		debounce = (debounce == null || debounce.isNegative()) ? Duration.ofMillis(120) : debounce;
+		idleTimeout = (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero())
+				? Duration.ofMinutes(3)
+				: idleTimeout;
+		maxSessions = (maxSessions == null || maxSessions <= 0) ? 50_000 : maxSessions;
+		workerThreads = (workerThreads == null || workerThreads <= 0) ? 8 : workerThreads;
+		maxQueued = (maxQueued == null || maxQueued <= 0) ? workerThreads * 8 : maxQueued;
+		timeout = (timeout == null || timeout.isNegative() || timeout.isZero())
+				? Duration.ofSeconds(5)
+				: timeout;
+	}
+}
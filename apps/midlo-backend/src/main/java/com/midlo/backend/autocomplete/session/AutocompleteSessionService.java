@@ -0,0 +1,289 @@
+package com.midlo.backend.autocomplete.session;
+
+import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+import com.midlo.backend.autocomplete.service.AutocompleteService;
+import com.midlo.backend.integrations.google.UpstreamCaller;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Autocomplete sessions, keyed by the session token the client sends.
+ *
+ * Each keystroke replaces the session's pending request: the older request is
+ * answered immediately as superseded, and if it was still waiting out the
+ * debounce window it never reaches Google. Requests that are already in
+ * flight finish in the background and warm the prefix cache. The token is
+ * also passed to Google so the typing session and the final place details
+ * lookup are billed as one unit.
+ *
+ * Requests without a valid token are answered directly, with no debounce and
+ * no Google session: callers sharing an address and user agent (NAT, one app
+ * build) must not cancel each other's keystrokes or share a billing session.
+ *
+ * At most {@code maxQueued} keystrokes wait for or hold a worker; beyond that
+ * a keystroke is answered on the request thread (still within its session),
+ * so request threads never pile up behind the worker queue.
+ */
+@Service
+public class AutocompleteSessionService {
+
+	private static final Pattern CLIENT_TOKEN = Pattern.compile("[A-Za-z0-9_-]{8,36}");
+
+	private final AutocompleteService autocompleteService;
+	private final AutocompleteSessionProperties properties;
+	private final ScheduledThreadPoolExecutor executor;
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final Counter supersededQueued;
+	private final Counter supersededInFlight;
+	private final Counter dispatched;
+	private final Counter overflow;
+
+	public AutocompleteSessionService(
+			AutocompleteService autocompleteService,
+			AutocompleteSessionProperties properties,
+			MeterRegistry meterRegistry) {
+		this.autocompleteService = autocompleteService;
+		this.properties = properties;
+
+		this.executor = new ScheduledThreadPoolExecutor(
+				properties.workerThreads(),
+				new NamedThreadFactory("autocomplete"));
+		this.executor.setRemoveOnCancelPolicy(true);
+		long sweepMillis = properties.idleTimeout().toMillis();
+		this.executor.scheduleWithFixedDelay(() -> sweepIdleSessions(System.currentTimeMillis()),
+				sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+
+		this.supersededQueued = Counter.builder("midlo.autocomplete.superseded")
+				.tag("stage", "queued")
+				.description("Requests replaced by a newer keystroke before calling Google")
+				.register(meterRegistry);
+		this.supersededInFlight = Counter.builder("midlo.autocomplete.superseded")
+				.tag("stage", "in_flight")
+				.description("Requests replaced by a newer keystroke while Google was answering")
+				.register(meterRegistry);
+		this.dispatched = Counter.builder("midlo.autocomplete.upstream.dispatched")
+				.register(meterRegistry);
+		this.overflow = Counter.builder("midlo.autocomplete.overflow")
+				.description("Keystrokes answered on the request thread because the worker queue was full")
+				.register(meterRegistry);
+		Gauge.builder("midlo.autocomplete.sessions", sessions, Map::size)
+				.register(meterRegistry);
+		Gauge.builder("midlo.autocomplete.queued", queued, AtomicInteger::get)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Answers a keystroke, blocking the caller until its result is ready, a
+	 * newer keystroke of the same session supersedes it, or the timeout runs
+	 * out (504).
+	 *
+	 * @param clientToken optional session token supplied by the client
+	 */
+	public AutocompleteResult suggest(String input, String clientToken) {
+		Session session = sessionFor(clientToken);
+		if (session == null) {
+			return new AutocompleteResult(autocompleteService.suggest(input, null), null, false);
+		}
+
+		List<AutocompleteSuggestion> local = autocompleteService.suggestLocally(input);
+		if (local != null) {
+			supersede(session.pending.getAndSet(null));
+			return new AutocompleteResult(local, session.token, false);
+		}
+
+		Pending pending = new Pending(input, session);
+		supersede(session.pending.getAndSet(pending));
+		if (queued.incrementAndGet() > properties.maxQueued()) {
+			queued.decrementAndGet();
+			overflow.increment();
+			run(pending);
+		} else {
+			pending.scheduled = executor.schedule(
+					RequestTrace.wrap(UpstreamCaller.wrap(() -> dispatch(pending))),
+					properties.debounce().toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+		return await(pending);
+	}
+
+	private AutocompleteResult await(Pending pending) {
+		try {
+			return pending.future.get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			abandon(pending);
+			throw new ApiException(HttpStatus.GATEWAY_TIMEOUT, "Autocomplete timed out");
+		} catch (InterruptedException e) {
+			abandon(pending);
+			Thread.currentThread().interrupt();
+			throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Autocomplete interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Drops a keystroke whose caller stopped waiting, so it neither reaches
+	 * Google later nor keeps the session busy.
+	 */
+	private void abandon(Pending pending) {
+		pending.session.pending.compareAndSet(pending, null);
+		cancel(pending);
+		pending.future.cancel(false);
+	}
+
+	/**
+	 * Ends a session once the user picked a suggestion; the next keystroke
+	 * starts a fresh Google session.
+	 */
+	public void end(String sessionToken) {
+		if (sessionToken == null || sessionToken.isBlank()) {
+			return;
+		}
+		sessions.remove(sessionToken);
+	}
+
+	int size() {
+		return sessions.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void dispatch(Pending pending) {
+		try {
+			if (pending.session.pending.get() != pending || pending.future.isDone()) {
+				return;
+			}
+			run(pending);
+		} finally {
+			queued.decrementAndGet();
+		}
+	}
+
+	private void run(Pending pending) {
+		pending.inFlight = true;
+		dispatched.increment();
+		String token = pending.session.token;
+		List<AutocompleteSuggestion> suggestions;
+		try {
+			suggestions = autocompleteService.suggest(pending.input, token);
+		} catch (Throwable e) {
+			pending.session.pending.compareAndSet(pending, null);
+			pending.future.completeExceptionally(e);
+			if (e instanceof Error error) {
+				throw error;
+			}
+			return;
+		}
+		// Cleared before the caller wakes, so a finished session is idle.
+		pending.session.pending.compareAndSet(pending, null);
+		pending.future.complete(new AutocompleteResult(suggestions, token, false));
+	}
+
+	private void supersede(Pending previous) {
+		if (previous == null) {
+			return;
+		}
+		boolean wasInFlight = previous.inFlight;
+		if (!wasInFlight) {
+			cancel(previous);
+		}
+		if (previous.future.complete(new AutocompleteResult(List.of(), previous.session.token, true))) {
+			(wasInFlight ? supersededInFlight : supersededQueued).increment();
+		}
+	}
+
+	/**
+	 * Cancels a keystroke still waiting out the debounce; the queue slot is
+	 * released here only when the task will never run.
+	 */
+	private void cancel(Pending pending) {
+		ScheduledFuture<?> scheduled = pending.scheduled;
+		if (scheduled != null && scheduled.cancel(false)) {
+			queued.decrementAndGet();
+		}
+	}
+
+	/**
+	 * The session for a client token, or null when the token is missing or
+	 * malformed, or the session table is full (the caller is then answered
+	 * directly).
+	 */
+	private Session sessionFor(String clientToken) {
+		if (clientToken == null || !CLIENT_TOKEN.matcher(clientToken).matches()) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		Session existing = sessions.get(clientToken);
+		if (existing == null && sessions.size() >= properties.maxSessions()) {
+			sweepIdleSessions(now);
+			if (sessions.size() >= properties.maxSessions()) {
+				return null;
+			}
+		}
+
+		Session session = sessions.computeIfAbsent(clientToken, Session::new);
+		session.lastSeenMillis = now;
+		return session;
+	}
+
+	int sweepIdleSessions(long nowMillis) {
+		long cutoff = nowMillis - properties.idleTimeout().toMillis();
+		int before = sessions.size();
+		sessions.values().removeIf(s -> s.lastSeenMillis < cutoff && s.pending.get() == null);
+		return before - sessions.size();
+	}
+
+	private static final class Session {
+		final String token;
+		final AtomicReference<Pending> pending = new AtomicReference<>();
+		volatile long lastSeenMillis;
+
+		Session(String token) {
+			this.token = token;
+		}
+	}
+
+	private static final class Pending {
+		final String input;
+		final Session session;
+		final CompletableFuture<AutocompleteResult> future = new CompletableFuture<>();
+		volatile ScheduledFuture<?> scheduled;
+		volatile boolean inFlight;
+
+		Pending(String input, Session session) {
+			this.input = input;
+			this.session = session;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package com.midlo.backend.integrations.gazetteer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Offline gazetteer of US admin regions, cities and ZIP codes.
+ *
+ * Search keys are ASCII-folded and packed into one sorted byte array with an
+ * offset table, so a prefix query is a binary search plus a short forward scan
+ * and the whole index costs a few bytes per key on the heap.
+ */
+@Component
+public class Gazetteer {
+
+	private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+	// Upper bound on keys scanned per prefix query; keeps very short prefixes
+	// cheap.
+	private static final int MAX_SCAN = 512;
+
+	private final GazetteerEntry[] entries;
+	private final byte[] keyBytes;
+	private final int[] keyOffsets;
+	private final int[] keyEntries;
+
+	private final Counter suggestHits;
+	private final Counter suggestMisses;
+	private final Counter resolveHits;
+	private final Counter resolveMisses;
+
+	public Gazetteer(GazetteerProperties properties, ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+		List<GazetteerEntry> loaded = properties.enabled()
+				? load(resourceLoader.getResource(properties.location()))
+				: List.of();
+		this.entries = loaded.toArray(new GazetteerEntry[0]);
+
+		List<IndexKey> keys = buildKeys(entries);
+		int totalBytes = 0;
+		for (IndexKey k : keys) {
+			totalBytes += k.key.length();
+		}
+		this.keyBytes = new byte[totalBytes];
+		this.keyOffsets = new int[keys.size() + 1];
+		this.keyEntries = new int[keys.size()];
+		int pos = 0;
+		for (int i = 0; i < keys.size(); i++) {
+			byte[] b = keys.get(i).key.getBytes(StandardCharsets.US_ASCII);
+			System.arraycopy(b, 0, keyBytes, pos, b.length);
+			keyOffsets[i] = pos;
+			keyEntries[i] = keys.get(i).entry;
+			pos += b.length;
+		}
+		keyOffsets[keys.size()] = pos;
+
+		this.suggestHits = counter(meterRegistry, "suggest", "hit");
+		this.suggestMisses = counter(meterRegistry, "suggest", "miss");
+		this.resolveHits = counter(meterRegistry, "resolve", "hit");
+		this.resolveMisses = counter(meterRegistry, "resolve", "miss");
+
+		log.info("Gazetteer loaded entries={} keys={} keyBytes={}", entries.length, keys.size(), totalBytes);
+	}
+
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * Entries with a search key starting with the input, most populous first.
+	 */
+	public List<GazetteerEntry> suggest(String input, int limit) {
+		String prefix = normalizeKey(input);
+		if (prefix.length() < 3 || entries.length == 0) {
+			return List.of();
+		}
+
+		byte[] p = prefix.getBytes(StandardCharsets.US_ASCII);
+		Set<Integer> matched = new LinkedHashSet<>();
+		int start = lowerBound(p);
+		int end = Math.min(keyEntries.length, start + MAX_SCAN);
+		for (int i = start; i < end && startsWith(i, p); i++) {
+			matched.add(keyEntries[i]);
+		}
+
+		if (matched.isEmpty()) {
+			suggestMisses.increment();
+			return List.of();
+		}
+		suggestHits.increment();
+		return matched.stream()
+				.map(i -> entries[i])
+				.sorted(Comparator.comparingInt(GazetteerEntry::population).reversed()
+						.thenComparing(GazetteerEntry::description))
+				.limit(limit)
+				.toList();
+	}
+
+	/**
+	 * Resolves an address that is exactly a gazetteer entry ("Austin, TX",
+	 * "78701", a suggestion's own description). Ambiguous names such as
+	 * "Springfield" do not resolve.
+	 */
+	public Optional<GazetteerEntry> resolve(String address) {
+		String key = stripCountry(normalizeKey(address));
+		if (key.isEmpty() || entries.length == 0) {
+			return Optional.empty();
+		}
+
+		byte[] k = key.getBytes(StandardCharsets.US_ASCII);
+		Integer found = null;
+		for (int i = lowerBound(k); i < keyEntries.length && compareKey(i, k) == 0; i++) {
+			if (found != null && found != keyEntries[i]) {
+				resolveMisses.increment();
+				return Optional.empty();
+			}
+			found = keyEntries[i];
+		}
+
+		if (found == null) {
+			resolveMisses.increment();
+			return Optional.empty();
+		}
+		resolveHits.increment();
+		return Optional.of(entries[found]);
+	}
+
+	/**
+	 * Lowercases, folds accents to ASCII and reduces punctuation to single
+	 * spaces: "St. Louis, MO" → "st louis mo".
+	 */
+	static String normalizeKey(String s) {
+		if (s == null) {
+			return "";
+		}
+		String folded = Normalizer.normalize(s, Normalizer.Form.NFD)
+				.replaceAll("\\p{M}+", "")
+				.toLowerCase(Locale.ROOT)
+				.replace(".", "");
+		return folded.replaceAll("[^a-z0-9]+", " ").trim();
+	}
+
+	private static String stripCountry(String key) {
+		for (String suffix : List.of(" united states of america", " united states", " usa", " us")) {
+			if (key.endsWith(suffix)) {
+				return key.substring(0, key.length() - suffix.length());
+			}
+		}
+		return key;
+	}
+
+	private int lowerBound(byte[] target) {
+		int lo = 0;
+		int hi = keyEntries.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compareKey(mid, target) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private int compareKey(int index, byte[] target) {
+		int start = keyOffsets[index];
+		int len = keyOffsets[index + 1] - start;
+		int n = Math.min(len, target.length);
+		for (int i = 0; i < n; i++) {
+			int diff = keyBytes[start + i] - target[i];
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return len - target.length;
+	}
+
+	private boolean startsWith(int index, byte[] prefix) {
+		int start = keyOffsets[index];
+		if (keyOffsets[index + 1] - start < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (keyBytes[start + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<IndexKey> buildKeys(GazetteerEntry[] entries) {
+		Map<String, String> regionNames = new HashMap<>();
+		for (GazetteerEntry e : entries) {
+			if (e.kind() == GazetteerEntry.Kind.REGION) {
+				regionNames.put(e.admin1(), e.name());
+			}
+		}
+
+		Set<IndexKey> keys = new LinkedHashSet<>();
+		for (int i = 0; i < entries.length; i++) {
+			GazetteerEntry e = entries[i];
+			String admin = e.admin1();
+			String region = regionNames.getOrDefault(admin, admin);
+			switch (e.kind()) {
+				case REGION -> keys.add(new IndexKey(normalizeKey(e.name()), i));
+				case CITY -> {
+					for (String name : nameVariants(e.name())) {
+						keys.add(new IndexKey(name, i));
+						keys.add(new IndexKey(name + " " + normalizeKey(admin), i));
+						keys.add(new IndexKey(name + " " + normalizeKey(region), i));
+					}
+				}
+				case POSTAL_CODE -> {
+					keys.add(new IndexKey(e.name(), i));
+					for (String locality : nameVariants(e.locality())) {
+						keys.add(new IndexKey(locality + " " + normalizeKey(admin) + " " + e.name(), i));
+						keys.add(new IndexKey(locality + " " + normalizeKey(region) + " " + e.name(), i));
+					}
+				}
+			}
+		}
+
+		List<IndexKey> sorted = new ArrayList<>(keys);
+		sorted.removeIf(k -> k.key.isEmpty());
+		sorted.sort(Comparator.comparing(IndexKey::key).thenComparingInt(IndexKey::entry));
+		return sorted;
+	}
+
+	private static List<String> nameVariants(String name) {
+		String key = normalizeKey(name);
+		if (key.startsWith("st ")) {
+			return List.of(key, "saint " + key.substring(3));
+		}
+		if (key.startsWith("saint ")) {
+			return List.of(key, "st " + key.substring(6));
+		}
+		return List.of(key);
+	}
+
+	private static List<GazetteerEntry> load(Resource resource) {
+		if (!resource.exists()) {
+			log.warn("Gazetteer dataset not found: {}", resource.getDescription());
+			return List.of();
+		}
+
+		List<GazetteerEntry> out = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			int lineNo = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNo++;
+				if (line.isBlank() || line.startsWith("#")) {
+					continue;
+				}
+				String[] cols = line.split("\t");
+				if (cols.length < 6) {
+					log.warn("Skipping malformed gazetteer line {}", lineNo);
+					continue;
+				}
+				GazetteerEntry.Kind kind = switch (cols[0]) {
+					case "R" -> GazetteerEntry.Kind.REGION;
+					case "C" -> GazetteerEntry.Kind.CITY;
+					case "Z" -> GazetteerEntry.Kind.POSTAL_CODE;
+					default -> null;
+				};
+				if (kind == null || (kind == GazetteerEntry.Kind.POSTAL_CODE && cols.length < 7)) {
+					log.warn("Skipping malformed gazetteer line {}", lineNo);
+					continue;
+				}
+				try {
+					out.add(new GazetteerEntry(
+							kind,
+							cols[1].trim(),
+							cols[2].trim(),
+							cols.length > 6 ? cols[6].trim() : null,
+							Double.parseDouble(cols[3]),
+							Double.parseDouble(cols[4]),
+							Integer.parseInt(cols[5])));
+				} catch (NumberFormatException e) {
+					log.warn("Skipping malformed gazetteer line {}", lineNo);
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Failed to load gazetteer dataset {}", resource.getDescription(), e);
+			return List.of();
+		}
+		return out;
+	}
+
+	private static Counter counter(MeterRegistry registry, String op, String result) {
+		return Counter.builder("midlo.gazetteer.lookups")
+				.tag("op", op)
+				.tag("result", result)
+				.register(registry);
+	}
+
+	private record IndexKey(String key, int entry) {
+	}
+}
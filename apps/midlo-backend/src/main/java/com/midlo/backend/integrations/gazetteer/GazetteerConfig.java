@@ -0,0 +1,9 @@
+package com.midlo.backend.integrations.gazetteer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GazetteerProperties.class)
+public class GazetteerConfig {
+}
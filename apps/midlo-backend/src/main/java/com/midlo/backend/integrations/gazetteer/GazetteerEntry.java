@@ -0,0 +1,42 @@
+package com.midlo.backend.integrations.gazetteer;
+
+import java.util.Locale;
+
+public record GazetteerEntry(
+		Kind kind,
+		String name,
+		String admin1,
+		String locality,
+		double lat,
+		double lng,
+		int population
+) {
+	public enum Kind {
+		REGION,
+		CITY,
+		POSTAL_CODE
+	}
+
+	/**
+	 * Stable synthetic id, so gazetteer suggestions can share the placeId slot
+	 * with Google results.
+	 */
+	public String id() {
+		String slug = (kind == Kind.POSTAL_CODE ? name : name + "-" + admin1)
+				.toLowerCase(Locale.ROOT)
+				.replaceAll("[^a-z0-9]+", "-");
+		return "gz_" + kind.name().toLowerCase(Locale.ROOT) + "_" + slug;
+	}
+
+	/**
+	 * Formatted like Google's descriptions, and resolvable back to this entry by
+	 * {@link Gazetteer#resolve(String)}.
+	 */
+	public String description() {
+		return switch (kind) {
+			case REGION -> name + ", USA";
+			case CITY -> name + ", " + admin1 + ", USA";
+			case POSTAL_CODE -> locality + ", " + admin1 + " " + name + ", USA";
+		};
+	}
+}
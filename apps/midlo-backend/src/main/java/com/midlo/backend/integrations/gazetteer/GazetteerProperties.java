@@ -0,0 +1,14 @@
+package com.midlo.backend.integrations.gazetteer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.gazetteer")
+public record GazetteerProperties(
+		Boolean enabled,
+		String location
+) {
+	public GazetteerProperties {
+		enabled = enabled == null || enabled;
+		location = (location == null || location.isBlank()) ? "classpath:gazetteer/us-places.tsv" : location.trim();
+	}
+}
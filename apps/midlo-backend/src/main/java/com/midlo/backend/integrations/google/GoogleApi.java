@@ -0,0 +1,48 @@
+package com.midlo.backend.integrations.google;
+
+import java.net.URI;
+
+/**
+ * Google endpoints we call, used as a metrics tag. Classified from the request
+ * URI so every RestTemplate can share one interceptor.
+ */
+public enum GoogleApi {
+	PLACES_NEARBY("places_nearby"),
+	PLACES_AUTOCOMPLETE("places_autocomplete"),
+	PLACE_DETAILS("place_details"),
+	PLACE_PHOTO_MEDIA("place_photo_media"),
+	GEOCODING("geocoding"),
+	/** Image bytes from the resolved photo URI (googleusercontent etc.). */
+	PHOTO_CONTENT("photo_content");
+
+	private final String tag;
+
+	GoogleApi(String tag) {
+		this.tag = tag;
+	}
+
+	public String tag() {
+		return tag;
+	}
+
+	public static GoogleApi fromUri(URI uri) {
+		String host = uri.getHost() == null ? "" : uri.getHost();
+		String path = uri.getPath() == null ? "" : uri.getPath();
+		if (host.equals("places.googleapis.com")) {
+			if (path.endsWith("places:searchNearby")) {
+				return PLACES_NEARBY;
+			}
+			if (path.endsWith("places:autocomplete")) {
+				return PLACES_AUTOCOMPLETE;
+			}
+			if (path.endsWith("/media")) {
+				return PLACE_PHOTO_MEDIA;
+			}
+			return PLACE_DETAILS;
+		}
+		if (path.contains("/geocode/")) {
+			return GEOCODING;
+		}
+		return PHOTO_CONTENT;
+	}
+}
@@ -0,0 +1,90 @@
+package com.midlo.backend.integrations.google;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestTemplate interceptor that times every upstream Google call per
+ * {@link GoogleApi}, counts failures and feeds {@link GoogleUsage}.
+ *
+ * Timing stops when response headers arrive; for streamed downloads the body
+ * transfer is not included.
+ */
+@Component
+public class GoogleApiMetrics implements ClientHttpRequestInterceptor {
+
+	private final MeterRegistry meterRegistry;
+	private final GoogleUsage usage;
+
+	public GoogleApiMetrics(MeterRegistry meterRegistry, GoogleUsage usage) {
+		this.meterRegistry = meterRegistry;
+		this.usage = usage;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		GoogleApi api = GoogleApi.fromUri(request.getURI());
+		GoogleCallEvent event = new GoogleCallEvent();
+		event.begin();
+		long start = System.nanoTime();
+		try {
+			ClientHttpResponse response = execution.execute(request, body);
+			// Anything Google answered counts against quota, errors included.
+			usage.recordCall(api);
+			int status = response.getStatusCode().value();
+			commit(event, api, status);
+			String outcome = status >= 500 ? "server_error" : status >= 400 ? "client_error" : "success";
+			record(api, outcome, start);
+			if (status >= 400) {
+				error(api, String.valueOf(status));
+			}
+			return response;
+		} catch (IOException e) {
+			commit(event, api, -1);
+			record(api, "io_error", start);
+			error(api, "io");
+			throw e;
+		}
+	}
+
+	private static void commit(GoogleCallEvent event, GoogleApi api, int status) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.api = api.tag();
+			event.caller = UpstreamCaller.current();
+			event.status = status;
+			event.commit();
+		}
+	}
+
+	private void record(GoogleApi api, String outcome, long startNanos) {
+		Timer.builder("midlo.google.requests")
+				.description("Upstream Google API latency")
+				.tag("api", api.tag())
+				.tag("outcome", outcome)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofMillis(5))
+				.maximumExpectedValue(Duration.ofSeconds(30))
+				.register(meterRegistry)
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private void error(GoogleApi api, String reason) {
+		Counter.builder("midlo.google.errors")
+				.tag("api", api.tag())
+				.tag("reason", reason)
+				.register(meterRegistry)
+				.increment();
+	}
+}
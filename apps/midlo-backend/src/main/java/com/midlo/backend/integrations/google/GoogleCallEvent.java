@@ -0,0 +1,34 @@
+package com.midlo.backend.integrations.google;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One upstream Google call, so recordings show which API and which endpoint
+ * a socket read belongs to. Disabled unless the recording uses the bundled
+ * {@code midlo.jfc} settings.
+ */
+@Name("midlo.GoogleCall")
+@Label("Google API Call")
+@Category({ "Midlo", "Upstream" })
+@Description("Upstream Google API call, from request sent to response headers")
+@Enabled(false)
+@StackTrace(false)
+class GoogleCallEvent extends Event {
+
+	@Label("API")
+	String api;
+
+	@Label("Caller")
+	@Description("Route or background task the call is billed to")
+	String caller;
+
+	@Label("Status")
+	@Description("HTTP status, or -1 on I/O error")
+	int status;
+}
@@ -0,0 +1,162 @@
+package com.midlo.backend.integrations.google;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live count of Google calls per {@link GoogleApi} and per calling endpoint,
+ * plus a rolling window of user requests so the calls-per-request ratio can
+ * be watched for query-plan regressions.
+ *
+ * Every counter is a {@link LongAdder} looked up in a map that only grows
+ * when a new (api, caller) pair first appears, so recording adds no
+ * contention to request threads.
+ */
+public class GoogleUsage {
+
+	private final GoogleUsageProperties properties;
+	private final long startedAtMillis = System.currentTimeMillis();
+	private final Map<GoogleApi, ConcurrentHashMap<String, LongAdder>> calls = new EnumMap<>(GoogleApi.class);
+	private final Window overall;
+	private final ConcurrentHashMap<String, Window> byCaller = new ConcurrentHashMap<>();
+
+	public GoogleUsage(GoogleUsageProperties properties) {
+		this.properties = properties;
+		for (GoogleApi api : GoogleApi.values()) {
+			calls.put(api, new ConcurrentHashMap<>());
+		}
+		this.overall = new Window(properties.windowMinutes());
+	}
+
+	public void recordCall(GoogleApi api) {
+		String caller = UpstreamCaller.current();
+		calls.get(api).computeIfAbsent(caller, k -> new LongAdder()).increment();
+		if (api != GoogleApi.PHOTO_CONTENT) {
+			long minute = currentMinute();
+			overall.calls(minute).increment();
+			window(caller).calls(minute).increment();
+		}
+	}
+
+	public void recordRequest(String route) {
+		long minute = currentMinute();
+		overall.requests(minute).increment();
+		window(route).requests(minute).increment();
+	}
+
+	public long startedAtMillis() {
+		return startedAtMillis;
+	}
+
+	public int windowMinutes() {
+		return properties.windowMinutes();
+	}
+
+	public double usdPer1000(GoogleApi api) {
+		return properties.usdPer1000(api);
+	}
+
+	/**
+	 * Calls since startup for one API, by caller.
+	 */
+	public Map<String, Long> calls(GoogleApi api) {
+		Map<String, Long> out = new TreeMap<>();
+		calls.get(api).forEach((caller, count) -> out.put(caller, count.sum()));
+		return out;
+	}
+
+	/**
+	 * Billable calls and user requests over the rolling window: overall first,
+	 * then per caller.
+	 */
+	public WindowTotals windowTotals() {
+		return overall.totals(currentMinute());
+	}
+
+	public Map<String, WindowTotals> windowTotalsByCaller() {
+		long minute = currentMinute();
+		Map<String, WindowTotals> out = new TreeMap<>();
+		byCaller.forEach((caller, window) -> {
+			WindowTotals totals = window.totals(minute);
+			if (totals.calls() > 0 || totals.requests() > 0) {
+				out.put(caller, totals);
+			}
+		});
+		return out;
+	}
+
+	private Window window(String caller) {
+		return byCaller.computeIfAbsent(caller, k -> new Window(properties.windowMinutes()));
+	}
+
+	private static long currentMinute() {
+		return System.currentTimeMillis() / 60_000;
+	}
+
+	public record WindowTotals(long calls, long requests) {
+		public double callsPerRequest() {
+			return requests == 0 ? 0.0 : (double) calls / requests;
+		}
+	}
+
+	/**
+	 * Ring of per-minute buckets; a bucket is reset the first time it is
+	 * touched in a new minute.
+	 */
+	private static final class Window {
+		private final Bucket[] buckets;
+
+		Window(int minutes) {
+			// One extra bucket so the current partial minute never overwrites
+			// the oldest full one still in the window.
+			this.buckets = new Bucket[minutes + 1];
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new Bucket();
+			}
+		}
+
+		LongAdder calls(long minute) {
+			return bucket(minute).calls;
+		}
+
+		LongAdder requests(long minute) {
+			return bucket(minute).requests;
+		}
+
+		private Bucket bucket(long minute) {
+			Bucket b = buckets[(int) (minute % buckets.length)];
+			if (b.minute != minute) {
+				synchronized (b) {
+					if (b.minute != minute) {
+						b.calls.reset();
+						b.requests.reset();
+						b.minute = minute;
+					}
+				}
+			}
+			return b;
+		}
+
+		WindowTotals totals(long currentMinute) {
+			long oldest = currentMinute - (buckets.length - 1);
+			long calls = 0;
+			long requests = 0;
+			for (Bucket b : buckets) {
+				if (b.minute >= oldest && b.minute <= currentMinute) {
+					calls += b.calls.sum();
+					requests += b.requests.sum();
+				}
+			}
+			return new WindowTotals(calls, requests);
+		}
+	}
+
+	private static final class Bucket {
+		volatile long minute = -1;
+		final LongAdder calls = new LongAdder();
+		final LongAdder requests = new LongAdder();
+	}
+}
@@ -0,0 +1,29 @@
+package com.midlo.backend.integrations.google;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GoogleUsageProperties.class)
+public class GoogleUsageConfig {
+	@Bean
+	public GoogleUsage googleUsage(GoogleUsageProperties properties) {
+		return new GoogleUsage(properties);
+	}
+
+	@Bean
+	public GoogleUsageEndpoint googleUsageEndpoint(GoogleUsage googleUsage, MeterRegistry meterRegistry) {
+		return new GoogleUsageEndpoint(googleUsage, meterRegistry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<GoogleUsageFilter> googleUsageFilter(GoogleUsage googleUsage) {
+		FilterRegistrationBean<GoogleUsageFilter> reg = new FilterRegistrationBean<>();
+		reg.setFilter(new GoogleUsageFilter(googleUsage));
+		reg.setOrder(20);
+		return reg;
+	}
+}
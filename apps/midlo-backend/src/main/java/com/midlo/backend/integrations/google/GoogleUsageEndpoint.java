@@ -0,0 +1,119 @@
+package com.midlo.backend.integrations.google;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/upstream}: Google calls and estimated spend per API and
+ * calling endpoint, calls avoided by each cache or coalescing layer, and the
+ * rolling calls-per-request ratio.
+ *
+ * Avoided calls are read from the meters each layer already registers, so
+ * the layers stay unaware of this endpoint.
+ */
+@Endpoint(id = "upstream")
+public class GoogleUsageEndpoint {
+
+	/** Meter name, tag filters and the tag that names the layer instance. */
+	private record Layer(String label, String meter, List<String> tags, String instanceTag) {
+	}
+
+	private static final List<Layer> LAYERS = List.of(
+			new Layer("cache", "midlo.cache.requests", List.of("result", "hit"), "cache"),
+			new Layer("coalesced", "midlo.cache.coalesced", List.of(), "cache"),
+			new Layer("autocomplete-prefix", "midlo.autocomplete.cache.requests", List.of("result", "hit"), null),
+			new Layer("autocomplete-prefix", "midlo.autocomplete.cache.requests", List.of("result", "prefix_hit"),
+					null),
+			new Layer("autocomplete-superseded", "midlo.autocomplete.superseded", List.of("stage", "queued"), null),
+			new Layer("gazetteer", "midlo.gazetteer.lookups", List.of("result", "hit"), "op"),
+			new Layer("photo-disk", "midlo.photos.disk.requests", List.of("result", "hit"), null));
+
+	private final GoogleUsage usage;
+	private final MeterRegistry meterRegistry;
+
+	public GoogleUsageEndpoint(GoogleUsage usage, MeterRegistry meterRegistry) {
+		this.usage = usage;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@ReadOperation
+	public Map<String, Object> upstream() {
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("since", Instant.ofEpochMilli(usage.startedAtMillis()).toString());
+
+		Map<String, Object> apis = new LinkedHashMap<>();
+		long totalCalls = 0;
+		double totalUsd = 0;
+		for (GoogleApi api : GoogleApi.values()) {
+			Map<String, Long> byCaller = usage.calls(api);
+			long calls = byCaller.values().stream().mapToLong(Long::longValue).sum();
+			double usd = calls * usage.usdPer1000(api) / 1000.0;
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("calls", calls);
+			row.put("usdPer1000", usage.usdPer1000(api));
+			row.put("estimatedUsd", round(usd));
+			row.put("byCaller", byCaller);
+			apis.put(api.tag(), row);
+			totalCalls += calls;
+			totalUsd += usd;
+		}
+		out.put("apis", apis);
+		out.put("totalCalls", totalCalls);
+		out.put("totalEstimatedUsd", round(totalUsd));
+		out.put("avoided", avoided());
+
+		Map<String, Object> window = new LinkedHashMap<>();
+		window.put("minutes", usage.windowMinutes());
+		window.put("overall", totals(usage.windowTotals()));
+		Map<String, Object> byCaller = new LinkedHashMap<>();
+		usage.windowTotalsByCaller().forEach((caller, totals) -> byCaller.put(caller, totals(totals)));
+		window.put("byCaller", byCaller);
+		out.put("window", window);
+		return out;
+	}
+
+	private Map<String, Long> avoided() {
+		Map<String, Long> out = new TreeMap<>();
+		for (Layer layer : LAYERS) {
+			Search search = meterRegistry.find(layer.meter());
+			for (int i = 0; i + 1 < layer.tags().size(); i += 2) {
+				search = search.tag(layer.tags().get(i), layer.tags().get(i + 1));
+			}
+			for (Meter meter : search.meters()) {
+				String instance = layer.instanceTag() == null ? null : meter.getId().getTag(layer.instanceTag());
+				String key = instance == null ? layer.label() : layer.label() + "." + instance;
+				out.merge(key, count(meter), Long::sum);
+			}
+		}
+		return out;
+	}
+
+	private static long count(Meter meter) {
+		for (Measurement m : meter.measure()) {
+			return (long) m.getValue();
+		}
+		return 0;
+	}
+
+	private static Map<String, Object> totals(GoogleUsage.WindowTotals totals) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("calls", totals.calls());
+		row.put("requests", totals.requests());
+		row.put("callsPerRequest", round(totals.callsPerRequest()));
+		return row;
+	}
+
+	private static double round(double v) {
+		return Math.round(v * 1000.0) / 1000.0;
+	}
+}
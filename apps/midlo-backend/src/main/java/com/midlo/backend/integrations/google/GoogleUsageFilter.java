@@ -0,0 +1,43 @@
+package com.midlo.backend.integrations.google;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Counts user requests per matched route, the denominator of the
+ * calls-per-request ratio in {@link GoogleUsage}.
+ */
+public class GoogleUsageFilter extends OncePerRequestFilter {
+	private final GoogleUsage usage;
+
+	public GoogleUsageFilter(GoogleUsage usage) {
+		this.usage = usage;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+		String path = request.getRequestURI();
+		return path == null || path.startsWith("/actuator");
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain) throws ServletException, IOException {
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			String route = UpstreamCaller.route(request);
+			if (!UpstreamCaller.UNMAPPED.equals(route)) {
+				usage.recordRequest(route);
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.midlo.backend.integrations.google;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estimated list price per 1000 calls, keyed by {@link GoogleApi#tag()}.
+ * The defaults are the SKUs our field masks land in; override them when the
+ * masks or the price sheet change.
+ */
+@ConfigurationProperties(prefix = "midlo.google.usage")
+public record GoogleUsageProperties(
+		Map<String, Double> usdPer1000,
+		Integer windowMinutes
+) {
+	public GoogleUsageProperties {
+		Map<String, Double> prices = new LinkedHashMap<>();
+		// Nearby Search Enterprise (the mask includes rating).
+		prices.put(GoogleApi.PLACES_NEARBY.tag(), 35.0);
+		// Autocomplete Requests; sessions that end in a details call are free.
+		prices.put(GoogleApi.PLACES_AUTOCOMPLETE.tag(), 2.83);
+		// Place Details Enterprise (FULL tier); SUMMARY cards cost less.
+		prices.put(GoogleApi.PLACE_DETAILS.tag(), 20.0);
+		prices.put(GoogleApi.PLACE_PHOTO_MEDIA.tag(), 7.0);
+		prices.put(GoogleApi.GEOCODING.tag(), 5.0);
+		// Image bytes from googleusercontent are not billed.
+		prices.put(GoogleApi.PHOTO_CONTENT.tag(), 0.0);
+		if (usdPer1000 != null) {
+			prices.putAll(usdPer1000);
+		}
+		usdPer1000 = Map.copyOf(prices);
+		windowMinutes = (windowMinutes == null || windowMinutes <= 0) ? 15 : windowMinutes;
+	}
+
+	public double usdPer1000(GoogleApi api) {
+		Double price = usdPer1000.get(api.tag());
+		return price == null ? 0.0 : price;
+	}
+}
@@ -0,0 +1,87 @@
+package com.midlo.backend.integrations.google;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.function.Supplier;
+
+/**
+ * Names the caller an upstream Google call is billed to: the matched route
+ * of the current request ("/places", "/place-details", ...), or the label a
+ * background task was started with.
+ *
+ * Work handed to another thread loses the request context; wrap the task
+ * with {@link #wrap(Runnable)} to keep the route of the request that queued
+ * it, or with {@link #as(String, Runnable)} to give it its own label.
+ */
+public final class UpstreamCaller {
+
+	public static final String BACKGROUND = "background";
+	public static final String UNMAPPED = "unmapped";
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private UpstreamCaller() {
+	}
+
+	public static String current() {
+		String label = CURRENT.get();
+		if (label != null) {
+			return label;
+		}
+		RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+		if (attrs instanceof ServletRequestAttributes servlet) {
+			return route(servlet.getRequest());
+		}
+		return BACKGROUND;
+	}
+
+	/**
+	 * The matched handler pattern, so path variables and query strings never
+	 * create new keys.
+	 */
+	public static String route(HttpServletRequest request) {
+		Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return route instanceof String r ? r : UNMAPPED;
+	}
+
+	public static Runnable wrap(Runnable task) {
+		return as(current(), task);
+	}
+
+	public static <T> Supplier<T> wrap(Supplier<T> task) {
+		String caller = current();
+		return () -> {
+			String previous = CURRENT.get();
+			CURRENT.set(caller);
+			try {
+				return task.get();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	public static Runnable as(String caller, Runnable task) {
+		return () -> {
+			String previous = CURRENT.get();
+			CURRENT.set(caller);
+			try {
+				task.run();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	private static void restore(String previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+}
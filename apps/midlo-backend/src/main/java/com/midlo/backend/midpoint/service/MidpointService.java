@@ -1,9 +1,13 @@
 package com.midlo.backend.midpoint.service;
 
+import com.midlo.backend.integrations.gazetteer.Gazetteer;
+import com.midlo.backend.integrations.gazetteer.GazetteerEntry;
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
 import com.midlo.backend.integrations.google.GoogleMapsProperties;
 import com.midlo.backend.midpoint.dto.MidpointRequest;
 import com.midlo.backend.midpoint.dto.MidpointResponse;
 import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -14,6 +18,7 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.zip.CRC32;
 
 import org.springframework.web.client.RestClientException;
@@ -25,11 +30,15 @@ public class MidpointService {
 	private final GoogleMapsProperties googleMapsProperties;
 	private final boolean allowMockGoogle;
 	private final RestTemplate restTemplate;
+	private final Gazetteer gazetteer;
 
-	public MidpointService(GoogleMapsProperties googleMapsProperties, Environment environment) {
+	public MidpointService(GoogleMapsProperties googleMapsProperties, Environment environment, Gazetteer gazetteer,
+			GoogleApiMetrics googleApiMetrics) {
 		this.googleMapsProperties = googleMapsProperties;
+		this.gazetteer = gazetteer;
 		this.allowMockGoogle = Arrays.asList(environment.getActiveProfiles()).contains("local");
 		this.restTemplate = new RestTemplate();
+		this.restTemplate.getInterceptors().add(googleApiMetrics);
 	}
 
 	public MidpointResponse calculateMidpoint(MidpointRequest request) {
@@ -45,6 +54,14 @@ public class MidpointService {
 	private Coordinate geocodeOrThrow(String address) {
 		String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
 		String trimmed = address == null ? "" : address.trim();
+
+		// Whole-city / ZIP inputs resolve offline without a geocode call.
+		Optional<GazetteerEntry> local = gazetteer.resolve(trimmed);
+		if (local.isPresent()) {
+			RequestTrace.mark("geocode", "gazetteer");
+			return new Coordinate(local.get().lat(), local.get().lng());
+		}
+
 		if (apiKey.isBlank()) {
 			if (allowMockGoogle) {
 				return mockCoordinate(trimmed);
@@ -67,7 +84,7 @@ public class MidpointService {
 
 		GeocodeResponse resp;
 		try {
-			resp = restTemplate.getForObject(uri, GeocodeResponse.class);
+			resp = RequestTrace.timed("geocode", "google", () -> restTemplate.getForObject(uri, GeocodeResponse.class));
 		} catch (RestClientException e) {
 			throw new ApiException(HttpStatus.BAD_GATEWAY, "Geocoding service unavailable");
 		}
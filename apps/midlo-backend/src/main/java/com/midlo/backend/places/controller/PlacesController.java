@@ -2,9 +2,16 @@ package com.midlo.backend.places.controller;
 
 import com.midlo.backend.places.dto.PlaceResponse;
 import com.midlo.backend.places.dto.PlacesRequest;
+import com.midlo.backend.places.limit.PlacesLimiter;
+import com.midlo.backend.places.prefetch.PlacesPrefetcher;
+import com.midlo.backend.places.service.PlacesSearchBudget;
+import com.midlo.backend.places.service.PlacesSearchResult;
 import com.midlo.backend.places.service.PlacesService;
+import com.midlo.backend.shared.exception.ApiException;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,14 +21,64 @@ import java.util.List;
 @RestController
 public class PlacesController {
 
+	/** Set when some places came from the stale store: {@code full|partial; age=<seconds>}. */
+	static final String STALE_HEADER = "X-Midlo-Stale";
+
 	private final PlacesService placesService;
+	private final PlacesPrefetcher placesPrefetcher;
+	private final PlacesLimiter placesLimiter;
 
-	public PlacesController(PlacesService placesService) {
+	public PlacesController(PlacesService placesService, PlacesPrefetcher placesPrefetcher,
+			PlacesLimiter placesLimiter) {
 		this.placesService = placesService;
+		this.placesPrefetcher = placesPrefetcher;
+		this.placesLimiter = placesLimiter;
 	}
 
 	@PostMapping(value = "/places", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-	public List<PlaceResponse> places(@Valid @RequestBody PlacesRequest request) {
-		return placesService.getMockPlaces(request);
+	public ResponseEntity<List<PlaceResponse>> places(@Valid @RequestBody PlacesRequest request) {
+		PlacesSearchResult result;
+		PlacesSearchBudget budget;
+		PlacesLimiter.Permit permit;
+		try {
+			permit = placesLimiter.acquire();
+		} catch (ApiException e) {
+			// Shedding: a stored answer beats a 503.
+			PlacesSearchResult stale = e.getStatus() == HttpStatus.SERVICE_UNAVAILABLE
+					? placesService.staleOnly(request, PlacesSearchBudget.MINIMAL)
+					: null;
+			if (stale == null) {
+				throw e;
+			}
+			return respond(stale);
+		}
+		try (permit) {
+			budget = permit.budget();
+			try {
+				result = placesService.search(request, budget);
+			} catch (ApiException e) {
+				if (e.getStatus().is5xxServerError()) {
+					permit.failed();
+				}
+				throw e;
+			}
+			if (result.isStale()) {
+				permit.failed();
+			}
+		}
+		// Prefetching is extra upstream load; skip it while searches are degraded.
+		if (budget == PlacesSearchBudget.FULL && !result.isStale()) {
+			placesPrefetcher.prefetch(result.places());
+		}
+		return respond(result);
+	}
+
+	private static ResponseEntity<List<PlaceResponse>> respond(PlacesSearchResult result) {
+		if (!result.isStale()) {
+			return ResponseEntity.ok(result.places());
+		}
+		return ResponseEntity.ok()
+				.header(STALE_HEADER, result.stale() + "; age=" + result.ageMillis() / 1000)
+				.body(result.places());
 	}
 }
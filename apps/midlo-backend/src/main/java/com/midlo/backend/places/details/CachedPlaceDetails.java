@@ -0,0 +1,51 @@
+package com.midlo.backend.places.details;
+
+/**
+ * A cached details card, the tier it was fetched at, and when its stable and
+ * volatile halves were last fetched from Google. Fields above {@code tier} are
+ * null.
+ */
+record CachedPlaceDetails(
+        PlaceDetailsResponse details,
+        PlaceDetailsTier tier,
+        long stableFetchedAtMillis,
+        long volatileFetchedAtMillis) {
+
+    /**
+     * The payload shape for a caller asking for {@code requested}; the entry
+     * must cover it.
+     */
+    PlaceDetailsView view(PlaceDetailsTier requested) {
+        return switch (requested) {
+            case SUMMARY -> PlaceDetailsSummary.of(details);
+            case STANDARD -> details.withoutPhotos();
+            case FULL -> details;
+        };
+    }
+
+    /**
+     * Rough heap footprint, used to bound the cache by bytes.
+     */
+    long approximateBytes() {
+        PlaceDetailsResponse d = details;
+        long bytes = 160;
+        bytes += stringBytes(d.placeId()) + stringBytes(d.name()) + stringBytes(d.formattedAddress());
+        bytes += stringBytes(d.googleMapsUri()) + stringBytes(d.websiteUri())
+                + stringBytes(d.internationalPhoneNumber());
+        if (d.weekdayDescriptions() != null) {
+            for (String s : d.weekdayDescriptions()) {
+                bytes += stringBytes(s);
+            }
+        }
+        if (d.photos() != null) {
+            for (PlacePhoto p : d.photos()) {
+                bytes += 48 + stringBytes(p.name());
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length() * 2L;
+    }
+}
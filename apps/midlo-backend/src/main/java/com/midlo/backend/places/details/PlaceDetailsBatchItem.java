@@ -0,0 +1,20 @@
+package com.midlo.backend.places.details;
+
+/**
+ * One slot of a batch response: either {@code details} or an HTTP-style
+ * {@code status} plus {@code error}, so one bad id never fails the batch.
+ */
+public record PlaceDetailsBatchItem(
+        String placeId,
+        PlaceDetailsView details,
+        int status,
+        String error) {
+
+    static PlaceDetailsBatchItem ok(String placeId, PlaceDetailsView details) {
+        return new PlaceDetailsBatchItem(placeId, details, 200, null);
+    }
+
+    static PlaceDetailsBatchItem failed(String placeId, int status, String error) {
+        return new PlaceDetailsBatchItem(placeId, null, status, error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.midlo.backend.places.details;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.places.details.batch")
+public record PlaceDetailsBatchProperties(
+        Integer maxSize,
+        Integer maxConcurrency,
+        Integer threads,
+        Duration timeout
+) {
+    public PlaceDetailsBatchProperties {
+        maxSize = (maxSize == null || maxSize <= 0) ? 20 : maxSize;
+        maxConcurrency = (maxConcurrency == null || maxConcurrency <= 0) ? 4 : maxConcurrency;
+        threads = (threads == null || threads <= 0) ? 8 : threads;
+        timeout = (timeout == null || timeout.isNegative() || timeout.isZero()) ? Duration.ofSeconds(10) : timeout;
+    }
+}
@@ -0,0 +1,14 @@
+package com.midlo.backend.places.details;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * @param tier optional {@link PlaceDetailsTier} name; defaults to full
+ */
+public record PlaceDetailsBatchRequest(
+        @NotEmpty List<@NotBlank String> placeIds,
+        String tier) {
+}
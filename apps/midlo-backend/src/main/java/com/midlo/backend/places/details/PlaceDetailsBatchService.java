@@ -0,0 +1,143 @@
+package com.midlo.backend.places.details;
+
+import com.midlo.backend.integrations.google.UpstreamCaller;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves a list of place ids in one call: duplicates are fetched once, cached
+ * cards are answered inline, and the rest are fetched from Google by at most
+ * {@code maxConcurrency} workers per batch on a shared bounded pool.
+ */
+@Service
+public class PlaceDetailsBatchService {
+    private static final Logger log = LoggerFactory.getLogger(PlaceDetailsBatchService.class);
+
+    private final PlaceDetailsService placeDetailsService;
+    private final PlaceDetailsBatchProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public PlaceDetailsBatchService(PlaceDetailsService placeDetailsService, PlaceDetailsBatchProperties properties) {
+        this.placeDetailsService = placeDetailsService;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.threads(),
+                properties.threads(),
+                30,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.threads() * 16),
+                new NamedThreadFactory("details-batch"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public List<PlaceDetailsBatchItem> getPlaceDetailsBatch(List<String> placeIds, PlaceDetailsTier tier) {
+        if (placeIds == null || placeIds.isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Missing placeIds");
+        }
+        if (placeIds.size() > properties.maxSize()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST,
+                    "Too many placeIds (max " + properties.maxSize() + ")");
+        }
+
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String id : placeIds) {
+            unique.add(id == null ? "" : id.trim());
+        }
+
+        Map<String, PlaceDetailsBatchItem> results = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<String> misses = new ConcurrentLinkedQueue<>();
+        for (String id : unique) {
+            if (id.isBlank()) {
+                results.put(id, PlaceDetailsBatchItem.failed(id, HttpStatus.BAD_REQUEST.value(), "Missing placeId"));
+                continue;
+            }
+            PlaceDetailsView cached = placeDetailsService.findCached(id, tier);
+            if (cached != null) {
+                results.put(id, PlaceDetailsBatchItem.ok(id, cached));
+            } else {
+                misses.add(id);
+            }
+        }
+
+        // Each worker drains the shared queue, so fan-out per batch never exceeds
+        // maxConcurrency regardless of batch size.
+        int workers = Math.min(properties.maxConcurrency(), misses.size());
+        List<CompletableFuture<Void>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            try {
+                running.add(CompletableFuture.runAsync(
+                        RequestTrace.wrap(UpstreamCaller.wrap(() -> drain(misses, tier, results))), executor));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        if (running.isEmpty()) {
+            // Pool saturated: fall back to the request thread.
+            drain(misses, tier, results);
+        }
+
+        try {
+            CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0]))
+                    .get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Place details batch timed out after {}", properties.timeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Place details batch worker failed", e.getCause());
+        }
+
+        List<PlaceDetailsBatchItem> ordered = new ArrayList<>(placeIds.size());
+        for (String raw : placeIds) {
+            String id = raw == null ? "" : raw.trim();
+            PlaceDetailsBatchItem item = results.get(id);
+            ordered.add(item != null
+                    ? item
+                    : PlaceDetailsBatchItem.failed(id, HttpStatus.GATEWAY_TIMEOUT.value(), "Place details timed out"));
+        }
+        return ordered;
+    }
+
+    private void drain(
+            ConcurrentLinkedQueue<String> misses,
+            PlaceDetailsTier tier,
+            Map<String, PlaceDetailsBatchItem> results) {
+        String id;
+        while ((id = misses.poll()) != null) {
+            try {
+                results.put(id, PlaceDetailsBatchItem.ok(id, placeDetailsService.getPlaceDetails(id, tier, null)));
+            } catch (ApiException e) {
+                results.put(id, PlaceDetailsBatchItem.failed(id, e.getStatus().value(), e.getMessage()));
+            } catch (RuntimeException e) {
+                log.error("Unhandled exception in place details batch", e);
+                results.put(id, PlaceDetailsBatchItem.failed(id, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                        "Server error"));
+            }
+        }
+    }
+}
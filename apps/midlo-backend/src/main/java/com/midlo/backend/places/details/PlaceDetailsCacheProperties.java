@@ -0,0 +1,39 @@
+package com.midlo.backend.places.details;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Stable fields (name, address, location, phone, website, photos) live for
+ * {@code stableTtl}; opening hours and openNow for {@code volatileTtl}. Past
+ * either TTL the cached card is still served while a background refresh runs,
+ * for up to {@code staleGrace} beyond {@code stableTtl}.
+ *
+ * Responses served from the cache keep their encoded JSON (and its gzip
+ * variant) in a second cache of up to {@code encodedMaxBytes}.
+ */
+@ConfigurationProperties(prefix = "midlo.places.details.cache")
+public record PlaceDetailsCacheProperties(
+        Duration volatileTtl,
+        Duration stableTtl,
+        Duration staleGrace,
+        Integer maxEntries,
+        Long maxBytes,
+        Long encodedMaxBytes,
+        Integer refreshThreads
+) {
+    public PlaceDetailsCacheProperties {
+        volatileTtl = positiveOr(volatileTtl, Duration.ofMinutes(5));
+        stableTtl = positiveOr(stableTtl, Duration.ofHours(24));
+        staleGrace = (staleGrace == null || staleGrace.isNegative()) ? Duration.ofHours(1) : staleGrace;
+        maxEntries = (maxEntries == null || maxEntries <= 0) ? 5_000 : maxEntries;
+        maxBytes = (maxBytes == null || maxBytes <= 0) ? 32L * 1024 * 1024 : maxBytes;
+        encodedMaxBytes = (encodedMaxBytes == null || encodedMaxBytes <= 0) ? 16L * 1024 * 1024 : encodedMaxBytes;
+        refreshThreads = (refreshThreads == null || refreshThreads <= 0) ? 2 : refreshThreads;
+    }
+
+    private static Duration positiveOr(Duration value, Duration fallback) {
+        return (value == null || value.isNegative() || value.isZero()) ? fallback : value;
+    }
+}
@@ -0,0 +1,9 @@
+package com.midlo.backend.places.details;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({ PlaceDetailsCacheProperties.class, PlaceDetailsBatchProperties.class })
+public class PlaceDetailsConfig {
+}
@@ -1,20 +1,106 @@
 package com.midlo.backend.places.details;
 
+import com.midlo.backend.autocomplete.session.AutocompleteSessionService;
+import com.midlo.backend.places.photos.PlacePhotoUrlService;
+import com.midlo.backend.places.prefetch.PlacesPrefetcher;
+import com.midlo.backend.shared.json.EncodedJson;
+import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 public class PlaceDetailsController {
     private final PlaceDetailsService placeDetailsService;
+    private final PlaceDetailsBatchService placeDetailsBatchService;
+    private final AutocompleteSessionService autocompleteSessionService;
+    private final PlacesPrefetcher placesPrefetcher;
+    private final PlacePhotoUrlService placePhotoUrlService;
 
-    public PlaceDetailsController(PlaceDetailsService placeDetailsService) {
+    public PlaceDetailsController(
+            PlaceDetailsService placeDetailsService,
+            PlaceDetailsBatchService placeDetailsBatchService,
+            AutocompleteSessionService autocompleteSessionService,
+            PlacesPrefetcher placesPrefetcher,
+            PlacePhotoUrlService placePhotoUrlService) {
         this.placeDetailsService = placeDetailsService;
+        this.placeDetailsBatchService = placeDetailsBatchService;
+        this.autocompleteSessionService = autocompleteSessionService;
+        this.placesPrefetcher = placesPrefetcher;
+        this.placePhotoUrlService = placePhotoUrlService;
     }
 
+    /**
+     * {@code tier=summary} returns a {@link PlaceDetailsSummary}; standard and
+     * full (the default) return a {@link PlaceDetailsResponse}, standard
+     * without photos.
+     *
+     * {@code photoUrls=K} fills {@link PlacePhoto#url()} for the first K photos
+     * (capped server-side) so the gallery renders without a per-image hop.
+     *
+     * Without photo URLs the body is the card's pre-encoded JSON, gzipped when
+     * the client accepts it and answered with 304 when its ETag still matches.
+     */
     @GetMapping(value = "/places/{placeId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public PlaceDetailsResponse placeDetails(@PathVariable String placeId) {
-        return placeDetailsService.getPlaceDetails(placeId);
+    public ResponseEntity<?> placeDetails(
+            @PathVariable String placeId,
+            @RequestParam(name = "tier", required = false) String tier,
+            @RequestParam(name = "sessionToken", required = false) String sessionToken,
+            @RequestParam(name = "photoUrls", required = false) Integer photoUrls,
+            @RequestParam(name = "photoMaxWidthPx", required = false) Integer photoMaxWidthPx,
+            WebRequest webRequest) {
+        PlaceDetailsTier parsedTier = PlaceDetailsTier.parse(tier);
+        if (photoUrls != null && photoUrls > 0 && parsedTier == PlaceDetailsTier.FULL) {
+            // Photo URLs are built from the request's public base URL (host and
+            // scheme when none is configured), so this variant is encoded each time.
+            PlaceDetailsView details = placeDetailsService.getPlaceDetails(placeId, parsedTier, sessionToken);
+            opened(placeId, sessionToken);
+            if (details instanceof PlaceDetailsResponse full) {
+                details = withPhotoUrls(full, Math.min(photoUrls, placePhotoUrlService.maxPhotos()), photoMaxWidthPx);
+            }
+            return ResponseEntity.ok(details);
+        }
+        EncodedJson json = placeDetailsService.getPlaceDetailsJson(placeId, parsedTier, sessionToken);
+        opened(placeId, sessionToken);
+        return json.respond(webRequest, null);
+    }
+
+    /**
+     * Details for several places in one round trip. Items come back in request
+     * order; failures are reported per item instead of failing the batch.
+     */
+    @PostMapping(value = "/places/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PlaceDetailsBatchItem> placeDetailsBatch(@Valid @RequestBody PlaceDetailsBatchRequest request) {
+        return placeDetailsBatchService.getPlaceDetailsBatch(request.placeIds(), PlaceDetailsTier.parse(request.tier()));
+    }
+
+    private void opened(String placeId, String sessionToken) {
+        placesPrefetcher.recordOpen(placeId);
+        autocompleteSessionService.end(sessionToken);
+    }
+
+    private PlaceDetailsResponse withPhotoUrls(PlaceDetailsResponse details, int count, Integer maxWidthPx) {
+        List<PlacePhoto> photos = details.photos();
+        if (photos == null || photos.isEmpty()) {
+            return details;
+        }
+        int n = Math.min(count, photos.size());
+        List<String> names = photos.subList(0, n).stream().map(PlacePhoto::name).toList();
+        List<String> urls = placePhotoUrlService.resolveUrls(names, maxWidthPx);
+
+        List<PlacePhoto> out = new ArrayList<>(photos);
+        for (int i = 0; i < n; i++) {
+            out.set(i, photos.get(i).withUrl(urls.get(i)));
+        }
+        return details.withPhotos(out);
     }
 }
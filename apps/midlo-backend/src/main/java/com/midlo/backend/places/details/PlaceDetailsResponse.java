@@ -15,5 +15,66 @@ public record PlaceDetailsResponse(
                 String internationalPhoneNumber,
                 Boolean openNow,
                 List<String> weekdayDescriptions,
-                List<PlacePhoto> photos) {
+                List<PlacePhoto> photos) implements PlaceDetailsView {
+
+        public PlaceDetailsResponse withOpeningHours(Boolean openNow, List<String> weekdayDescriptions) {
+                return new PlaceDetailsResponse(
+                                placeId,
+                                name,
+                                formattedAddress,
+                                lat,
+                                lng,
+                                rating,
+                                userRatingCount,
+                                googleMapsUri,
+                                websiteUri,
+                                internationalPhoneNumber,
+                                openNow,
+                                weekdayDescriptions,
+                                photos);
+        }
+
+        PlaceDetailsResponse withoutPhotos() {
+                return photos == null ? this : withPhotos(null);
+        }
+
+        PlaceDetailsResponse withPhotos(List<PlacePhoto> photos) {
+                return new PlaceDetailsResponse(
+                                placeId,
+                                name,
+                                formattedAddress,
+                                lat,
+                                lng,
+                                rating,
+                                userRatingCount,
+                                googleMapsUri,
+                                websiteUri,
+                                internationalPhoneNumber,
+                                openNow,
+                                weekdayDescriptions,
+                                photos);
+        }
+
+        /**
+         * Combines this entry, fetched at tier {@code have}, with {@code delta},
+         * which holds only the fields of the tiers above it.
+         */
+        PlaceDetailsResponse upgradedWith(PlaceDetailsResponse delta, PlaceDetailsTier have) {
+                boolean addStandard = !have.covers(PlaceDetailsTier.STANDARD);
+                boolean addFull = !have.covers(PlaceDetailsTier.FULL);
+                return new PlaceDetailsResponse(
+                                placeId,
+                                name,
+                                addStandard ? delta.formattedAddress() : formattedAddress,
+                                addStandard ? delta.lat() : lat,
+                                addStandard ? delta.lng() : lng,
+                                rating,
+                                userRatingCount,
+                                addStandard ? delta.googleMapsUri() : googleMapsUri,
+                                addStandard ? delta.websiteUri() : websiteUri,
+                                addStandard ? delta.internationalPhoneNumber() : internationalPhoneNumber,
+                                openNow,
+                                addStandard ? delta.weekdayDescriptions() : weekdayDescriptions,
+                                addFull ? delta.photos() : photos);
+        }
 }
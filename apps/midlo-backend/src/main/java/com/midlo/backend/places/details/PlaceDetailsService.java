@@ -1,7 +1,21 @@
 package com.midlo.backend.places.details;
 
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
 import com.midlo.backend.integrations.google.GoogleMapsProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midlo.backend.places.provider.LocalPlaceProvider;
+import com.midlo.backend.places.provider.PlaceCandidate;
+import com.midlo.backend.shared.cache.ExpiringCache;
+import com.midlo.backend.shared.cache.l2.NearCacheManager;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotter;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
 import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.json.EncodedJson;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.core.env.Environment;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -14,34 +28,150 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PlaceDetailsService {
     private final GoogleMapsProperties googleMapsProperties;
+    private final LocalPlaceProvider localPlaceProvider;
     private final boolean allowMockGoogle;
     private final RestTemplate restTemplate;
+    private final PlaceDetailsCacheProperties cacheProperties;
+    private final ExpiringCache<String, CachedPlaceDetails> cache;
+    private final ExpiringCache<String, EncodedDetails> encoded;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Counter staleVolatileServed;
+    private final Counter staleStableServed;
+    private final Counter upgrades;
 
-    public PlaceDetailsService(GoogleMapsProperties googleMapsProperties, Environment environment) {
+    /**
+     * A response body encoded from {@code source}; only valid while that exact
+     * entry is the cached one.
+     */
+    private record EncodedDetails(CachedPlaceDetails source, EncodedJson json) {
+    }
+
+    public PlaceDetailsService(
+            GoogleMapsProperties googleMapsProperties,
+            Environment environment,
+            PlaceDetailsCacheProperties cacheProperties,
+            GoogleApiMetrics googleApiMetrics,
+            MeterRegistry meterRegistry,
+            CacheSnapshotter cacheSnapshotter,
+            NearCacheManager nearCacheManager,
+            ObjectMapper objectMapper,
+            LocalPlaceProvider localPlaceProvider) {
         this.googleMapsProperties = googleMapsProperties;
+        this.localPlaceProvider = localPlaceProvider;
         this.allowMockGoogle = Arrays.asList(environment.getActiveProfiles()).contains("local");
         this.restTemplate = new RestTemplate();
+        this.restTemplate.getInterceptors().add(googleApiMetrics);
+        this.cacheProperties = cacheProperties;
+        this.cache = new ExpiringCache<>(
+                "place-details",
+                cacheProperties.maxEntries(),
+                cacheProperties.maxBytes(),
+                CachedPlaceDetails::approximateBytes,
+                meterRegistry);
+        CacheCodec<String, CachedPlaceDetails> codec = CacheCodec.json(objectMapper, CachedPlaceDetails.class, 1);
+        cacheSnapshotter.register(cache, codec);
+        // Tier upgrades replace entries, which tells other instances to re-read.
+        nearCacheManager.attach(cache, codec);
+        // Derived from the entries above, so neither snapshotted nor shared.
+        this.encoded = new ExpiringCache<>(
+                "place-details-json",
+                cacheProperties.maxEntries(),
+                cacheProperties.encodedMaxBytes(),
+                e -> e.json().approximateBytes(),
+                meterRegistry);
+        this.objectMapper = objectMapper;
+        this.refreshExecutor = new ThreadPoolExecutor(
+                cacheProperties.refreshThreads(),
+                cacheProperties.refreshThreads(),
+                30,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                new NamedThreadFactory("details-refresh"));
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+        this.staleVolatileServed = Counter.builder("midlo.places.details.stale_served")
+                .tag("fields", "volatile")
+                .register(meterRegistry);
+        this.staleStableServed = Counter.builder("midlo.places.details.stale_served")
+                .tag("fields", "stable")
+                .register(meterRegistry);
+        this.upgrades = Counter.builder("midlo.places.details.tier_upgrades")
+                .description("Cached entries extended to a higher tier with a partial fetch")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
     public PlaceDetailsResponse getPlaceDetails(String placeId) {
+        return getPlaceDetails(placeId, null);
+    }
+
+    /**
+     * @param sessionToken Google autocomplete session token; passing it closes
+     *                     the session so the typing and the selection are
+     *                     billed together. May be null.
+     */
+    public PlaceDetailsResponse getPlaceDetails(String placeId, String sessionToken) {
+        return (PlaceDetailsResponse) getPlaceDetails(placeId, PlaceDetailsTier.FULL, sessionToken);
+    }
+
+    /**
+     * Details at the requested tier. A cached entry at a lower tier is upgraded
+     * by fetching only the fields it is missing.
+     */
+    public PlaceDetailsView getPlaceDetails(String placeId, PlaceDetailsTier tier, String sessionToken) {
+        return resolve(placeId, tier, sessionToken).view(tier);
+    }
+
+    /**
+     * Like {@link #getPlaceDetails(String, PlaceDetailsTier, String)}, but as
+     * the encoded response body. Repeat opens of a cached card reuse the bytes
+     * encoded the first time until the entry is refreshed or upgraded.
+     */
+    public EncodedJson getPlaceDetailsJson(String placeId, PlaceDetailsTier tier, String sessionToken) {
+        CachedPlaceDetails cached = resolve(placeId, tier, sessionToken);
+        String key = tier.name() + ':' + placeId;
+        EncodedDetails memo = encoded.get(key);
+        if (memo != null && memo.source() == cached) {
+            return memo.json();
+        }
+        EncodedJson json = EncodedJson.encode(objectMapper, cached.view(tier));
+        // Mock cards (fetched at 0) are already expired and never stored.
+        encoded.putUntil(key, new EncodedDetails(cached, json),
+                cached.stableFetchedAtMillis() + hardTtl().toMillis());
+        return json;
+    }
+
+    private CachedPlaceDetails resolve(String placeId, PlaceDetailsTier tier, String sessionToken) {
         String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
         if (placeId == null || placeId.isBlank()) {
             throw new ApiException(HttpStatus.BAD_REQUEST, "Missing placeId");
         }
+        if (LocalPlaceProvider.isLocalId(placeId)) {
+            return localDetails(placeId);
+        }
 
         if (apiKey.isBlank()) {
             if (allowMockGoogle) {
-                return new PlaceDetailsResponse(
+                PlaceDetailsResponse mock = new PlaceDetailsResponse(
                         placeId,
                         "Mock Place Details",
                         "123 Mock St, Test City",
@@ -55,28 +185,194 @@ public class PlaceDetailsService {
                         null,
                         List.of("Mon–Fri: 9:00 AM – 6:00 PM", "Sat–Sun: 10:00 AM – 4:00 PM"),
                         null);
+                return new CachedPlaceDetails(mock, PlaceDetailsTier.FULL, 0, 0);
             }
             throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE,
                     "Missing GOOGLE_MAPS_API_KEY (Google Maps Platform)");
         }
 
-        String endpoint = "https://places.googleapis.com/v1/places/" + placeId;
+        // Cards are reopened constantly; once cached they are always answered
+        // locally and refreshed in the background when stale.
+        CachedPlaceDetails cached = cache.get(placeId);
+        if (cached == null) {
+            cached = cache.get(placeId, hardTtl(), id -> {
+                Map<String, Object> body = fetch(id, tier.fieldMask(), apiKey, sessionToken);
+                long now = System.currentTimeMillis();
+                return new CachedPlaceDetails(parseDetails(body, id), tier, now, now);
+            });
+        } else if (cached.tier().covers(tier)) {
+            refreshIfStale(placeId, cached, apiKey);
+        }
+
+        if (!cached.tier().covers(tier)) {
+            cached = upgrade(placeId, cached, tier, apiKey, sessionToken);
+        }
+        return cached;
+    }
+
+    /**
+     * OpenStreetMap places only carry a name and a location, so their card is
+     * built from the POI store with a Google Maps link to the coordinates. It
+     * never changes, so it is not cached here; the encoded JSON still is.
+     */
+    private CachedPlaceDetails localDetails(String placeId) {
+        PlaceCandidate place = localPlaceProvider.find(placeId)
+                .orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, "Unknown place " + placeId));
+        String mapsUri = UriComponentsBuilder.fromUriString("https://www.google.com/maps/search/")
+                .queryParam("api", 1)
+                .queryParam("query", place.lat() + "," + place.lng())
+                .toUriString();
+        PlaceDetailsResponse details = new PlaceDetailsResponse(
+                placeId,
+                place.name(),
+                null,
+                place.lat(),
+                place.lng(),
+                null,
+                null,
+                mapsUri,
+                null,
+                null,
+                null,
+                null,
+                null);
+        long now = System.currentTimeMillis();
+        return new CachedPlaceDetails(details, PlaceDetailsTier.FULL, now, now);
+    }
+
+    /**
+     * Returns the cached card without ever calling Google inline (a stale card
+     * still triggers a background refresh), or null when nothing is cached.
+     */
+    public PlaceDetailsResponse findCached(String placeId) {
+        return (PlaceDetailsResponse) findCached(placeId, PlaceDetailsTier.FULL);
+    }
+
+    /**
+     * Like {@link #findCached(String)}, but also null when the cached entry is
+     * below the requested tier.
+     */
+    public PlaceDetailsView findCached(String placeId, PlaceDetailsTier tier) {
+        String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
+        if (placeId == null || placeId.isBlank() || apiKey.isBlank()) {
+            return null;
+        }
+        CachedPlaceDetails cached = cache.get(placeId);
+        if (cached == null || !cached.tier().covers(tier)) {
+            return null;
+        }
+        refreshIfStale(placeId, cached, apiKey);
+        return cached.view(tier);
+    }
+
+    /**
+     * Extends a cached entry to {@code tier}. Concurrent upgrades of one place
+     * share a single partial fetch, and never run alongside a refresh of it.
+     */
+    private CachedPlaceDetails upgrade(
+            String placeId,
+            CachedPlaceDetails cached,
+            PlaceDetailsTier tier,
+            String apiKey,
+            String sessionToken) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            CachedPlaceDetails base = cached;
+            // The upgraded entry keeps the original stable fetch time, so its
+            // expiry does not move.
+            long expiresAt = base.stableFetchedAtMillis() + hardTtl().toMillis();
+            Duration remaining = Duration.ofMillis(Math.max(1, expiresAt - System.currentTimeMillis()));
+            CachedPlaceDetails result = cache.reload(placeId, remaining, id -> {
+                upgrades.increment();
+                return upgraded(id, base, tier, apiKey, sessionToken);
+            });
+            if (result != null && result.tier().covers(tier)) {
+                return result;
+            }
+            // Joined a refresh at the lower tier; upgrade what it stored.
+            if (result != null) {
+                cached = result;
+            }
+        }
+        return upgraded(placeId, cached, tier, apiKey, sessionToken);
+    }
+
+    private CachedPlaceDetails upgraded(
+            String placeId,
+            CachedPlaceDetails base,
+            PlaceDetailsTier tier,
+            String apiKey,
+            String sessionToken) {
+        Map<String, Object> body = fetch(placeId, tier.deltaMask(base.tier()), apiKey, sessionToken);
+        PlaceDetailsResponse merged = base.details().upgradedWith(parseDetails(body, placeId), base.tier());
+        return new CachedPlaceDetails(merged, tier, base.stableFetchedAtMillis(), base.volatileFetchedAtMillis());
+    }
+
+    private void refreshIfStale(String placeId, CachedPlaceDetails cached, String apiKey) {
+        long now = System.currentTimeMillis();
+        PlaceDetailsTier tier = cached.tier();
+        if (now - cached.stableFetchedAtMillis() >= cacheProperties.stableTtl().toMillis()) {
+            staleStableServed.increment();
+            cache.refreshAsync(placeId, hardTtl(), id -> {
+                // Another instance may have upgraded the entry since.
+                CachedPlaceDetails current = cache.peek(id);
+                PlaceDetailsTier target = current != null && current.tier().covers(tier) ? current.tier() : tier;
+                Map<String, Object> body = fetch(id, target.fieldMask(), apiKey, null);
+                long fetchedAt = System.currentTimeMillis();
+                return new CachedPlaceDetails(parseDetails(body, id), target, fetchedAt, fetchedAt);
+            }, refreshExecutor);
+            return;
+        }
+
+        if (now - cached.volatileFetchedAtMillis() >= cacheProperties.volatileTtl().toMillis()) {
+            staleVolatileServed.increment();
+            // Only opening hours go stale quickly; keep the stable fields' expiry.
+            long expiresAt = cached.stableFetchedAtMillis() + hardTtl().toMillis();
+            Duration remaining = Duration.ofMillis(Math.max(1, expiresAt - now));
+            cache.refreshAsync(placeId, remaining, id -> {
+                Map<String, Object> body = fetch(id, tier.volatileFieldMask(), apiKey, null);
+                // Apply the hours to whatever is current, so an entry upgraded
+                // meanwhile (e.g. by another instance) keeps its tier.
+                CachedPlaceDetails current = cache.peek(id);
+                CachedPlaceDetails base = current != null && current.tier().covers(tier) ? current : cached;
+                PlaceDetailsResponse refreshed = base.details().withOpeningHours(
+                        parseOpenNow(body),
+                        tier == PlaceDetailsTier.SUMMARY
+                                ? base.details().weekdayDescriptions()
+                                : parseWeekdayDescriptions(body));
+                return new CachedPlaceDetails(refreshed, base.tier(), base.stableFetchedAtMillis(),
+                        System.currentTimeMillis());
+            }, refreshExecutor);
+        }
+    }
+
+    private Duration hardTtl() {
+        return cacheProperties.stableTtl().plus(cacheProperties.staleGrace());
+    }
+
+    private Map<String, Object> fetch(String placeId, String fieldMask, String apiKey, String sessionToken) {
+        String base = "https://places.googleapis.com/v1/places/" + placeId;
+        String endpoint = sessionToken == null || sessionToken.isBlank()
+                ? base
+                : UriComponentsBuilder.fromUriString(base)
+                        .queryParam("sessionToken", sessionToken)
+                        .encode()
+                        .toUriString();
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("X-Goog-Api-Key", apiKey);
         headers.set(
                 "X-Goog-FieldMask",
-                "id,displayName,formattedAddress,location,rating,userRatingCount,googleMapsUri,websiteUri,internationalPhoneNumber,currentOpeningHours,regularOpeningHours,photos");
+                fieldMask);
 
         ResponseEntity<Map<String, Object>> resp;
         try {
-            resp = restTemplate.exchange(
+            resp = RequestTrace.timed("details", "google", () -> restTemplate.exchange(
                     endpoint,
                     Objects.requireNonNull(HttpMethod.GET),
                     new HttpEntity<>(headers),
                     new ParameterizedTypeReference<>() {
-                    });
+                    }));
         } catch (HttpStatusCodeException e) {
             String details = e.getResponseBodyAsString() == null ? "" : e.getResponseBodyAsString().trim();
             String suffix = details.isBlank() ? "" : " - " + details;
@@ -89,7 +385,10 @@ public class PlaceDetailsService {
         if (body == null) {
             throw new ApiException(HttpStatus.BAD_GATEWAY, "Place details returned empty response");
         }
+        return body;
+    }
 
+    private static PlaceDetailsResponse parseDetails(Map<String, Object> body, String placeId) {
         String id = body.get("id") instanceof String s ? s : placeId;
         String name = null;
         Object displayNameObj = body.get("displayName");
@@ -118,6 +417,46 @@ public class PlaceDetailsService {
         String websiteUri = body.get("websiteUri") instanceof String s ? s : null;
         String phone = body.get("internationalPhoneNumber") instanceof String s ? s : null;
 
+        Boolean openNow = parseOpenNow(body);
+        List<String> weekdayDescriptions = parseWeekdayDescriptions(body);
+
+        List<PlacePhoto> photos = null;
+        Object photosObj = body.get("photos");
+        if (photosObj instanceof List<?> list) {
+            List<PlacePhoto> out = new ArrayList<>();
+            for (Object item : list) {
+                if (!(item instanceof Map<?, ?> photoMap))
+                    continue;
+                Object nameObj = photoMap.get("name");
+                String photoName = nameObj instanceof String s ? s : null;
+                Integer widthPx = photoMap.get("widthPx") instanceof Number n ? n.intValue() : null;
+                Integer heightPx = photoMap.get("heightPx") instanceof Number n ? n.intValue() : null;
+                if (photoName == null || photoName.isBlank())
+                    continue;
+                out.add(new PlacePhoto(photoName, widthPx, heightPx));
+            }
+            if (!out.isEmpty()) {
+                photos = out;
+            }
+        }
+
+        return new PlaceDetailsResponse(
+                id,
+                name,
+                formattedAddress,
+                lat,
+                lng,
+                rating,
+                userRatingCount,
+                googleMapsUri,
+                websiteUri,
+                phone,
+                openNow,
+                weekdayDescriptions,
+                photos);
+    }
+
+    private static Boolean parseOpenNow(Map<String, Object> body) {
         Boolean openNow = null;
         Object currentOpeningObj = body.get("currentOpeningHours");
         if (currentOpeningObj instanceof Map<?, ?> cohMap) {
@@ -126,7 +465,11 @@ public class PlaceDetailsService {
                 openNow = b;
             }
         }
+        return openNow;
+    }
 
+    private static List<String> parseWeekdayDescriptions(Map<String, Object> body) {
+        Object currentOpeningObj = body.get("currentOpeningHours");
         List<String> weekdayDescriptions = null;
         Object regularOpeningObj = body.get("regularOpeningHours");
         if (regularOpeningObj instanceof Map<?, ?> rohMap) {
@@ -163,40 +506,6 @@ public class PlaceDetailsService {
                 }
             }
         }
-
-        List<PlacePhoto> photos = null;
-        Object photosObj = body.get("photos");
-        if (photosObj instanceof List<?> list) {
-            List<PlacePhoto> out = new ArrayList<>();
-            for (Object item : list) {
-                if (!(item instanceof Map<?, ?> photoMap))
-                    continue;
-                Object nameObj = photoMap.get("name");
-                String photoName = nameObj instanceof String s ? s : null;
-                Integer widthPx = photoMap.get("widthPx") instanceof Number n ? n.intValue() : null;
-                Integer heightPx = photoMap.get("heightPx") instanceof Number n ? n.intValue() : null;
-                if (photoName == null || photoName.isBlank())
-                    continue;
-                out.add(new PlacePhoto(photoName, widthPx, heightPx));
-            }
-            if (!out.isEmpty()) {
-                photos = out;
-            }
-        }
-
-        return new PlaceDetailsResponse(
-                id,
-                name,
-                formattedAddress,
-                lat,
-                lng,
-                rating,
-                userRatingCount,
-                googleMapsUri,
-                websiteUri,
-                phone,
-                openNow,
-                weekdayDescriptions,
-                photos);
+        return weekdayDescriptions;
     }
 }
@@ -0,0 +1,21 @@
+package com.midlo.backend.places.details;
+
+/**
+ * {@link PlaceDetailsTier#SUMMARY} shape: just enough for a list badge.
+ */
+public record PlaceDetailsSummary(
+        String placeId,
+        String name,
+        Double rating,
+        Integer userRatingCount,
+        Boolean openNow) implements PlaceDetailsView {
+
+    static PlaceDetailsSummary of(PlaceDetailsResponse details) {
+        return new PlaceDetailsSummary(
+                details.placeId(),
+                details.name(),
+                details.rating(),
+                details.userRatingCount(),
+                details.openNow());
+    }
+}
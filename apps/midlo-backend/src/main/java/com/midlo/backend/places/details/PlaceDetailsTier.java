@@ -0,0 +1,85 @@
+package com.midlo.backend.places.details;
+
+import com.midlo.backend.shared.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How much of a place a caller needs. Each tier adds fields on top of the one
+ * below it, so a cached entry can be upgraded by fetching only the difference.
+ *
+ * Masks name sub-fields ({@code currentOpeningHours.openNow}) rather than whole
+ * objects: the opening-hours objects carry every period of the week and are by
+ * far the largest part of a details payload.
+ */
+public enum PlaceDetailsTier {
+    /** List badge: name, rating, review count and whether it is open now. */
+    SUMMARY(List.of("displayName", "rating", "userRatingCount", "currentOpeningHours.openNow")),
+    /** Card without photos. */
+    STANDARD(List.of("formattedAddress", "location", "googleMapsUri", "websiteUri", "internationalPhoneNumber",
+            "regularOpeningHours.weekdayDescriptions", "currentOpeningHours.weekdayDescriptions")),
+    /** Everything the details card shows. */
+    FULL(List.of("photos"));
+
+    private final List<String> ownFields;
+
+    PlaceDetailsTier(List<String> ownFields) {
+        this.ownFields = ownFields;
+    }
+
+    public boolean covers(PlaceDetailsTier other) {
+        return compareTo(other) >= 0;
+    }
+
+    /**
+     * Field mask for everything up to and including this tier.
+     */
+    String fieldMask() {
+        return deltaMask(null);
+    }
+
+    /**
+     * Field mask for the fields this tier needs that {@code have} does not
+     * already carry. {@code have} may be null for a cold fetch.
+     */
+    String deltaMask(PlaceDetailsTier have) {
+        List<String> fields = new ArrayList<>();
+        fields.add("id");
+        for (PlaceDetailsTier t : values()) {
+            if (t.compareTo(this) > 0) {
+                break;
+            }
+            if (have == null || t.compareTo(have) > 0) {
+                fields.addAll(t.ownFields);
+            }
+        }
+        return String.join(",", fields);
+    }
+
+    /**
+     * Opening-hours fields refreshed on the short volatile TTL.
+     */
+    String volatileFieldMask() {
+        return this == SUMMARY
+                ? "id,currentOpeningHours.openNow"
+                : "id,currentOpeningHours.openNow,currentOpeningHours.weekdayDescriptions,regularOpeningHours.weekdayDescriptions";
+    }
+
+    /**
+     * Parses a {@code tier} request parameter; missing means {@link #FULL} so
+     * existing clients keep their response shape.
+     */
+    public static PlaceDetailsTier parse(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid tier (expected summary, standard or full)");
+        }
+    }
+}
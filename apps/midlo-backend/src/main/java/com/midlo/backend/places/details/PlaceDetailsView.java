@@ -0,0 +1,9 @@
+package com.midlo.backend.places.details;
+
+/**
+ * A place details payload at some {@link PlaceDetailsTier}.
+ */
+public sealed interface PlaceDetailsView permits PlaceDetailsSummary, PlaceDetailsResponse {
+
+    String placeId();
+}
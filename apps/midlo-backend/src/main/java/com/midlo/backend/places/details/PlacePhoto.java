@@ -1,7 +1,22 @@
 package com.midlo.backend.places.details;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * @param url ready-to-load image URL, only set when the caller asked for
+ *            resolved photo URLs; omitted from the JSON otherwise
+ */
 public record PlacePhoto(
         String name,
         Integer widthPx,
-        Integer heightPx) {
+        Integer heightPx,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String url) {
+
+    public PlacePhoto(String name, Integer widthPx, Integer heightPx) {
+        this(name, widthPx, heightPx, null);
+    }
+
+    PlacePhoto withUrl(String url) {
+        return new PlacePhoto(name, widthPx, heightPx, url);
+    }
 }
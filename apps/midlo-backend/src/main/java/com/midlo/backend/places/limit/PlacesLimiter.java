@@ -0,0 +1,178 @@
+package com.midlo.backend.places.limit;
+
+import com.midlo.backend.places.service.PlacesSearchBudget;
+import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive concurrency limit for {@code /places} searches, each of which can
+ * fan out into dozens of Google calls.
+ *
+ * The limit follows AIMD on observed search latency: every search that
+ * finishes under {@code latencyTarget} adds {@code 1/limit} (about +1 per
+ * round of searches); a slow or failed search multiplies it by
+ * {@code backoffRatio}, at most once per target interval so a burst of slow
+ * completions counts as one signal. Only searches that started while the
+ * limit was at least half used count either way: at low load a slow search
+ * is a slow upstream or a big area, not contention the limit could relieve.
+ *
+ * Admission degrades before it refuses. As in-flight searches fill the limit,
+ * new searches get a smaller {@link PlacesSearchBudget}: fewer upstream calls,
+ * then no fallback-center pass, then a shorter result list. Only a search that
+ * would exceed the limit is shed with 503 and {@code Retry-After}. Degraded
+ * searches finish sooner, which in turn lets the limit recover.
+ */
+@Component
+public class PlacesLimiter {
+
+	private final PlacesLimiterProperties properties;
+	private final long targetNanos;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final Map<PlacesSearchBudget, LongAdder> admitted = new EnumMap<>(PlacesSearchBudget.class);
+	private final LongAdder shed = new LongAdder();
+	private final LongAdder decreases = new LongAdder();
+	private final String retryAfterSeconds;
+
+	private volatile double limit;
+	private long lastDecreaseNanos;
+
+	public PlacesLimiter(PlacesLimiterProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.targetNanos = properties.latencyTarget().toNanos();
+		this.limit = properties.initialLimit();
+		this.lastDecreaseNanos = System.nanoTime() - targetNanos;
+		this.retryAfterSeconds = Long.toString(Math.max(1, (properties.retryAfter().toMillis() + 999) / 1000));
+
+		Gauge.builder("midlo.places.limiter.limit", this, PlacesLimiter::limit)
+				.description("Current adaptive concurrency limit for /places searches")
+				.register(meterRegistry);
+		Gauge.builder("midlo.places.limiter.inflight", inflight, AtomicInteger::get)
+				.register(meterRegistry);
+		for (PlacesSearchBudget budget : PlacesSearchBudget.values()) {
+			LongAdder counter = new LongAdder();
+			admitted.put(budget, counter);
+			FunctionCounter.builder("midlo.places.limiter.requests", counter, LongAdder::sum)
+					.tag("budget", budget.label())
+					.register(meterRegistry);
+		}
+		FunctionCounter.builder("midlo.places.limiter.requests", shed, LongAdder::sum)
+				.tag("budget", "shed")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.places.limiter.decreases", decreases, LongAdder::sum)
+				.description("Multiplicative limit decreases after slow or failed searches")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Admits a search and picks its budget, or throws 503 when the limit is
+	 * full. The permit must be closed when the search ends.
+	 */
+	public Permit acquire() {
+		if (!properties.enabled()) {
+			return new Permit(PlacesSearchBudget.FULL, 0, false);
+		}
+		int current = limit();
+		int n = inflight.incrementAndGet();
+		if (n > current) {
+			inflight.decrementAndGet();
+			shed.increment();
+			RequestTrace.mark("limiter", "shed " + n + "/" + current);
+			HttpHeaders headers = new HttpHeaders();
+			headers.set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+			throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Too many searches in progress, retry shortly",
+					headers);
+		}
+		PlacesSearchBudget budget = budgetFor(n, current);
+		admitted.get(budget).increment();
+		RequestTrace.mark("limiter", budget.label() + " " + n + "/" + current);
+		return new Permit(budget, n, true);
+	}
+
+	public int limit() {
+		return (int) limit;
+	}
+
+	public int inflight() {
+		return inflight.get();
+	}
+
+	static PlacesSearchBudget budgetFor(int inflight, int limit) {
+		double utilization = (double) inflight / limit;
+		if (utilization > 0.9) {
+			return PlacesSearchBudget.MINIMAL;
+		}
+		if (utilization > 0.75) {
+			return PlacesSearchBudget.NO_FALLBACK;
+		}
+		if (utilization > 0.5) {
+			return PlacesSearchBudget.REDUCED;
+		}
+		return PlacesSearchBudget.FULL;
+	}
+
+	synchronized void onSample(long latencyNanos, boolean failed, int inflightAtStart, long nowNanos) {
+		double current = limit;
+		// A lightly loaded service says nothing about capacity either way.
+		if (inflightAtStart * 2 < current) {
+			return;
+		}
+		if (failed || latencyNanos > targetNanos) {
+			if (nowNanos - lastDecreaseNanos >= targetNanos) {
+				limit = Math.max(properties.minLimit(), current * properties.backoffRatio());
+				lastDecreaseNanos = nowNanos;
+				decreases.increment();
+			}
+			return;
+		}
+		limit = Math.min(properties.maxLimit(), current + 1.0 / current);
+	}
+
+	public final class Permit implements AutoCloseable {
+		private final PlacesSearchBudget budget;
+		private final int inflightAtStart;
+		private final boolean tracked;
+		private final long startNanos = System.nanoTime();
+		private boolean failed;
+		private boolean closed;
+
+		private Permit(PlacesSearchBudget budget, int inflightAtStart, boolean tracked) {
+			this.budget = budget;
+			this.inflightAtStart = inflightAtStart;
+			this.tracked = tracked;
+		}
+
+		public PlacesSearchBudget budget() {
+			return budget;
+		}
+
+		/**
+		 * Marks the search as failed upstream (5xx), which counts as an overload
+		 * signal. Client errors should not be reported.
+		 */
+		public void failed() {
+			this.failed = true;
+		}
+
+		@Override
+		public void close() {
+			if (!tracked || closed) {
+				return;
+			}
+			closed = true;
+			inflight.decrementAndGet();
+			long now = System.nanoTime();
+			onSample(now - startNanos, failed, inflightAtStart, now);
+		}
+	}
+}
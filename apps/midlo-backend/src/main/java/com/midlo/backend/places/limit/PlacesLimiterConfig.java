@@ -0,0 +1,9 @@
+package com.midlo.backend.places.limit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PlacesLimiterProperties.class)
+public class PlacesLimiterConfig {
+}
@@ -0,0 +1,31 @@
+package com.midlo.backend.places.limit;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.places.limiter")
+public record PlacesLimiterProperties(
+		Boolean enabled,
+		Integer initialLimit,
+		Integer minLimit,
+		Integer maxLimit,
+		Duration latencyTarget,
+		Double backoffRatio,
+		Duration retryAfter
+) {
+	public PlacesLimiterProperties {
+		enabled = enabled == null || enabled;
+		minLimit = (minLimit == null || minLimit <= 0) ? 4 : minLimit;
+		maxLimit = (maxLimit == null || maxLimit < minLimit) ? Math.max(64, minLimit) : maxLimit;
+		initialLimit = (initialLimit == null || initialLimit <= 0) ? 20 : initialLimit;
+		initialLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		latencyTarget = (latencyTarget == null || latencyTarget.isNegative() || latencyTarget.isZero())
+				? Duration.ofSeconds(3)
+				: latencyTarget;
+		backoffRatio = (backoffRatio == null || backoffRatio <= 0 || backoffRatio >= 1) ? 0.8 : backoffRatio;
+		retryAfter = (retryAfter == null || retryAfter.isNegative() || retryAfter.isZero())
+				? Duration.ofSeconds(2)
+				: retryAfter;
+	}
+}
@@ -0,0 +1,309 @@
+package com.midlo.backend.places.photos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded LRU cache of photo files on local disk.
+ *
+ * Files are named by the SHA-256 of their key with the image type as the
+ * extension, so the index can be rebuilt from a directory listing after a
+ * restart. Downloads are single-flight per key and land via temp file plus
+ * rename, so readers never see a partial image.
+ *
+ * Every lookup pins the returned file for {@link #PIN_MILLIS}, which covers the
+ * gap between handing its path to the response and the file being opened
+ * (Tomcat opens sendfile bodies only after the servlet returns). Eviction skips
+ * pinned files; once a file is open, deleting it no longer affects the reader.
+ */
+final class PhotoDiskCache {
+    private static final Logger log = LoggerFactory.getLogger(PhotoDiskCache.class);
+
+    static final long PIN_MILLIS = 60_000;
+
+    /**
+     * Writes the photo for a key into {@code target} and returns its content
+     * type.
+     */
+    interface Loader {
+        String load(Path target) throws IOException;
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long pinMillis;
+    private final ConcurrentHashMap<String, Node> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<PhotoFile>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    PhotoDiskCache(Path directory, long maxBytes, MeterRegistry meterRegistry) {
+        this(directory, maxBytes, PIN_MILLIS, meterRegistry);
+    }
+
+    PhotoDiskCache(Path directory, long maxBytes, long pinMillis, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.pinMillis = pinMillis;
+        this.hits = Counter.builder("midlo.photos.disk.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("midlo.photos.disk.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("midlo.photos.disk.evictions").register(meterRegistry);
+        Gauge.builder("midlo.photos.disk.bytes", totalBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("midlo.photos.disk.files", index, Map::size).register(meterRegistry);
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create photo cache directory " + directory, e);
+        }
+        rebuildIndex();
+    }
+
+    PhotoFile get(String key, Loader loader) {
+        String hash = hash(key);
+        Node node = index.get(hash);
+        long now = System.currentTimeMillis();
+        if (node != null && node.pin(now + pinMillis) && Files.isRegularFile(node.file.path())) {
+            node.lastAccessMillis = now;
+            hits.increment();
+            return node.file;
+        }
+        if (node != null && index.remove(hash, node)) {
+            totalBytes.addAndGet(-node.file.size());
+        }
+        misses.increment();
+
+        CompletableFuture<PhotoFile> mine = new CompletableFuture<>();
+        CompletableFuture<PhotoFile> existing = inFlight.putIfAbsent(hash, mine);
+        if (existing != null) {
+            return join(existing);
+        }
+        PhotoFile file = null;
+        Throwable failure = null;
+        try {
+            file = store(hash, loader);
+        } catch (IOException e) {
+            failure = new UncheckedIOException(e);
+        } catch (Throwable e) {
+            // Errors too: concurrent requesters must never wait on a future nobody completes.
+            failure = e;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+        if (failure == null) {
+            mine.complete(file);
+        } else {
+            mine.completeExceptionally(failure);
+        }
+        return join(mine);
+    }
+
+    long totalBytes() {
+        return totalBytes.get();
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    private PhotoFile store(String hash, Loader loader) throws IOException {
+        Path tmp = Files.createTempFile(directory, hash, ".part");
+        try {
+            String contentType = loader.load(tmp);
+            Path target = directory.resolve(hash + "." + extensionFor(contentType));
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long size = Files.size(target);
+            PhotoFile file = new PhotoFile(target, size, contentTypeFor(target), "\"" + hash.substring(0, 32) + "\"");
+            long now = System.currentTimeMillis();
+            Node node = new Node(file, now);
+            node.pin(now + pinMillis);
+            add(hash, node);
+            return file;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void add(String hash, Node node) {
+        Node previous = index.put(hash, node);
+        totalBytes.addAndGet(node.file.size() - (previous == null ? 0 : previous.file.size()));
+        if (totalBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long target = (long) (maxBytes * 0.9);
+            long now = System.currentTimeMillis();
+            List<Map.Entry<String, Node>> entries = new ArrayList<>(index.entrySet());
+            entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccessMillis));
+            for (Map.Entry<String, Node> e : entries) {
+                if (totalBytes.get() <= target) {
+                    break;
+                }
+                Node node = e.getValue();
+                if (node.deleteUnlessPinned(now) && index.remove(e.getKey(), node)) {
+                    totalBytes.addAndGet(-node.file.size());
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void rebuildIndex() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(".part")) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                int dot = fileName.indexOf('.');
+                if (dot != 64) {
+                    continue;
+                }
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                String hash = fileName.substring(0, dot);
+                PhotoFile file = new PhotoFile(path, attrs.size(), contentTypeFor(path),
+                        "\"" + hash.substring(0, 32) + "\"");
+                add(hash, new Node(file, attrs.lastModifiedTime().toMillis()));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to index photo cache directory {}", directory, e);
+        }
+        log.info("Photo disk cache ready files={} bytes={} dir={}", index.size(), totalBytes.get(), directory);
+    }
+
+    private static String extensionFor(String contentType) {
+        String ct = contentType == null ? "" : contentType.toLowerCase();
+        if (ct.startsWith("image/jpeg")) {
+            return "jpg";
+        }
+        if (ct.startsWith("image/png")) {
+            return "png";
+        }
+        if (ct.startsWith("image/webp")) {
+            return "webp";
+        }
+        if (ct.startsWith("image/gif")) {
+            return "gif";
+        }
+        return "bin";
+    }
+
+    private static String contentTypeFor(Path path) {
+        String name = path.getFileName().toString();
+        String ext = name.substring(name.lastIndexOf('.') + 1);
+        return switch (ext) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            case "gif" -> "image/gif";
+            default -> "application/octet-stream";
+        };
+    }
+
+    static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PhotoFile join(CompletableFuture<PhotoFile> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Node {
+        final PhotoFile file;
+        volatile long lastAccessMillis;
+        // Guarded by this, so a file is never deleted between being pinned
+        // and being handed out.
+        private long pinnedUntilMillis;
+        private boolean deleted;
+
+        Node(PhotoFile file, long lastAccessMillis) {
+            this.file = file;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+
+        /**
+         * @return false if the file has already been evicted
+         */
+        synchronized boolean pin(long untilMillis) {
+            if (deleted) {
+                return false;
+            }
+            pinnedUntilMillis = Math.max(pinnedUntilMillis, untilMillis);
+            return true;
+        }
+
+        synchronized boolean deleteUnlessPinned(long nowMillis) {
+            if (deleted || pinnedUntilMillis > nowMillis) {
+                return false;
+            }
+            deleted = true;
+            // A response already streaming this file keeps its open handle;
+            // on POSIX the data stays readable until closed.
+            try {
+                Files.deleteIfExists(file.path());
+            } catch (IOException e) {
+                log.warn("Failed to delete cached photo {}", file.path(), e);
+            }
+            return true;
+        }
+    }
+}
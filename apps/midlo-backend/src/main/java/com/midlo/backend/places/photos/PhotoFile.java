@@ -0,0 +1,10 @@
+package com.midlo.backend.places.photos;
+
+import java.nio.file.Path;
+
+/**
+ * A photo stored in the disk cache. Files are immutable once written, so the
+ * ETag is derived from the cache key.
+ */
+record PhotoFile(Path path, long size, String contentType, String etag) {
+}
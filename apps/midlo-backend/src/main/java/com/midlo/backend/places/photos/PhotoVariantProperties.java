@@ -0,0 +1,40 @@
+package com.midlo.backend.places.photos;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Photo size ladder. Requested sizes snap up to the nearest width; the largest
+ * width is the canonical size fetched from Google, and the rest are derived
+ * from it locally when the photo proxy is enabled. Requests above the largest
+ * width are not snapped.
+ */
+@ConfigurationProperties(prefix = "midlo.places.photos.variants")
+public record PhotoVariantProperties(
+        Boolean enabled,
+        List<Integer> widths,
+        Float jpegQuality,
+        Integer threads,
+        Integer queueCapacity,
+        Duration timeout) {
+
+    public PhotoVariantProperties {
+        enabled = enabled == null || enabled;
+        widths = (widths == null || widths.isEmpty())
+                ? List.of(160, 320, 640, 1200)
+                : widths.stream().filter(w -> w != null && w > 0 && w <= 2000).distinct().sorted().toList();
+        if (widths.isEmpty()) {
+            widths = List.of(1200);
+        }
+        jpegQuality = (jpegQuality == null || jpegQuality <= 0 || jpegQuality > 1) ? 0.82f : jpegQuality;
+        threads = (threads == null || threads <= 0) ? 2 : threads;
+        queueCapacity = (queueCapacity == null || queueCapacity <= 0) ? 32 : queueCapacity;
+        timeout = (timeout == null || timeout.isNegative() || timeout.isZero()) ? Duration.ofSeconds(5) : timeout;
+    }
+
+    public int canonicalWidth() {
+        return widths.get(widths.size() - 1);
+    }
+}
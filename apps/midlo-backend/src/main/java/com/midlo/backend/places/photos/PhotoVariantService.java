@@ -0,0 +1,205 @@
+package com.midlo.backend.places.photos;
+
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Snaps requested photo sizes onto a fixed width ladder and derives the
+ * smaller rungs from the canonical image.
+ *
+ * Decoding and scaling run on a small bounded pool so a burst of cold
+ * thumbnails cannot take every CPU or fill the heap with decoded bitmaps.
+ */
+@Service
+public class PhotoVariantService {
+    private final PhotoVariantProperties properties;
+    private final ThreadPoolExecutor pool;
+    private final Counter generated;
+
+    public PhotoVariantService(PhotoVariantProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pool = new ThreadPoolExecutor(
+                properties.threads(),
+                properties.threads(),
+                30,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                new NamedThreadFactory("photo-variants"));
+        this.pool.allowCoreThreadTimeOut(true);
+        this.generated = Counter.builder("midlo.photos.variants.generated").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    public int canonicalWidth() {
+        return properties.canonicalWidth();
+    }
+
+    /**
+     * A photo size bound; either side may be null.
+     */
+    public record Size(Integer maxWidthPx, Integer maxHeightPx) {
+    }
+
+    /**
+     * Snaps each requested bound up to the nearest ladder width. A request with
+     * no bounds gets the canonical width. A bound above the largest rung is not
+     * capped: the request is returned unchanged, so it is served at the
+     * requested size (at most the original) rather than smaller than asked.
+     */
+    public Size snap(Integer maxWidthPx, Integer maxHeightPx) {
+        Integer width = (maxWidthPx != null && maxWidthPx > 0) ? maxWidthPx : null;
+        Integer height = (maxHeightPx != null && maxHeightPx > 0) ? maxHeightPx : null;
+        if (width == null && height == null) {
+            return new Size(properties.canonicalWidth(), null);
+        }
+        if (aboveLadder(width) || aboveLadder(height)) {
+            return new Size(width, height);
+        }
+        return new Size(snapUp(width), snapUp(height));
+    }
+
+    /**
+     * Whether a bound is larger than the canonical image, so it has to be
+     * fetched from Google at that size rather than derived.
+     */
+    public boolean aboveLadder(Integer px) {
+        return px != null && px > properties.canonicalWidth();
+    }
+
+    private Integer snapUp(Integer px) {
+        if (px == null) {
+            return null;
+        }
+        for (int width : properties.widths()) {
+            if (width >= px) {
+                return width;
+            }
+        }
+        return px;
+    }
+
+    /**
+     * Writes {@code source} scaled to fit within {@code width} and, if given,
+     * {@code height} into {@code target} on the variant pool and returns the
+     * written content type.
+     *
+     * @throws IOException if the image cannot be decoded, the pool is saturated
+     *                     or the resize does not finish within the timeout
+     */
+    String resize(PhotoFile source, Path target, int width, Integer height) throws IOException {
+        Future<String> future;
+        try {
+            future = pool.submit(() -> resizeNow(source, target, width, height));
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Photo variant pool saturated", e);
+        }
+        try {
+            return future.get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("Photo variant timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Photo variant failed", e.getCause());
+        }
+    }
+
+    private String resizeNow(PhotoFile source, Path target, int maxWidth, Integer maxHeight) throws IOException {
+        BufferedImage image = ImageIO.read(source.path().toFile());
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + source.contentType());
+        }
+        int width = maxWidth;
+        if (maxHeight != null && image.getHeight() > maxHeight) {
+            width = Math.min(width, Math.max(1, (int) ((long) image.getWidth() * maxHeight / image.getHeight())));
+        }
+        if (image.getWidth() <= width) {
+            Files.copy(source.path(), target, StandardCopyOption.REPLACE_EXISTING);
+            return source.contentType();
+        }
+
+        BufferedImage scaled = scale(image, width);
+        writeJpeg(scaled, target, properties.jpegQuality());
+        generated.increment();
+        return "image/jpeg";
+    }
+
+    /**
+     * Halves with bilinear filtering until within 2x of the target, then does
+     * one last bilinear step; close to area-averaging quality at a fraction of
+     * the cost.
+     */
+    static BufferedImage scale(BufferedImage source, int width) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        int targetHeight = Math.max(1, (int) Math.round((double) h * width / w));
+        do {
+            w = Math.max(width, w / 2);
+            h = (w == width) ? targetHeight : Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, w, h);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w > width);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.midlo.backend.places.photos;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Photo URI cache. Failed lookups are remembered for {@code failureTtl} so a
+ * broken photo name does not hit Google on every card render.
+ */
+@ConfigurationProperties(prefix = "midlo.places.photos.cache")
+public record PlacePhotoCacheProperties(
+        Duration ttl,
+        Duration failureTtl,
+        Integer maxEntries,
+        Long maxBytes,
+        Duration sweepInterval) {
+
+    public PlacePhotoCacheProperties {
+        ttl = (ttl == null || ttl.isNegative() || ttl.isZero()) ? Duration.ofHours(6) : ttl;
+        failureTtl = (failureTtl == null || failureTtl.isNegative()) ? Duration.ofSeconds(30) : failureTtl;
+        maxEntries = (maxEntries == null || maxEntries <= 0) ? 20_000 : maxEntries;
+        maxBytes = (maxBytes == null || maxBytes <= 0) ? 16L * 1024 * 1024 : maxBytes;
+        sweepInterval = (sweepInterval == null || sweepInterval.isNegative() || sweepInterval.isZero())
+                ? Duration.ofMinutes(5)
+                : sweepInterval;
+    }
+}
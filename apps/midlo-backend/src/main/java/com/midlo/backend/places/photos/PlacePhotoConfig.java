@@ -0,0 +1,14 @@
+package com.midlo.backend.places.photos;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        PlacePhotoCacheProperties.class,
+        PlacePhotoProxyProperties.class,
+        PhotoVariantProperties.class,
+        PlacePhotoUrlProperties.class
+})
+public class PlacePhotoConfig {
+}
@@ -1,5 +1,7 @@
 package com.midlo.backend.places.photos;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -7,26 +9,51 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Objects;
 
 @RestController
 public class PlacePhotoController {
     private final PlacePhotoService placePhotoService;
+    private final PlacePhotoProxyService placePhotoProxyService;
+    private final PhotoVariantService photoVariantService;
 
-    public PlacePhotoController(PlacePhotoService placePhotoService) {
+    public PlacePhotoController(
+            PlacePhotoService placePhotoService,
+            PlacePhotoProxyService placePhotoProxyService,
+            PhotoVariantService photoVariantService) {
         this.placePhotoService = placePhotoService;
+        this.placePhotoProxyService = placePhotoProxyService;
+        this.photoVariantService = photoVariantService;
     }
 
     /**
-     * Redirects to a Google-hosted photo URL without exposing the API key.
+     * Redirects to a Google-hosted photo URL without exposing the API key, or,
+     * with the photo proxy enabled, serves the bytes from the local disk cache.
      * Example: /place-photo?name=places%2F...%2Fphotos%2F...&maxWidthPx=1200
      */
     @GetMapping(value = "/place-photo", produces = MediaType.ALL_VALUE)
     public ResponseEntity<Void> placePhoto(
             @RequestParam("name") String name,
             @RequestParam(value = "maxWidthPx", required = false) Integer maxWidthPx,
-            @RequestParam(value = "maxHeightPx", required = false) Integer maxHeightPx) {
+            @RequestParam(value = "maxHeightPx", required = false) Integer maxHeightPx,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        // Snapping to the variant ladder keeps the number of distinct cache
+        // keys (and upstream media calls) per photo small.
+        if (photoVariantService.enabled()) {
+            PhotoVariantService.Size size = photoVariantService.snap(maxWidthPx, maxHeightPx);
+            maxWidthPx = size.maxWidthPx();
+            maxHeightPx = size.maxHeightPx();
+        }
+
+        if (placePhotoProxyService.enabled()) {
+            PhotoFile photo = placePhotoProxyService.getPhoto(name, maxWidthPx, maxHeightPx);
+            PhotoFileResponder.write(photo, request, response);
+            return null;
+        }
 
         String photoUri = Objects.requireNonNull(
                 placePhotoService.resolvePhotoUri(name, maxWidthPx, maxHeightPx),
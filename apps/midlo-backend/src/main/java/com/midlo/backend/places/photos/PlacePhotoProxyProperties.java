@@ -0,0 +1,24 @@
+package com.midlo.backend.places.photos;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Photo byte proxy. When enabled, {@code /place-photo} serves image bytes from
+ * a local disk cache instead of redirecting to Google.
+ */
+@ConfigurationProperties(prefix = "midlo.places.photos.proxy")
+public record PlacePhotoProxyProperties(
+        Boolean enabled,
+        String directory,
+        Long maxBytes,
+        Long maxFileBytes) {
+
+    public PlacePhotoProxyProperties {
+        enabled = enabled != null && enabled;
+        directory = (directory == null || directory.isBlank())
+                ? System.getProperty("java.io.tmpdir") + "/midlo-photos"
+                : directory.trim();
+        maxBytes = (maxBytes == null || maxBytes <= 0) ? 512L * 1024 * 1024 : maxBytes;
+        maxFileBytes = (maxFileBytes == null || maxFileBytes <= 0) ? 5L * 1024 * 1024 : maxFileBytes;
+    }
+}
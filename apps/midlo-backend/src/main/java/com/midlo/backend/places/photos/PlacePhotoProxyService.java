@@ -0,0 +1,135 @@
+package com.midlo.backend.places.photos;
+
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
+import com.midlo.backend.shared.exception.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Fetches photo bytes once and keeps them in the disk cache, so popular photos
+ * are served locally instead of every client following a redirect to Google.
+ */
+@Service
+public class PlacePhotoProxyService {
+    private final PlacePhotoService placePhotoService;
+    private final PlacePhotoProxyProperties properties;
+    private final RestTemplate restTemplate;
+    private final PhotoVariantService photoVariantService;
+    private final PhotoDiskCache diskCache;
+    private final Counter variantFallbacks;
+
+    public PlacePhotoProxyService(
+            PlacePhotoService placePhotoService,
+            PhotoVariantService photoVariantService,
+            PlacePhotoProxyProperties properties,
+            GoogleApiMetrics googleApiMetrics,
+            MeterRegistry meterRegistry) {
+        this.placePhotoService = placePhotoService;
+        this.photoVariantService = photoVariantService;
+        this.properties = properties;
+        this.variantFallbacks = Counter.builder("midlo.photos.variants.fallback")
+                .description("Variant requests answered with the canonical image")
+                .register(meterRegistry);
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) Duration.ofSeconds(4).toMillis());
+        factory.setReadTimeout((int) Duration.ofSeconds(10).toMillis());
+        this.restTemplate = new RestTemplate(factory);
+        this.restTemplate.getInterceptors().add(googleApiMetrics);
+
+        this.diskCache = properties.enabled()
+                ? new PhotoDiskCache(Path.of(properties.directory()), properties.maxBytes(), meterRegistry)
+                : null;
+    }
+
+    public boolean enabled() {
+        return diskCache != null;
+    }
+
+    /**
+     * With variants enabled, the size is expected to be snapped already: sizes
+     * on the ladder are derived from the canonical download, and sizes above
+     * it are downloaded as requested. If a variant cannot be produced the
+     * canonical image is served instead.
+     */
+    PhotoFile getPhoto(String name, Integer maxWidthPx, Integer maxHeightPx) {
+        if (!photoVariantService.enabled()
+                || photoVariantService.aboveLadder(maxWidthPx)
+                || photoVariantService.aboveLadder(maxHeightPx)) {
+            return getOriginal(name, maxWidthPx, maxHeightPx);
+        }
+
+        int canonicalWidth = photoVariantService.canonicalWidth();
+        PhotoFile canonical = getOriginal(name, canonicalWidth, null);
+        int width = (maxWidthPx == null || maxWidthPx <= 0) ? canonicalWidth : maxWidthPx;
+        Integer height = (maxHeightPx == null || maxHeightPx <= 0) ? null : maxHeightPx;
+        if (width >= canonicalWidth && height == null) {
+            return canonical;
+        }
+
+        String key = PlacePhotoService.photoKey(name, width, height) + "|variant";
+        try {
+            return diskCache.get(key, target -> photoVariantService.resize(canonical, target, width, height));
+        } catch (RuntimeException e) {
+            variantFallbacks.increment();
+            return canonical;
+        }
+    }
+
+    private PhotoFile getOriginal(String name, Integer maxWidthPx, Integer maxHeightPx) {
+        String key = PlacePhotoService.photoKey(name, maxWidthPx, maxHeightPx);
+        try {
+            return diskCache.get(key, target -> download(name, maxWidthPx, maxHeightPx, target));
+        } catch (UncheckedIOException e) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Photo download failed");
+        }
+    }
+
+    private String download(String name, Integer maxWidthPx, Integer maxHeightPx, Path target) {
+        String photoUri = placePhotoService.resolvePhotoUri(name, maxWidthPx, maxHeightPx);
+        try {
+            return restTemplate.execute(URI.create(photoUri), HttpMethod.GET, null, response -> {
+                MediaType contentType = response.getHeaders().getContentType();
+                if (contentType == null || !"image".equals(contentType.getType())) {
+                    throw new ApiException(HttpStatus.BAD_GATEWAY, "Photo download returned non-image content");
+                }
+                copyBounded(response.getBody(), target);
+                return contentType.toString();
+            });
+        } catch (RestClientException e) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Photo download failed");
+        }
+    }
+
+    private void copyBounded(InputStream in, Path target) throws IOException {
+        long limit = properties.maxFileBytes();
+        long written = 0;
+        byte[] buffer = new byte[16 * 1024];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                written += n;
+                if (written > limit) {
+                    throw new ApiException(HttpStatus.BAD_GATEWAY, "Photo exceeds size limit");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.midlo.backend.places.photos;
 
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
 import com.midlo.backend.integrations.google.GoogleMapsProperties;
+import com.midlo.backend.shared.cache.ExpiringCache;
+import com.midlo.backend.shared.cache.l2.NearCacheManager;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotter;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
 import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.core.env.Environment;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -17,11 +27,12 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PlacePhotoService {
@@ -29,13 +40,22 @@ public class PlacePhotoService {
     private final boolean allowMockGoogle;
     private final RestTemplate restTemplate;
 
-    private static final Duration PHOTO_URI_TTL = Duration.ofHours(6);
-    private final ConcurrentHashMap<String, CachedPhotoUri> photoUriCache = new ConcurrentHashMap<>();
+    private final PlacePhotoCacheProperties cacheProperties;
+    private final ExpiringCache<String, String> photoUriCache;
+    private final ExpiringCache<String, CachedFailure> failureCache;
+    private final ScheduledExecutorService sweeper;
 
-    private record CachedPhotoUri(String uri, Instant expiresAt) {
+    private record CachedFailure(HttpStatusCode status, String message) {
     }
 
-    public PlacePhotoService(GoogleMapsProperties googleMapsProperties, Environment environment) {
+    public PlacePhotoService(
+            GoogleMapsProperties googleMapsProperties,
+            Environment environment,
+            PlacePhotoCacheProperties cacheProperties,
+            GoogleApiMetrics googleApiMetrics,
+            MeterRegistry meterRegistry,
+            CacheSnapshotter cacheSnapshotter,
+            NearCacheManager nearCacheManager) {
         this.googleMapsProperties = googleMapsProperties;
         this.allowMockGoogle = Arrays.asList(environment.getActiveProfiles()).contains("local");
 
@@ -43,6 +63,36 @@ public class PlacePhotoService {
         factory.setConnectTimeout((int) Duration.ofSeconds(4).toMillis());
         factory.setReadTimeout((int) Duration.ofSeconds(8).toMillis());
         this.restTemplate = new RestTemplate(factory);
+        this.restTemplate.getInterceptors().add(googleApiMetrics);
+
+        this.cacheProperties = cacheProperties;
+        this.photoUriCache = new ExpiringCache<>(
+                "photo-uri",
+                cacheProperties.maxEntries(),
+                cacheProperties.maxBytes(),
+                uri -> 64 + 2L * uri.length(),
+                meterRegistry);
+        cacheSnapshotter.register(photoUriCache, CacheCodec.strings());
+        nearCacheManager.attach(photoUriCache, CacheCodec.strings());
+        this.failureCache = new ExpiringCache<>(
+                "photo-uri-failures",
+                cacheProperties.maxEntries(),
+                cacheProperties.maxBytes(),
+                f -> 96 + 2L * (f.message() == null ? 0 : f.message().length()),
+                meterRegistry);
+        // Expired entries are otherwise only dropped when read or when the cache
+        // is full; most photo keys are never requested again.
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("photo-uri-sweep"));
+        long sweepMillis = cacheProperties.sweepInterval().toMillis();
+        this.sweeper.scheduleWithFixedDelay(() -> {
+            photoUriCache.removeExpired();
+            failureCache.removeExpired();
+        }, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
     }
 
     public String resolvePhotoUri(String name, Integer maxWidthPx, Integer maxHeightPx) {
@@ -58,27 +108,28 @@ public class PlacePhotoService {
                     "Missing GOOGLE_MAPS_API_KEY (Google Maps Platform)");
         }
 
-        String trimmed = name == null ? "" : name.trim();
-        if (trimmed.isBlank()) {
-            throw new ApiException(HttpStatus.BAD_REQUEST, "Missing photo name");
-        }
-
-        // Basic validation to avoid misuse; Google names look like:
-        // places/{placeId}/photos/{photoId}
-        if (!trimmed.startsWith("places/") || trimmed.contains("..")) {
-            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid photo name");
-        }
-
+        String trimmed = validateName(name);
         int w = (maxWidthPx == null || maxWidthPx <= 0) ? 1200 : Math.min(maxWidthPx, 2000);
         Integer h = (maxHeightPx == null || maxHeightPx <= 0) ? null : Math.min(maxHeightPx, 2000);
 
-        String cacheKey = trimmed + "|w=" + w + "|h=" + (h == null ? "" : h);
-        CachedPhotoUri cached = photoUriCache.get(cacheKey);
-        if (cached != null && cached.expiresAt().isAfter(Instant.now()) && cached.uri() != null
-                && !cached.uri().isBlank()) {
-            return cached.uri();
+        String cacheKey = photoKey(trimmed, maxWidthPx, maxHeightPx);
+        CachedFailure failure = failureCache.get(cacheKey);
+        if (failure != null) {
+            throw new ApiException(failure.status(), failure.message());
         }
 
+        // Concurrent misses for the same key share one Google call.
+        return photoUriCache.get(cacheKey, cacheProperties.ttl(), key -> {
+            try {
+                return fetchPhotoUri(trimmed, w, h, apiKey);
+            } catch (ApiException e) {
+                failureCache.put(key, new CachedFailure(e.getStatus(), e.getMessage()), cacheProperties.failureTtl());
+                throw e;
+            }
+        });
+    }
+
+    private String fetchPhotoUri(String trimmed, int w, Integer h, String apiKey) {
         StringBuilder endpoint = new StringBuilder("https://places.googleapis.com/v1/")
                 .append(trimmed)
                 .append("/media?skipHttpRedirect=true")
@@ -97,12 +148,12 @@ public class PlacePhotoService {
 
         ResponseEntity<Map<String, Object>> resp;
         try {
-            resp = restTemplate.exchange(
+            resp = RequestTrace.timed("photo", "google", () -> restTemplate.exchange(
                     endpointUrl,
                     Objects.requireNonNull(HttpMethod.GET),
                     new HttpEntity<>(headers),
                     new ParameterizedTypeReference<>() {
-                    });
+                    }));
         } catch (HttpStatusCodeException e) {
             String details = e.getResponseBodyAsString() == null ? "" : e.getResponseBodyAsString().trim();
             String suffix = details.isBlank() ? "" : " - " + details;
@@ -121,8 +172,31 @@ public class PlacePhotoService {
             throw new ApiException(HttpStatus.BAD_GATEWAY, "Photo lookup did not return a photoUri");
         }
 
-        photoUriCache.put(cacheKey, new CachedPhotoUri(photoUri, Instant.now().plus(PHOTO_URI_TTL)));
-
         return photoUri;
     }
+
+    /**
+     * Cache key for a photo at the requested size, after the same clamping
+     * {@link #resolvePhotoUri} applies.
+     */
+    static String photoKey(String name, Integer maxWidthPx, Integer maxHeightPx) {
+        String trimmed = validateName(name);
+        int w = (maxWidthPx == null || maxWidthPx <= 0) ? 1200 : Math.min(maxWidthPx, 2000);
+        Integer h = (maxHeightPx == null || maxHeightPx <= 0) ? null : Math.min(maxHeightPx, 2000);
+        return trimmed + "|w=" + w + "|h=" + (h == null ? "" : h);
+    }
+
+    private static String validateName(String name) {
+        String trimmed = name == null ? "" : name.trim();
+        if (trimmed.isBlank()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Missing photo name");
+        }
+
+        // Basic validation to avoid misuse; Google names look like:
+        // places/{placeId}/photos/{photoId}
+        if (!trimmed.startsWith("places/") || trimmed.contains("..")) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid photo name");
+        }
+        return trimmed;
+    }
 }
@@ -0,0 +1,23 @@
+package com.midlo.backend.places.photos;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Pre-resolved photo URLs on details responses.
+ */
+@ConfigurationProperties(prefix = "midlo.places.photos.urls")
+public record PlacePhotoUrlProperties(
+        Integer maxPhotos,
+        Integer threads,
+        Integer queueCapacity,
+        Duration timeout) {
+
+    public PlacePhotoUrlProperties {
+        maxPhotos = (maxPhotos == null || maxPhotos < 0) ? 10 : maxPhotos;
+        threads = (threads == null || threads <= 0) ? 8 : threads;
+        queueCapacity = (queueCapacity == null || queueCapacity <= 0) ? 128 : queueCapacity;
+        timeout = (timeout == null || timeout.isNegative() || timeout.isZero()) ? Duration.ofSeconds(3) : timeout;
+    }
+}
@@ -0,0 +1,130 @@
+package com.midlo.backend.places.photos;
+
+import com.midlo.backend.integrations.google.UpstreamCaller;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import com.midlo.backend.shared.trace.RequestTrace;
+import com.midlo.backend.shared.web.PublicUrls;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves loadable URLs for several photos at once, so a details response can
+ * carry its gallery instead of the client making one {@code /place-photo} hop
+ * per image.
+ *
+ * With the photo proxy enabled the URL is our own absolute
+ * {@code /place-photo} URL (bytes come from the disk cache, no Google call
+ * needed here). Otherwise the Google-hosted URI is resolved through the photo
+ * URI cache, concurrently. Photo names only arrive with the details response,
+ * so resolution starts once details are in hand rather than alongside them;
+ * the per-photo calls overlap each other instead.
+ */
+@Service
+public class PlacePhotoUrlService {
+    private final PlacePhotoService placePhotoService;
+    private final PlacePhotoProxyService placePhotoProxyService;
+    private final PhotoVariantService photoVariantService;
+    private final PlacePhotoUrlProperties properties;
+    private final PublicUrls publicUrls;
+    private final ThreadPoolExecutor executor;
+
+    public PlacePhotoUrlService(
+            PlacePhotoService placePhotoService,
+            PlacePhotoProxyService placePhotoProxyService,
+            PhotoVariantService photoVariantService,
+            PlacePhotoUrlProperties properties,
+            PublicUrls publicUrls) {
+        this.placePhotoService = placePhotoService;
+        this.placePhotoProxyService = placePhotoProxyService;
+        this.photoVariantService = photoVariantService;
+        this.properties = properties;
+        this.publicUrls = publicUrls;
+        this.executor = new ThreadPoolExecutor(
+                properties.threads(),
+                properties.threads(),
+                30,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                new NamedThreadFactory("photo-urls"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int maxPhotos() {
+        return properties.maxPhotos();
+    }
+
+    /**
+     * URLs for the given photo names, index-aligned. An entry is null when that
+     * photo could not be resolved in time; the client falls back to
+     * {@code /place-photo} for it.
+     */
+    public List<String> resolveUrls(List<String> names, Integer maxWidthPx) {
+        Integer width = maxWidthPx;
+        if (photoVariantService.enabled()) {
+            width = photoVariantService.snap(maxWidthPx, null).maxWidthPx();
+        }
+
+        if (placePhotoProxyService.enabled()) {
+            List<String> urls = new ArrayList<>(names.size());
+            for (String name : names) {
+                urls.add(proxyUrl(name, width));
+            }
+            return urls;
+        }
+
+        Integer w = width;
+        List<CompletableFuture<String>> futures = new ArrayList<>(names.size());
+        for (String name : names) {
+            CompletableFuture<String> future;
+            try {
+                future = CompletableFuture.supplyAsync(
+                        RequestTrace.wrap(UpstreamCaller.wrap(() -> placePhotoService.resolvePhotoUri(name, w, null))),
+                        executor);
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.completedFuture(null);
+            }
+            futures.add(future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Per-photo failures and stragglers just come back as null.
+        }
+
+        String[] urls = new String[names.size()];
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<String> f = futures.get(i);
+            urls[i] = f.isDone() && !f.isCompletedExceptionally() ? f.join() : null;
+        }
+        return Arrays.asList(urls);
+    }
+
+    private String proxyUrl(String name, Integer width) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath("/place-photo").queryParam("name", name);
+        if (width != null) {
+            builder.queryParam("maxWidthPx", width);
+        }
+        return publicUrls.absolute(builder.encode().toUriString());
+    }
+}
@@ -0,0 +1,9 @@
+package com.midlo.backend.places.prefetch;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PlacesPrefetchProperties.class)
+public class PlacesPrefetchConfig {
+}
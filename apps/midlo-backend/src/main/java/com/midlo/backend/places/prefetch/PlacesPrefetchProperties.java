@@ -0,0 +1,28 @@
+package com.midlo.backend.places.prefetch;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.places.prefetch")
+public record PlacesPrefetchProperties(
+		Boolean enabled,
+		Integer topN,
+		Integer photoMaxWidthPx,
+		Integer maxCallsPerMinute,
+		Integer queueCapacity,
+		Integer threads,
+		Duration trackingTtl
+) {
+	public PlacesPrefetchProperties {
+		enabled = enabled != null && enabled;
+		topN = (topN == null || topN < 0) ? 5 : topN;
+		photoMaxWidthPx = (photoMaxWidthPx == null || photoMaxWidthPx <= 0) ? 600 : photoMaxWidthPx;
+		maxCallsPerMinute = (maxCallsPerMinute == null || maxCallsPerMinute < 0) ? 300 : maxCallsPerMinute;
+		queueCapacity = (queueCapacity == null || queueCapacity <= 0) ? 64 : queueCapacity;
+		threads = (threads == null || threads <= 0) ? 2 : threads;
+		trackingTtl = (trackingTtl == null || trackingTtl.isNegative() || trackingTtl.isZero())
+				? Duration.ofMinutes(15)
+				: trackingTtl;
+	}
+}
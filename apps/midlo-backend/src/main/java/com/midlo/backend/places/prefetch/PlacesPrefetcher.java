@@ -0,0 +1,212 @@
+package com.midlo.backend.places.prefetch;
+
+import com.midlo.backend.integrations.google.GoogleMapsProperties;
+import com.midlo.backend.integrations.google.UpstreamCaller;
+import com.midlo.backend.places.details.PlaceDetailsResponse;
+import com.midlo.backend.places.details.PlaceDetailsService;
+import com.midlo.backend.places.details.PlacePhoto;
+import com.midlo.backend.places.dto.PlaceResponse;
+import com.midlo.backend.places.photos.PlacePhotoService;
+import com.midlo.backend.places.provider.LocalPlaceProvider;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the details cache and the first photo URI for the top results of a
+ * {@code /places} response, since clients open some of the first cards almost
+ * every time.
+ *
+ * Work runs on a small pool of minimum-priority threads with a bounded queue;
+ * when the queue is full or the per-minute call budget is spent, prefetches are
+ * dropped rather than competing with live requests. Opened cards are matched
+ * against recent prefetches to report a hit ratio for tuning {@code topN}.
+ * That tracking is a plain bounded map of expiry times rather than an
+ * {@code ExpiringCache}, so it stays out of the cache metrics and traces.
+ */
+@Component
+public class PlacesPrefetcher {
+
+	private static final Logger log = LoggerFactory.getLogger(PlacesPrefetcher.class);
+	private static final int MAX_TRACKED = 10_000;
+
+	private final PlaceDetailsService placeDetailsService;
+	private final PlacePhotoService placePhotoService;
+	private final GoogleMapsProperties googleMapsProperties;
+	private final PlacesPrefetchProperties properties;
+	private final ThreadPoolExecutor executor;
+	/** place id -> epoch millis after which the prefetch no longer counts */
+	private final ConcurrentHashMap<String, Long> prefetched = new ConcurrentHashMap<>();
+
+	private final AtomicLong budgetWindowStart = new AtomicLong();
+	private final AtomicLong budgetUsed = new AtomicLong();
+
+	private final Counter completed;
+	private final Counter rejected;
+	private final Counter overBudget;
+	private final Counter failed;
+	private final Counter used;
+
+	public PlacesPrefetcher(
+			PlaceDetailsService placeDetailsService,
+			PlacePhotoService placePhotoService,
+			GoogleMapsProperties googleMapsProperties,
+			PlacesPrefetchProperties properties,
+			MeterRegistry meterRegistry) {
+		this.placeDetailsService = placeDetailsService;
+		this.placePhotoService = placePhotoService;
+		this.googleMapsProperties = googleMapsProperties;
+		this.properties = properties;
+
+		this.executor = new ThreadPoolExecutor(
+				properties.threads(),
+				properties.threads(),
+				30,
+				TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(properties.queueCapacity()),
+				new NamedThreadFactory("places-prefetch", Thread.MIN_PRIORITY));
+		this.executor.allowCoreThreadTimeOut(true);
+
+		this.completed = counter(meterRegistry, "completed");
+		this.rejected = counter(meterRegistry, "rejected");
+		this.overBudget = counter(meterRegistry, "over_budget");
+		this.failed = counter(meterRegistry, "failed");
+		this.used = Counter.builder("midlo.places.prefetch.used")
+				.description("Details opens that hit a prefetched place")
+				.register(meterRegistry);
+		Gauge.builder("midlo.places.prefetch.hit.ratio", this, PlacesPrefetcher::hitRatio)
+				.register(meterRegistry);
+		Gauge.builder("midlo.places.prefetch.tracked", prefetched, Map::size)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Queues prefetches for the first {@code topN} places. Never blocks and never
+	 * throws.
+	 */
+	public void prefetch(List<PlaceResponse> places) {
+		if (!properties.enabled() || places == null || places.isEmpty()) {
+			return;
+		}
+		String apiKey = googleMapsProperties.apiKey();
+		if (apiKey == null || apiKey.isBlank()) {
+			return;
+		}
+
+		int n = Math.min(properties.topN(), places.size());
+		for (int i = 0; i < n; i++) {
+			String placeId = places.get(i).placeId();
+			if (placeId == null || placeId.isBlank() || LocalPlaceProvider.isLocalId(placeId)
+					|| isTracked(placeId, System.currentTimeMillis())) {
+				continue;
+			}
+			try {
+				executor.execute(UpstreamCaller.as("prefetch", () -> warm(placeId)));
+			} catch (RejectedExecutionException e) {
+				rejected.increment();
+			}
+		}
+	}
+
+	/**
+	 * Called when a client opens a details card.
+	 */
+	public void recordOpen(String placeId) {
+		if (placeId == null || !properties.enabled()) {
+			return;
+		}
+		Long expiresAt = prefetched.remove(placeId);
+		if (expiresAt != null && expiresAt > System.currentTimeMillis()) {
+			used.increment();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void warm(String placeId) {
+		try {
+			PlaceDetailsResponse details = placeDetailsService.findCached(placeId);
+			if (details == null) {
+				if (!takeBudget()) {
+					return;
+				}
+				details = placeDetailsService.getPlaceDetails(placeId);
+			}
+
+			List<PlacePhoto> photos = details.photos();
+			if (photos != null && !photos.isEmpty() && takeBudget()) {
+				placePhotoService.resolvePhotoUri(photos.get(0).name(), properties.photoMaxWidthPx(), null);
+			}
+
+			track(placeId, System.currentTimeMillis());
+			completed.increment();
+		} catch (RuntimeException e) {
+			failed.increment();
+			log.debug("Prefetch failed for {}: {}", placeId, e.getMessage());
+		}
+	}
+
+	private boolean isTracked(String placeId, long now) {
+		Long expiresAt = prefetched.get(placeId);
+		return expiresAt != null && expiresAt > now;
+	}
+
+	/**
+	 * Remembers a finished prefetch until the tracking TTL passes. When the map is
+	 * full, expired entries are swept first; if it is still full the prefetch goes
+	 * untracked, which only costs a possible repeat prefetch and a missed hit.
+	 */
+	private void track(String placeId, long now) {
+		if (prefetched.size() >= MAX_TRACKED && !prefetched.containsKey(placeId)) {
+			prefetched.values().removeIf(expiresAt -> expiresAt <= now);
+			if (prefetched.size() >= MAX_TRACKED) {
+				return;
+			}
+		}
+		prefetched.put(placeId, now + properties.trackingTtl().toMillis());
+	}
+
+	/**
+	 * Fixed one-minute window; cheap and good enough to cap background spend.
+	 */
+	private boolean takeBudget() {
+		long now = System.currentTimeMillis();
+		long windowStart = budgetWindowStart.get();
+		if (now - windowStart >= 60_000 && budgetWindowStart.compareAndSet(windowStart, now)) {
+			budgetUsed.set(0);
+		}
+		if (budgetUsed.incrementAndGet() > properties.maxCallsPerMinute()) {
+			overBudget.increment();
+			return false;
+		}
+		return true;
+	}
+
+	private double hitRatio() {
+		double done = completed.count();
+		return done == 0 ? 0 : used.count() / done;
+	}
+
+	private static Counter counter(MeterRegistry registry, String result) {
+		return Counter.builder("midlo.places.prefetch.tasks")
+				.tag("result", result)
+				.register(registry);
+	}
+}
@@ -0,0 +1,160 @@
+package com.midlo.backend.places.provider;
+
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
+import com.midlo.backend.integrations.google.GoogleMapsProperties;
+import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Google Places searchNearby.
+ */
+@Component
+@Order(100)
+public class GooglePlaceProvider implements PlaceProvider {
+
+	public static final String NAME = "google";
+
+	private final GoogleMapsProperties googleMapsProperties;
+	private final RestTemplate restTemplate;
+
+	public GooglePlaceProvider(GoogleMapsProperties googleMapsProperties, GoogleApiMetrics googleApiMetrics) {
+		this.googleMapsProperties = googleMapsProperties;
+		this.restTemplate = new RestTemplate();
+		this.restTemplate.getInterceptors().add(googleApiMetrics);
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public boolean upstream() {
+		return true;
+	}
+
+	@Override
+	public boolean available() {
+		return !apiKey().isBlank();
+	}
+
+	@Override
+	public List<PlaceCandidate> searchNearby(double lat, double lng, int radiusMeters, List<String> types) {
+		String endpoint = "https://places.googleapis.com/v1/places:searchNearby";
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set("X-Goog-Api-Key", apiKey());
+		headers.set("X-Goog-FieldMask",
+				"places.id,places.displayName,places.location,places.formattedAddress,places.rating");
+
+		Map<String, Object> body = new HashMap<>();
+		body.put("includedTypes", types);
+		body.put("maxResultCount", 20);
+		body.put("locationRestriction", Map.of(
+				"circle", Map.of(
+						"center", Map.of("latitude", lat, "longitude", lng),
+						"radius", radiusMeters)));
+		// places.searchNearby does not support pagination tokens.
+
+		ResponseEntity<Map<String, Object>> resp;
+		try (RequestTrace.Span span = RequestTrace.start("nearby")) {
+			if (span.recording()) {
+				span.describe("r=" + radiusMeters + " " + types.get(0)
+						+ (types.size() > 1 ? "+" + (types.size() - 1) : ""));
+			}
+			resp = restTemplate.exchange(
+					endpoint,
+					Objects.requireNonNull(HttpMethod.POST),
+					new HttpEntity<>(body, headers),
+					new ParameterizedTypeReference<>() {
+					});
+		} catch (HttpStatusCodeException e) {
+			String details = e.getResponseBodyAsString() == null ? "" : e.getResponseBodyAsString().trim();
+			String suffix = details.isBlank() ? "" : " - " + details;
+			throw new ApiException(HttpStatus.BAD_GATEWAY, "Places failed" + suffix);
+		} catch (RestClientException e) {
+			throw new ApiException(HttpStatus.BAD_GATEWAY, "Places service unavailable");
+		}
+
+		Map<String, Object> respBody = resp.getBody();
+		if (respBody == null) {
+			return List.of();
+		}
+
+		Object placesObj = respBody.get("places");
+		if (!(placesObj instanceof List<?> placesList) || placesList.isEmpty()) {
+			return List.of();
+		}
+
+		List<PlaceCandidate> out = new ArrayList<>();
+		for (Object placeObj : placesList) {
+			if (!(placeObj instanceof Map<?, ?> placeMap))
+				continue;
+
+			Object idObj = placeMap.get("id");
+			Object displayNameObj = placeMap.get("displayName");
+			Object locationObj = placeMap.get("location");
+			Object addrObj = placeMap.get("formattedAddress");
+			Object ratingObj = placeMap.get("rating");
+			if (!(idObj instanceof String placeId))
+				continue;
+			if (!(locationObj instanceof Map<?, ?> locMap))
+				continue;
+			Double pLat = toDouble(locMap.get("latitude"));
+			Double pLng = toDouble(locMap.get("longitude"));
+			if (pLat == null || pLng == null)
+				continue;
+
+			String name = null;
+			if (displayNameObj instanceof Map<?, ?> dnMap) {
+				Object textObj = dnMap.get("text");
+				if (textObj instanceof String t)
+					name = t;
+			}
+			if (name == null)
+				continue;
+
+			String address = (addrObj instanceof String s && !s.isBlank()) ? s : null;
+			Double rating = toDouble(ratingObj);
+
+			out.add(new PlaceCandidate(placeId, name, address, rating, pLat, pLng, NAME));
+		}
+		return out;
+	}
+
+	private String apiKey() {
+		return (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
+	}
+
+	private static Double toDouble(Object v) {
+		if (v instanceof Number n)
+			return n.doubleValue();
+		if (v instanceof String s) {
+			try {
+				return Double.parseDouble(s);
+			} catch (NumberFormatException ignored) {
+				return null;
+			}
+		}
+		return null;
+	}
+}
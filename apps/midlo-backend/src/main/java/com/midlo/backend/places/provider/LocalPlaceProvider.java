@@ -0,0 +1,125 @@
+package com.midlo.backend.places.provider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Places from an imported OpenStreetMap extract.
+ *
+ * At startup the configured extract is imported into the POI store when the
+ * store is missing or older, then the store is memory-mapped. A query is a few
+ * binary searches over the mapped file and costs microseconds. Ids are
+ * {@code osm_n<id>}, so they never collide with Google place ids.
+ */
+@Component
+@Order(0)
+public class LocalPlaceProvider implements PlaceProvider {
+
+	public static final String NAME = "osm";
+	private static final String ID_PREFIX = "osm_";
+
+	private static final Logger log = LoggerFactory.getLogger(LocalPlaceProvider.class);
+
+	private final LocalPlacesProperties properties;
+	private final PoiStore store;
+
+	public LocalPlaceProvider(LocalPlacesProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.store = properties.enabled() ? load(properties) : null;
+		Gauge.builder("midlo.places.local.pois", this, p -> p.store == null ? 0 : p.store.size())
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Whether a place id came from the local store; such places have no Google
+	 * details or photos, only what {@link #find(String)} returns.
+	 */
+	public static boolean isLocalId(String placeId) {
+		return placeId != null && placeId.startsWith(ID_PREFIX);
+	}
+
+	/**
+	 * Looks up a place by a local id, e.g. to answer {@code /places/{id}} for a
+	 * result that only OpenStreetMap knew about.
+	 */
+	public Optional<PlaceCandidate> find(String placeId) {
+		if (store == null || !isLocalId(placeId) || placeId.length() < ID_PREFIX.length() + 2) {
+			return Optional.empty();
+		}
+		char kind = placeId.charAt(ID_PREFIX.length());
+		long osmId;
+		try {
+			osmId = Long.parseLong(placeId.substring(ID_PREFIX.length() + 1));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
+		PoiStore.Poi poi = store.find(kind, osmId);
+		return poi == null ? Optional.empty()
+				: Optional.of(new PlaceCandidate(placeId, poi.name(), null, null, poi.lat(), poi.lng(), NAME));
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public boolean upstream() {
+		return false;
+	}
+
+	@Override
+	public boolean available() {
+		return store != null && store.size() > 0;
+	}
+
+	@Override
+	public List<PlaceCandidate> searchNearby(double lat, double lng, int radiusMeters, List<String> types) {
+		if (store == null) {
+			return List.of();
+		}
+		List<PoiStore.Hit> hits = store.nearby(lat, lng, radiusMeters, store.typeMask(types), properties.maxResults());
+		List<PlaceCandidate> out = new ArrayList<>(hits.size());
+		for (PoiStore.Hit h : hits) {
+			out.add(new PlaceCandidate(ID_PREFIX + h.kind() + h.osmId(), h.name(), null, null, h.lat(), h.lng(), NAME));
+		}
+		return out;
+	}
+
+	private static PoiStore load(LocalPlacesProperties properties) {
+		Path storeFile = Path.of(properties.storeFile());
+		try {
+			if (properties.osmFile() != null) {
+				Path osmFile = Path.of(properties.osmFile());
+				if (!Files.exists(storeFile)
+						|| Files.getLastModifiedTime(osmFile).compareTo(Files.getLastModifiedTime(storeFile)) > 0) {
+					long start = System.nanoTime();
+					int imported = OsmPoiImporter.importFile(osmFile, storeFile);
+					log.info("Imported OSM extract {} pois={} in {} ms", osmFile, imported,
+							(System.nanoTime() - start) / 1_000_000);
+				}
+			}
+			if (!Files.exists(storeFile)) {
+				log.warn("Local places enabled but no POI store at {}; set midlo.places.local.osmFile", storeFile);
+				return null;
+			}
+			PoiStore store = PoiStore.open(storeFile);
+			log.info("Local places loaded pois={} from {}", store.size(), storeFile);
+			return store;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Local places unavailable, using Google only: {}", e.toString());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.midlo.backend.places.provider;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param osmFile                 OSM XML extract to import; optional when
+ *                                {@code storeFile} already exists
+ * @param storeFile               imported POI store, rebuilt when older than
+ *                                {@code osmFile}
+ * @param skipUpstreamAt          local results per query at which the Google
+ *                                call for that query is skipped
+ * @param maxResults              results per local query, like Google's
+ *                                maxResultCount
+ * @param mergeDistanceMeters     how close two same-named places from different
+ *                                providers must be to count as one
+ */
+@ConfigurationProperties(prefix = "midlo.places.local")
+public record LocalPlacesProperties(
+		Boolean enabled,
+		String osmFile,
+		String storeFile,
+		Integer skipUpstreamAt,
+		Integer maxResults,
+		Double mergeDistanceMeters
+) {
+	public LocalPlacesProperties {
+		enabled = enabled != null && enabled;
+		osmFile = (osmFile == null || osmFile.isBlank()) ? null : osmFile.trim();
+		storeFile = (storeFile == null || storeFile.isBlank()) ? "./data/osm-pois.bin" : storeFile.trim();
+		skipUpstreamAt = (skipUpstreamAt == null || skipUpstreamAt <= 0) ? 12 : skipUpstreamAt;
+		maxResults = (maxResults == null || maxResults <= 0) ? 20 : maxResults;
+		mergeDistanceMeters = (mergeDistanceMeters == null || mergeDistanceMeters <= 0) ? 75.0 : mergeDistanceMeters;
+	}
+}
@@ -0,0 +1,103 @@
+package com.midlo.backend.places.provider;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports named POIs from an OpenStreetMap XML extract ({@code .osm} or
+ * {@code .osm.gz}) into a {@link PoiStore}.
+ *
+ * Only nodes are read, so the importer streams the file without holding node
+ * coordinates for way geometry. Areas such as most parks are ways; convert
+ * them to centroid nodes first, e.g.
+ * {@code osmconvert extract.pbf --all-to-nodes -o=extract.osm}.
+ *
+ * Runnable on its own: {@code OsmPoiImporter <extract.osm[.gz]> <store.bin>}.
+ */
+public final class OsmPoiImporter {
+
+	private OsmPoiImporter() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: OsmPoiImporter <extract.osm[.gz]> <store.bin>");
+			System.exit(2);
+		}
+		int imported = importFile(Path.of(args[0]), Path.of(args[1]));
+		System.out.println("Imported " + imported + " POIs into " + args[1]);
+	}
+
+	/**
+	 * @return the number of POIs written
+	 */
+	public static int importFile(Path osmFile, Path storeFile) throws IOException {
+		try (InputStream raw = new BufferedInputStream(Files.newInputStream(osmFile))) {
+			InputStream in = osmFile.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(raw) : raw;
+			List<PoiStore.Poi> pois = read(in);
+			PoiStore.write(pois, storeFile);
+			return pois.size();
+		}
+	}
+
+	static List<PoiStore.Poi> read(InputStream in) throws IOException {
+		XMLInputFactory factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+		List<PoiStore.Poi> pois = new ArrayList<>();
+		try {
+			XMLStreamReader xml = factory.createXMLStreamReader(in);
+			long id = 0;
+			double lat = 0;
+			double lng = 0;
+			boolean inNode = false;
+			Map<String, String> tags = new HashMap<>();
+			while (xml.hasNext()) {
+				int event = xml.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String element = xml.getLocalName();
+					if ("node".equals(element)) {
+						String latAttr = xml.getAttributeValue(null, "lat");
+						String lngAttr = xml.getAttributeValue(null, "lon");
+						inNode = latAttr != null && lngAttr != null;
+						if (inNode) {
+							id = Long.parseLong(xml.getAttributeValue(null, "id"));
+							lat = Double.parseDouble(latAttr);
+							lng = Double.parseDouble(lngAttr);
+							tags.clear();
+						}
+					} else if (inNode && "tag".equals(element)) {
+						String k = xml.getAttributeValue(null, "k");
+						if ("name".equals(k) || OsmTagMapping.KEYS.contains(k)) {
+							tags.put(k, xml.getAttributeValue(null, "v"));
+						}
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT && inNode && "node".equals(xml.getLocalName())) {
+					inNode = false;
+					String name = tags.get("name");
+					String type = OsmTagMapping.googleType(tags);
+					if (name != null && !name.isBlank() && type != null) {
+						pois.add(new PoiStore.Poi(id, 'n', name.trim(), type, lat, lng));
+					}
+				}
+			}
+			xml.close();
+		} catch (XMLStreamException | NumberFormatException e) {
+			throw new IOException("Unreadable OSM extract: " + e.getMessage(), e);
+		}
+		return pois;
+	}
+}
@@ -0,0 +1,66 @@
+package com.midlo.backend.places.provider;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps OpenStreetMap tags onto the Google place types {@code /places} queries
+ * with, so local results slot into the same type groups.
+ */
+final class OsmTagMapping {
+
+	/** Tag keys in precedence order when a node carries several. */
+	static final List<String> KEYS = List.of("amenity", "shop", "leisure", "tourism");
+
+	private static final Map<String, String> TYPES = new LinkedHashMap<>();
+
+	static {
+		TYPES.put("amenity=restaurant", "restaurant");
+		TYPES.put("amenity=cafe", "cafe");
+		TYPES.put("shop=bakery", "bakery");
+		TYPES.put("amenity=fast_food", "meal_takeaway");
+		TYPES.put("amenity=bar", "bar");
+		TYPES.put("amenity=pub", "bar");
+		TYPES.put("amenity=biergarten", "bar");
+		TYPES.put("amenity=nightclub", "night_club");
+		TYPES.put("leisure=bowling_alley", "bowling_alley");
+		TYPES.put("amenity=cinema", "movie_theater");
+		TYPES.put("leisure=park", "park");
+		TYPES.put("tourism=attraction", "tourist_attraction");
+		TYPES.put("tourism=museum", "museum");
+		TYPES.put("shop=mall", "shopping_mall");
+		TYPES.put("amenity=fuel", "gas_station");
+		TYPES.put("shop=convenience", "convenience_store");
+		TYPES.put("shop=supermarket", "supermarket");
+		TYPES.put("shop=greengrocer", "grocery_store");
+		TYPES.put("tourism=hotel", "lodging");
+		TYPES.put("tourism=motel", "lodging");
+		TYPES.put("tourism=guest_house", "lodging");
+		TYPES.put("amenity=pharmacy", "pharmacy");
+	}
+
+	private OsmTagMapping() {
+	}
+
+	/**
+	 * The Google type for a node's tags, or null when none of them map.
+	 */
+	static String googleType(Map<String, String> tags) {
+		for (String key : KEYS) {
+			String value = tags.get(key);
+			if (value != null) {
+				String type = TYPES.get(key + "=" + value);
+				if (type != null) {
+					return type;
+				}
+			}
+		}
+		return null;
+	}
+
+	/** Every Google type a local store can contain, in a stable order. */
+	static List<String> googleTypes() {
+		return TYPES.values().stream().distinct().toList();
+	}
+}
@@ -0,0 +1,16 @@
+package com.midlo.backend.places.provider;
+
+/**
+ * A place returned by a {@link PlaceProvider}, before ranking.
+ *
+ * @param source name of the provider that found it
+ */
+public record PlaceCandidate(
+		String placeId,
+		String name,
+		String formattedAddress,
+		Double rating,
+		double lat,
+		double lng,
+		String source) {
+}
@@ -0,0 +1,99 @@
+package com.midlo.backend.places.provider;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides when places from different providers are the same venue: within
+ * {@code maxDistanceMeters} of each other and with matching names.
+ *
+ * Names are compared word by word after folding case, accents and
+ * punctuation. Stopwords and generic venue words ("cafe", "bar", "grill")
+ * are set aside, and the distinctive words left must reach a Dice
+ * similarity of {@link #MIN_SIMILARITY}: "Joe's" / "Joe's Pizza" and
+ * "Cafe Grumpy" / "Cafe Grumpy Chelsea" match, "The Coffee Bar" / "The Wine
+ * Bar" and "Cafe" / "Cafe Rio" do not. A name made only of generic words
+ * matches only the same words.
+ *
+ * On a match the upstream candidate wins: its id works with details and photos
+ * and it carries a rating.
+ */
+public class PlaceMergePolicy {
+	private static final double METERS_PER_DEG_LAT = 111_320.0;
+
+	static final double MIN_SIMILARITY = 0.6;
+
+	private static final Set<String> STOPWORDS = Set.of(
+			"a", "an", "and", "at", "by", "de", "del", "du", "el", "for", "in", "la", "le", "les", "los", "of",
+			"on", "the", "y");
+
+	private static final Set<String> GENERIC = Set.of(
+			"bakery", "bar", "bbq", "bistro", "brewery", "cafe", "cafeteria", "co", "coffee", "company", "deli",
+			"diner", "eatery", "espresso", "grill", "house", "inc", "kitchen", "llc", "lounge", "market", "pizza",
+			"pizzeria", "pub", "restaurant", "shop", "store", "tavern", "tea", "wine");
+
+	private final double maxDistanceMeters;
+
+	public PlaceMergePolicy(double maxDistanceMeters) {
+		this.maxDistanceMeters = maxDistanceMeters;
+	}
+
+	public boolean samePlace(String nameA, double latA, double lngA, String nameB, double latB, double lngB) {
+		double dLat = (latB - latA) * METERS_PER_DEG_LAT;
+		double dLng = (lngB - lngA) * METERS_PER_DEG_LAT * Math.cos(Math.toRadians((latA + latB) / 2));
+		if (dLat * dLat + dLng * dLng > maxDistanceMeters * maxDistanceMeters) {
+			return false;
+		}
+		return namesMatch(nameA, nameB);
+	}
+
+	static boolean namesMatch(String a, String b) {
+		List<String> wa = words(a);
+		List<String> wb = words(b);
+		if (wa.isEmpty() || wb.isEmpty()) {
+			return false;
+		}
+		Set<String> da = distinctive(wa);
+		Set<String> db = distinctive(wb);
+		if (da.isEmpty() || db.isEmpty()) {
+			return new HashSet<>(wa).equals(new HashSet<>(wb));
+		}
+		int total = da.size() + db.size();
+		da.retainAll(db);
+		return 2.0 * da.size() / total >= MIN_SIMILARITY;
+	}
+
+	/**
+	 * Folded words without stopwords.
+	 */
+	private static List<String> words(String s) {
+		if (s == null) {
+			return List.of();
+		}
+		String folded = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+		String normalized = folded.toLowerCase(Locale.ROOT)
+				.replace("'", "")
+				.replaceAll("[^a-z0-9]+", " ")
+				.trim();
+		if (normalized.isEmpty()) {
+			return List.of();
+		}
+		List<String> out = new ArrayList<>();
+		for (String w : normalized.split(" ")) {
+			if (!STOPWORDS.contains(w)) {
+				out.add(w);
+			}
+		}
+		return out;
+	}
+
+	private static Set<String> distinctive(List<String> words) {
+		Set<String> out = new HashSet<>(words);
+		out.removeAll(GENERIC);
+		return out;
+	}
+}
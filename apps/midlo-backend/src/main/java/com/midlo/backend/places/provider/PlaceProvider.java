@@ -0,0 +1,30 @@
+package com.midlo.backend.places.provider;
+
+import java.util.List;
+
+/**
+ * A source of nearby places for {@code /places}.
+ *
+ * Providers are queried in {@link org.springframework.core.annotation.Order}
+ * order, cheapest first. Local providers answer every query; upstream ones
+ * (billed remote calls) count against the search's query budget and are
+ * skipped for a query when local providers already returned enough.
+ */
+public interface PlaceProvider {
+
+	String name();
+
+	/** Whether a query is a billed remote call. */
+	boolean upstream();
+
+	/** False when the provider has nothing to serve (no data, no key). */
+	boolean available();
+
+	/**
+	 * Places of any of the given Google place types within a radius.
+	 *
+	 * @throws com.midlo.backend.shared.exception.ApiException when the source
+	 *                                                         fails
+	 */
+	List<PlaceCandidate> searchNearby(double lat, double lng, int radiusMeters, List<String> types);
+}
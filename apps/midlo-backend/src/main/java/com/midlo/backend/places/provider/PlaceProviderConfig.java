@@ -0,0 +1,14 @@
+package com.midlo.backend.places.provider;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LocalPlacesProperties.class)
+public class PlaceProviderConfig {
+	@Bean
+	public PlaceMergePolicy placeMergePolicy(LocalPlacesProperties properties) {
+		return new PlaceMergePolicy(properties.mergeDistanceMeters());
+	}
+}
@@ -0,0 +1,347 @@
+package com.midlo.backend.places.provider;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Read-only, memory-mapped point-of-interest index.
+ *
+ * POIs are bucketed into a grid of {@link #CELL_DEGREES} cells and stored
+ * sorted by cell, so a radius query is one binary search per grid row of the
+ * bounding box plus a scan of the cells in it, keeping only the nearest hits.
+ * Records are fixed-size; names live in a separate blob. Nothing is copied onto the heap: the OS pages the
+ * file in, and absolute reads on the shared buffer are safe from any thread.
+ *
+ * Layout (big-endian): magic, version, type count, type names, POI count,
+ * cell count, cell keys, cell start indexes, records, name blob length, names.
+ */
+final class PoiStore {
+
+	static final double CELL_DEGREES = 0.05;
+
+	private static final int MAGIC = 0x4D504F49; // "MPOI"
+	private static final int VERSION = 1;
+	// latE7, lngE7, osm id, name offset, type id, kind, padding
+	private static final int RECORD_BYTES = 24;
+	private static final double METERS_PER_DEG_LAT = 111_320.0;
+
+	private final List<String> types;
+	private final int count;
+	private final int cellCount;
+	private final ByteBuffer buf;
+	private final int cellKeysAt;
+	private final int cellStartsAt;
+	private final int recordsAt;
+	private final int namesAt;
+
+	record Poi(long osmId, char kind, String name, String type, double lat, double lng) {
+	}
+
+	record Hit(long osmId, char kind, String name, String type, double lat, double lng, double distanceMeters) {
+	}
+
+	private PoiStore(ByteBuffer buf) throws IOException {
+		this.buf = buf;
+		if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+			throw new IOException("Not a POI store (or an unsupported version)");
+		}
+		int pos = 8;
+		int typeCount = buf.getInt(pos);
+		pos += 4;
+		List<String> t = new ArrayList<>(typeCount);
+		for (int i = 0; i < typeCount; i++) {
+			int len = Short.toUnsignedInt(buf.getShort(pos));
+			byte[] b = new byte[len];
+			buf.get(pos + 2, b);
+			t.add(new String(b, StandardCharsets.UTF_8));
+			pos += 2 + len;
+		}
+		this.types = List.copyOf(t);
+		this.count = buf.getInt(pos);
+		this.cellCount = buf.getInt(pos + 4);
+		pos += 8;
+		this.cellKeysAt = pos;
+		this.cellStartsAt = cellKeysAt + cellCount * 8;
+		this.recordsAt = cellStartsAt + (cellCount + 1) * 4;
+		this.namesAt = recordsAt + count * RECORD_BYTES + 4;
+		if (namesAt > buf.limit() || namesAt + buf.getInt(namesAt - 4) != buf.limit()) {
+			throw new IOException("Truncated POI store");
+		}
+	}
+
+	static PoiStore open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new PoiStore(mapped.order(ByteOrder.BIG_ENDIAN));
+		}
+	}
+
+	int size() {
+		return count;
+	}
+
+	List<String> types() {
+		return types;
+	}
+
+	/**
+	 * Bit mask over {@link #types()} for a list of Google types; unknown types
+	 * are ignored.
+	 */
+	long typeMask(List<String> googleTypes) {
+		long mask = 0;
+		for (String type : googleTypes) {
+			int id = types.indexOf(type);
+			if (id >= 0 && id < 64) {
+				mask |= 1L << id;
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * POIs of the masked types within a radius, nearest first.
+	 *
+	 * Only the nearest {@code limit} records are kept while scanning (a
+	 * max-heap on distance), and names are decoded for those alone. A bounding
+	 * box that crosses ±180° longitude is split into two column ranges.
+	 */
+	List<Hit> nearby(double lat, double lng, double radiusMeters, long typeMask, int limit) {
+		if (typeMask == 0 || count == 0 || limit <= 0) {
+			return List.of();
+		}
+		double dLat = radiusMeters / METERS_PER_DEG_LAT;
+		double edgeLat = Math.min(89.0, Math.abs(lat) + dLat);
+		double dLng = Math.min(180.0, radiusMeters / (METERS_PER_DEG_LAT * Math.cos(Math.toRadians(edgeLat))));
+		int rowFrom = row(lat - dLat);
+		int rowTo = row(lat + dLat);
+
+		PriorityQueue<Nearest> nearest = new PriorityQueue<>(limit + 1,
+				Comparator.comparingDouble(Nearest::distanceMeters).reversed());
+		for (int[] cols : colRanges(lng - dLng, lng + dLng)) {
+			for (int r = rowFrom; r <= rowTo; r++) {
+				scanRow(r, cols[0], cols[1], lat, lng, radiusMeters, typeMask, limit, nearest);
+			}
+		}
+
+		Hit[] hits = new Hit[nearest.size()];
+		for (int i = hits.length - 1; i >= 0; i--) {
+			Nearest n = nearest.poll();
+			int at = n.at();
+			hits[i] = new Hit(buf.getLong(at + 8), (char) buf.get(at + 22), name(buf.getInt(at + 16)),
+					types.get(Short.toUnsignedInt(buf.getShort(at + 20))),
+					buf.getInt(at) / 1e7, buf.getInt(at + 4) / 1e7, n.distanceMeters());
+		}
+		return List.of(hits);
+	}
+
+	/** A record offset and its distance, kept while scanning. */
+	private record Nearest(int at, double distanceMeters) {
+	}
+
+	private void scanRow(int r, int colFrom, int colTo, double lat, double lng, double radiusMeters,
+			long typeMask, int limit, PriorityQueue<Nearest> nearest) {
+		long last = cellKey(r, colTo);
+		for (int c = lowerBound(cellKey(r, colFrom)); c < cellCount && cellKeyAt(c) <= last; c++) {
+			int end = buf.getInt(cellStartsAt + (c + 1) * 4);
+			for (int i = buf.getInt(cellStartsAt + c * 4); i < end; i++) {
+				int at = recordsAt + i * RECORD_BYTES;
+				int typeId = Short.toUnsignedInt(buf.getShort(at + 20));
+				if (typeId >= 64 || (typeMask & (1L << typeId)) == 0) {
+					continue;
+				}
+				double d = haversineMeters(lat, lng, buf.getInt(at) / 1e7, buf.getInt(at + 4) / 1e7);
+				if (d > radiusMeters) {
+					continue;
+				}
+				if (nearest.size() < limit) {
+					nearest.add(new Nearest(at, d));
+				} else if (d < nearest.peek().distanceMeters()) {
+					nearest.poll();
+					nearest.add(new Nearest(at, d));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Inclusive column ranges covering {@code [lngFrom, lngTo]}, wrapped at
+	 * the antimeridian.
+	 */
+	private static List<int[]> colRanges(double lngFrom, double lngTo) {
+		int lastCol = col(180.0);
+		if (lngTo - lngFrom >= 360.0) {
+			return List.of(new int[] {0, lastCol});
+		}
+		if (lngFrom < -180.0) {
+			return List.of(new int[] {col(lngFrom + 360.0), lastCol}, new int[] {0, col(lngTo)});
+		}
+		if (lngTo > 180.0) {
+			return List.of(new int[] {col(lngFrom), lastCol}, new int[] {0, col(lngTo - 360.0)});
+		}
+		return List.of(new int[] {col(lngFrom), col(lngTo)});
+	}
+
+	/**
+	 * The POI with the given OSM element, or null. Records are ordered by cell,
+	 * not id, so this scans them; it only serves details for a place the user
+	 * opened, and the caller caches the result.
+	 */
+	Poi find(char kind, long osmId) {
+		for (int i = 0; i < count; i++) {
+			int at = recordsAt + i * RECORD_BYTES;
+			if (buf.getLong(at + 8) == osmId && (char) buf.get(at + 22) == kind) {
+				int typeId = Short.toUnsignedInt(buf.getShort(at + 20));
+				return new Poi(osmId, kind, name(buf.getInt(at + 16)),
+						typeId < types.size() ? types.get(typeId) : null,
+						buf.getInt(at) / 1e7, buf.getInt(at + 4) / 1e7);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes a store for the given POIs, replacing {@code target} atomically.
+	 */
+	static void write(List<Poi> pois, Path target) throws IOException {
+		List<String> typeNames = OsmTagMapping.googleTypes();
+		List<Poi> sorted = new ArrayList<>(pois);
+		sorted.sort(Comparator.comparingLong((Poi p) -> cellKey(row(p.lat()), col(p.lng())))
+				.thenComparingLong(Poi::osmId));
+
+		List<Long> cellKeys = new ArrayList<>();
+		List<Integer> cellStarts = new ArrayList<>();
+		for (int i = 0; i < sorted.size(); i++) {
+			long key = cellKey(row(sorted.get(i).lat()), col(sorted.get(i).lng()));
+			if (cellKeys.isEmpty() || cellKeys.get(cellKeys.size() - 1) != key) {
+				cellKeys.add(key);
+				cellStarts.add(i);
+			}
+		}
+		cellStarts.add(sorted.size());
+
+		Path parent = target.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(typeNames.size());
+			for (String type : typeNames) {
+				byte[] b = type.getBytes(StandardCharsets.UTF_8);
+				out.writeShort(b.length);
+				out.write(b);
+			}
+			out.writeInt(sorted.size());
+			out.writeInt(cellKeys.size());
+			for (long key : cellKeys) {
+				out.writeLong(key);
+			}
+			for (int start : cellStarts) {
+				out.writeInt(start);
+			}
+
+			ByteArrayBlob names = new ByteArrayBlob();
+			for (Poi p : sorted) {
+				out.writeInt((int) Math.round(p.lat() * 1e7));
+				out.writeInt((int) Math.round(p.lng() * 1e7));
+				out.writeLong(p.osmId());
+				out.writeInt(names.add(p.name()));
+				out.writeShort(typeNames.indexOf(p.type()));
+				out.writeByte(p.kind());
+				out.writeByte(0);
+			}
+			out.writeInt(names.size());
+			names.writeTo(out);
+		}
+		Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private String name(int offset) {
+		int at = namesAt + offset;
+		int len = Short.toUnsignedInt(buf.getShort(at));
+		byte[] b = new byte[len];
+		buf.get(at + 2, b);
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	private long cellKeyAt(int index) {
+		return buf.getLong(cellKeysAt + index * 8);
+	}
+
+	private int lowerBound(long key) {
+		int lo = 0;
+		int hi = cellCount;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (cellKeyAt(mid) < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static int row(double lat) {
+		return (int) Math.floor((Math.max(-90.0, Math.min(90.0, lat)) + 90.0) / CELL_DEGREES);
+	}
+
+	private static int col(double lng) {
+		return (int) Math.floor((Math.max(-180.0, Math.min(180.0, lng)) + 180.0) / CELL_DEGREES);
+	}
+
+	private static long cellKey(int row, int col) {
+		return ((long) row << 32) | col;
+	}
+
+	private static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+		double r = 6371000.0;
+		double dLat = Math.toRadians(lat2 - lat1);
+		double dLon = Math.toRadians(lon2 - lon1);
+		double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+				+ Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+						* Math.sin(dLon / 2) * Math.sin(dLon / 2);
+		return r * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+	}
+
+	/** Length-prefixed UTF-8 names, addressed by byte offset. */
+	private static final class ByteArrayBlob {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		int add(String name) {
+			byte[] b = name.getBytes(StandardCharsets.UTF_8);
+			int len = Math.min(b.length, 0xFFFF);
+			int offset = bytes.size();
+			bytes.write(len >>> 8);
+			bytes.write(len & 0xFF);
+			bytes.write(b, 0, len);
+			return offset;
+		}
+
+		int size() {
+			return bytes.size();
+		}
+
+		void writeTo(DataOutputStream out) throws IOException {
+			bytes.writeTo(out);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.midlo.backend.places.service;
+
+/**
+ * How much upstream work one {@code /places} search may do. Lower levels trade
+ * result count and rural coverage for fewer Google calls and faster answers
+ * while the service is under pressure.
+ */
+public enum PlacesSearchBudget {
+	FULL("full", 40, 30, true),
+	/** Fewer calls per search. */
+	REDUCED("reduced", 24, 30, true),
+	/** No fallback-center pass; sparse areas get whatever the radius tiers found. */
+	NO_FALLBACK("no_fallback", 16, 30, false),
+	/** A quick first page only. */
+	MINIMAL("minimal", 8, 15, false);
+
+	private final String label;
+	private final int maxTotalQueries;
+	private final int targetUniquePlaces;
+	private final boolean fallbackPass;
+
+	PlacesSearchBudget(String label, int maxTotalQueries, int targetUniquePlaces, boolean fallbackPass) {
+		this.label = label;
+		this.maxTotalQueries = maxTotalQueries;
+		this.targetUniquePlaces = targetUniquePlaces;
+		this.fallbackPass = fallbackPass;
+	}
+
+	public String label() {
+		return label;
+	}
+
+	public int maxTotalQueries() {
+		return maxTotalQueries;
+	}
+
+	public int targetUniquePlaces() {
+		return targetUniquePlaces;
+	}
+
+	public boolean fallbackPass() {
+		return fallbackPass;
+	}
+}
@@ -0,0 +1,48 @@
+package com.midlo.backend.places.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of a {@code /places} search: a radius tier, the fallback pass,
+ * dedupe or rank. Disabled unless the recording uses the bundled
+ * {@code midlo.jfc} settings.
+ */
+@Name("midlo.PlacesSearchPhase")
+@Label("Places Search Phase")
+@Category({ "Midlo", "Places" })
+@Description("Time spent in one phase of a places search")
+@Enabled(false)
+@StackTrace(false)
+class PlacesSearchPhaseEvent extends Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Upstream Calls")
+	int upstreamCalls;
+
+	@Label("Candidates")
+	int candidates;
+
+	static PlacesSearchPhaseEvent start() {
+		PlacesSearchPhaseEvent event = new PlacesSearchPhaseEvent();
+		event.begin();
+		return event;
+	}
+
+	void finish(String phase, int upstreamCalls, int candidates) {
+		end();
+		if (shouldCommit()) {
+			this.phase = phase;
+			this.upstreamCalls = upstreamCalls;
+			this.candidates = candidates;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.midlo.backend.places.service;
+
+import com.midlo.backend.places.dto.PlaceResponse;
+
+import java.util.List;
+
+/**
+ * Places for a search, and whether any of them came from the stale store
+ * because Google could not be reached.
+ *
+ * @param stale     null for a fresh result, otherwise {@code "full"} (only
+ *                  stored places) or {@code "partial"} (fresh places topped
+ *                  up with stored ones)
+ * @param ageMillis age of the stored places used, 0 for fresh results
+ */
+public record PlacesSearchResult(List<PlaceResponse> places, String stale, long ageMillis) {
+
+	public static PlacesSearchResult fresh(List<PlaceResponse> places) {
+		return new PlacesSearchResult(places, null, 0);
+	}
+
+	public boolean isStale() {
+		return stale != null;
+	}
+}
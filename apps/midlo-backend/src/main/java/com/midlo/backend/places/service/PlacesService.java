@@ -1,51 +1,101 @@
 package com.midlo.backend.places.service;
 
-import com.midlo.backend.integrations.google.GoogleMapsProperties;
 import com.midlo.backend.places.dto.PlaceResponse;
 import com.midlo.backend.places.dto.PlacesRequest;
+import com.midlo.backend.places.provider.GooglePlaceProvider;
+import com.midlo.backend.places.provider.LocalPlaceProvider;
+import com.midlo.backend.places.provider.LocalPlacesProperties;
+import com.midlo.backend.places.provider.PlaceCandidate;
+import com.midlo.backend.places.provider.PlaceMergePolicy;
+import com.midlo.backend.places.provider.PlaceProvider;
+import com.midlo.backend.places.stale.StalePlaces;
+import com.midlo.backend.places.stale.StalePlacesStore;
 import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.core.env.Environment;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PlacesService {
 
-	private final GoogleMapsProperties googleMapsProperties;
 	private final boolean allowMockGoogle;
-	private final RestTemplate restTemplate;
-
-	public PlacesService(GoogleMapsProperties googleMapsProperties, Environment environment) {
-		this.googleMapsProperties = googleMapsProperties;
+	private final MeterRegistry meterRegistry;
+	private final StalePlacesStore stalePlaces;
+	// Local providers first (@Order), so their results can spare upstream calls.
+	private final List<PlaceProvider> providers;
+	private final PlaceMergePolicy mergePolicy;
+	private final int skipUpstreamAt;
+	private final Counter upstreamSkipped;
+
+	public PlacesService(
+			Environment environment,
+			MeterRegistry meterRegistry,
+			StalePlacesStore stalePlaces,
+			List<PlaceProvider> providers,
+			PlaceMergePolicy mergePolicy,
+			LocalPlacesProperties localPlacesProperties) {
 		this.allowMockGoogle = Arrays.asList(environment.getActiveProfiles()).contains("local");
-		this.restTemplate = new RestTemplate();
+		this.meterRegistry = meterRegistry;
+		this.stalePlaces = stalePlaces;
+		this.providers = List.copyOf(providers);
+		this.mergePolicy = mergePolicy;
+		this.skipUpstreamAt = localPlacesProperties.skipUpstreamAt();
+		this.upstreamSkipped = Counter.builder("midlo.places.upstream.skipped")
+				.description("searchNearby calls not made because local places already covered the query")
+				.register(meterRegistry);
 	}
 
 	public List<PlaceResponse> getMockPlaces(PlacesRequest request) {
 		// NOTE: method name kept for API stability; now returns REAL places.
-		String apiKey = (googleMapsProperties.apiKey() == null) ? "" : googleMapsProperties.apiKey().trim();
-		if (apiKey.isBlank()) {
+		return search(request, PlacesSearchBudget.FULL).places();
+	}
+
+	/**
+	 * Stored places near the request, for when no search can be run at all
+	 * (e.g. the limiter is shedding). Returns null when nothing usable is
+	 * stored.
+	 */
+	public PlacesSearchResult staleOnly(PlacesRequest request, PlacesSearchBudget budget) {
+		StalePlaces stale = stalePlaces.lookup(request.lat(), request.lng());
+		if (stale == null) {
+			return null;
+		}
+		staleServed("shed");
+		List<PlaceResponse> places = stale.places().stream()
+				.map(p -> toCandidate(p, request.lat(), request.lng()))
+				.sorted(Comparator.comparingDouble(c -> c.distanceMeters))
+				.limit(budget.targetUniquePlaces())
+				.map(c -> new PlaceResponse(c.placeId, c.name, formatDistanceMiles(c.distanceMeters), c.lat, c.lng))
+				.toList();
+		return new PlacesSearchResult(places, "full", stale.ageMillis(System.currentTimeMillis()));
+	}
+
+	/**
+	 * @param budget caps on upstream work, lowered by the limiter under load
+	 */
+	public PlacesSearchResult search(PlacesRequest request, PlacesSearchBudget budget) {
+		// Google is unavailable without a key, but a loaded local store still
+		// gives real (unrated) places.
+		if (providers.stream().noneMatch(PlaceProvider::available)) {
 			if (allowMockGoogle) {
-				return mockPlaces(request);
+				return PlacesSearchResult.fresh(mockPlaces(request));
 			}
 			throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE,
 					"Missing GOOGLE_MAPS_API_KEY (Google Maps Platform)");
@@ -57,7 +107,7 @@ public class PlacesService {
 		// Goal: provide enough unique options for 6 batches × 5 places = 30.
 		// But critically: never return an empty list. If the midpoint is rural,
 		// progressively expand the search radius and broaden types.
-		final int targetUniquePlaces = 30;
+		final int targetUniquePlaces = budget.targetUniquePlaces();
 		final double minRating = 2.5;
 		final Random random = new Random();
 
@@ -102,49 +152,60 @@ public class PlacesService {
 		final List<Integer> radiusPlanMeters = List.of(8_000, 15_000, 25_000, 40_000, maxRadiusMeters);
 
 		// Keep latency bounded: cap total calls across all radii.
-		// (Higher than before so rescans can still have 5 fresh options.)
-		final int maxTotalQueries = 40;
+		// (40 at full budget, so rescans can still have 5 fresh options.)
+		final int maxTotalQueries = budget.maxTotalQueries();
 
 		Map<String, Candidate> byPlaceId = new HashMap<>();
 		ApiException lastFailure = null;
 		int queriesRun = 0;
+		long searchStart = System.nanoTime();
+		// Which phase ended the search, and why; recorded as metric tags.
+		String endPhase = radiusPhase(maxRadiusMeters);
+		String endReason = "exhausted";
 
 		outer: for (int radiusMeters : radiusPlanMeters) {
-			List<List<String>> queryPlan = new ArrayList<>();
-			queryPlan.addAll(primaryTypeGroups);
-			if (radiusMeters >= 25_000) {
-				queryPlan.addAll(fallbackTypeGroups);
-			}
-			for (List<String> types : queryPlan) {
-				if (queriesRun >= maxTotalQueries) {
-					break outer;
-				}
-				int jitteredRadius = jitterWithinMax(radiusMeters, maxRadiusMeters, random);
-				FetchResult first;
-				try {
-					first = fetchNearby(lat, lng, jitteredRadius, types, apiKey);
-				} catch (ApiException e) {
-					lastFailure = e;
-					queriesRun++;
-					continue;
-				}
-				queriesRun++;
-				for (Candidate c : first.candidates) {
-					byPlaceId.putIfAbsent(c.placeId, c);
+			PlacesSearchPhaseEvent tierEvent = PlacesSearchPhaseEvent.start();
+			int tierStartQueries = queriesRun;
+			try {
+				List<List<String>> queryPlan = new ArrayList<>();
+				queryPlan.addAll(primaryTypeGroups);
+				if (radiusMeters >= 25_000) {
+					queryPlan.addAll(fallbackTypeGroups);
 				}
+				for (List<String> types : queryPlan) {
+					if (queriesRun >= maxTotalQueries) {
+						endPhase = radiusPhase(radiusMeters);
+						endReason = "query_cap";
+						break outer;
+					}
+					int jitteredRadius = jitterWithinMax(radiusMeters, maxRadiusMeters, random);
+					FetchResult first = fetchNearby(lat, lng, jitteredRadius, types, lat, lng, byPlaceId);
+					queriesRun += first.upstreamCalls;
+					if (first.failure != null) {
+						lastFailure = first.failure;
+					}
 
-				int highQuality = countHighQualityUnique(byPlaceId.values(), minRating);
-				int withCoords = countWithCoords(byPlaceId.values());
-				if (highQuality >= targetUniquePlaces || withCoords >= targetUniquePlaces) {
-					break outer;
+					int highQuality = countHighQualityUnique(byPlaceId.values(), minRating);
+					int withCoords = countWithCoords(byPlaceId.values());
+					if (highQuality >= targetUniquePlaces || withCoords >= targetUniquePlaces) {
+						endPhase = radiusPhase(radiusMeters);
+						endReason = "target_met";
+						break outer;
+					}
 				}
+			} finally {
+				tierEvent.finish(radiusPhase(radiusMeters), queriesRun - tierStartQueries, byPlaceId.size());
 			}
 		}
 
 		// If we still have too few options, do a final broad pass using a few
 		// nearby centers to avoid the case where the midpoint lands in a sparse
 		// area between towns.
-		if (countWithCoords(byPlaceId.values()) < targetUniquePlaces && queriesRun < maxTotalQueries) {
+		if (budget.fallbackPass()
+				&& countWithCoords(byPlaceId.values()) < targetUniquePlaces && queriesRun < maxTotalQueries) {
+			endPhase = "fallback";
+			PlacesSearchPhaseEvent fallbackEvent = PlacesSearchPhaseEvent.start();
+			int fallbackStartQueries = queriesRun;
 			List<double[]> centers = new ArrayList<>();
 			centers.addAll(buildFallbackCenters(lat, lng, 35_000));
 			centers.addAll(buildFallbackCenters(lat, lng, 80_000));
@@ -163,26 +224,11 @@ public class PlacesService {
 				double cLng = center[1];
 				for (List<String> types : finalGroups) {
 					if (queriesRun >= maxTotalQueries) break;
-					FetchResult r;
-					try {
-						r = fetchNearby(cLat, cLng, maxRadiusMeters, types, apiKey);
-					} catch (ApiException e) {
-						lastFailure = e;
-						queriesRun++;
-						continue;
-					}
-					queriesRun++;
-					for (Candidate c : r.candidates) {
-						// Distance should still be from the true midpoint for fairness.
-						double dist = haversineMeters(lat, lng, c.lat, c.lng);
-						byPlaceId.putIfAbsent(c.placeId, new Candidate(
-								c.placeId,
-								c.name,
-								c.formattedAddress,
-								c.rating,
-								c.lat,
-								c.lng,
-								dist));
+					// Distance should still be from the true midpoint for fairness.
+					FetchResult r = fetchNearby(cLat, cLng, maxRadiusMeters, types, lat, lng, byPlaceId);
+					queriesRun += r.upstreamCalls;
+					if (r.failure != null) {
+						lastFailure = r.failure;
 					}
 					if (countWithCoords(byPlaceId.values()) >= targetUniquePlaces) {
 						break;
@@ -192,12 +238,36 @@ public class PlacesService {
 					break;
 				}
 			}
+			fallbackEvent.finish("fallback", queriesRun - fallbackStartQueries, byPlaceId.size());
+		}
+
+		if ("fallback".equals(endPhase)) {
+			endReason = countWithCoords(byPlaceId.values()) >= targetUniquePlaces ? "target_met"
+					: queriesRun >= maxTotalQueries ? "query_cap" : "exhausted";
+		}
+		recordSearch(endPhase, endReason, queriesRun, System.nanoTime() - searchStart);
+
+		// Upstream errors left us short: top up from (or fall back to) the last
+		// good result stored for this spot.
+		StalePlaces stale = null;
+		if (lastFailure != null && countWithCoords(byPlaceId.values()) < targetUniquePlaces) {
+			stale = stalePlaces.lookup(lat, lng);
+		}
+		String staleMode = null;
+		if (stale != null) {
+			staleMode = byPlaceId.isEmpty() ? "full" : "partial";
+			staleServed(staleMode);
+			for (PlaceResponse p : stale.places()) {
+				addCandidate(byPlaceId, toCandidate(p, lat, lng));
+			}
 		}
 
 		if (byPlaceId.isEmpty() && lastFailure != null) {
 			throw lastFailure;
 		}
 
+		RequestTrace.Span dedupe = RequestTrace.start("dedupe");
+		PlacesSearchPhaseEvent dedupeEvent = PlacesSearchPhaseEvent.start();
 		// Quality filtering & strict dedup by place_id
 		// - Always remove missing coordinates
 		// - Only remove very low ratings when we can still fill 30
@@ -219,14 +289,70 @@ public class PlacesService {
 			dedupedByNameAddress = dedupeByNameAndAddress(withCoords);
 		}
 
+		dedupeEvent.finish("dedupe", 0, dedupedByNameAddress.size());
+
+		PlacesSearchPhaseEvent rankEvent = PlacesSearchPhaseEvent.start();
 		List<Candidate> finalList = new ArrayList<>(dedupedByNameAddress);
 		// Closest-first (critical for product correctness).
 		finalList.sort(Comparator.comparingDouble(c -> c.distanceMeters));
+		dedupe.describe(byPlaceId.size() + " -> " + finalList.size()).close();
 
-		return finalList.stream()
+		List<PlaceResponse> ranked = finalList.stream()
 				.limit(targetUniquePlaces)
 				.map(c -> new PlaceResponse(c.placeId, c.name, formatDistanceMiles(c.distanceMeters), c.lat, c.lng))
 				.toList();
+		rankEvent.finish("rank", 0, ranked.size());
+
+		if (stale != null) {
+			return new PlacesSearchResult(ranked, staleMode, stale.ageMillis(System.currentTimeMillis()));
+		}
+		// Keep complete answers only; a degraded or error-shortened list would
+		// replace a better one.
+		if (budget.targetUniquePlaces() >= PlacesSearchBudget.FULL.targetUniquePlaces()
+				&& (lastFailure == null || ranked.size() >= targetUniquePlaces)) {
+			stalePlaces.put(lat, lng, ranked);
+		}
+		return PlacesSearchResult.fresh(ranked);
+	}
+
+	private void staleServed(String mode) {
+		Counter.builder("midlo.places.stale.served")
+				.description("/places answers that used stored places because Google failed")
+				.tag("mode", mode)
+				.register(meterRegistry)
+				.increment();
+	}
+
+	private static Candidate toCandidate(PlaceResponse p, double lat, double lng) {
+		// Distances are re-measured from this request's midpoint.
+		String source = LocalPlaceProvider.isLocalId(p.placeId()) ? LocalPlaceProvider.NAME : GooglePlaceProvider.NAME;
+		return new Candidate(p.placeId(), p.name(), null, null, p.lat(), p.lng(),
+				haversineMeters(lat, lng, p.lat(), p.lng()), source);
+	}
+
+	private void recordSearch(String phase, String reason, int queriesRun, long elapsedNanos) {
+		DistributionSummary.builder("midlo.places.upstream.calls")
+				.description("Google searchNearby calls made per /places request")
+				.tag("phase", phase)
+				.tag("reason", reason)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(1.0)
+				.maximumExpectedValue(64.0)
+				.register(meterRegistry)
+				.record(queriesRun);
+		Timer.builder("midlo.places.search")
+				.description("Time spent searching for candidates per /places request")
+				.tag("phase", phase)
+				.tag("reason", reason)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofMillis(10))
+				.maximumExpectedValue(Duration.ofSeconds(60))
+				.register(meterRegistry)
+				.record(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static String radiusPhase(int radiusMeters) {
+		return "radius_" + (radiusMeters / 1000) + "km";
 	}
 
 	private static int countWithCoords(Iterable<Candidate> candidates) {
@@ -280,90 +406,71 @@ public class PlacesService {
 				new PlaceResponse("mock_place_5", "Mock Coffee", "2.0 mi", lat + 0.0061, lng + 0.0007));
 	}
 
-	private FetchResult fetchNearby(double lat, double lng, int radiusMeters, List<String> types, String apiKey) {
-		String endpoint = "https://places.googleapis.com/v1/places:searchNearby";
-
-		HttpHeaders headers = new HttpHeaders();
-		headers.setContentType(MediaType.APPLICATION_JSON);
-		headers.set("X-Goog-Api-Key", apiKey);
-		headers.set("X-Goog-FieldMask",
-				"places.id,places.displayName,places.location,places.formattedAddress,places.rating");
-
-		Map<String, Object> body = new HashMap<>();
-		body.put("includedTypes", types);
-		body.put("maxResultCount", 20);
-		body.put("locationRestriction", Map.of(
-				"circle", Map.of(
-						"center", Map.of("latitude", lat, "longitude", lng),
-						"radius", radiusMeters)));
-		// places.searchNearby does not support pagination tokens.
-
-		ResponseEntity<Map<String, Object>> resp;
-		try {
-			resp = restTemplate.exchange(
-					endpoint,
-					Objects.requireNonNull(HttpMethod.POST),
-					new HttpEntity<>(body, headers),
-					new ParameterizedTypeReference<>() {
-					});
-		} catch (HttpStatusCodeException e) {
-			String details = e.getResponseBodyAsString() == null ? "" : e.getResponseBodyAsString().trim();
-			String suffix = details.isBlank() ? "" : " - " + details;
-			throw new ApiException(HttpStatus.BAD_GATEWAY, "Places failed" + suffix);
-		} catch (RestClientException e) {
-			throw new ApiException(HttpStatus.BAD_GATEWAY, "Places service unavailable");
-		}
-
-		Map<String, Object> respBody = resp.getBody();
-		if (respBody == null) {
-			return new FetchResult(List.of(), null);
+	/**
+	 * One searchNearby round across providers, merged into {@code byPlaceId}.
+	 * Upstream providers are skipped when local ones already returned
+	 * {@code skipUpstreamAt} places; distances are measured from
+	 * ({@code originLat}, {@code originLng}).
+	 */
+	private FetchResult fetchNearby(double lat, double lng, int radiusMeters, List<String> types,
+			double originLat, double originLng, Map<String, Candidate> byPlaceId) {
+		int localHits = 0;
+		int upstreamCalls = 0;
+		ApiException failure = null;
+		for (PlaceProvider provider : providers) {
+			if (!provider.available()) {
+				continue;
+			}
+			if (provider.upstream()) {
+				if (localHits >= skipUpstreamAt) {
+					upstreamSkipped.increment();
+					continue;
+				}
+				upstreamCalls++;
+			}
+			List<PlaceCandidate> found;
+			try {
+				found = provider.searchNearby(lat, lng, radiusMeters, types);
+			} catch (ApiException e) {
+				failure = e;
+				continue;
+			}
+			if (!provider.upstream()) {
+				localHits += found.size();
+			}
+			for (PlaceCandidate p : found) {
+				addCandidate(byPlaceId, new Candidate(p.placeId(), p.name(), p.formattedAddress(), p.rating(),
+						p.lat(), p.lng(), haversineMeters(originLat, originLng, p.lat(), p.lng()), p.source()));
+			}
 		}
-		String nextPageToken = null;
+		return new FetchResult(upstreamCalls, failure);
+	}
 
-		Object placesObj = respBody.get("places");
-		if (!(placesObj instanceof List<?> placesList) || placesList.isEmpty()) {
-			return new FetchResult(List.of(), nextPageToken);
+	/**
+	 * Adds a candidate unless another provider already has the same place. On
+	 * a cross-provider match the Google entry is kept: its id works with
+	 * details and photos, and it has a rating.
+	 */
+	private void addCandidate(Map<String, Candidate> byPlaceId, Candidate c) {
+		if (byPlaceId.containsKey(c.placeId)) {
+			return;
 		}
-
-		List<Candidate> out = new ArrayList<>();
-		for (Object placeObj : placesList) {
-			if (!(placeObj instanceof Map<?, ?> placeMap))
-				continue;
-
-			Object idObj = placeMap.get("id");
-			Object displayNameObj = placeMap.get("displayName");
-			Object locationObj = placeMap.get("location");
-			Object addrObj = placeMap.get("formattedAddress");
-			Object ratingObj = placeMap.get("rating");
-			if (!(idObj instanceof String placeId))
-				continue;
-			if (!(locationObj instanceof Map<?, ?> locMap))
+		for (Iterator<Candidate> it = byPlaceId.values().iterator(); it.hasNext();) {
+			Candidate existing = it.next();
+			if (existing.source.equals(c.source) || existing.lat == null || existing.lng == null
+					|| !mergePolicy.samePlace(existing.name, existing.lat, existing.lng, c.name, c.lat, c.lng)) {
 				continue;
-			Double pLat = toDouble(locMap.get("latitude"));
-			Double pLng = toDouble(locMap.get("longitude"));
-			if (pLat == null || pLng == null)
-				continue;
-
-			String name = null;
-			if (displayNameObj instanceof Map<?, ?> dnMap) {
-				Object textObj = dnMap.get("text");
-				if (textObj instanceof String t)
-					name = t;
 			}
-			if (name == null)
-				continue;
-
-			String address = (addrObj instanceof String s && !s.isBlank()) ? s : null;
-			Double rating = toDouble(ratingObj);
-
-			double dist = haversineMeters(lat, lng, pLat, pLng);
-			out.add(new Candidate(placeId, name, address, rating, pLat, pLng, dist));
+			if (!LocalPlaceProvider.NAME.equals(existing.source) || LocalPlaceProvider.NAME.equals(c.source)) {
+				return;
+			}
+			it.remove();
+			break;
 		}
-
-		return new FetchResult(out, nextPageToken);
+		byPlaceId.put(c.placeId, c);
 	}
 
-	private record FetchResult(List<Candidate> candidates, String nextPageToken) {
+	private record FetchResult(int upstreamCalls, ApiException failure) {
 	}
 
 
@@ -423,19 +530,6 @@ public class PlacesService {
 		return base;
 	}
 
-	private static Double toDouble(Object v) {
-		if (v instanceof Number n)
-			return n.doubleValue();
-		if (v instanceof String s) {
-			try {
-				return Double.parseDouble(s);
-			} catch (NumberFormatException ignored) {
-				return null;
-			}
-		}
-		return null;
-	}
-
 	private static String formatDistanceMiles(double meters) {
 		double miles = meters / 1609.344;
 		if (miles < 1.0) {
@@ -457,7 +551,8 @@ public class PlacesService {
 
 	private record Candidate(String placeId, String name, String formattedAddress, Double rating, Double lat,
 			Double lng,
-			double distanceMeters) {
+			double distanceMeters,
+			String source) {
 	}
 
 }
@@ -0,0 +1,23 @@
+package com.midlo.backend.places.stale;
+
+import com.midlo.backend.places.dto.PlaceResponse;
+
+import java.util.List;
+
+/**
+ * A computed {@code /places} list and the search center it was computed for.
+ */
+public record StalePlaces(double lat, double lng, long storedAtMillis, List<PlaceResponse> places) {
+
+	public long ageMillis(long nowMillis) {
+		return Math.max(0, nowMillis - storedAtMillis);
+	}
+
+	long approximateBytes() {
+		long bytes = 96;
+		for (PlaceResponse p : places) {
+			bytes += 96 + 2L * (p.placeId().length() + (p.name() == null ? 0 : p.name().length()));
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,9 @@
+package com.midlo.backend.places.stale;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StalePlacesProperties.class)
+public class StalePlacesConfig {
+}
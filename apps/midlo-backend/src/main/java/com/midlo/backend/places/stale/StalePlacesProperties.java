@@ -0,0 +1,22 @@
+package com.midlo.backend.places.stale;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.places.stale")
+public record StalePlacesProperties(
+		Boolean enabled,
+		Duration maxAge,
+		Integer snapMeters,
+		Integer maxEntries,
+		Long maxBytes
+) {
+	public StalePlacesProperties {
+		enabled = enabled == null || enabled;
+		maxAge = (maxAge == null || maxAge.isNegative() || maxAge.isZero()) ? Duration.ofHours(6) : maxAge;
+		snapMeters = (snapMeters == null || snapMeters <= 0) ? 500 : snapMeters;
+		maxEntries = (maxEntries == null || maxEntries <= 0) ? 20_000 : maxEntries;
+		maxBytes = (maxBytes == null || maxBytes <= 0) ? 32L * 1024 * 1024 : maxBytes;
+	}
+}
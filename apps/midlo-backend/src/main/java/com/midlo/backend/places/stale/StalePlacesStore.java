@@ -0,0 +1,106 @@
+package com.midlo.backend.places.stale;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midlo.backend.places.dto.PlaceResponse;
+import com.midlo.backend.shared.cache.ExpiringCache;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Last good {@code /places} result per snapped location, kept for
+ * {@code maxAge} so a Google outage degrades to slightly old results instead
+ * of errors.
+ *
+ * Locations snap to a grid of {@code snapMeters} cells. A lookup checks the
+ * request's cell and its eight neighbours and takes the closest stored center
+ * within two cells, so midpoints near a cell edge still find their neighbour's
+ * results. The store is included in cache snapshots and survives restarts.
+ */
+@Component
+public class StalePlacesStore {
+	private static final double METERS_PER_DEG_LAT = 111_320.0;
+
+	private final StalePlacesProperties properties;
+	private final ExpiringCache<String, StalePlaces> cache;
+	private final double latStep;
+	private final double maxDistanceMeters;
+
+	public StalePlacesStore(
+			StalePlacesProperties properties,
+			MeterRegistry meterRegistry,
+			CacheSnapshotter cacheSnapshotter,
+			ObjectMapper objectMapper) {
+		this.properties = properties;
+		this.cache = new ExpiringCache<>(
+				"places-stale",
+				properties.maxEntries(),
+				properties.maxBytes(),
+				StalePlaces::approximateBytes,
+				meterRegistry);
+		this.latStep = properties.snapMeters() / METERS_PER_DEG_LAT;
+		this.maxDistanceMeters = 2.0 * properties.snapMeters();
+		cacheSnapshotter.register(cache, CacheCodec.json(objectMapper, StalePlaces.class, 1));
+	}
+
+	public void put(double lat, double lng, List<PlaceResponse> places) {
+		if (!properties.enabled() || places == null || places.isEmpty()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		cache.putUntil(key(cellLat(lat), cellLng(cellLat(lat), lng)),
+				new StalePlaces(lat, lng, now, List.copyOf(places)),
+				now + properties.maxAge().toMillis());
+	}
+
+	/**
+	 * The closest stored result near a location, or null.
+	 */
+	public StalePlaces lookup(double lat, double lng) {
+		if (!properties.enabled()) {
+			return null;
+		}
+		long row = cellLat(lat);
+		StalePlaces best = null;
+		double bestDistance = maxDistanceMeters;
+		for (long r = row - 1; r <= row + 1; r++) {
+			long col = cellLng(r, lng);
+			for (long c = col - 1; c <= col + 1; c++) {
+				StalePlaces candidate = cache.get(key(r, c));
+				if (candidate == null) {
+					continue;
+				}
+				double d = approxMeters(lat, lng, candidate.lat(), candidate.lng());
+				if (d <= bestDistance) {
+					best = candidate;
+					bestDistance = d;
+				}
+			}
+		}
+		return best;
+	}
+
+	private long cellLat(double lat) {
+		return Math.round(lat / latStep);
+	}
+
+	private long cellLng(long row, double lng) {
+		// Longitude cells widen toward the equator; size them at the row's latitude.
+		double rowLat = Math.max(-89.0, Math.min(89.0, row * latStep));
+		double lngStep = properties.snapMeters() / (METERS_PER_DEG_LAT * Math.cos(Math.toRadians(rowLat)));
+		return Math.round(lng / lngStep);
+	}
+
+	private static String key(long row, long col) {
+		return row + ":" + col;
+	}
+
+	private static double approxMeters(double lat1, double lng1, double lat2, double lng2) {
+		double dLat = (lat2 - lat1) * METERS_PER_DEG_LAT;
+		double dLng = (lng2 - lng1) * METERS_PER_DEG_LAT * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+		return Math.sqrt(dLat * dLat + dLng * dLng);
+	}
+}
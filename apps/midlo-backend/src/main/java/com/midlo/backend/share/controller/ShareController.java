@@ -0,0 +1,47 @@
+package com.midlo.backend.share.controller;
+
+import com.midlo.backend.share.dto.ShareCreated;
+import com.midlo.backend.share.dto.ShareRequest;
+import com.midlo.backend.share.service.ShareService;
+import com.midlo.backend.shared.json.EncodedJson;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.time.Duration;
+
+@RestController
+public class ShareController {
+
+	private static final Duration MAX_CACHE_AGE = Duration.ofHours(1);
+
+	private final ShareService shareService;
+
+	public ShareController(ShareService shareService) {
+		this.shareService = shareService;
+	}
+
+	@PostMapping(value = "/m", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ShareCreated> create(@Valid @RequestBody ShareRequest request) {
+		ShareCreated created = shareService.create(request);
+		return ResponseEntity.created(URI.create(created.url())).body(created);
+	}
+
+	/**
+	 * Serves the stored JSON bytes (or their gzip variant) as-is. A link's
+	 * content never changes, so browsers and CDNs may cache it.
+	 */
+	@GetMapping(value = "/m/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<byte[]> open(@PathVariable String id, WebRequest webRequest) {
+		EncodedJson json = shareService.open(id);
+		return json.respond(webRequest, CacheControl.maxAge(MAX_CACHE_AGE).cachePublic());
+	}
+}
@@ -0,0 +1,13 @@
+package com.midlo.backend.share.dto;
+
+/**
+ * @param path share path on this API, e.g. {@code /m/Ab3dE5gH9k}
+ * @param url  absolute link to hand out, see {@code midlo.public.baseUrl}
+ */
+public record ShareCreated(
+		String id,
+		String path,
+		String url,
+		long expiresAt
+) {
+}
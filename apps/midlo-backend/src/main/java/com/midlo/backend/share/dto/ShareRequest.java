@@ -0,0 +1,10 @@
+package com.midlo.backend.share.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record ShareRequest(
+		@NotBlank @Size(max = 200) String addressA,
+		@NotBlank @Size(max = 200) String addressB
+) {
+}
@@ -0,0 +1,20 @@
+package com.midlo.backend.share.dto;
+
+import com.midlo.backend.midpoint.dto.MidpointResponse;
+import com.midlo.backend.places.dto.PlaceResponse;
+
+import java.util.List;
+
+/**
+ * What a share link shows, fixed when the link was created.
+ */
+public record SharedMeetup(
+		String id,
+		String addressA,
+		String addressB,
+		MidpointResponse midpoint,
+		List<PlaceResponse> places,
+		long createdAt,
+		long expiresAt
+) {
+}
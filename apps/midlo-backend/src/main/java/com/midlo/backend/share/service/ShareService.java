@@ -0,0 +1,137 @@
+package com.midlo.backend.share.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midlo.backend.midpoint.dto.MidpointRequest;
+import com.midlo.backend.midpoint.dto.MidpointResponse;
+import com.midlo.backend.midpoint.service.MidpointService;
+import com.midlo.backend.places.dto.PlaceResponse;
+import com.midlo.backend.places.dto.PlacesRequest;
+import com.midlo.backend.places.limit.PlacesLimiter;
+import com.midlo.backend.places.service.PlacesService;
+import com.midlo.backend.share.dto.ShareCreated;
+import com.midlo.backend.share.dto.ShareRequest;
+import com.midlo.backend.share.dto.SharedMeetup;
+import com.midlo.backend.share.store.ShareLinkProperties;
+import com.midlo.backend.share.store.ShareLinkStore;
+import com.midlo.backend.shared.exception.ApiException;
+import com.midlo.backend.shared.json.EncodedJson;
+import com.midlo.backend.shared.web.PublicUrls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Share links: the midpoint and ranked places are computed once, when the
+ * link is created, and every open serves that stored answer without any
+ * geocode or places call.
+ */
+@Service
+public class ShareService {
+	private static final Logger log = LoggerFactory.getLogger(ShareService.class);
+
+	private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+	private static final int ID_LENGTH = 10;
+
+	private final MidpointService midpointService;
+	private final PlacesService placesService;
+	private final PlacesLimiter placesLimiter;
+	private final ShareLinkStore store;
+	private final ShareLinkProperties properties;
+	private final ObjectMapper objectMapper;
+	private final PublicUrls publicUrls;
+	private final SecureRandom random = new SecureRandom();
+	private final Counter created;
+
+	public ShareService(
+			MidpointService midpointService,
+			PlacesService placesService,
+			PlacesLimiter placesLimiter,
+			ShareLinkStore store,
+			ShareLinkProperties properties,
+			ObjectMapper objectMapper,
+			PublicUrls publicUrls,
+			MeterRegistry meterRegistry) {
+		this.midpointService = midpointService;
+		this.placesService = placesService;
+		this.placesLimiter = placesLimiter;
+		this.store = store;
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.publicUrls = publicUrls;
+		this.created = Counter.builder("midlo.share.created").register(meterRegistry);
+	}
+
+	public ShareCreated create(ShareRequest request) {
+		if (!properties.enabled()) {
+			throw new ApiException(HttpStatus.NOT_FOUND, "Share links are disabled");
+		}
+		String addressA = request.addressA().trim();
+		String addressB = request.addressB().trim();
+		MidpointResponse midpoint = midpointService.calculateMidpoint(new MidpointRequest(addressA, addressB));
+		List<PlaceResponse> places;
+		try (PlacesLimiter.Permit permit = placesLimiter.acquire()) {
+			try {
+				places = placesService.search(new PlacesRequest(midpoint.lat(), midpoint.lng()), permit.budget())
+						.places();
+			} catch (ApiException e) {
+				if (e.getStatus().is5xxServerError()) {
+					permit.failed();
+				}
+				throw e;
+			}
+		}
+
+		long now = System.currentTimeMillis();
+		long expiresAt = now + properties.ttl().toMillis();
+		String id = newId();
+		byte[] json;
+		try {
+			json = objectMapper.writeValueAsBytes(
+					new SharedMeetup(id, addressA, addressB, midpoint, places, now, expiresAt));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize share link", e);
+		}
+		try {
+			store.put(id, json, expiresAt);
+		} catch (IOException e) {
+			log.warn("Failed to store share link {}", id, e);
+			throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Could not save the share link");
+		}
+		created.increment();
+		String path = "/m/" + id;
+		return new ShareCreated(id, path, publicUrls.absolute(path), expiresAt);
+	}
+
+	/**
+	 * The stored {@link SharedMeetup} JSON for a link.
+	 */
+	public EncodedJson open(String id) {
+		EncodedJson json = properties.enabled() ? store.get(id) : null;
+		if (json == null) {
+			throw new ApiException(HttpStatus.NOT_FOUND, "Share link not found or expired");
+		}
+		return json;
+	}
+
+	private String newId() {
+		while (true) {
+			char[] id = new char[ID_LENGTH];
+			for (int i = 0; i < ID_LENGTH; i++) {
+				id[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			}
+			String candidate = new String(id);
+			// 62^10 ids; a collision is practically impossible, but cheap to rule out.
+			if (!store.contains(candidate)) {
+				return candidate;
+			}
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package com.midlo.backend.share.store;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ShareLinkProperties.class)
+public class ShareLinkConfig {
+}
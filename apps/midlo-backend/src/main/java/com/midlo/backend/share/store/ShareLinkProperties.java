@@ -0,0 +1,36 @@
+package com.midlo.backend.share.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param ttl           how long a link works after it was created
+ * @param directory     one file per link; share it between instances (or
+ *                      enable the L2 cache) so any instance can open any link
+ * @param maxDiskBytes  oldest links are deleted beyond this
+ * @param maxEntries    links kept in memory
+ * @param maxBytes      memory for those links
+ */
+@ConfigurationProperties(prefix = "midlo.share")
+public record ShareLinkProperties(
+		Boolean enabled,
+		Duration ttl,
+		String directory,
+		Long maxDiskBytes,
+		Integer maxEntries,
+		Long maxBytes,
+		Duration sweepInterval
+) {
+	public ShareLinkProperties {
+		enabled = enabled == null || enabled;
+		ttl = (ttl == null || ttl.isNegative() || ttl.isZero()) ? Duration.ofDays(30) : ttl;
+		directory = (directory == null || directory.isBlank()) ? "./data/share-links" : directory.trim();
+		maxDiskBytes = (maxDiskBytes == null || maxDiskBytes <= 0) ? 256L * 1024 * 1024 : maxDiskBytes;
+		maxEntries = (maxEntries == null || maxEntries <= 0) ? 10_000 : maxEntries;
+		maxBytes = (maxBytes == null || maxBytes <= 0) ? 32L * 1024 * 1024 : maxBytes;
+		sweepInterval = (sweepInterval == null || sweepInterval.isNegative() || sweepInterval.isZero())
+				? Duration.ofMinutes(10)
+				: sweepInterval;
+	}
+}
@@ -0,0 +1,332 @@
+package com.midlo.backend.share.store;
+
+import com.midlo.backend.shared.cache.ExpiringCache;
+import com.midlo.backend.shared.cache.l2.NearCacheManager;
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import com.midlo.backend.shared.json.EncodedJson;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Share links by id: the meetup JSON, serialized once when the link is
+ * created and served as-is on every open.
+ *
+ * Disk holds every live link, one file each (magic, version, expiry, JSON),
+ * written via temp file and rename. Memory holds the links being opened, with
+ * their ETag and gzip variant, so a link that goes viral is read from disk and
+ * compressed once. A sweeper rescans the directory, deletes expired files and,
+ * past {@code maxDiskBytes}, the links closest to expiry.
+ *
+ * Disk is the only durable copy. The memory tier is shared through the L2
+ * cache, but the L2 may evict a link at any time, so with several instances
+ * {@code directory} must be a volume they all mount. The in-memory index is
+ * only a hint: a miss falls back to the file, so links written by another
+ * instance are found, and each sweep picks up the whole directory.
+ */
+@Component
+public class ShareLinkStore {
+	private static final Logger log = LoggerFactory.getLogger(ShareLinkStore.class);
+
+	public static final Pattern ID = Pattern.compile("[A-Za-z0-9]{10}");
+
+	private static final int MAGIC = 0x4D53484C; // "MSHL"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 20;
+	private static final String SUFFIX = ".link";
+	private static final String TMP_SUFFIX = ".tmp";
+	/** Temp files younger than this may still be renamed by another instance. */
+	private static final long TMP_GRACE_MILLIS = 60_000;
+
+	private final ShareLinkProperties properties;
+	private final Path directory;
+	private final ExpiringCache<String, EncodedJson> memory;
+	private final ConcurrentHashMap<String, DiskEntry> index = new ConcurrentHashMap<>();
+	private final AtomicLong diskBytes = new AtomicLong();
+	private final ScheduledExecutorService sweeper;
+	private final Counter diskReads;
+
+	private record DiskEntry(long expiresAtMillis, long size) {
+	}
+
+	public ShareLinkStore(ShareLinkProperties properties, MeterRegistry meterRegistry,
+			NearCacheManager nearCacheManager) {
+		this.properties = properties;
+		this.directory = Paths.get(properties.directory());
+		this.memory = new ExpiringCache<>(
+				"share-links",
+				properties.maxEntries(),
+				properties.maxBytes(),
+				EncodedJson::approximateBytes,
+				meterRegistry);
+		nearCacheManager.attach(memory, EncodedJson.codec());
+		this.diskReads = Counter.builder("midlo.share.disk.reads").register(meterRegistry);
+		Gauge.builder("midlo.share.links", index, Map::size).register(meterRegistry);
+		Gauge.builder("midlo.share.disk.bytes", diskBytes, AtomicLong::get)
+				.baseUnit("bytes")
+				.register(meterRegistry);
+
+		if (!properties.enabled()) {
+			this.sweeper = null;
+			return;
+		}
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot create share link directory " + directory, e);
+		}
+		sweep();
+		log.info("Share links ready links={} bytes={} dir={}", index.size(), diskBytes.get(), directory);
+		this.sweeper = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("share-sweep",
+				Thread.MIN_PRIORITY));
+		long sweepMillis = properties.sweepInterval().toMillis();
+		sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (sweeper != null) {
+			sweeper.shutdownNow();
+		}
+	}
+
+	/**
+	 * Whether a link with this id is stored, by this or another instance.
+	 */
+	public boolean contains(String id) {
+		return index.containsKey(id) || Files.exists(fileFor(id));
+	}
+
+	public void put(String id, byte[] json, long expiresAtMillis) throws IOException {
+		Path target = fileFor(id);
+		Path tmp = directory.resolve(id + SUFFIX + TMP_SUFFIX);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+				.putInt(MAGIC)
+				.putInt(VERSION)
+				.putLong(expiresAtMillis)
+				.putInt(json.length);
+		try {
+			Files.write(tmp, concat(header.array(), json));
+			try {
+				Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+		index(id, new DiskEntry(expiresAtMillis, HEADER_BYTES + json.length));
+		memory.putUntil(id, EncodedJson.of(json), expiresAtMillis);
+	}
+
+	/**
+	 * The stored JSON, or null when the link is unknown or expired.
+	 */
+	public EncodedJson get(String id) {
+		if (!ID.matcher(id).matches()) {
+			return null;
+		}
+		EncodedJson cached = memory.get(id);
+		if (cached != null) {
+			return cached;
+		}
+		DiskEntry entry = index.get(id);
+		if (entry != null && entry.expiresAtMillis <= System.currentTimeMillis()) {
+			return null;
+		}
+		try {
+			byte[] file = Files.readAllBytes(fileFor(id));
+			diskReads.increment();
+			ByteBuffer buf = ByteBuffer.wrap(file);
+			if (file.length < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+				throw new IOException("Not a share link file");
+			}
+			long expiresAtMillis = buf.getLong();
+			int length = buf.getInt();
+			if (length != file.length - HEADER_BYTES) {
+				throw new IOException("Truncated share link file");
+			}
+			if (expiresAtMillis <= System.currentTimeMillis()) {
+				return null;
+			}
+			byte[] json = new byte[length];
+			buf.get(json);
+			if (entry == null) {
+				// Written by another instance since the last sweep.
+				index(id, new DiskEntry(expiresAtMillis, file.length));
+			}
+			EncodedJson encoded = EncodedJson.of(json);
+			memory.putUntil(id, encoded, expiresAtMillis);
+			return encoded;
+		} catch (NoSuchFileException e) {
+			if (entry != null) {
+				unindex(id, entry);
+			}
+			return null;
+		} catch (IOException e) {
+			log.warn("Unreadable share link {}: {}", id, e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Reconciles the index with the directory, which other instances may
+	 * share, then deletes expired links and trims the directory to
+	 * {@code maxDiskBytes}.
+	 */
+	int sweep() {
+		long now = System.currentTimeMillis();
+		int removed = 0;
+		Map<String, DiskEntry> onDisk = new HashMap<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path path : stream) {
+				String fileName = path.getFileName().toString();
+				if (fileName.endsWith(TMP_SUFFIX)) {
+					deleteStaleTemp(path, now);
+					continue;
+				}
+				if (!fileName.endsWith(SUFFIX)) {
+					continue;
+				}
+				String id = fileName.substring(0, fileName.length() - SUFFIX.length());
+				if (!ID.matcher(id).matches()) {
+					continue;
+				}
+				DiskEntry entry = readEntry(path);
+				if (entry == null) {
+					continue;
+				}
+				if (entry.expiresAtMillis <= now) {
+					memory.invalidateLocal(id);
+					Files.deleteIfExists(path);
+					removed++;
+					continue;
+				}
+				onDisk.put(id, entry);
+			}
+		} catch (IOException e) {
+			log.warn("Failed to scan share link directory {}", directory, e);
+			return removed;
+		}
+
+		index.forEach((id, entry) -> {
+			if (!onDisk.containsKey(id)) {
+				unindex(id, entry);
+			}
+		});
+		onDisk.forEach((id, entry) -> {
+			if (!entry.equals(index.get(id))) {
+				index(id, entry);
+			}
+		});
+
+		List<Map.Entry<String, DiskEntry>> live = new ArrayList<>(onDisk.entrySet());
+		if (diskBytes.get() > properties.maxDiskBytes()) {
+			long target = (long) (properties.maxDiskBytes() * 0.9);
+			live.sort(Comparator.comparingLong(e -> e.getValue().expiresAtMillis));
+			for (Map.Entry<String, DiskEntry> e : live) {
+				if (diskBytes.get() <= target) {
+					break;
+				}
+				removed += delete(e.getKey(), e.getValue());
+			}
+		}
+		memory.removeExpired();
+		return removed;
+	}
+
+	int size() {
+		return index.size();
+	}
+
+	private int delete(String id, DiskEntry entry) {
+		if (!unindex(id, entry)) {
+			return 0;
+		}
+		memory.invalidateLocal(id);
+		try {
+			Files.deleteIfExists(fileFor(id));
+		} catch (IOException e) {
+			log.warn("Failed to delete share link {}", id, e);
+		}
+		return 1;
+	}
+
+	private void index(String id, DiskEntry entry) {
+		DiskEntry previous = index.put(id, entry);
+		diskBytes.addAndGet(entry.size - (previous == null ? 0 : previous.size));
+	}
+
+	private boolean unindex(String id, DiskEntry entry) {
+		if (!index.remove(id, entry)) {
+			return false;
+		}
+		diskBytes.addAndGet(-entry.size);
+		return true;
+	}
+
+	/**
+	 * The expiry and size from a link file's header, or null when the file is
+	 * not a share link or has gone.
+	 */
+	private static DiskEntry readEntry(Path path) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		try (var channel = Files.newByteChannel(path)) {
+			channel.read(header);
+			header.flip();
+			if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+				return null;
+			}
+			return new DiskEntry(header.getLong(), Files.size(path));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static void deleteStaleTemp(Path path, long now) {
+		try {
+			if (Files.getLastModifiedTime(path).toMillis() < now - TMP_GRACE_MILLIS) {
+				Files.deleteIfExists(path);
+			}
+		} catch (IOException e) {
+			// Renamed or removed meanwhile.
+		}
+	}
+
+	private Path fileFor(String id) {
+		return directory.resolve(id + SUFFIX);
+	}
+
+	private static byte[] concat(byte[] a, byte[] b) {
+		byte[] out = new byte[a.length + b.length];
+		System.arraycopy(a, 0, out, 0, a.length);
+		System.arraycopy(b, 0, out, a.length, b.length);
+		return out;
+	}
+}
@@ -0,0 +1,35 @@
+package com.midlo.backend.shared.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read from an {@link ExpiringCache}. Instant event; disabled unless the
+ * recording uses the bundled {@code midlo.jfc} settings.
+ */
+@Name("midlo.CacheLookup")
+@Label("Cache Lookup")
+@Category({ "Midlo", "Cache" })
+@Enabled(false)
+@StackTrace(false)
+class CacheLookupEvent extends Event {
+
+	@Label("Cache")
+	String cache;
+
+	@Label("Hit")
+	boolean hit;
+
+	static void emit(String cache, boolean hit) {
+		CacheLookupEvent event = new CacheLookupEvent();
+		if (event.isEnabled()) {
+			event.cache = cache;
+			event.hit = hit;
+			event.commit();
+		}
+	}
+}
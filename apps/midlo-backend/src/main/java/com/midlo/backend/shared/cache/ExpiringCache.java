@@ -0,0 +1,428 @@
+package com.midlo.backend.shared.cache;
+
+import com.midlo.backend.shared.cache.snapshot.Snapshottable;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent cache with per-entry expiry, bounded by entry count and by an
+ * approximate byte weight.
+ *
+ * When either bound is exceeded the least recently read entries are evicted
+ * until the cache is back under 90% of both bounds. Misses can be loaded
+ * single-flight: concurrent callers for the same key share one load.
+ *
+ * Expiry is wall-clock (epoch millis) so entries can be persisted and restored
+ * with their remaining lifetime.
+ *
+ * An optional {@link SecondLevelCache} sits behind the local map: local misses
+ * fall through to it and stores write through to it. Restored entries and
+ * entries read from it are only kept locally.
+ */
+public final class ExpiringCache<K, V> implements Snapshottable<K, V> {
+
+	private final String name;
+	private final int maxEntries;
+	private final long maxWeight;
+	private final ToLongFunction<V> weigher;
+	private final String hitLabel;
+	private final String missLabel;
+
+	private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong weight = new AtomicLong();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private volatile SecondLevelCache<K, V> secondLevel;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
+	public ExpiringCache(
+			String name,
+			int maxEntries,
+			long maxWeightBytes,
+			ToLongFunction<V> weigher,
+			MeterRegistry meterRegistry) {
+		this.name = name;
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeightBytes;
+		this.weigher = weigher;
+		this.hitLabel = name + " hit";
+		this.missLabel = name + " miss";
+
+		FunctionCounter.builder("midlo.cache.requests", hits, LongAdder::sum)
+				.tag("cache", name).tag("result", "hit")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.cache.requests", misses, LongAdder::sum)
+				.tag("cache", name).tag("result", "miss")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.cache.evictions", evictions, LongAdder::sum)
+				.tag("cache", name)
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.cache.loads", loads, LongAdder::sum)
+				.tag("cache", name)
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.cache.coalesced", coalesced, LongAdder::sum)
+				.tag("cache", name)
+				.description("Misses that joined a load already in flight")
+				.register(meterRegistry);
+		Gauge.builder("midlo.cache.size", map, Map::size)
+				.tag("cache", name)
+				.register(meterRegistry);
+		Gauge.builder("midlo.cache.weight", weight, AtomicLong::get)
+				.tag("cache", name)
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Puts a second-level cache behind this one. Call before the cache is used.
+	 */
+	public void attachSecondLevel(SecondLevelCache<K, V> secondLevel) {
+		this.secondLevel = secondLevel;
+	}
+
+	/**
+	 * Returns the live value for a key, or null when absent or expired here and
+	 * in the second level.
+	 */
+	public V get(K key) {
+		Node<V> node = liveNode(key, System.currentTimeMillis());
+		if (node == null) {
+			misses.increment();
+			RequestTrace.mark("cache", missLabel);
+			CacheLookupEvent.emit(name, false);
+			SecondLevelCache<K, V> l2 = secondLevel;
+			SecondLevelCache.Entry<V> shared = l2 == null ? null : l2.get(key);
+			if (shared == null) {
+				return null;
+			}
+			store(key, shared.value(), shared.expiresAtMillis());
+			return shared.value();
+		}
+		hits.increment();
+		RequestTrace.mark("cache", hitLabel);
+		CacheLookupEvent.emit(name, true);
+		return node.value;
+	}
+
+	/**
+	 * Returns the live value, loading it on a miss. Concurrent misses for the
+	 * same key share a single call to the loader; loader exceptions propagate to
+	 * every waiter and nothing is cached.
+	 */
+	public V get(K key, Duration ttl, Function<K, V> loader) {
+		V cached = get(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			coalesced.increment();
+			return join(existing);
+		}
+		load(key, ttl, loader, mine);
+		return join(mine);
+	}
+
+	/**
+	 * Loads a replacement value in the caller's thread, unless a load or
+	 * refresh of the key is already running, in which case its result is
+	 * returned instead (and may be null). Loader exceptions propagate and
+	 * nothing is cached.
+	 */
+	public V reload(K key, Duration ttl, Function<K, V> loader) {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			coalesced.increment();
+			return join(existing);
+		}
+		load(key, ttl, loader, mine);
+		return join(mine);
+	}
+
+	/**
+	 * Returns the live local value without counting a lookup or reading the
+	 * second level, e.g. to merge a refresh into whatever is current.
+	 */
+	public V peek(K key) {
+		Node<V> node = map.get(key);
+		return node == null || node.expiresAtMillis <= System.currentTimeMillis() ? null : node.value;
+	}
+
+	/**
+	 * Reloads a key in the background unless a load for it is already running.
+	 * The current value (if any) keeps being served until the reload lands. If
+	 * the executor rejects the task the refresh is simply skipped.
+	 */
+	public void refreshAsync(K key, Duration ttl, Function<K, V> loader, Executor executor) {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		if (inFlight.putIfAbsent(key, mine) != null) {
+			return;
+		}
+		try {
+			executor.execute(() -> load(key, ttl, loader, mine));
+		} catch (RejectedExecutionException e) {
+			inFlight.remove(key, mine);
+			mine.cancel(false);
+		}
+	}
+
+	public void put(K key, V value, Duration ttl) {
+		long now = System.currentTimeMillis();
+		putUntil(key, value, now + ttl.toMillis());
+	}
+
+	/**
+	 * Stores a value that expires at an absolute time (epoch millis). Values that
+	 * are already expired are ignored.
+	 */
+	public void putUntil(K key, V value, long expiresAtMillis) {
+		if (value == null || expiresAtMillis <= System.currentTimeMillis()) {
+			return;
+		}
+		boolean replaced = store(key, value, expiresAtMillis);
+		SecondLevelCache<K, V> l2 = secondLevel;
+		if (l2 != null) {
+			l2.put(key, value, expiresAtMillis, replaced);
+		}
+	}
+
+	/**
+	 * Removes a key here and from the second level.
+	 */
+	public void invalidate(K key) {
+		invalidateLocal(key);
+		SecondLevelCache<K, V> l2 = secondLevel;
+		if (l2 != null) {
+			l2.invalidate(key);
+		}
+	}
+
+	/**
+	 * Removes a key from this instance only, e.g. when another instance changed
+	 * it in the second level.
+	 */
+	public void invalidateLocal(K key) {
+		Node<V> removed = map.remove(key);
+		if (removed != null) {
+			weight.addAndGet(-removed.weight);
+		}
+	}
+
+	/**
+	 * Drops every expired entry. Reads already skip expired entries; this is for
+	 * callers that want memory back for keys that are never read again.
+	 *
+	 * @return the number of entries removed
+	 */
+	public int removeExpired() {
+		long now = System.currentTimeMillis();
+		int removed = 0;
+		for (Map.Entry<K, Node<V>> e : map.entrySet()) {
+			Node<V> node = e.getValue();
+			if (node.expiresAtMillis <= now && map.remove(e.getKey(), node)) {
+				weight.addAndGet(-node.weight);
+				evictions.increment();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public List<SnapshotEntry<K, V>> hottest(int limit) {
+		long now = System.currentTimeMillis();
+		List<Map.Entry<K, Node<V>>> live = new ArrayList<>(map.size());
+		for (Map.Entry<K, Node<V>> e : map.entrySet()) {
+			if (e.getValue().expiresAtMillis > now) {
+				live.add(Map.entry(e.getKey(), e.getValue()));
+			}
+		}
+		live.sort(Comparator.comparingLong((Map.Entry<K, Node<V>> e) -> e.getValue().lastAccessMillis).reversed());
+		List<SnapshotEntry<K, V>> out = new ArrayList<>(Math.min(limit, live.size()));
+		for (Map.Entry<K, Node<V>> e : live) {
+			if (out.size() >= limit) {
+				break;
+			}
+			out.add(new SnapshotEntry<>(e.getKey(), e.getValue().value, e.getValue().expiresAtMillis,
+					Math.max(0, now - e.getValue().lastAccessMillis)));
+		}
+		return out;
+	}
+
+	@Override
+	public void restore(K key, V value, long expiresAtMillis, long idleMillis) {
+		store(key, value, expiresAtMillis, System.currentTimeMillis() - Math.max(0, idleMillis));
+	}
+
+	public int size() {
+		return map.size();
+	}
+
+	public long weight() {
+		return weight.get();
+	}
+
+	private void load(K key, Duration ttl, Function<K, V> loader, CompletableFuture<V> future) {
+		// The slot is released before the future completes, so a caller that
+		// sees the result can start a fresh reload instead of joining this one.
+		V value = null;
+		Throwable failure = null;
+		try {
+			loads.increment();
+			value = loader.apply(key);
+			if (value != null) {
+				put(key, value, ttl);
+			}
+		} catch (Throwable e) {
+			// Errors too: joiners must never wait on a future nobody completes.
+			failure = e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+		if (failure == null) {
+			future.complete(value);
+			return;
+		}
+		future.completeExceptionally(failure);
+		if (failure instanceof Error error) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Puts a value in the local map only.
+	 *
+	 * @return whether it replaced a value
+	 */
+	private boolean store(K key, V value, long expiresAtMillis) {
+		return store(key, value, expiresAtMillis, System.currentTimeMillis());
+	}
+
+	private boolean store(K key, V value, long expiresAtMillis, long lastAccessMillis) {
+		long now = System.currentTimeMillis();
+		if (value == null || expiresAtMillis <= now) {
+			return false;
+		}
+		Node<V> node = new Node<>(value, expiresAtMillis, Math.max(1, weigher.applyAsLong(value)), lastAccessMillis);
+		Node<V> previous = map.put(key, node);
+		weight.addAndGet(node.weight - (previous == null ? 0 : previous.weight));
+
+		if (map.size() > maxEntries || weight.get() > maxWeight) {
+			evict(now);
+		}
+		return previous != null;
+	}
+
+	private Node<V> liveNode(K key, long now) {
+		Node<V> node = map.get(key);
+		if (node == null) {
+			return null;
+		}
+		if (node.expiresAtMillis <= now) {
+			if (map.remove(key, node)) {
+				weight.addAndGet(-node.weight);
+			}
+			return null;
+		}
+		node.lastAccessMillis = now;
+		return node;
+	}
+
+	private void evict(long now) {
+		if (!evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			List<Map.Entry<K, Node<V>>> live = new ArrayList<>(map.size());
+			for (Map.Entry<K, Node<V>> e : map.entrySet()) {
+				Node<V> node = e.getValue();
+				if (node.expiresAtMillis <= now) {
+					if (map.remove(e.getKey(), node)) {
+						weight.addAndGet(-node.weight);
+						evictions.increment();
+					}
+				} else {
+					live.add(Map.entry(e.getKey(), node));
+				}
+			}
+
+			long targetEntries = (long) (maxEntries * 0.9);
+			long targetWeight = (long) (maxWeight * 0.9);
+			if (map.size() <= maxEntries && weight.get() <= maxWeight) {
+				return;
+			}
+
+			live.sort(Comparator.comparingLong(e -> e.getValue().lastAccessMillis));
+			for (Map.Entry<K, Node<V>> e : live) {
+				if (map.size() <= targetEntries && weight.get() <= targetWeight) {
+					break;
+				}
+				if (map.remove(e.getKey(), e.getValue())) {
+					weight.addAndGet(-e.getValue().weight);
+					evictions.increment();
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	private static <V> V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+
+	private static final class Node<V> {
+		final V value;
+		final long expiresAtMillis;
+		final long weight;
+		volatile long lastAccessMillis;
+
+		Node(V value, long expiresAtMillis, long weight, long lastAccessMillis) {
+			this.value = value;
+			this.expiresAtMillis = expiresAtMillis;
+			this.weight = weight;
+			this.lastAccessMillis = lastAccessMillis;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.midlo.backend.shared.cache;
+
+/**
+ * A slower, usually shared cache behind an {@link ExpiringCache}: consulted
+ * when the local cache misses and written when it stores a value.
+ *
+ * Implementations must never throw; an unreachable tier behaves like an empty
+ * one.
+ */
+public interface SecondLevelCache<K, V> {
+
+	/**
+	 * @return the entry, or null on a miss or when the tier is unavailable
+	 */
+	Entry<V> get(K key);
+
+	/**
+	 * Stores a value; may return before the write lands.
+	 *
+	 * @param replaced whether the local cache held an older value, which other
+	 *                 instances may still hold too
+	 */
+	void put(K key, V value, long expiresAtMillis, boolean replaced);
+
+	void invalidate(K key);
+
+	record Entry<V>(V value, long expiresAtMillis) {
+	}
+}
@@ -0,0 +1,67 @@
+package com.midlo.backend.shared.cache.l2;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process {@link L2Cache}, for tests and single-instance runs. Several
+ * near caches sharing one instance behave like instances sharing a server,
+ * including invalidation fan-out.
+ */
+public class InMemoryL2Cache implements L2Cache {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+	private record Entry(byte[] value, long expiresAtMillis) {
+	}
+
+	@Override
+	public byte[] get(String key) {
+		Entry e = entries.get(key);
+		if (e == null) {
+			return null;
+		}
+		if (e.expiresAtMillis <= System.currentTimeMillis()) {
+			entries.remove(key, e);
+			return null;
+		}
+		return e.value.clone();
+	}
+
+	@Override
+	public void set(String key, byte[] value, long expiresAtMillis) {
+		if (expiresAtMillis > System.currentTimeMillis()) {
+			entries.put(key, new Entry(value.clone(), expiresAtMillis));
+		}
+	}
+
+	@Override
+	public void delete(String key) {
+		entries.remove(key);
+	}
+
+	@Override
+	public void publish(String channel, String message) {
+		for (Consumer<String> listener : listeners.getOrDefault(channel, List.of())) {
+			listener.accept(message);
+		}
+	}
+
+	@Override
+	public void subscribe(String channel, Consumer<String> listener) {
+		listeners.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+	}
+
+	@Override
+	public void close() {
+		listeners.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+}
@@ -0,0 +1,32 @@
+package com.midlo.backend.shared.cache.l2;
+
+import java.util.function.Consumer;
+
+/**
+ * Byte-level store shared by all instances, behind their in-process caches.
+ *
+ * Implementations never throw from these methods: an unreachable store reads
+ * as empty and drops writes. Writes and publishes may be sent asynchronously,
+ * but are applied in call order.
+ */
+public interface L2Cache {
+
+	/**
+	 * @return the value, or null when absent, expired or unavailable
+	 */
+	byte[] get(String key);
+
+	void set(String key, byte[] value, long expiresAtMillis);
+
+	void delete(String key);
+
+	void publish(String channel, String message);
+
+	/**
+	 * Delivers every message published on a channel, by any instance, to the
+	 * listener.
+	 */
+	void subscribe(String channel, Consumer<String> listener);
+
+	void close();
+}
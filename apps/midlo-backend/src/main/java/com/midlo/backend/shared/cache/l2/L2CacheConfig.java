@@ -0,0 +1,20 @@
+package com.midlo.backend.shared.cache.l2;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(L2CacheProperties.class)
+public class L2CacheConfig {
+	@Bean(destroyMethod = "shutdown")
+	public NearCacheManager nearCacheManager(L2CacheProperties properties, MeterRegistry meterRegistry) {
+		L2Cache l2 = switch (properties.mode()) {
+			case RESP -> new RespL2Cache(properties, meterRegistry);
+			case MEMORY -> new InMemoryL2Cache();
+			case NONE -> null;
+		};
+		return new NearCacheManager(l2, properties, meterRegistry);
+	}
+}
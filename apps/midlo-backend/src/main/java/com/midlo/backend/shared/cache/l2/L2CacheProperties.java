@@ -0,0 +1,58 @@
+package com.midlo.backend.shared.cache.l2;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param mode          {@code none}, {@code memory} (an in-process stand-in for
+ *                      tests and single-instance runs) or {@code resp} (Redis
+ *                      or anything speaking its protocol)
+ * @param keyPrefix     prepended to every key, so deployments can share a
+ *                      server
+ * @param channel       pub/sub channel for near-cache invalidations
+ * @param timeout       per-read budget; a slower L2 counts as a miss
+ * @param poolSize      connections used for reads and the write pipeline
+ * @param maxBatch      writes sent per pipelined round trip
+ * @param queueCapacity pending writes; further writes are dropped
+ * @param compressAbove values larger than this many bytes are deflated
+ * @param retryAfter    how long to stop using the L2 after a connection error
+ */
+@ConfigurationProperties(prefix = "midlo.cache.l2")
+public record L2CacheProperties(
+		Mode mode,
+		String host,
+		Integer port,
+		String password,
+		String keyPrefix,
+		String channel,
+		Duration timeout,
+		Duration connectTimeout,
+		Integer poolSize,
+		Integer maxBatch,
+		Integer queueCapacity,
+		Integer compressAbove,
+		Duration retryAfter
+) {
+	public enum Mode {
+		NONE, MEMORY, RESP
+	}
+
+	public L2CacheProperties {
+		mode = mode == null ? Mode.NONE : mode;
+		host = (host == null || host.isBlank()) ? "localhost" : host.trim();
+		port = (port == null || port <= 0) ? 6379 : port;
+		password = (password == null || password.isBlank()) ? null : password;
+		keyPrefix = keyPrefix == null ? "midlo:" : keyPrefix;
+		channel = (channel == null || channel.isBlank()) ? "midlo:cache-invalidations" : channel;
+		timeout = (timeout == null || timeout.isNegative() || timeout.isZero()) ? Duration.ofMillis(50) : timeout;
+		connectTimeout = (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero())
+				? Duration.ofMillis(250)
+				: connectTimeout;
+		poolSize = (poolSize == null || poolSize <= 0) ? 4 : poolSize;
+		maxBatch = (maxBatch == null || maxBatch <= 0) ? 64 : maxBatch;
+		queueCapacity = (queueCapacity == null || queueCapacity <= 0) ? 10_000 : queueCapacity;
+		compressAbove = (compressAbove == null || compressAbove < 0) ? 512 : compressAbove;
+		retryAfter = (retryAfter == null || retryAfter.isNegative()) ? Duration.ofSeconds(5) : retryAfter;
+	}
+}
@@ -0,0 +1,202 @@
+package com.midlo.backend.shared.cache.l2;
+
+import com.midlo.backend.shared.cache.ExpiringCache;
+import com.midlo.backend.shared.cache.SecondLevelCache;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Puts the shared {@link L2Cache} behind in-process {@link ExpiringCache}s,
+ * which become near caches: hits stay local, local misses read the L2, and
+ * stores write through to it in the background.
+ *
+ * When an instance replaces or invalidates a key, it publishes the key on
+ * {@code channel}; every other instance drops its local copy and picks up the
+ * new value from the L2 on its next read. A fresh fill of a key nobody held
+ * is not published.
+ *
+ * L2 keys are {@code <prefix><cache>:<codec version>:<key>}, so a codec change
+ * never reads values of the old shape. Values are a flag byte, the expiry
+ * (epoch millis) and the codec payload, deflated above {@code compressAbove}
+ * bytes.
+ *
+ * With {@code mode: none} attaching is a no-op.
+ */
+public class NearCacheManager {
+	private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+
+	private static final int RAW = 0;
+	private static final int DEFLATED = 1;
+
+	private final L2Cache l2;
+	private final L2CacheProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final String instanceId = UUID.randomUUID().toString();
+	private final Map<String, ExpiringCache<String, ?>> caches = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> invalidationsReceived = new ConcurrentHashMap<>();
+
+	public NearCacheManager(L2Cache l2, L2CacheProperties properties, MeterRegistry meterRegistry) {
+		this.l2 = l2;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		if (l2 != null) {
+			l2.subscribe(properties.channel(), this::onInvalidation);
+			log.info("L2 cache enabled mode={} channel={}", properties.mode(), properties.channel());
+		}
+	}
+
+	public boolean enabled() {
+		return l2 != null;
+	}
+
+	public <V> void attach(ExpiringCache<String, V> cache, CacheCodec<String, V> codec) {
+		if (l2 == null) {
+			return;
+		}
+		LongAdder received = new LongAdder();
+		invalidationsReceived.put(cache.name(), received);
+		FunctionCounter.builder("midlo.cache.l2.invalidations", received, LongAdder::sum)
+				.tag("cache", cache.name())
+				.description("Local entries dropped because another instance changed them")
+				.register(meterRegistry);
+		caches.put(cache.name(), cache);
+		cache.attachSecondLevel(new Tier<>(cache.name(), codec));
+	}
+
+	public void shutdown() {
+		if (l2 != null) {
+			l2.close();
+		}
+	}
+
+	void onInvalidation(String message) {
+		String[] parts = message.split("\n", 3);
+		if (parts.length != 3 || parts[0].equals(instanceId)) {
+			return;
+		}
+		ExpiringCache<String, ?> cache = caches.get(parts[1]);
+		if (cache != null) {
+			cache.invalidateLocal(parts[2]);
+			invalidationsReceived.get(parts[1]).increment();
+		}
+	}
+
+	private final class Tier<V> implements SecondLevelCache<String, V> {
+		private final String cacheName;
+		private final CacheCodec<String, V> codec;
+		private final String keyPrefix;
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+
+		Tier(String cacheName, CacheCodec<String, V> codec) {
+			this.cacheName = cacheName;
+			this.codec = codec;
+			this.keyPrefix = properties.keyPrefix() + cacheName + ":" + codec.version() + ":";
+			register("hit", hits);
+			register("miss", misses);
+			register("error", errors);
+		}
+
+		@Override
+		public Entry<V> get(String key) {
+			byte[] bytes = l2.get(keyPrefix + key);
+			if (bytes == null) {
+				misses.increment();
+				return null;
+			}
+			try {
+				Entry<V> entry = decode(bytes);
+				if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+					misses.increment();
+					return null;
+				}
+				hits.increment();
+				return entry;
+			} catch (IOException | RuntimeException e) {
+				errors.increment();
+				log.debug("Unreadable L2 value cache={} key={}: {}", cacheName, key, e.toString());
+				return null;
+			}
+		}
+
+		@Override
+		public void put(String key, V value, long expiresAtMillis, boolean replaced) {
+			byte[] bytes;
+			try {
+				bytes = encode(value, expiresAtMillis);
+			} catch (IOException | RuntimeException e) {
+				errors.increment();
+				log.debug("Unencodable L2 value cache={} key={}: {}", cacheName, key, e.toString());
+				return;
+			}
+			l2.set(keyPrefix + key, bytes, expiresAtMillis);
+			if (replaced) {
+				publish(key);
+			}
+		}
+
+		@Override
+		public void invalidate(String key) {
+			l2.delete(keyPrefix + key);
+			publish(key);
+		}
+
+		private void publish(String key) {
+			l2.publish(properties.channel(), instanceId + "\n" + cacheName + "\n" + key);
+		}
+
+		private byte[] encode(V value, long expiresAtMillis) throws IOException {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(payload)) {
+				codec.writeValue(out, value);
+			}
+			boolean deflate = payload.size() > properties.compressAbove();
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.size() + 9);
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				out.writeByte(deflate ? DEFLATED : RAW);
+				out.writeLong(expiresAtMillis);
+				if (deflate) {
+					try (DeflaterOutputStream z = new DeflaterOutputStream(out)) {
+						payload.writeTo(z);
+					}
+				} else {
+					payload.writeTo(out);
+				}
+			}
+			return bytes.toByteArray();
+		}
+
+		private Entry<V> decode(byte[] bytes) throws IOException {
+			DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes));
+			int flags = header.readUnsignedByte();
+			long expiresAtMillis = header.readLong();
+			InputStream body = flags == DEFLATED ? new InflaterInputStream(header) : header;
+			V value = codec.readValue(new DataInputStream(body));
+			return new Entry<>(value, expiresAtMillis);
+		}
+
+		private void register(String result, LongAdder counter) {
+			FunctionCounter.builder("midlo.cache.l2.requests", counter, LongAdder::sum)
+					.tag("cache", cacheName)
+					.tag("result", result)
+					.register(meterRegistry);
+		}
+	}
+}
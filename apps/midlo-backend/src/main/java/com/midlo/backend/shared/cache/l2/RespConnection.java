@@ -0,0 +1,176 @@
+package com.midlo.backend.shared.cache.l2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One RESP2 connection. Not thread-safe: callers own it while they write a
+ * pipeline of commands and read back one reply per command.
+ *
+ * Replies decode to {@link String} (simple string), {@link Long} (integer),
+ * {@code byte[]} (bulk string), {@link List} (array), {@link Error} or null.
+ * Connects lazily and stays closed after an I/O error until the next
+ * {@link #ensureOpen()}.
+ */
+final class RespConnection {
+
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final int MAX_BULK_BYTES = 64 << 20;
+
+	private final String host;
+	private final int port;
+	private final int connectTimeoutMillis;
+	private final int readTimeoutMillis;
+	private final String password;
+
+	private Socket socket;
+	private InputStream in;
+	private OutputStream out;
+
+	record Error(String message) {
+	}
+
+	RespConnection(String host, int port, int connectTimeoutMillis, int readTimeoutMillis, String password) {
+		this.host = host;
+		this.port = port;
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		this.readTimeoutMillis = readTimeoutMillis;
+		this.password = password;
+	}
+
+	void ensureOpen() throws IOException {
+		if (socket != null) {
+			return;
+		}
+		Socket s = new Socket();
+		try {
+			s.setTcpNoDelay(true);
+			// Resolved on every connect, so a failed-over server is picked up.
+			s.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+			s.setSoTimeout(readTimeoutMillis);
+			socket = s;
+			in = new BufferedInputStream(s.getInputStream(), 16 * 1024);
+			out = new BufferedOutputStream(s.getOutputStream(), 16 * 1024);
+			if (password != null) {
+				write(bytes("AUTH"), bytes(password));
+				flush();
+				if (read() instanceof Error e) {
+					throw new IOException("AUTH failed: " + e.message());
+				}
+			}
+		} catch (IOException e) {
+			close();
+			s.close();
+			throw e;
+		}
+	}
+
+	void write(byte[]... args) throws IOException {
+		out.write('*');
+		writeDecimal(args.length);
+		for (byte[] arg : args) {
+			out.write('$');
+			writeDecimal(arg.length);
+			out.write(arg);
+			out.write(CRLF);
+		}
+	}
+
+	void flush() throws IOException {
+		out.flush();
+	}
+
+	Object read() throws IOException {
+		int type = in.read();
+		switch (type) {
+			case '+':
+				return readLine();
+			case '-':
+				return new Error(readLine());
+			case ':':
+				return Long.parseLong(readLine());
+			case '$': {
+				int length = Integer.parseInt(readLine());
+				if (length < 0) {
+					return null;
+				}
+				if (length > MAX_BULK_BYTES) {
+					throw new IOException("Bulk reply too large: " + length);
+				}
+				byte[] b = in.readNBytes(length);
+				if (b.length != length || in.read() != '\r' || in.read() != '\n') {
+					throw new EOFException("Truncated bulk reply");
+				}
+				return b;
+			}
+			case '*': {
+				int count = Integer.parseInt(readLine());
+				if (count < 0) {
+					return null;
+				}
+				List<Object> items = new ArrayList<>(Math.min(count, 1024));
+				for (int i = 0; i < count; i++) {
+					items.add(read());
+				}
+				return items;
+			}
+			case -1:
+				throw new EOFException("Connection closed by server");
+			default:
+				throw new IOException("Unexpected RESP type byte " + type);
+		}
+	}
+
+	void close() {
+		Socket s = socket;
+		socket = null;
+		in = null;
+		out = null;
+		if (s != null) {
+			try {
+				s.close();
+			} catch (IOException ignored) {
+				// Nothing left to release.
+			}
+		}
+	}
+
+	static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	static String text(Object reply) {
+		return reply instanceof byte[] b ? new String(b, StandardCharsets.UTF_8) : String.valueOf(reply);
+	}
+
+	private String readLine() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		while (true) {
+			int c = in.read();
+			if (c == -1) {
+				throw new EOFException("Connection closed by server");
+			}
+			if (c == '\r') {
+				if (in.read() != '\n') {
+					throw new IOException("Malformed RESP line");
+				}
+				return sb.toString();
+			}
+			sb.append((char) c);
+		}
+	}
+
+	private void writeDecimal(int n) throws IOException {
+		out.write(bytes(Integer.toString(n)));
+		out.write(CRLF);
+	}
+}
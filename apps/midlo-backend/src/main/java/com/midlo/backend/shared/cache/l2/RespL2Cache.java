@@ -0,0 +1,305 @@
+package com.midlo.backend.shared.cache.l2;
+
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import com.midlo.backend.shared.trace.RequestTrace;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static com.midlo.backend.shared.cache.l2.RespConnection.bytes;
+
+/**
+ * {@link L2Cache} over the Redis protocol (RESP2), without a client library.
+ *
+ * Reads borrow a pooled connection and wait at most {@code timeout}, so a
+ * slow server costs a request no more than that. Writes, deletes and
+ * publishes go through one queue drained by a single writer, which sends them
+ * in pipelined batches of up to {@code maxBatch}: one round trip per batch and
+ * call order preserved. Invalidations arrive on a dedicated subscriber
+ * connection.
+ *
+ * After any I/O error the cache is bypassed for {@code retryAfter}: reads miss
+ * and writes are dropped, which is always safe for a cache. Invalidations
+ * published while this instance was cut off are lost, so peers' entries are
+ * then only bounded by their TTL.
+ */
+public class RespL2Cache implements L2Cache {
+	private static final Logger log = LoggerFactory.getLogger(RespL2Cache.class);
+
+	private static final byte[] GET = bytes("GET");
+	private static final byte[] SET = bytes("SET");
+	private static final byte[] PX = bytes("PX");
+	private static final byte[] DEL = bytes("DEL");
+	private static final byte[] PUBLISH = bytes("PUBLISH");
+	private static final byte[] SUBSCRIBE = bytes("SUBSCRIBE");
+
+	private final L2CacheProperties properties;
+	private final long timeoutNanos;
+	private final long retryAfterNanos;
+	private final BlockingQueue<RespConnection> pool;
+	private final BlockingQueue<byte[][]> writes;
+	private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+	private final ExecutorService threads = Executors.newFixedThreadPool(2, new NamedThreadFactory("l2-cache"));
+
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder busy = new LongAdder();
+
+	private volatile long downUntilNanos = System.nanoTime();
+	private volatile boolean reachable = true;
+	private volatile boolean closed;
+	private volatile RespConnection subscription;
+	private volatile boolean resubscribe;
+	private boolean subscribing;
+
+	public RespL2Cache(L2CacheProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.timeoutNanos = properties.timeout().toNanos();
+		this.retryAfterNanos = properties.retryAfter().toNanos();
+		this.pool = new ArrayBlockingQueue<>(properties.poolSize());
+		for (int i = 0; i < properties.poolSize(); i++) {
+			pool.add(newConnection((int) Math.max(1, properties.timeout().toMillis())));
+		}
+		this.writes = new LinkedBlockingQueue<>(properties.queueCapacity());
+
+		FunctionCounter.builder("midlo.cache.l2.errors", errors, LongAdder::sum)
+				.description("L2 connection errors; each one bypasses the L2 for retryAfter")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.cache.l2.writes.dropped", dropped, LongAdder::sum)
+				.description("L2 writes dropped because the queue was full or the L2 was down")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.cache.l2.busy", busy, LongAdder::sum)
+				.description("L2 reads skipped because no connection was free within the timeout")
+				.register(meterRegistry);
+		Gauge.builder("midlo.cache.l2.writes.pending", writes, BlockingQueue::size)
+				.register(meterRegistry);
+
+		threads.execute(this::writeLoop);
+	}
+
+	@Override
+	public byte[] get(String key) {
+		if (closed || down()) {
+			return null;
+		}
+		RespConnection c;
+		try {
+			c = pool.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		if (c == null) {
+			busy.increment();
+			return null;
+		}
+		try {
+			return RequestTrace.timed("l2", null, () -> {
+				c.ensureOpen();
+				c.write(GET, bytes(key));
+				c.flush();
+				Object reply = c.read();
+				reachable();
+				return reply instanceof byte[] value ? value : null;
+			});
+		} catch (IOException | RuntimeException e) {
+			failed(c, e);
+			return null;
+		} finally {
+			pool.offer(c);
+		}
+	}
+
+	@Override
+	public void set(String key, byte[] value, long expiresAtMillis) {
+		long ttlMillis = expiresAtMillis - System.currentTimeMillis();
+		if (ttlMillis > 0) {
+			enqueue(new byte[][] { SET, bytes(key), value, PX, bytes(Long.toString(ttlMillis)) });
+		}
+	}
+
+	@Override
+	public void delete(String key) {
+		enqueue(new byte[][] { DEL, bytes(key) });
+	}
+
+	@Override
+	public void publish(String channel, String message) {
+		enqueue(new byte[][] { PUBLISH, bytes(channel), bytes(message) });
+	}
+
+	@Override
+	public void subscribe(String channel, Consumer<String> listener) {
+		listeners.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+		synchronized (this) {
+			if (!subscribing) {
+				subscribing = true;
+				threads.execute(this::subscribeLoop);
+				return;
+			}
+		}
+		// Reconnect so the new channel is included.
+		RespConnection current = subscription;
+		if (current != null) {
+			resubscribe = true;
+			current.close();
+		}
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		threads.shutdownNow();
+		RespConnection current = subscription;
+		if (current != null) {
+			current.close();
+		}
+		for (RespConnection c : pool) {
+			c.close();
+		}
+	}
+
+	private void enqueue(byte[][] command) {
+		if (closed) {
+			return;
+		}
+		if (!writes.offer(command)) {
+			dropped.increment();
+		}
+	}
+
+	private void writeLoop() {
+		List<byte[][]> batch = new ArrayList<>(properties.maxBatch());
+		while (!closed) {
+			try {
+				batch.add(writes.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			writes.drainTo(batch, properties.maxBatch() - 1);
+			if (down()) {
+				dropped.add(batch.size());
+				batch.clear();
+				continue;
+			}
+			RespConnection c = null;
+			try {
+				c = pool.take();
+				c.ensureOpen();
+				for (byte[][] command : batch) {
+					c.write(command);
+				}
+				c.flush();
+				for (int i = 0; i < batch.size(); i++) {
+					if (c.read() instanceof RespConnection.Error error) {
+						log.debug("L2 command rejected: {}", error.message());
+					}
+				}
+				reachable();
+			} catch (InterruptedException e) {
+				return;
+			} catch (IOException | RuntimeException e) {
+				failed(c, e);
+				dropped.add(batch.size());
+			} finally {
+				if (c != null) {
+					pool.offer(c);
+				}
+				batch.clear();
+			}
+		}
+	}
+
+	private void subscribeLoop() {
+		while (!closed) {
+			RespConnection c = newConnection(0);
+			subscription = c;
+			try {
+				c.ensureOpen();
+				List<byte[]> command = new ArrayList<>();
+				command.add(SUBSCRIBE);
+				listeners.keySet().forEach(channel -> command.add(bytes(channel)));
+				c.write(command.toArray(byte[][]::new));
+				c.flush();
+				reachable();
+				while (!closed) {
+					if (c.read() instanceof List<?> push && push.size() == 3
+							&& "message".equals(RespConnection.text(push.get(0)))) {
+						dispatch(RespConnection.text(push.get(1)), RespConnection.text(push.get(2)));
+					}
+				}
+			} catch (IOException | RuntimeException e) {
+				c.close();
+				if (closed) {
+					return;
+				}
+				if (resubscribe) {
+					resubscribe = false;
+					continue;
+				}
+				failed(null, e);
+				try {
+					TimeUnit.NANOSECONDS.sleep(Math.max(retryAfterNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+				} catch (InterruptedException ie) {
+					return;
+				}
+			}
+		}
+	}
+
+	private void dispatch(String channel, String message) {
+		for (Consumer<String> listener : listeners.getOrDefault(channel, List.of())) {
+			try {
+				listener.accept(message);
+			} catch (RuntimeException e) {
+				log.warn("L2 invalidation listener failed channel={}", channel, e);
+			}
+		}
+	}
+
+	private boolean down() {
+		return System.nanoTime() - downUntilNanos < 0;
+	}
+
+	private void failed(RespConnection c, Exception e) {
+		errors.increment();
+		if (c != null) {
+			c.close();
+		}
+		downUntilNanos = System.nanoTime() + retryAfterNanos;
+		if (reachable) {
+			reachable = false;
+			log.warn("L2 cache at {}:{} unavailable, bypassing it and retrying every {}: {}", properties.host(),
+					properties.port(), properties.retryAfter(), e.toString());
+		}
+	}
+
+	private void reachable() {
+		if (!reachable) {
+			reachable = true;
+			log.info("L2 cache at {}:{} reachable again", properties.host(), properties.port());
+		}
+	}
+
+	private RespConnection newConnection(int readTimeoutMillis) {
+		return new RespConnection(properties.host(), properties.port(), (int) properties.connectTimeout().toMillis(),
+				readTimeoutMillis, properties.password());
+	}
+}
@@ -0,0 +1,154 @@
+package com.midlo.backend.shared.cache.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of one cache's keys and values, in snapshot files and in
+ * the shared L2 cache.
+ *
+ * Bump {@link #version()} whenever the encoding changes; snapshots written
+ * with another version are skipped instead of misread, and L2 keys include
+ * the version.
+ */
+public interface CacheCodec<K, V> {
+
+	int version();
+
+	void writeKey(DataOutput out, K key) throws IOException;
+
+	K readKey(DataInput in) throws IOException;
+
+	void writeValue(DataOutput out, V value) throws IOException;
+
+	V readValue(DataInput in) throws IOException;
+
+	/**
+	 * String keys and string values.
+	 */
+	static CacheCodec<String, String> strings() {
+		return new CacheCodec<>() {
+			@Override
+			public int version() {
+				return 1;
+			}
+
+			@Override
+			public void writeKey(DataOutput out, String key) throws IOException {
+				out.writeUTF(key);
+			}
+
+			@Override
+			public String readKey(DataInput in) throws IOException {
+				return in.readUTF();
+			}
+
+			@Override
+			public void writeValue(DataOutput out, String value) throws IOException {
+				out.writeUTF(value);
+			}
+
+			@Override
+			public String readValue(DataInput in) throws IOException {
+				return in.readUTF();
+			}
+		};
+	}
+
+	/**
+	 * String keys and opaque byte values, e.g. already serialized responses.
+	 */
+	static CacheCodec<String, byte[]> bytes() {
+		return new CacheCodec<>() {
+			@Override
+			public int version() {
+				return 1;
+			}
+
+			@Override
+			public void writeKey(DataOutput out, String key) throws IOException {
+				out.writeUTF(key);
+			}
+
+			@Override
+			public String readKey(DataInput in) throws IOException {
+				return in.readUTF();
+			}
+
+			@Override
+			public void writeValue(DataOutput out, byte[] value) throws IOException {
+				out.writeInt(value.length);
+				out.write(value);
+			}
+
+			@Override
+			public byte[] readValue(DataInput in) throws IOException {
+				int length = in.readInt();
+				if (length < 0 || length > 1 << 24) {
+					throw new IOException("Bad value length " + length);
+				}
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				return bytes;
+			}
+		};
+	}
+
+	/**
+	 * String keys and values stored as JSON, for record-shaped values that
+	 * would be tedious to encode by hand. The snapshot is deflated, so the
+	 * repeated field names cost little on disk.
+	 *
+	 * @param version bump when the value type changes shape
+	 */
+	static <V> CacheCodec<String, V> json(ObjectMapper objectMapper, Class<V> type, int version) {
+		return new CacheCodec<>() {
+			@Override
+			public int version() {
+				return version;
+			}
+
+			@Override
+			public void writeKey(DataOutput out, String key) throws IOException {
+				out.writeUTF(key);
+			}
+
+			@Override
+			public String readKey(DataInput in) throws IOException {
+				return in.readUTF();
+			}
+
+			@Override
+			public void writeValue(DataOutput out, V value) throws IOException {
+				byte[] bytes = objectMapper.writeValueAsBytes(value);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			@Override
+			public V readValue(DataInput in) throws IOException {
+				int length = in.readInt();
+				if (length < 0 || length > 1 << 24) {
+					throw new IOException("Bad value length " + length);
+				}
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				return objectMapper.readValue(bytes, type);
+			}
+		};
+	}
+
+	static void writeNullableUtf(DataOutput out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null) {
+			out.writeUTF(s);
+		}
+	}
+
+	static String readNullableUtf(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
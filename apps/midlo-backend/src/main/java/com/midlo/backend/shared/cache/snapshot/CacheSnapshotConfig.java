@@ -0,0 +1,15 @@
+package com.midlo.backend.shared.cache.snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CacheSnapshotProperties.class)
+public class CacheSnapshotConfig {
+	@Bean(destroyMethod = "shutdown")
+	public CacheSnapshotter cacheSnapshotter(CacheSnapshotProperties properties, MeterRegistry meterRegistry) {
+		return new CacheSnapshotter(properties, meterRegistry);
+	}
+}
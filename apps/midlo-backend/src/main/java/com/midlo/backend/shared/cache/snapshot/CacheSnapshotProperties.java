@@ -0,0 +1,24 @@
+package com.midlo.backend.shared.cache.snapshot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.cache.snapshot")
+public record CacheSnapshotProperties(
+		Boolean enabled,
+		String directory,
+		Duration interval,
+		Integer maxEntries,
+		Long maxFileBytes
+) {
+	public CacheSnapshotProperties {
+		enabled = enabled == null || enabled;
+		directory = (directory == null || directory.isBlank()) ? "./data/cache-snapshots" : directory.trim();
+		interval = (interval == null || interval.isNegative() || interval.isZero())
+				? Duration.ofMinutes(5)
+				: interval;
+		maxEntries = (maxEntries == null || maxEntries <= 0) ? 5000 : maxEntries;
+		maxFileBytes = (maxFileBytes == null || maxFileBytes <= 0) ? 64L * 1024 * 1024 : maxFileBytes;
+	}
+}
@@ -0,0 +1,265 @@
+package com.midlo.backend.shared.cache.snapshot;
+
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes registered caches to one file each, periodically and on shutdown,
+ * and loads them back at startup.
+ *
+ * Restore runs as an {@link ApplicationRunner}, which Spring Boot completes
+ * before the readiness state turns to ACCEPTING_TRAFFIC, so a new instance
+ * only takes traffic once its caches are warm. Snapshots are only written
+ * after the restore finished; a failed or aborted start never overwrites the
+ * previous snapshot.
+ *
+ * File layout: magic, format version, cache name, codec version, write time,
+ * entry count, deflated payload length, payload, CRC32 of the payload. Each
+ * payload entry is its expiry, its idle time (format 2 on), key and value;
+ * restored entries keep their idle time, so eviction after a restart still
+ * drops the coldest first. A file
+ * that fails any check is renamed to {@code .corrupt} and skipped; entries are
+ * only applied after the whole payload decoded cleanly.
+ */
+public class CacheSnapshotter implements ApplicationRunner {
+	private static final Logger log = LoggerFactory.getLogger(CacheSnapshotter.class);
+
+	private static final int MAGIC = 0x4D444C53; // "MDLS"
+	private static final int FORMAT_VERSION = 2;
+	/** Format 1 had no idle times; its entries restore as just read. */
+	private static final int FORMAT_WITHOUT_IDLE = 1;
+	private static final String SUFFIX = ".snap";
+
+	private final CacheSnapshotProperties properties;
+	private final Path directory;
+	private final MeterRegistry meterRegistry;
+	private final List<Registration<?, ?>> registrations = new CopyOnWriteArrayList<>();
+	private final ScheduledExecutorService scheduler;
+	private volatile boolean restored;
+
+	public CacheSnapshotter(CacheSnapshotProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.directory = Paths.get(properties.directory());
+		this.meterRegistry = meterRegistry;
+		this.scheduler = properties.enabled()
+				? Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("cache-snapshot", Thread.MIN_PRIORITY))
+				: null;
+	}
+
+	public <K, V> void register(Snapshottable<K, V> cache, CacheCodec<K, V> codec) {
+		registrations.add(new Registration<>(cache, codec));
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!properties.enabled()) {
+			return;
+		}
+		for (Registration<?, ?> registration : registrations) {
+			restore(registration);
+		}
+		restored = true;
+		long intervalMillis = properties.interval().toMillis();
+		scheduler.scheduleWithFixedDelay(this::writeAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void shutdown() {
+		if (scheduler == null) {
+			return;
+		}
+		scheduler.shutdownNow();
+		writeAll();
+	}
+
+	/**
+	 * Writes every registered cache; a no-op until the startup restore has run.
+	 */
+	public synchronized void writeAll() {
+		if (!restored) {
+			return;
+		}
+		for (Registration<?, ?> registration : registrations) {
+			try {
+				write(registration);
+			} catch (IOException | RuntimeException e) {
+				counter("midlo.cache.snapshot.failures", registration.cache.name(), "write").increment();
+				log.warn("Cache snapshot write failed cache={}", registration.cache.name(), e);
+			}
+		}
+	}
+
+	Path fileFor(String cacheName) {
+		return directory.resolve(cacheName + SUFFIX);
+	}
+
+	private <K, V> void write(Registration<K, V> registration) throws IOException {
+		Snapshottable<K, V> cache = registration.cache;
+		CacheCodec<K, V> codec = registration.codec;
+		List<Snapshottable.SnapshotEntry<K, V>> entries = cache.hottest(properties.maxEntries());
+
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(payload))) {
+			for (Snapshottable.SnapshotEntry<K, V> e : entries) {
+				out.writeLong(e.expiresAtMillis());
+				out.writeLong(e.idleMillis());
+				codec.writeKey(out, e.key());
+				codec.writeValue(out, e.value());
+			}
+		}
+		byte[] body = payload.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(body);
+
+		Files.createDirectories(directory);
+		Path target = fileFor(cache.name());
+		Path tmp = directory.resolve(cache.name() + SUFFIX + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(cache.name());
+			out.writeInt(codec.version());
+			out.writeLong(System.currentTimeMillis());
+			out.writeInt(entries.size());
+			out.writeInt(body.length);
+			out.write(body);
+			out.writeLong(crc.getValue());
+		}
+		try {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		counter("midlo.cache.snapshot.entries", cache.name(), "written").increment(entries.size());
+		log.debug("Cache snapshot written cache={} entries={} bytes={}", cache.name(), entries.size(), body.length);
+	}
+
+	private <K, V> void restore(Registration<K, V> registration) {
+		Snapshottable<K, V> cache = registration.cache;
+		Path file = fileFor(cache.name());
+		if (!Files.isRegularFile(file)) {
+			return;
+		}
+		try {
+			List<Snapshottable.SnapshotEntry<K, V>> entries = read(file, cache.name(), registration.codec);
+			if (entries == null) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			int live = 0;
+			// Coldest first, so if the cache fills up the hottest entries are kept.
+			for (int i = entries.size() - 1; i >= 0; i--) {
+				Snapshottable.SnapshotEntry<K, V> e = entries.get(i);
+				if (e.expiresAtMillis() > now) {
+					cache.restore(e.key(), e.value(), e.expiresAtMillis(), e.idleMillis());
+					live++;
+				}
+			}
+			counter("midlo.cache.snapshot.entries", cache.name(), "restored").increment(live);
+			log.info("Cache snapshot restored cache={} entries={} expired={}", cache.name(), live, entries.size() - live);
+		} catch (IOException | RuntimeException e) {
+			counter("midlo.cache.snapshot.failures", cache.name(), "restore").increment();
+			log.warn("Cache snapshot unreadable, skipping cache={} file={}: {}", cache.name(), file, e.toString());
+			quarantine(file);
+		}
+	}
+
+	/**
+	 * Decodes a snapshot file, or returns null when it was written by another
+	 * codec version. Throws on any structural problem.
+	 */
+	private <K, V> List<Snapshottable.SnapshotEntry<K, V>> read(Path file, String name, CacheCodec<K, V> codec)
+			throws IOException {
+		long size = Files.size(file);
+		if (size > properties.maxFileBytes()) {
+			throw new IOException("Snapshot larger than maxFileBytes (" + size + " bytes)");
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a cache snapshot");
+			}
+			int format = in.readInt();
+			if (format != FORMAT_VERSION && format != FORMAT_WITHOUT_IDLE) {
+				throw new IOException("Unsupported snapshot format " + format);
+			}
+			String storedName = in.readUTF();
+			if (!name.equals(storedName)) {
+				throw new IOException("Snapshot belongs to cache " + storedName);
+			}
+			int codecVersion = in.readInt();
+			if (codecVersion != codec.version()) {
+				log.info("Skipping cache snapshot cache={} codecVersion={} expected={}",
+						name, codecVersion, codec.version());
+				return null;
+			}
+			in.readLong(); // written at
+			int count = in.readInt();
+			int length = in.readInt();
+			if (count < 0 || length < 0 || length > in.available() - Long.BYTES) {
+				throw new IOException("Truncated snapshot");
+			}
+			byte[] body = new byte[length];
+			in.readFully(body);
+			CRC32 crc = new CRC32();
+			crc.update(body);
+			if (in.readLong() != crc.getValue()) {
+				throw new IOException("Checksum mismatch");
+			}
+
+			List<Snapshottable.SnapshotEntry<K, V>> entries = new ArrayList<>(Math.min(count, properties.maxEntries()));
+			try (DataInputStream payload = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(body)))) {
+				for (int i = 0; i < count; i++) {
+					long expiresAt = payload.readLong();
+					long idle = format == FORMAT_WITHOUT_IDLE ? 0 : payload.readLong();
+					K key = codec.readKey(payload);
+					V value = codec.readValue(payload);
+					entries.add(new Snapshottable.SnapshotEntry<>(key, value, expiresAt, idle));
+				}
+			}
+			return entries;
+		}
+	}
+
+	private static void quarantine(Path file) {
+		try {
+			Files.move(file, file.resolveSibling(file.getFileName() + ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			log.warn("Could not move aside unreadable snapshot {}", file, e);
+		}
+	}
+
+	private Counter counter(String name, String cache, String op) {
+		return Counter.builder(name)
+				.tag("cache", cache)
+				.tag("op", op)
+				.register(meterRegistry);
+	}
+
+	private record Registration<K, V>(Snapshottable<K, V> cache, CacheCodec<K, V> codec) {
+	}
+}
@@ -0,0 +1,31 @@
+package com.midlo.backend.shared.cache.snapshot;
+
+import java.util.List;
+
+/**
+ * A cache whose entries can be written to disk by {@link CacheSnapshotter}
+ * and loaded back after a restart.
+ */
+public interface Snapshottable<K, V> {
+
+	/** Stable name; also the snapshot file name. */
+	String name();
+
+	/**
+	 * Live entries, most recently read first.
+	 */
+	List<SnapshotEntry<K, V>> hottest(int limit);
+
+	/**
+	 * Puts a restored entry back with its original expiry, last read
+	 * {@code idleMillis} ago, so eviction order survives the restart. Entries
+	 * that have expired meanwhile must be ignored.
+	 */
+	void restore(K key, V value, long expiresAtMillis, long idleMillis);
+
+	/**
+	 * @param idleMillis time since the entry was last read, as of the snapshot
+	 */
+	record SnapshotEntry<K, V>(K key, V value, long expiresAtMillis, long idleMillis) {
+	}
+}
@@ -0,0 +1,31 @@
+package com.midlo.backend.shared.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daemon thread factory with readable names, so background pools show up
+ * clearly in thread dumps and never hold the JVM open on shutdown.
+ */
+public final class NamedThreadFactory implements ThreadFactory {
+	private final String prefix;
+	private final int priority;
+	private final AtomicInteger counter = new AtomicInteger();
+
+	public NamedThreadFactory(String prefix) {
+		this(prefix, Thread.NORM_PRIORITY);
+	}
+
+	public NamedThreadFactory(String prefix, int priority) {
+		this.prefix = prefix;
+		this.priority = priority;
+	}
+
+	@Override
+	public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+		t.setDaemon(true);
+		t.setPriority(priority);
+		return t;
+	}
+}
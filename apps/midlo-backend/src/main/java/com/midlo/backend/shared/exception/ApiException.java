@@ -1,5 +1,6 @@
 package com.midlo.backend.shared.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.lang.NonNull;
 
@@ -7,13 +8,26 @@ import java.util.Objects;
 
 public class ApiException extends RuntimeException {
 	private final @NonNull HttpStatusCode status;
+	private final @NonNull HttpHeaders headers;
 
 	public ApiException(@NonNull HttpStatusCode status, String message) {
+		this(status, message, HttpHeaders.EMPTY);
+	}
+
+	/**
+	 * @param headers added to the error response, e.g. {@code Retry-After}
+	 */
+	public ApiException(@NonNull HttpStatusCode status, String message, @NonNull HttpHeaders headers) {
 		super(message);
 		this.status = Objects.requireNonNull(status, "status");
+		this.headers = Objects.requireNonNull(headers, "headers");
 	}
 
 	public @NonNull HttpStatusCode getStatus() {
 		return status;
 	}
+
+	public @NonNull HttpHeaders getHeaders() {
+		return headers;
+	}
 }
@@ -25,7 +25,7 @@ public class ApiExceptionHandler {
 	@ExceptionHandler(ApiException.class)
 	public ResponseEntity<String> handleApiException(ApiException e) {
 		String body = e.getMessage() == null ? "" : e.getMessage();
-		return ResponseEntity.status(e.getStatus()).body(body);
+		return ResponseEntity.status(e.getStatus()).headers(e.getHeaders()).body(body);
 	}
 
 	@ExceptionHandler(MethodArgumentNotValidException.class)
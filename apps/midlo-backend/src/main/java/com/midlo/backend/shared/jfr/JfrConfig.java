@@ -0,0 +1,20 @@
+package com.midlo.backend.shared.jfr;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+	@Bean(destroyMethod = "shutdown")
+	public JfrRecorder jfrRecorder(JfrProperties properties, ResourceLoader resourceLoader) {
+		return new JfrRecorder(properties, resourceLoader);
+	}
+
+	@Bean
+	public JfrEndpoint jfrEndpoint(JfrRecorder jfrRecorder) {
+		return new JfrEndpoint(jfrRecorder);
+	}
+}
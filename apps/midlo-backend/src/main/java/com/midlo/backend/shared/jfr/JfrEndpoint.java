@@ -0,0 +1,31 @@
+package com.midlo.backend.shared.jfr;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * {@code GET /actuator/jfr} lists recordings and dumps;
+ * {@code POST /actuator/jfr} writes a snapshot to {@code midlo.jfr.directory}.
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+	private final JfrRecorder recorder;
+
+	public JfrEndpoint(JfrRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+	@ReadOperation
+	public Map<String, Object> jfr() {
+		return recorder.status();
+	}
+
+	@WriteOperation
+	public Map<String, Object> dump() throws IOException {
+		return recorder.dump();
+	}
+}
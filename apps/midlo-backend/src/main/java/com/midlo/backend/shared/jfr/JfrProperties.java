@@ -0,0 +1,24 @@
+package com.midlo.backend.shared.jfr;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.jfr")
+public record JfrProperties(
+		Boolean enabled,
+		String settings,
+		Duration maxAge,
+		Long maxBytes,
+		String directory,
+		Integer maxDumps
+) {
+	public JfrProperties {
+		enabled = enabled != null && enabled;
+		settings = (settings == null || settings.isBlank()) ? "classpath:jfr/midlo.jfc" : settings.trim();
+		maxAge = (maxAge == null || maxAge.isNegative() || maxAge.isZero()) ? Duration.ofMinutes(30) : maxAge;
+		maxBytes = (maxBytes == null || maxBytes <= 0) ? 256L * 1024 * 1024 : maxBytes;
+		directory = (directory == null || directory.isBlank()) ? "./logs/jfr" : directory.trim();
+		maxDumps = (maxDumps == null || maxDumps <= 0) ? 5 : maxDumps;
+	}
+}
@@ -0,0 +1,152 @@
+package com.midlo.backend.shared.jfr;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Optional continuous flight recording with the bundled {@code midlo.jfc}
+ * settings, and on-demand dumps to disk.
+ *
+ * Dumps snapshot every running recording, so they also work when the JVM was
+ * started with {@code -XX:StartFlightRecording} and the built-in recording is
+ * off.
+ */
+public class JfrRecorder {
+	private static final Logger log = LoggerFactory.getLogger(JfrRecorder.class);
+
+	private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+			.withZone(ZoneOffset.UTC);
+
+	private final JfrProperties properties;
+	private final Path directory;
+	private final Recording recording;
+
+	public JfrRecorder(JfrProperties properties, ResourceLoader resourceLoader) {
+		this.properties = properties;
+		this.directory = Paths.get(properties.directory());
+		this.recording = properties.enabled() && FlightRecorder.isAvailable()
+				? start(properties, resourceLoader.getResource(properties.settings()))
+				: null;
+	}
+
+	private static Recording start(JfrProperties properties, Resource settings) {
+		try (Reader reader = new InputStreamReader(settings.getInputStream(), StandardCharsets.UTF_8)) {
+			Recording recording = new Recording(Configuration.create(reader));
+			recording.setName("midlo-continuous");
+			recording.setToDisk(true);
+			recording.setMaxAge(properties.maxAge());
+			recording.setMaxSize(properties.maxBytes());
+			recording.start();
+			log.info("JFR recording started settings={} maxAge={} maxBytes={}",
+					settings.getDescription(), properties.maxAge(), properties.maxBytes());
+			return recording;
+		} catch (IOException | ParseException e) {
+			log.warn("JFR recording not started; cannot read settings {}", settings.getDescription(), e);
+			return null;
+		}
+	}
+
+	public void shutdown() {
+		if (recording != null) {
+			recording.close();
+		}
+	}
+
+	public Map<String, Object> status() {
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("available", FlightRecorder.isAvailable());
+		out.put("continuous", recording != null);
+		if (FlightRecorder.isAvailable()) {
+			List<Map<String, Object>> recordings = FlightRecorder.getFlightRecorder().getRecordings().stream()
+					.map(r -> {
+						Map<String, Object> row = new LinkedHashMap<>();
+						row.put("name", r.getName());
+						row.put("state", r.getState().name());
+						row.put("bytes", r.getSize());
+						return row;
+					})
+					.toList();
+			out.put("recordings", recordings);
+		}
+		out.put("dumps", listDumps().stream().map(p -> p.getFileName().toString()).toList());
+		return out;
+	}
+
+	/**
+	 * Writes a snapshot of all running recordings to the dump directory and
+	 * prunes old dumps beyond {@code maxDumps}.
+	 */
+	public synchronized Map<String, Object> dump() throws IOException {
+		Map<String, Object> out = new LinkedHashMap<>();
+		if (!FlightRecorder.isAvailable()) {
+			out.put("dumped", false);
+			out.put("reason", "Flight recorder not available in this JVM");
+			return out;
+		}
+		Files.createDirectories(directory);
+		Path file = directory.resolve("midlo-" + FILE_TIME.format(Instant.now()) + ".jfr");
+		try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+			if (snapshot.getSize() == 0) {
+				out.put("dumped", false);
+				out.put("reason", "No running recording; set midlo.jfr.enabled=true or start one with jcmd");
+				return out;
+			}
+			snapshot.dump(file);
+		}
+		prune();
+		out.put("dumped", true);
+		out.put("file", file.toAbsolutePath().toString());
+		out.put("bytes", Files.size(file));
+		log.info("JFR dump written file={}", file.toAbsolutePath());
+		return out;
+	}
+
+	private void prune() {
+		List<Path> dumps = listDumps();
+		for (int i = 0; i < dumps.size() - properties.maxDumps(); i++) {
+			try {
+				Files.deleteIfExists(dumps.get(i));
+			} catch (IOException e) {
+				log.warn("Failed to delete old JFR dump {}", dumps.get(i), e);
+			}
+		}
+	}
+
+	/** Oldest first. */
+	private List<Path> listDumps() {
+		if (!Files.isDirectory(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files
+					.filter(p -> p.getFileName().toString().startsWith("midlo-")
+							&& p.getFileName().toString().endsWith(".jfr"))
+					.sorted(Comparator.comparing(p -> p.getFileName().toString()))
+					.toList();
+		} catch (IOException e) {
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package com.midlo.backend.shared.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once: the UTF-8 JSON, a strong ETag derived from
+ * it, and a gzip variant when compressing is worth it.
+ *
+ * Cache-hit paths keep one of these next to the cached value and write its
+ * bytes straight to the response, skipping both DTO construction and Jackson.
+ * The gzip variant has its own ETag, since it is a different representation.
+ */
+public final class EncodedJson {
+
+	/** Below this the gzip header and Content-Encoding cost more than they save. */
+	static final int GZIP_MIN_BYTES = 512;
+
+	private static final String GZIP = "gzip";
+
+	private final byte[] json;
+	private final byte[] gzip;
+	private final String etag;
+
+	private EncodedJson(byte[] json) {
+		this.json = json;
+		this.etag = etagOf(json);
+		this.gzip = json.length >= GZIP_MIN_BYTES ? gzipIfSmaller(json) : null;
+	}
+
+	public static EncodedJson of(byte[] json) {
+		return new EncodedJson(json);
+	}
+
+	public static EncodedJson encode(ObjectMapper objectMapper, Object value) {
+		try {
+			return new EncodedJson(objectMapper.writeValueAsBytes(value));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+		}
+	}
+
+	public byte[] json() {
+		return json;
+	}
+
+	/**
+	 * The gzip-compressed JSON, or null when it would not be smaller.
+	 */
+	public byte[] gzip() {
+		return gzip;
+	}
+
+	public String etag() {
+		return etag;
+	}
+
+	/**
+	 * Rough heap footprint, for caches bounded by bytes.
+	 */
+	public long approximateBytes() {
+		return 96L + json.length + (gzip == null ? 0 : gzip.length);
+	}
+
+	/**
+	 * A 200 with the variant the client accepts, or null once
+	 * {@code request} has answered 304 because the client's copy is current.
+	 *
+	 * @param cacheControl may be null
+	 */
+	public ResponseEntity<byte[]> respond(WebRequest request, CacheControl cacheControl) {
+		boolean gzipped = gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		String variantEtag = gzipped ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag;
+		if (request.checkNotModified(variantEtag)) {
+			return null;
+		}
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.eTag(variantEtag)
+				.contentType(MediaType.APPLICATION_JSON);
+		if (cacheControl != null) {
+			response.cacheControl(cacheControl);
+		}
+		if (gzip != null) {
+			response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+		}
+		if (gzipped) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(gzip);
+		}
+		return response.body(json);
+	}
+
+	/**
+	 * Stores only the JSON; the ETag and gzip variant are rebuilt on read.
+	 */
+	public static CacheCodec<String, EncodedJson> codec() {
+		CacheCodec<String, byte[]> bytes = CacheCodec.bytes();
+		return new CacheCodec<>() {
+			@Override
+			public int version() {
+				return bytes.version();
+			}
+
+			@Override
+			public void writeKey(DataOutput out, String key) throws IOException {
+				bytes.writeKey(out, key);
+			}
+
+			@Override
+			public String readKey(DataInput in) throws IOException {
+				return bytes.readKey(in);
+			}
+
+			@Override
+			public void writeValue(DataOutput out, EncodedJson value) throws IOException {
+				bytes.writeValue(out, value.json);
+			}
+
+			@Override
+			public EncodedJson readValue(DataInput in) throws IOException {
+				return new EncodedJson(bytes.readValue(in));
+			}
+		};
+	}
+
+	/**
+	 * Whether an Accept-Encoding header allows gzip. An explicit {@code gzip}
+	 * entry wins over {@code *}; {@code q=0} refuses.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		boolean wildcard = false;
+		for (String part : acceptEncoding.split(",")) {
+			String[] params = part.split(";");
+			String coding = params[0].trim();
+			if (coding.equalsIgnoreCase(GZIP)) {
+				return quality(params) > 0;
+			}
+			if (coding.equals("*")) {
+				wildcard = quality(params) > 0;
+			}
+		}
+		return wildcard;
+	}
+
+	private static double quality(String[] params) {
+		for (int i = 1; i < params.length; i++) {
+			String param = params[i].trim();
+			if (param.startsWith("q=")) {
+				try {
+					return Double.parseDouble(param.substring(2));
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private static String etagOf(byte[] json) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] gzipIfSmaller(byte[] json) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3);
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(json);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.size() < json.length ? out.toByteArray() : null;
+	}
+}
@@ -0,0 +1,21 @@
+package com.midlo.backend.shared.json;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfig {
+	/**
+	 * Replaces reflective getter and constructor calls in the shared
+	 * ObjectMapper with generated lambdas. Spring Boot registers Module beans
+	 * on the mapper it builds. Opt-in until it measures faster on the JDK we
+	 * deploy ({@code scripts/json-benchmark.sh}).
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "midlo.json.blackbird", havingValue = "true")
+	public BlackbirdModule blackbirdModule() {
+		return new BlackbirdModule();
+	}
+}
@@ -0,0 +1,29 @@
+package com.midlo.backend.shared.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/kpi}: per-minute request rollups from the KPI pipeline.
+ */
+@Endpoint(id = "kpi")
+public class KpiEndpoint {
+	private final KpiEventPipeline pipeline;
+
+	public KpiEndpoint(KpiEventPipeline pipeline) {
+		this.pipeline = pipeline;
+	}
+
+	@ReadOperation
+	public Map<String, Object> kpi() {
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("published", pipeline.publishedCount());
+		out.put("dropped", pipeline.droppedCount());
+		out.put("bufferCapacity", pipeline.bufferCapacity());
+		out.put("minutes", pipeline.rollups());
+		return out;
+	}
+}
@@ -0,0 +1,143 @@
+package com.midlo.backend.shared.logging;
+
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves KPI events off the request thread.
+ *
+ * Requests publish into a bounded lock-free ring and never wait; when the ring
+ * is full the event is dropped and counted. One background thread drains the
+ * ring in batches into the configured sink and the per-minute rollups.
+ */
+public class KpiEventPipeline {
+	private static final Logger log = LoggerFactory.getLogger(KpiEventPipeline.class);
+	private static final int BATCH = 4096;
+
+	private final KpiEventRing ring;
+	private final KpiRollups rollups;
+	private final KpiSink sink;
+	private final ScheduledExecutorService consumer;
+
+	private final LongAdder published = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder sinkErrors = new LongAdder();
+
+	public KpiEventPipeline(KpiProperties properties, MeterRegistry meterRegistry) {
+		this.ring = new KpiEventRing(properties.bufferSize());
+		this.rollups = new KpiRollups(properties.rollupMinutes());
+		this.sink = createSink(properties);
+
+		FunctionCounter.builder("midlo.kpi.events", published, LongAdder::sum)
+				.tag("result", "published")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.kpi.events", dropped, LongAdder::sum)
+				.tag("result", "dropped")
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.kpi.sink.errors", sinkErrors, LongAdder::sum)
+				.register(meterRegistry);
+		Gauge.builder("midlo.kpi.buffer.size", ring, KpiEventRing::size)
+				.register(meterRegistry);
+
+		this.consumer = Executors.newSingleThreadScheduledExecutor(
+				new NamedThreadFactory("kpi-events", Thread.MIN_PRIORITY));
+		long flushMillis = properties.flushInterval().toMillis();
+		this.consumer.scheduleWithFixedDelay(this::drain, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Never blocks. Returns false if the event was dropped.
+	 */
+	public boolean publish(String method, String path, String route, int status, long durationMicros,
+			String userAgent) {
+		if (ring.offer(System.currentTimeMillis(), method, path, route, status, durationMicros, userAgent)) {
+			published.increment();
+			return true;
+		}
+		dropped.increment();
+		return false;
+	}
+
+	List<KpiRollups.Minute> rollups() {
+		return rollups.snapshot();
+	}
+
+	long publishedCount() {
+		return published.sum();
+	}
+
+	long droppedCount() {
+		return dropped.sum();
+	}
+
+	int bufferCapacity() {
+		return ring.capacity();
+	}
+
+	public void shutdown() {
+		consumer.shutdown();
+		try {
+			consumer.awaitTermination(2, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		drain();
+		try {
+			sink.close();
+		} catch (IOException e) {
+			log.warn("Failed to close KPI sink", e);
+		}
+	}
+
+	private synchronized void drain() {
+		int n;
+		do {
+			n = ring.drain(this::handle, BATCH);
+		} while (n == BATCH);
+		rollups.roll(System.currentTimeMillis());
+		try {
+			sink.flush();
+		} catch (IOException e) {
+			sinkErrors.increment();
+		}
+	}
+
+	private void handle(KpiEventRing.Slot event) {
+		rollups.add(event.timestampMillis, event.route != null ? event.route : event.path, event.status,
+				event.durationMicros);
+		try {
+			sink.write(event);
+		} catch (IOException | RuntimeException e) {
+			sinkErrors.increment();
+		}
+	}
+
+	private static KpiSink createSink(KpiProperties properties) {
+		return switch (properties.sink()) {
+			case LOG -> new LogKpiSink();
+			case NONE -> event -> {
+			};
+			case NDJSON -> {
+				try {
+					yield new NdjsonKpiSink(Path.of(properties.directory()), properties.maxFileBytes(),
+							properties.maxFiles());
+				} catch (IOException e) {
+					log.warn("Cannot open KPI directory {}, falling back to log sink", properties.directory(), e);
+					yield new LogKpiSink();
+				}
+			}
+		};
+	}
+}
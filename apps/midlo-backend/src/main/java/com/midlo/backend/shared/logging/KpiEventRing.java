@@ -0,0 +1,110 @@
+package com.midlo.backend.shared.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated KPI event slots.
+ *
+ * Producers claim a slot with one CAS on the tail, fill it in place and publish
+ * it by bumping the slot's sequence; a full ring rejects the event instead of
+ * waiting. The consumer reads slots in order and hands them back by advancing
+ * their sequence one lap. No locks and no per-event allocation.
+ */
+final class KpiEventRing {
+
+	/**
+	 * One event. Fields are only valid inside the consumer callback; copy what
+	 * you need to keep.
+	 */
+	static final class Slot {
+		volatile long sequence;
+		long timestampMillis;
+		String method;
+		String path;
+		String route;
+		int status;
+		long durationMicros;
+		String userAgent;
+	}
+
+	private final Slot[] slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+
+	KpiEventRing(int requestedCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+		this.slots = new Slot[capacity];
+		this.mask = capacity - 1;
+		for (int i = 0; i < capacity; i++) {
+			slots[i] = new Slot();
+			slots[i].sequence = i;
+		}
+	}
+
+	int capacity() {
+		return slots.length;
+	}
+
+	/**
+	 * @return false when the ring is full and the event was dropped
+	 */
+	boolean offer(long timestampMillis, String method, String path, String route, int status,
+			long durationMicros, String userAgent) {
+		long pos = tail.get();
+		while (true) {
+			Slot slot = slots[(int) (pos & mask)];
+			long diff = slot.sequence - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					slot.timestampMillis = timestampMillis;
+					slot.method = method;
+					slot.path = path;
+					slot.route = route;
+					slot.status = status;
+					slot.durationMicros = durationMicros;
+					slot.userAgent = userAgent;
+					slot.sequence = pos + 1;
+					return true;
+				}
+				pos = tail.get();
+			} else if (diff < 0) {
+				return false;
+			} else {
+				pos = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Consumer side; must only be called from one thread at a time.
+	 *
+	 * @return the number of events handed to {@code consumer}
+	 */
+	int drain(Consumer<Slot> consumer, int max) {
+		int n = 0;
+		while (n < max) {
+			Slot slot = slots[(int) (head & mask)];
+			if (slot.sequence != head + 1) {
+				break;
+			}
+			try {
+				consumer.accept(slot);
+			} finally {
+				slot.method = null;
+				slot.path = null;
+				slot.route = null;
+				slot.userAgent = null;
+				slot.sequence = head + slots.length;
+				head++;
+			}
+			n++;
+		}
+		return n;
+	}
+
+	int size() {
+		return (int) Math.max(0, tail.get() - head);
+	}
+}
@@ -1,17 +1,30 @@
 package com.midlo.backend.shared.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @ConditionalOnProperty(name = "midlo.analytics.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(KpiProperties.class)
 public class KpiLoggingConfig {
+	@Bean(destroyMethod = "shutdown")
+	public KpiEventPipeline kpiEventPipeline(KpiProperties properties, MeterRegistry meterRegistry) {
+		return new KpiEventPipeline(properties, meterRegistry);
+	}
+
+	@Bean
+	public KpiEndpoint kpiEndpoint(KpiEventPipeline kpiEventPipeline) {
+		return new KpiEndpoint(kpiEventPipeline);
+	}
+
 	@Bean
-	public FilterRegistrationBean<KpiLoggingFilter> kpiLoggingFilter() {
+	public FilterRegistrationBean<KpiLoggingFilter> kpiLoggingFilter(KpiEventPipeline kpiEventPipeline) {
 		FilterRegistrationBean<KpiLoggingFilter> reg = new FilterRegistrationBean<>();
-		reg.setFilter(new KpiLoggingFilter());
+		reg.setFilter(new KpiLoggingFilter(kpiEventPipeline));
 		reg.setOrder(10);
 		return reg;
 	}
@@ -1,24 +1,30 @@
 package com.midlo.backend.shared.logging;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.Set;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
+/**
+ * Publishes one KPI event per request to the {@link KpiEventPipeline}; the
+ * request thread only fills a ring buffer slot, formatting and I/O happen in
+ * the background.
+ */
 public class KpiLoggingFilter extends OncePerRequestFilter {
-	private static final Logger log = LoggerFactory.getLogger(KpiLoggingFilter.class);
-
 	private static final Set<String> PATHS = Set.of("/midpoint", "/places", "/m");
 
+	private final KpiEventPipeline pipeline;
+
+	public KpiLoggingFilter(KpiEventPipeline pipeline) {
+		this.pipeline = pipeline;
+	}
+
 	@Override
 	protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
 		String path = request.getRequestURI();
@@ -36,21 +42,18 @@ public class KpiLoggingFilter extends OncePerRequestFilter {
 			@NonNull HttpServletRequest request,
 			@NonNull HttpServletResponse response,
 			@NonNull FilterChain filterChain) throws ServletException, IOException {
-		Instant start = Instant.now();
+		long start = System.nanoTime();
 		try {
 			filterChain.doFilter(request, response);
 		} finally {
-			long ms = Duration.between(start, Instant.now()).toMillis();
-			String path = request.getRequestURI();
-			String method = request.getMethod();
-			int status = response.getStatus();
-
-			log.info(
-					"kpi_event method={} path={} status={} durationMs={} ua=\"{}\"",
-					method,
-					path,
-					status,
-					ms,
+			long micros = (System.nanoTime() - start) / 1000;
+			Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			pipeline.publish(
+					request.getMethod(),
+					request.getRequestURI(),
+					route instanceof String r ? r : null,
+					response.getStatus(),
+					micros,
 					safeHeader(request, "User-Agent"));
 		}
 	}
@@ -0,0 +1,39 @@
+package com.midlo.backend.shared.logging;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "midlo.analytics")
+public record KpiProperties(
+		Boolean enabled,
+		Sink sink,
+		Integer bufferSize,
+		Duration flushInterval,
+		String directory,
+		Long maxFileBytes,
+		Integer maxFiles,
+		Integer rollupMinutes
+) {
+	public enum Sink {
+		/** kpi_event lines through the application logger (previous behaviour). */
+		LOG,
+		/** Rolling newline-delimited JSON files under {@code directory}. */
+		NDJSON,
+		/** Rollups only. */
+		NONE
+	}
+
+	public KpiProperties {
+		enabled = enabled == null || enabled;
+		sink = sink == null ? Sink.LOG : sink;
+		bufferSize = (bufferSize == null || bufferSize <= 0) ? 8192 : bufferSize;
+		flushInterval = (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero())
+				? Duration.ofMillis(250)
+				: flushInterval;
+		directory = (directory == null || directory.isBlank()) ? "./logs/kpi" : directory.trim();
+		maxFileBytes = (maxFileBytes == null || maxFileBytes <= 0) ? 64L * 1024 * 1024 : maxFileBytes;
+		maxFiles = (maxFiles == null || maxFiles <= 0) ? 10 : maxFiles;
+		rollupMinutes = (rollupMinutes == null || rollupMinutes <= 0) ? 60 : rollupMinutes;
+	}
+}
@@ -0,0 +1,110 @@
+package com.midlo.backend.shared.logging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-minute, per-path request rollups (count, 5xx count, p50, p95, max).
+ *
+ * Written only by the pipeline's consumer thread; readers see closed minutes
+ * as immutable snapshots. Percentiles come from a fixed-size reservoir sample
+ * per path and minute, so memory stays flat under load.
+ */
+final class KpiRollups {
+	private static final int RESERVOIR = 2048;
+
+	record PathStats(String path, long count, long serverErrors, double p50Ms, double p95Ms, double maxMs) {
+	}
+
+	record Minute(long minuteStartMillis, List<PathStats> paths) {
+	}
+
+	private final int retainMinutes;
+	private final ConcurrentLinkedDeque<Minute> closed = new ConcurrentLinkedDeque<>();
+	private final Map<String, Accumulator> current = new HashMap<>();
+	private long currentMinute = -1;
+
+	KpiRollups(int retainMinutes) {
+		this.retainMinutes = retainMinutes;
+	}
+
+	void add(long timestampMillis, String path, int status, long durationMicros) {
+		roll(timestampMillis);
+		current.computeIfAbsent(path, p -> new Accumulator()).add(status, durationMicros);
+	}
+
+	/**
+	 * Closes the current minute once the clock has moved past it, even if no
+	 * new events arrive.
+	 */
+	void roll(long nowMillis) {
+		long minute = nowMillis / 60_000;
+		if (minute == currentMinute) {
+			return;
+		}
+		if (currentMinute >= 0 && !current.isEmpty()) {
+			List<PathStats> stats = new ArrayList<>(current.size());
+			for (Map.Entry<String, Accumulator> e : current.entrySet()) {
+				stats.add(e.getValue().toStats(e.getKey()));
+			}
+			stats.sort((a, b) -> Long.compare(b.count(), a.count()));
+			closed.addFirst(new Minute(currentMinute * 60_000, List.copyOf(stats)));
+			while (closed.size() > retainMinutes) {
+				closed.pollLast();
+			}
+		}
+		current.clear();
+		currentMinute = minute;
+	}
+
+	/**
+	 * Closed minutes, newest first.
+	 */
+	List<Minute> snapshot() {
+		return List.copyOf(closed);
+	}
+
+	private static final class Accumulator {
+		long count;
+		long serverErrors;
+		long maxMicros;
+		final long[] samples = new long[RESERVOIR];
+
+		void add(int status, long durationMicros) {
+			if (count < RESERVOIR) {
+				samples[(int) count] = durationMicros;
+			} else {
+				long j = ThreadLocalRandom.current().nextLong(count + 1);
+				if (j < RESERVOIR) {
+					samples[(int) j] = durationMicros;
+				}
+			}
+			count++;
+			if (status >= 500) {
+				serverErrors++;
+			}
+			maxMicros = Math.max(maxMicros, durationMicros);
+		}
+
+		PathStats toStats(String path) {
+			int n = (int) Math.min(count, RESERVOIR);
+			long[] sorted = Arrays.copyOf(samples, n);
+			Arrays.sort(sorted);
+			return new PathStats(path, count, serverErrors,
+					percentile(sorted, 0.50), percentile(sorted, 0.95), maxMicros / 1000.0);
+		}
+
+		private static double percentile(long[] sorted, double q) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int idx = (int) Math.ceil(q * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(idx, sorted.length - 1))] / 1000.0;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.midlo.backend.shared.logging;
+
+import java.io.IOException;
+
+/**
+ * Destination for KPI events. Only ever called from the pipeline's consumer
+ * thread, so implementations need no synchronization.
+ */
+interface KpiSink {
+
+	void write(KpiEventRing.Slot event) throws IOException;
+
+	/**
+	 * Called after each drained batch.
+	 */
+	default void flush() throws IOException {
+	}
+
+	default void close() throws IOException {
+	}
+}
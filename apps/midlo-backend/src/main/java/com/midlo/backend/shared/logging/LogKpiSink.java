@@ -0,0 +1,23 @@
+package com.midlo.backend.shared.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the same {@code kpi_event} line the filter used to log inline, now
+ * from the consumer thread.
+ */
+final class LogKpiSink implements KpiSink {
+	private static final Logger log = LoggerFactory.getLogger(KpiLoggingFilter.class);
+
+	@Override
+	public void write(KpiEventRing.Slot event) {
+		log.info(
+				"kpi_event method={} path={} status={} durationMs={} ua=\"{}\"",
+				event.method,
+				event.path,
+				event.status,
+				event.durationMicros / 1000,
+				event.userAgent);
+	}
+}
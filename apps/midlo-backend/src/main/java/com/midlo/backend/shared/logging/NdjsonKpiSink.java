@@ -0,0 +1,126 @@
+package com.midlo.backend.shared.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Appends one JSON object per event to {@code kpi-events.ndjson}, rolling to a
+ * timestamped file when it reaches {@code maxFileBytes} and keeping at most
+ * {@code maxFiles} rolled files.
+ */
+final class NdjsonKpiSink implements KpiSink {
+	private static final String ACTIVE = "kpi-events.ndjson";
+
+	private final Path directory;
+	private final long maxFileBytes;
+	private final int maxFiles;
+	private final StringBuilder line = new StringBuilder(256);
+
+	private BufferedWriter writer;
+	private long written;
+
+	NdjsonKpiSink(Path directory, long maxFileBytes, int maxFiles) throws IOException {
+		this.directory = directory;
+		this.maxFileBytes = maxFileBytes;
+		this.maxFiles = maxFiles;
+		Files.createDirectories(directory);
+		open();
+	}
+
+	@Override
+	public void write(KpiEventRing.Slot event) throws IOException {
+		line.setLength(0);
+		line.append("{\"ts\":").append(event.timestampMillis)
+				.append(",\"method\":");
+		appendString(line, event.method);
+		line.append(",\"path\":");
+		appendString(line, event.path);
+		line.append(",\"route\":");
+		appendString(line, event.route);
+		line.append(",\"status\":").append(event.status)
+				.append(",\"durationUs\":").append(event.durationMicros)
+				.append(",\"ua\":");
+		appendString(line, event.userAgent);
+		line.append("}\n");
+
+		writer.append(line);
+		// Events are ASCII apart from the odd user agent; close enough for rolling.
+		written += line.length();
+		if (written >= maxFileBytes) {
+			roll();
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void open() throws IOException {
+		Path active = directory.resolve(ACTIVE);
+		writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		written = Files.size(active);
+	}
+
+	private void roll() throws IOException {
+		writer.close();
+		Path rolled = directory.resolve("kpi-events-" + System.currentTimeMillis() + ".ndjson");
+		Files.move(directory.resolve(ACTIVE), rolled);
+		prune();
+		open();
+	}
+
+	private void prune() throws IOException {
+		List<Path> rolled = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(p -> {
+				String name = p.getFileName().toString();
+				return name.startsWith("kpi-events-") && name.endsWith(".ndjson");
+			}).forEach(rolled::add);
+		}
+		// Timestamped names sort chronologically.
+		rolled.sort(null);
+		for (int i = 0; i < rolled.size() - maxFiles; i++) {
+			Files.deleteIfExists(rolled.get(i));
+		}
+	}
+
+	private static void appendString(StringBuilder sb, String value) {
+		if (value == null) {
+			sb.append("null");
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> sb.append("\\\"");
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				default -> {
+					if (c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+				}
+			}
+		}
+		sb.append('"');
+	}
+}
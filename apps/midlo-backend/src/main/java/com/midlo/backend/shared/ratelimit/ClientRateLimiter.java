@@ -0,0 +1,142 @@
+package com.midlo.backend.shared.ratelimit;
+
+import com.midlo.backend.shared.concurrent.NamedThreadFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per client and route.
+ *
+ * Buckets live in a map capped at {@code maxClients}. A sweeper drops buckets
+ * that have not granted anything for {@code idleTimeout} or a full refill
+ * period, whichever is longer; by then they are full again, so dropping them
+ * loses nothing. When the map is still full, unseen clients share one overflow
+ * bucket per route instead of growing it, so rotating addresses cannot
+ * exhaust memory or escape the limit.
+ */
+public class ClientRateLimiter {
+
+	static final String OVERFLOW_CLIENT = "*";
+
+	private final int maxClients;
+	private final long idleNanos;
+	private final Map<String, Route> routes = new HashMap<>();
+	private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+	private final LongAdder overflow = new LongAdder();
+	private final ScheduledExecutorService sweeper;
+
+	public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+		this.maxClients = properties.maxClients();
+		this.idleNanos = properties.idleTimeout().toNanos();
+		properties.rules().forEach((name, rule) -> {
+			Route route = new Route(rule);
+			routes.put(rule.route(), route);
+			FunctionCounter.builder("midlo.ratelimit.requests", route.allowed, LongAdder::sum)
+					.tag("rule", name).tag("result", "allowed")
+					.register(meterRegistry);
+			FunctionCounter.builder("midlo.ratelimit.requests", route.limited, LongAdder::sum)
+					.tag("rule", name).tag("result", "limited")
+					.register(meterRegistry);
+		});
+		Gauge.builder("midlo.ratelimit.buckets", buckets, Map::size)
+				.register(meterRegistry);
+		FunctionCounter.builder("midlo.ratelimit.overflow", overflow, LongAdder::sum)
+				.description("Requests from new clients charged to the shared overflow bucket")
+				.register(meterRegistry);
+
+		this.sweeper = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("ratelimit-sweep"));
+		long sweepMillis = Math.max(1_000, properties.idleTimeout().toMillis() / 2);
+		this.sweeper.scheduleWithFixedDelay(() -> sweep(System.nanoTime()), sweepMillis, sweepMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Whether a route pattern is rate limited at all.
+	 */
+	public boolean covers(String routePattern) {
+		return routes.containsKey(routePattern);
+	}
+
+	/**
+	 * Charges one request to the client's bucket for a route.
+	 *
+	 * @return 0 when allowed, otherwise nanos until the request would fit
+	 */
+	public long tryAcquire(String routePattern, String client) {
+		Route route = routes.get(routePattern);
+		if (route == null) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		long wait = bucketFor(route, client, now).tryAcquire(route.cost, route.capacity, route.tokensPerNano, now);
+		(wait == 0 ? route.allowed : route.limited).increment();
+		return wait;
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+
+	public void shutdown() {
+		sweeper.shutdownNow();
+	}
+
+	int sweep(long nowNanos) {
+		int removed = 0;
+		for (Map.Entry<String, TokenBucket> e : buckets.entrySet()) {
+			Route route = routes.get(routeOf(e.getKey()));
+			long idleFor = nowNanos - e.getValue().lastGrantNanos();
+			if (route == null || idleFor >= Math.max(idleNanos, route.fullRefillNanos)) {
+				if (buckets.remove(e.getKey(), e.getValue())) {
+					removed++;
+				}
+			}
+		}
+		return removed;
+	}
+
+	private TokenBucket bucketFor(Route route, String client, long now) {
+		String key = route.pattern + '|' + client;
+		TokenBucket bucket = buckets.get(key);
+		if (bucket != null) {
+			return bucket;
+		}
+		if (buckets.size() >= maxClients) {
+			overflow.increment();
+			key = route.pattern + '|' + OVERFLOW_CLIENT;
+		}
+		return buckets.computeIfAbsent(key, k -> new TokenBucket(route.capacity, now));
+	}
+
+	private static String routeOf(String key) {
+		return key.substring(0, key.indexOf('|'));
+	}
+
+	private static final class Route {
+		final String pattern;
+		final double cost;
+		final double capacity;
+		final double tokensPerNano;
+		final long fullRefillNanos;
+		final LongAdder allowed = new LongAdder();
+		final LongAdder limited = new LongAdder();
+
+		Route(RateLimitProperties.Rule rule) {
+			this.pattern = rule.route();
+			this.capacity = rule.capacity();
+			// A request costing more than the bucket holds could never pass.
+			this.cost = Math.min(rule.cost(), rule.capacity());
+			this.tokensPerNano = rule.refillPerMinute() / TimeUnit.MINUTES.toNanos(1);
+			this.fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.midlo.backend.shared.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+	private final RateLimitProperties properties;
+	private final ObjectProvider<ClientRateLimiter> limiter;
+
+	public RateLimitConfig(RateLimitProperties properties, ObjectProvider<ClientRateLimiter> limiter) {
+		this.properties = properties;
+		this.limiter = limiter;
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public ClientRateLimiter clientRateLimiter(MeterRegistry meterRegistry) {
+		return new ClientRateLimiter(properties, meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(@NonNull InterceptorRegistry registry) {
+		if (properties.enabled()) {
+			registry.addInterceptor(new RateLimitInterceptor(limiter.getObject(), properties));
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.midlo.backend.shared.ratelimit;
+
+import com.midlo.backend.shared.exception.ApiException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over the client's budget with 429 and {@code Retry-After}.
+ *
+ * The client is the {@code X-Midlo-Api-Key} header when it names a configured
+ * key, else the remote address (already resolved from X-Forwarded-For by the
+ * forward-headers strategy). Unknown keys fall back to the address, so minting
+ * random keys does not buy fresh buckets.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+	private final ClientRateLimiter limiter;
+	private final String apiKeyHeader;
+	private final Set<String> apiKeys;
+
+	public RateLimitInterceptor(ClientRateLimiter limiter, RateLimitProperties properties) {
+		this.limiter = limiter;
+		this.apiKeyHeader = properties.apiKeyHeader();
+		this.apiKeys = properties.apiKeySet();
+	}
+
+	@Override
+	public boolean preHandle(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull Object handler) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (!(pattern instanceof String route) || !limiter.covers(route)) {
+			return true;
+		}
+		long waitNanos = limiter.tryAcquire(route, clientOf(request));
+		if (waitNanos == 0) {
+			return true;
+		}
+		long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+		throw new ApiException(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded, retry in " + seconds + "s", headers);
+	}
+
+	String clientOf(HttpServletRequest request) {
+		String key = request.getHeader(apiKeyHeader);
+		if (key != null && apiKeys.contains(key.trim())) {
+			return "key:" + key.trim();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+}
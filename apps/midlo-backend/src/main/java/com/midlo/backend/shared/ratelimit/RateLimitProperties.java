@@ -0,0 +1,79 @@
+package com.midlo.backend.shared.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-client token buckets for the endpoints that cost Google quota.
+ *
+ * Tokens are estimated upstream calls: each request takes its rule's
+ * {@code cost}, so a {@code /places} search (tens of searchNearby calls) drains
+ * a bucket far faster than an autocomplete keystroke. Rules are keyed by name;
+ * configured rules are merged field by field over the built-in ones.
+ */
+@ConfigurationProperties(prefix = "midlo.ratelimit")
+public record RateLimitProperties(
+		Boolean enabled,
+		String apiKeyHeader,
+		List<String> apiKeys,
+		Integer maxClients,
+		Duration idleTimeout,
+		Map<String, Rule> rules
+) {
+	public RateLimitProperties {
+		enabled = enabled == null || enabled;
+		apiKeyHeader = (apiKeyHeader == null || apiKeyHeader.isBlank()) ? "X-Midlo-Api-Key" : apiKeyHeader.trim();
+		apiKeys = apiKeys == null ? List.of()
+				: apiKeys.stream().filter(k -> k != null && !k.isBlank()).map(String::trim).toList();
+		maxClients = (maxClients == null || maxClients <= 0) ? 100_000 : maxClients;
+		idleTimeout = (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero())
+				? Duration.ofMinutes(10)
+				: idleTimeout;
+
+		Map<String, Rule> merged = new LinkedHashMap<>();
+		merged.put("places", new Rule("/places", 20.0, 300.0, 200.0));
+		merged.put("autocomplete", new Rule("/autocomplete", 1.0, 120.0, 300.0));
+		merged.put("details", new Rule("/places/{placeId}", 1.0, 60.0, 120.0));
+		merged.put("details-batch", new Rule("/places/batch", 10.0, 100.0, 120.0));
+		// Creating a share link runs two geocodes and a full search.
+		merged.put("share", new Rule("/m", 22.0, 220.0, 110.0));
+		if (rules != null) {
+			rules.forEach((name, rule) -> merged.merge(name, rule, (base, override) -> override.over(base)));
+		}
+		merged.values().removeIf(rule -> !rule.complete());
+		rules = Map.copyOf(merged);
+	}
+
+	public Set<String> apiKeySet() {
+		return Set.copyOf(apiKeys);
+	}
+
+	/**
+	 * @param route           Spring MVC route pattern the rule applies to
+	 * @param cost            tokens taken per request
+	 * @param capacity        bucket size, i.e. the allowed burst
+	 * @param refillPerMinute tokens added back per minute
+	 */
+	public record Rule(String route, Double cost, Double capacity, Double refillPerMinute) {
+
+		Rule over(Rule base) {
+			return new Rule(
+					route != null ? route : base.route,
+					cost != null ? cost : base.cost,
+					capacity != null ? capacity : base.capacity,
+					refillPerMinute != null ? refillPerMinute : base.refillPerMinute);
+		}
+
+		boolean complete() {
+			return route != null && !route.isBlank()
+					&& cost != null && cost > 0
+					&& capacity != null && capacity > 0
+					&& refillPerMinute != null && refillPerMinute > 0;
+		}
+	}
+}
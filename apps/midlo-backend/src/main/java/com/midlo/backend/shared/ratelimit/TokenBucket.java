@@ -0,0 +1,46 @@
+package com.midlo.backend.shared.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The state is an immutable snapshot swapped with CAS;
+ * tokens are refilled lazily from the elapsed time on each acquire.
+ */
+final class TokenBucket {
+	private final AtomicReference<State> state;
+
+	private record State(double tokens, long atNanos) {
+	}
+
+	TokenBucket(double capacity, long nowNanos) {
+		this.state = new AtomicReference<>(new State(capacity, nowNanos));
+	}
+
+	/**
+	 * Takes {@code cost} tokens if available.
+	 *
+	 * @return 0 when granted, otherwise the nanos until enough tokens refill
+	 */
+	long tryAcquire(double cost, double capacity, double tokensPerNano, long nowNanos) {
+		while (true) {
+			State current = state.get();
+			long elapsed = Math.max(0, nowNanos - current.atNanos);
+			double tokens = Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+			if (tokens < cost) {
+				return Math.max(1, (long) Math.ceil((cost - tokens) / tokensPerNano));
+			}
+			if (state.compareAndSet(current, new State(tokens - cost, nowNanos))) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * When tokens were last taken (or the bucket was created). Denied requests
+	 * do not count: once a bucket has gone a full refill period without a grant
+	 * it is full again and indistinguishable from a new one.
+	 */
+	long lastGrantNanos() {
+		return state.get().atNanos;
+	}
+}
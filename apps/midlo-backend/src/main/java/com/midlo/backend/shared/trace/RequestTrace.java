@@ -0,0 +1,246 @@
+package com.midlo.backend.shared.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Per-request list of timed phases, rendered as a {@code Server-Timing}
+ * header.
+ *
+ * The trace lives in a thread local that is only set for sampled requests.
+ * When it is absent {@link #start(String)} returns a shared no-op span, so
+ * instrumented code pays one thread-local read per phase and allocates
+ * nothing. Work handed to another thread is traced when the task is wrapped
+ * with {@link #wrap(Runnable)} or {@link #wrap(Supplier)}; entries are then
+ * added under the trace's lock, and any that land after the header was
+ * written are simply not reported.
+ */
+public final class RequestTrace {
+
+	private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+	// Keeps the header well under common proxy limits even for a 40-call search.
+	static final int MAX_ENTRIES = 64;
+
+	private final long startNanos;
+	private final List<Entry> entries = new ArrayList<>();
+	private long handlerDoneNanos;
+	private int dropped;
+
+	RequestTrace(long startNanos) {
+		this.startNanos = startNanos;
+	}
+
+	static RequestTrace begin() {
+		RequestTrace trace = new RequestTrace(System.nanoTime());
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	public static boolean active() {
+		return CURRENT.get() != null;
+	}
+
+	/**
+	 * Runs {@code task} under the calling thread's trace, if any, so phases
+	 * timed on a worker thread show up in the request's header.
+	 */
+	public static Runnable wrap(Runnable task) {
+		RequestTrace trace = CURRENT.get();
+		if (trace == null) {
+			return task;
+		}
+		return () -> {
+			RequestTrace previous = CURRENT.get();
+			CURRENT.set(trace);
+			try {
+				task.run();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	public static <T> Supplier<T> wrap(Supplier<T> task) {
+		RequestTrace trace = CURRENT.get();
+		if (trace == null) {
+			return task;
+		}
+		return () -> {
+			RequestTrace previous = CURRENT.get();
+			CURRENT.set(trace);
+			try {
+				return task.get();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	private static void restore(RequestTrace previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * Starts timing a phase; close the span (try-with-resources) to record it.
+	 */
+	public static Span start(String name) {
+		RequestTrace trace = CURRENT.get();
+		return trace == null ? Span.NOOP : new Span(trace, name, System.nanoTime());
+	}
+
+	/**
+	 * Times {@code call} as one phase. Prefer this to {@link #start(String)}
+	 * when the body does not need the span.
+	 *
+	 * @param description shown in the header, or null
+	 */
+	public static <T, E extends Exception> T timed(String name, String description, Call<T, E> call) throws E {
+		Span span = start(name).describe(description);
+		try {
+			return call.call();
+		} finally {
+			span.close();
+		}
+	}
+
+	/**
+	 * A timed block; may throw a checked exception, which {@link #timed}
+	 * passes through.
+	 */
+	@FunctionalInterface
+	public interface Call<T, E extends Exception> {
+		T call() throws E;
+	}
+
+	/**
+	 * Records an instantaneous event such as a cache hit or miss.
+	 */
+	public static void mark(String name, String description) {
+		RequestTrace trace = CURRENT.get();
+		if (trace != null) {
+			trace.add(name, description, -1);
+		}
+	}
+
+	/**
+	 * Marks the end of the handler; time after this point is reported as
+	 * serialization.
+	 */
+	static void handlerDone() {
+		RequestTrace trace = CURRENT.get();
+		if (trace != null && trace.handlerDoneNanos == 0) {
+			trace.handlerDoneNanos = System.nanoTime();
+		}
+	}
+
+	private synchronized void add(String name, String description, long nanos) {
+		if (entries.size() >= MAX_ENTRIES) {
+			dropped++;
+			return;
+		}
+		entries.add(new Entry(name, description, nanos));
+	}
+
+	/**
+	 * Renders the phases plus {@code app}, {@code serialize} and {@code total}
+	 * as of {@code nowNanos}.
+	 */
+	synchronized String toHeader(long nowNanos) {
+		StringBuilder sb = new StringBuilder(entries.size() * 40 + 64);
+		for (Entry e : entries) {
+			append(sb, e.name, e.description, e.nanos);
+		}
+		if (dropped > 0) {
+			append(sb, "truncated", dropped + " more", -1);
+		}
+		if (handlerDoneNanos != 0) {
+			append(sb, "app", null, handlerDoneNanos - startNanos);
+			append(sb, "serialize", null, nowNanos - handlerDoneNanos);
+		}
+		append(sb, "total", null, nowNanos - startNanos);
+		return sb.toString();
+	}
+
+	/**
+	 * One-line summary for the debug log.
+	 */
+	String summary(long nowNanos) {
+		return toHeader(nowNanos).replace(";dur=", "=").replace(";desc=", " ");
+	}
+
+	private static void append(StringBuilder sb, String name, String description, long nanos) {
+		if (!sb.isEmpty()) {
+			sb.append(", ");
+		}
+		sb.append(name);
+		if (nanos >= 0) {
+			long micros = nanos / 1000;
+			sb.append(";dur=").append(micros / 1000).append('.');
+			long frac = micros % 1000;
+			if (frac < 100) {
+				sb.append('0');
+			}
+			if (frac < 10) {
+				sb.append('0');
+			}
+			sb.append(frac);
+		}
+		if (description != null && !description.isEmpty()) {
+			sb.append(";desc=\"");
+			for (int i = 0; i < description.length(); i++) {
+				char c = description.charAt(i);
+				if (c == '"' || c == '\\') {
+					sb.append('\\');
+				}
+				sb.append(c < 0x20 || c > 0x7e ? '?' : c);
+			}
+			sb.append('"');
+		}
+	}
+
+	private record Entry(String name, String description, long nanos) {
+	}
+
+	public static final class Span implements AutoCloseable {
+		static final Span NOOP = new Span(null, null, 0);
+
+		private final RequestTrace trace;
+		private final String name;
+		private final long startNanos;
+		private String description;
+
+		private Span(RequestTrace trace, String name, long startNanos) {
+			this.trace = trace;
+			this.name = name;
+			this.startNanos = startNanos;
+		}
+
+		public boolean recording() {
+			return trace != null;
+		}
+
+		public Span describe(String description) {
+			if (trace != null) {
+				this.description = description;
+			}
+			return this;
+		}
+
+		@Override
+		public void close() {
+			if (trace != null) {
+				trace.add(name, description, System.nanoTime() - startNanos);
+			}
+		}
+	}
+}
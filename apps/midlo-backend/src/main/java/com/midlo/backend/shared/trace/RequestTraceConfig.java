@@ -0,0 +1,51 @@
+package com.midlo.backend.shared.trace;
+
+import com.midlo.backend.shared.config.MidloCorsProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "midlo.trace.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RequestTraceProperties.class)
+public class RequestTraceConfig {
+	@Bean
+	public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+			RequestTraceProperties properties,
+			MidloCorsProperties corsProperties) {
+		FilterRegistrationBean<ServerTimingFilter> reg = new FilterRegistrationBean<>();
+		reg.setFilter(new ServerTimingFilter(properties, timingOrigins(corsProperties)));
+		// Outside the KPI filter so the header covers the same span it measures.
+		reg.setOrder(5);
+		return reg;
+	}
+
+	/**
+	 * Same origin rules as the CORS mapping: patterns win when any are set.
+	 */
+	static CorsConfiguration timingOrigins(MidloCorsProperties cors) {
+		CorsConfiguration config = new CorsConfiguration();
+		List<String> patterns = normalize(cors.allowedOriginPatterns());
+		if (!patterns.isEmpty()) {
+			config.setAllowedOriginPatterns(patterns);
+		} else {
+			config.setAllowedOrigins(normalize(cors.allowedOrigins()));
+		}
+		return config;
+	}
+
+	private static List<String> normalize(List<String> raw) {
+		if (raw == null) {
+			return List.of();
+		}
+		return raw.stream()
+				.filter(v -> v != null && !v.isBlank())
+				.map(String::trim)
+				.toList();
+	}
+}
@@ -0,0 +1,30 @@
+package com.midlo.backend.shared.trace;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param forceKeys values of {@code X-Midlo-Trace} that force a trace; empty
+ *                  (the default) means a trace cannot be forced
+ */
+@ConfigurationProperties(prefix = "midlo.trace")
+public record RequestTraceProperties(
+		Boolean enabled,
+		Double sampleRate,
+		Double logSampleRate,
+		List<String> forceKeys
+) {
+	public RequestTraceProperties {
+		enabled = enabled == null || enabled;
+		sampleRate = (sampleRate == null || sampleRate < 0) ? 0.01 : Math.min(1.0, sampleRate);
+		logSampleRate = (logSampleRate == null || logSampleRate < 0) ? 0.0 : Math.min(1.0, logSampleRate);
+		forceKeys = forceKeys == null ? List.of()
+				: forceKeys.stream().filter(k -> k != null && !k.isBlank()).map(String::trim).toList();
+	}
+
+	public Set<String> forceKeySet() {
+		return Set.copyOf(forceKeys);
+	}
+}
@@ -0,0 +1,244 @@
+package com.midlo.backend.shared.trace;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Starts a {@link RequestTrace} for sampled requests and writes it as a
+ * {@code Server-Timing} header just before the response commits, so the
+ * breakdown includes serialization.
+ *
+ * Unsampled requests pass straight through. {@code X-Midlo-Trace: <key>}
+ * forces a trace (and its debug log line) when the key is one of
+ * {@code midlo.trace.forceKeys}, so only trusted callers can ask for a
+ * breakdown of every request. {@code Timing-Allow-Origin} is only sent to
+ * origins the CORS configuration allows.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+	private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+	static final String HEADER = "Server-Timing";
+	static final String FORCE_HEADER = "X-Midlo-Trace";
+
+	private final RequestTraceProperties properties;
+	private final Set<String> forceKeys;
+	private final CorsConfiguration timingOrigins;
+
+	/**
+	 * @param timingOrigins origins allowed to read the timings cross-origin
+	 */
+	public ServerTimingFilter(RequestTraceProperties properties, CorsConfiguration timingOrigins) {
+		this.properties = properties;
+		this.forceKeys = properties.forceKeySet();
+		this.timingOrigins = timingOrigins;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+		String path = request.getRequestURI();
+		return path == null || path.startsWith("/actuator");
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain) throws ServletException, IOException {
+		String forceKey = forceKeys.isEmpty() ? null : request.getHeader(FORCE_HEADER);
+		boolean forced = forceKey != null && forceKeys.contains(forceKey.trim());
+		if (!forced && !sampled(properties.sampleRate())) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		RequestTrace trace = RequestTrace.begin();
+		TimingResponse wrapped = new TimingResponse(response, trace, timingOrigins.checkOrigin(request.getHeader("Origin")));
+		try {
+			filterChain.doFilter(request, wrapped);
+		} finally {
+			RequestTrace.end();
+			if (!request.isAsyncStarted()) {
+				wrapped.writeHeader();
+				if (log.isDebugEnabled() && (forced || sampled(properties.logSampleRate()))) {
+					log.debug("request_trace method={} path={} status={} {}",
+							request.getMethod(),
+							request.getRequestURI(),
+							response.getStatus(),
+							trace.summary(System.nanoTime()));
+				}
+			}
+		}
+	}
+
+	private static boolean sampled(double rate) {
+		return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+	}
+
+	/**
+	 * Adds the header at the last moment before the container would commit:
+	 * the first flush, close, redirect or error, a write that would overflow
+	 * the response buffer, or the first write of a fixed-length body.
+	 */
+	static final class TimingResponse extends HttpServletResponseWrapper {
+		private final RequestTrace trace;
+		private final String origin;
+		private boolean headerWritten;
+		private boolean fixedLength;
+		private ServletOutputStream stream;
+
+		TimingResponse(HttpServletResponse response, RequestTrace trace, String origin) {
+			super(response);
+			this.trace = trace;
+			this.origin = origin;
+		}
+
+		void writeHeader() {
+			if (headerWritten || isCommitted()) {
+				return;
+			}
+			headerWritten = true;
+			setHeader(HEADER, trace.toHeader(System.nanoTime()));
+			if (origin != null && !origin.isBlank()) {
+				// Cross-origin callers only see Server-Timing in devtools and the
+				// Resource Timing API when allowed explicitly.
+				setHeader("Timing-Allow-Origin", origin);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (stream == null) {
+				stream = new TimingOutputStream(super.getOutputStream(), this);
+			}
+			return stream;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			fixedLength = len >= 0;
+			super.setContentLength(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			fixedLength = len >= 0;
+			super.setContentLengthLong(len);
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				fixedLength = value != null;
+			}
+			super.setHeader(name, value);
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				fixedLength = value != null;
+			}
+			super.addHeader(name, value);
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			// Writers are only used for small bodies here; stamp eagerly.
+			writeHeader();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			writeHeader();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			writeHeader();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			writeHeader();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			writeHeader();
+			super.sendRedirect(location);
+		}
+	}
+
+	private static final class TimingOutputStream extends ServletOutputStream {
+		private final ServletOutputStream delegate;
+		private final TimingResponse response;
+		private long written;
+
+		TimingOutputStream(ServletOutputStream delegate, TimingResponse response) {
+			this.delegate = delegate;
+			this.response = response;
+		}
+
+		private void beforeWrite(int len) {
+			written += len;
+			// A fixed-length body is already serialized and commits as soon as
+			// its last byte is written.
+			if (written >= response.getBufferSize() || response.fixedLength) {
+				response.writeHeader();
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			beforeWrite(1);
+			delegate.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			beforeWrite(len);
+			delegate.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			response.writeHeader();
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			response.writeHeader();
+			delegate.close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			delegate.setWriteListener(writeListener);
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package com.midlo.backend.shared.web;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PublicUrlProperties.class)
+public class PublicUrlConfig {
+}
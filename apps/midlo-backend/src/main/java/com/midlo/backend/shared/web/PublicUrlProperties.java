@@ -0,0 +1,16 @@
+package com.midlo.backend.shared.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param baseUrl origin (and context path) clients reach this API on, e.g.
+ *                {@code https://api.midlo.ai}. When blank, links are built
+ *                from the current request, which honours forwarded headers.
+ */
+@ConfigurationProperties(prefix = "midlo.public")
+public record PublicUrlProperties(String baseUrl) {
+
+	public PublicUrlProperties {
+		baseUrl = (baseUrl == null || baseUrl.isBlank()) ? null : baseUrl.strip().replaceAll("/+$", "");
+	}
+}
@@ -0,0 +1,34 @@
+package com.midlo.backend.shared.web;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Turns API paths into absolute URLs for links handed to clients (photo URLs,
+ * share links), so they resolve the same whether the client is the web app on
+ * another origin, the mobile app or a chat preview.
+ */
+@Component
+public class PublicUrls {
+	private final PublicUrlProperties properties;
+
+	public PublicUrls(PublicUrlProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * @param path absolute path, optionally with an encoded query
+	 * @return the path unchanged when there is neither a configured base URL
+	 *         nor a current request
+	 */
+	public String absolute(String path) {
+		if (properties.baseUrl() != null) {
+			return properties.baseUrl() + path;
+		}
+		if (RequestContextHolder.getRequestAttributes() == null) {
+			return path;
+		}
+		return ServletUriComponentsBuilder.fromCurrentContextPath().toUriString() + path;
+	}
+}
@@ -0,0 +1,86 @@
+package com.midlo.backend.autocomplete.cache;
+
+import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import com.midlo.backend.shared.cache.snapshot.Snapshottable.SnapshotEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompletePrefixCacheTest {
+
+	private static AutocompletePrefixCache newCache(int maxEntries) {
+		return new AutocompletePrefixCache(
+				new AutocompleteCacheProperties(true, Duration.ofMinutes(5), maxEntries, 64),
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void exactHitReturnsCachedList() {
+		AutocompletePrefixCache cache = newCache(100);
+		List<AutocompleteSuggestion> list = List.of(new AutocompleteSuggestion("a", "123 Main St, Austin, TX"));
+		cache.put("123 ma", list);
+
+		assertThat(cache.lookup(AutocompletePrefixCache.normalize("  123   MA "))).isEqualTo(list);
+	}
+
+	@Test
+	void extendedPrefixIsServedWhenEverySuggestionStillMatches() {
+		AutocompletePrefixCache cache = newCache(100);
+		List<AutocompleteSuggestion> list = List.of(
+				new AutocompleteSuggestion("a", "123 Main St, Austin, TX"),
+				new AutocompleteSuggestion("b", "123 Maine Ave, Portland, ME"));
+		cache.put("123 ma", list);
+
+		assertThat(cache.lookup("123 mai")).isEqualTo(list);
+		assertThat(cache.lookup("123 mar")).isNull();
+	}
+
+	@Test
+	void splitsAndPrunesEdgesUnderEviction() {
+		AutocompletePrefixCache cache = newCache(10);
+		for (int i = 0; i < 50; i++) {
+			cache.put("addr " + i, List.of(new AutocompleteSuggestion("p" + i, "Addr " + i)));
+		}
+
+		assertThat(cache.size()).isLessThanOrEqualTo(10);
+		assertThat(cache.lookup("addr 49")).hasSize(1);
+	}
+
+	@Test
+	void snapshotRoundTripKeepsKeysAcrossSplitEdges() throws Exception {
+		AutocompletePrefixCache cache = newCache(100);
+		List<AutocompleteSuggestion> main = List.of(new AutocompleteSuggestion("a", "123 Main St, Austin, TX"));
+		List<AutocompleteSuggestion> maple = List.of(new AutocompleteSuggestion(null, "123 Maple Dr, Denver, CO"));
+		cache.put("123 main", main);
+		cache.put("123 maple", maple);
+
+		CacheCodec<String, List<AutocompleteSuggestion>> codec = AutocompletePrefixCache.snapshotCodec();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		List<SnapshotEntry<String, List<AutocompleteSuggestion>>> entries = cache.hottest(10);
+		for (SnapshotEntry<String, List<AutocompleteSuggestion>> e : entries) {
+			codec.writeKey(out, e.key());
+			codec.writeValue(out, e.value());
+		}
+
+		AutocompletePrefixCache restored = newCache(100);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (SnapshotEntry<String, List<AutocompleteSuggestion>> e : entries) {
+			restored.restore(codec.readKey(in), codec.readValue(in), e.expiresAtMillis(), e.idleMillis());
+		}
+
+		assertThat(entries).extracting(SnapshotEntry::key).containsExactlyInAnyOrder("123 main", "123 maple");
+		assertThat(restored.lookup("123 main")).isEqualTo(main);
+		assertThat(restored.lookup("123 maple")).isEqualTo(maple);
+		assertThat(restored.size()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,67 @@
+package com.midlo.backend.autocomplete.service;
+
+import com.midlo.backend.autocomplete.cache.AutocompleteCacheProperties;
+import com.midlo.backend.autocomplete.cache.AutocompletePrefixCache;
+import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+import com.midlo.backend.integrations.gazetteer.Gazetteer;
+import com.midlo.backend.integrations.gazetteer.GazetteerProperties;
+import com.midlo.backend.integrations.google.GoogleApiMetrics;
+import com.midlo.backend.integrations.google.GoogleMapsProperties;
+import com.midlo.backend.integrations.google.GoogleUsage;
+import com.midlo.backend.integrations.google.GoogleUsageProperties;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotProperties;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteServiceTest {
+
+	// Local profile without a key: the mock stands in for Google.
+	private final AutocompleteService service = newService();
+
+	@Test
+	void answersCompleteCityAndZipLocally() {
+		assertThat(descriptions(service.suggestLocally("Portland, OR"))).containsExactly("Portland, OR, USA");
+		assertThat(descriptions(service.suggestLocally("97204"))).containsExactly("Portland, OR 97204, USA");
+	}
+
+	@Test
+	void prefixOfACityStillGetsUpstreamSuggestions() {
+		List<String> port = descriptions(service.suggest("Port"));
+
+		assertThat(port.get(0)).isEqualTo("Port (mock)");
+		assertThat(port).contains("Port Downtown (mock)", "Portland, OR, USA", "Portland, ME, USA");
+		assertThat(port).hasSizeLessThanOrEqualTo(6);
+	}
+
+	@Test
+	void venueNamesGoUpstreamOnly() {
+		assertThat(descriptions(service.suggest("Portland Coffee")))
+				.containsExactly("Portland Coffee (mock)", "Portland Coffee Downtown (mock)");
+		assertThat(descriptions(service.suggest("123 Portland"))).noneMatch(d -> d.endsWith(", USA"));
+	}
+
+	private static List<String> descriptions(List<AutocompleteSuggestion> suggestions) {
+		return suggestions.stream().map(AutocompleteSuggestion::description).toList();
+	}
+
+	private static AutocompleteService newService() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		MockEnvironment environment = new MockEnvironment();
+		environment.setActiveProfiles("local");
+		return new AutocompleteService(
+				new GoogleMapsProperties(""),
+				environment,
+				new AutocompletePrefixCache(new AutocompleteCacheProperties(null, null, null, null), registry),
+				new Gazetteer(new GazetteerProperties(null, null), new DefaultResourceLoader(), registry),
+				new GoogleApiMetrics(registry, new GoogleUsage(new GoogleUsageProperties(null, null))),
+				new CacheSnapshotter(new CacheSnapshotProperties(false, null, null, null, null), registry));
+	}
+}
@@ -0,0 +1,197 @@
+package com.midlo.backend.autocomplete.session;
+
+import com.midlo.backend.autocomplete.dto.AutocompleteSuggestion;
+import com.midlo.backend.autocomplete.service.AutocompleteService;
+import com.midlo.backend.shared.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AutocompleteSessionServiceTest {
+
+	private static final String TOKEN = "session-token-1";
+
+	private final AutocompleteService autocompleteService = mock(AutocompleteService.class);
+	/** input + "|" + token of every upstream call */
+	private final Queue<String> calls = new ConcurrentLinkedQueue<>();
+	private final ExecutorService clients = Executors.newFixedThreadPool(4);
+	private AutocompleteSessionService service;
+
+	@AfterEach
+	void tearDown() {
+		clients.shutdownNow();
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void answersRequestsWithoutTokenDirectly() {
+		service = newService(Duration.ofMinutes(1));
+		stubUpstream(null);
+
+		AutocompleteResult result = service.suggest("pizza", null);
+		AutocompleteResult malformed = service.suggest("pizza", "bad token!");
+
+		assertThat(result.superseded()).isFalse();
+		assertThat(result.sessionToken()).isNull();
+		assertThat(result.suggestions()).extracting(AutocompleteSuggestion::description).containsExactly("pizza");
+		assertThat(malformed.superseded()).isFalse();
+		// No Google session is attached, and no session is kept.
+		assertThat(calls).containsExactly("pizza|null", "pizza|null");
+		assertThat(service.size()).isZero();
+	}
+
+	@Test
+	void newerKeystrokeSupersedesOneStillDebouncing() throws Exception {
+		service = newService(Duration.ofMillis(300));
+		stubUpstream(null);
+
+		Future<AutocompleteResult> first = clients.submit(() -> service.suggest("piz", TOKEN));
+		Thread.sleep(50);
+		AutocompleteResult second = service.suggest("pizz", TOKEN);
+
+		assertThat(first.get(5, TimeUnit.SECONDS).superseded()).isTrue();
+		assertThat(second.superseded()).isFalse();
+		assertThat(second.sessionToken()).isEqualTo(TOKEN);
+		// The superseded keystroke never reached Google.
+		assertThat(calls).containsExactly("pizz|" + TOKEN);
+	}
+
+	@Test
+	void newerKeystrokeReleasesOneInFlight() throws Exception {
+		service = newService(Duration.ZERO);
+		CountDownLatch release = new CountDownLatch(1);
+		stubUpstream(release);
+
+		Future<AutocompleteResult> first = clients.submit(() -> service.suggest("piz", TOKEN));
+		Thread.sleep(100);
+		Future<AutocompleteResult> second = clients.submit(() -> service.suggest("pizz", TOKEN));
+
+		// Answered without waiting for Google.
+		assertThat(first.get(5, TimeUnit.SECONDS).superseded()).isTrue();
+		release.countDown();
+		assertThat(second.get(5, TimeUnit.SECONDS).superseded()).isFalse();
+		assertThat(calls).containsExactlyInAnyOrder("piz|" + TOKEN, "pizz|" + TOKEN);
+	}
+
+	@Test
+	void differentTokensDoNotInterfere() throws Exception {
+		service = newService(Duration.ofMillis(200));
+		stubUpstream(null);
+
+		Future<AutocompleteResult> a = clients.submit(() -> service.suggest("piz", "client-a-token"));
+		Future<AutocompleteResult> b = clients.submit(() -> service.suggest("sus", "client-b-token"));
+
+		assertThat(a.get(5, TimeUnit.SECONDS).superseded()).isFalse();
+		assertThat(b.get(5, TimeUnit.SECONDS).superseded()).isFalse();
+		assertThat(calls).containsExactlyInAnyOrder("piz|client-a-token", "sus|client-b-token");
+	}
+
+	@Test
+	void answersOnTheRequestThreadWhenTheQueueIsFull() throws Exception {
+		service = newService(Duration.ZERO, 1, Duration.ofSeconds(5));
+		CountDownLatch release = new CountDownLatch(1);
+		stubUpstream(release);
+
+		Future<AutocompleteResult> first = clients.submit(() -> service.suggest("piz", "client-a-token"));
+		Thread.sleep(100);
+		AutocompleteResult second = service.suggest("sus", "client-b-token");
+
+		assertThat(second.superseded()).isFalse();
+		assertThat(second.sessionToken()).isEqualTo("client-b-token");
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).superseded()).isFalse();
+	}
+
+	@Test
+	void givesUpOnAStuckCallAfterTheTimeout() {
+		service = newService(Duration.ZERO, 16, Duration.ofMillis(200));
+		CountDownLatch release = new CountDownLatch(1);
+		stubUpstream(release);
+
+		assertThatThrownBy(() -> service.suggest("piz", TOKEN))
+				.isInstanceOf(ApiException.class)
+				.satisfies(e -> assertThat(((ApiException) e).getStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+		release.countDown();
+	}
+
+	@Test
+	void releasesTheCallerWhenTheUpstreamThrowsAnError() {
+		service = newService(Duration.ZERO);
+		when(autocompleteService.suggestLocally(anyString())).thenReturn(null);
+		when(autocompleteService.suggest(anyString(), any())).thenThrow(new AssertionError("boom"));
+
+		assertThatThrownBy(() -> service.suggest("piz", TOKEN))
+				.isInstanceOf(AssertionError.class)
+				.hasMessage("boom");
+	}
+
+	@Test
+	void reusesTheClientTokenUntilTheSessionEnds() {
+		service = newService(Duration.ZERO);
+		stubUpstream(null);
+
+		service.suggest("piz", TOKEN);
+		service.suggest("pizza", TOKEN);
+		assertThat(service.size()).isEqualTo(1);
+		assertThat(calls).containsExactly("piz|" + TOKEN, "pizza|" + TOKEN);
+
+		service.end(TOKEN);
+		assertThat(service.size()).isZero();
+	}
+
+	@Test
+	void sweepsOnlyIdleSessionsWithNothingPending() {
+		service = newService(Duration.ZERO);
+		stubUpstream(null);
+		service.suggest("piz", "client-a-token");
+		service.suggest("sus", "client-b-token");
+
+		long now = System.currentTimeMillis();
+		assertThat(service.sweepIdleSessions(now)).isZero();
+		assertThat(service.sweepIdleSessions(now + Duration.ofMinutes(4).toMillis())).isEqualTo(2);
+		assertThat(service.size()).isZero();
+	}
+
+	private AutocompleteSessionService newService(Duration debounce) {
+		return newService(debounce, 16, Duration.ofSeconds(5));
+	}
+
+	private AutocompleteSessionService newService(Duration debounce, int maxQueued, Duration timeout) {
+		return new AutocompleteSessionService(
+				autocompleteService,
+				new AutocompleteSessionProperties(debounce, Duration.ofMinutes(3), 100, 2, maxQueued, timeout),
+				new SimpleMeterRegistry());
+	}
+
+	private void stubUpstream(CountDownLatch release) {
+		when(autocompleteService.suggestLocally(anyString())).thenReturn(null);
+		when(autocompleteService.suggest(anyString(), any())).thenAnswer(inv -> {
+			String input = inv.getArgument(0);
+			calls.add(input + "|" + inv.getArgument(1));
+			if (release != null && input.equals("piz")) {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			return List.of(new AutocompleteSuggestion("id-" + input, input));
+		});
+	}
+}
@@ -0,0 +1,49 @@
+package com.midlo.backend.integrations.google;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoogleUsageTest {
+
+	@Test
+	void attributesCallsToTheWrappedCaller() {
+		GoogleUsage usage = new GoogleUsage(new GoogleUsageProperties(null, null));
+
+		usage.recordCall(GoogleApi.PLACE_DETAILS);
+		UpstreamCaller.as("prefetch", () -> usage.recordCall(GoogleApi.PLACE_DETAILS)).run();
+		UpstreamCaller.as("prefetch", () -> usage.recordCall(GoogleApi.PLACE_DETAILS)).run();
+
+		assertThat(usage.calls(GoogleApi.PLACE_DETAILS))
+				.isEqualTo(Map.of(UpstreamCaller.BACKGROUND, 1L, "prefetch", 2L));
+		assertThat(UpstreamCaller.current()).isEqualTo(UpstreamCaller.BACKGROUND);
+	}
+
+	@Test
+	void windowRatioExcludesUnbilledPhotoBytes() {
+		GoogleUsage usage = new GoogleUsage(new GoogleUsageProperties(null, 5));
+
+		UpstreamCaller.as("/places", () -> {
+			for (int i = 0; i < 6; i++) {
+				usage.recordCall(GoogleApi.PLACES_NEARBY);
+			}
+			usage.recordCall(GoogleApi.PHOTO_CONTENT);
+		}).run();
+		usage.recordRequest("/places");
+		usage.recordRequest("/places");
+
+		assertThat(usage.windowTotals().calls()).isEqualTo(6);
+		assertThat(usage.windowTotalsByCaller().get("/places").callsPerRequest()).isEqualTo(3.0);
+	}
+
+	@Test
+	void configuredPricesOverrideDefaults() {
+		GoogleUsageProperties properties = new GoogleUsageProperties(Map.of("geocoding", 4.0), null);
+
+		assertThat(properties.usdPer1000(GoogleApi.GEOCODING)).isEqualTo(4.0);
+		assertThat(properties.usdPer1000(GoogleApi.PLACES_NEARBY)).isEqualTo(35.0);
+		assertThat(properties.windowMinutes()).isEqualTo(15);
+	}
+}
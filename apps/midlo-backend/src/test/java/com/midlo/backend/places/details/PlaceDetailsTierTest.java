@@ -0,0 +1,38 @@
+package com.midlo.backend.places.details;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceDetailsTierTest {
+
+    @Test
+    void deltaMaskOnlyNamesMissingFields() {
+        assertThat(PlaceDetailsTier.SUMMARY.fieldMask())
+                .isEqualTo("id,displayName,rating,userRatingCount,currentOpeningHours.openNow");
+        assertThat(PlaceDetailsTier.FULL.deltaMask(PlaceDetailsTier.STANDARD)).isEqualTo("id,photos");
+        assertThat(PlaceDetailsTier.FULL.deltaMask(PlaceDetailsTier.SUMMARY))
+                .doesNotContain("rating")
+                .contains("formattedAddress", "photos");
+    }
+
+    @Test
+    void upgradeKeepsFieldsAlreadyFetched() {
+        PlaceDetailsResponse summary = new PlaceDetailsResponse(
+                "p1", "Cafe", null, 0, 0, 4.5, 10, null, null, null, true, null, null);
+        PlaceDetailsResponse delta = new PlaceDetailsResponse(
+                "p1", null, "1 Main St", 1.5, 2.5, null, null, "https://maps", null, null, null,
+                List.of("Mon: 9-5"), List.of(new PlacePhoto("places/p1/photos/a", 100, 100)));
+
+        PlaceDetailsResponse full = summary.upgradedWith(delta, PlaceDetailsTier.SUMMARY);
+
+        assertThat(full.name()).isEqualTo("Cafe");
+        assertThat(full.rating()).isEqualTo(4.5);
+        assertThat(full.openNow()).isTrue();
+        assertThat(full.formattedAddress()).isEqualTo("1 Main St");
+        assertThat(full.lat()).isEqualTo(1.5);
+        assertThat(full.photos()).hasSize(1);
+    }
+}
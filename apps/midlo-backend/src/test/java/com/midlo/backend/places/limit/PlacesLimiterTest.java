@@ -0,0 +1,90 @@
+package com.midlo.backend.places.limit;
+
+import com.midlo.backend.places.service.PlacesSearchBudget;
+import com.midlo.backend.shared.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlacesLimiterTest {
+
+	private static final long TARGET_NANOS = Duration.ofSeconds(1).toNanos();
+
+	private static PlacesLimiter newLimiter(int initial) {
+		return new PlacesLimiter(
+				new PlacesLimiterProperties(true, initial, 2, 40, Duration.ofSeconds(1), 0.5, Duration.ofMillis(1500)),
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void degradesAsTheLimitFillsThenSheds() {
+		PlacesLimiter limiter = newLimiter(10);
+		List<PlacesSearchBudget> budgets = new ArrayList<>();
+		List<PlacesLimiter.Permit> held = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			PlacesLimiter.Permit permit = limiter.acquire();
+			held.add(permit);
+			budgets.add(permit.budget());
+		}
+
+		assertThat(budgets).startsWith(PlacesSearchBudget.FULL).endsWith(PlacesSearchBudget.MINIMAL)
+				.contains(PlacesSearchBudget.REDUCED, PlacesSearchBudget.NO_FALLBACK);
+		assertThatThrownBy(limiter::acquire)
+				.isInstanceOfSatisfying(ApiException.class, e -> {
+					assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+					assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+				});
+
+		held.forEach(PlacesLimiter.Permit::close);
+		assertThat(limiter.inflight()).isZero();
+		assertThat(limiter.acquire().budget()).isEqualTo(PlacesSearchBudget.FULL);
+	}
+
+	@Test
+	void slowSearchesShrinkTheLimitOncePerInterval() {
+		PlacesLimiter limiter = newLimiter(20);
+		long now = System.nanoTime();
+
+		limiter.onSample(2 * TARGET_NANOS, false, 20, now);
+		limiter.onSample(2 * TARGET_NANOS, false, 20, now + 1);
+		assertThat(limiter.limit()).isEqualTo(10);
+
+		limiter.onSample(0, true, 10, now + TARGET_NANOS);
+		limiter.onSample(0, true, 5, now + 2 * TARGET_NANOS);
+		limiter.onSample(0, true, 2, now + 3 * TARGET_NANOS);
+		assertThat(limiter.limit()).isEqualTo(2);
+	}
+
+	@Test
+	void slowSearchesAtLowLoadLeaveTheLimitAlone() {
+		PlacesLimiter limiter = newLimiter(20);
+		long now = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			limiter.onSample(2 * TARGET_NANOS, i % 2 == 0, 1, now + i * TARGET_NANOS);
+		}
+		assertThat(limiter.limit()).isEqualTo(20);
+	}
+
+	@Test
+	void fastSearchesGrowTheLimitOnlyWhenItIsUsed() {
+		PlacesLimiter limiter = newLimiter(10);
+		long now = System.nanoTime();
+		for (int i = 0; i < 50; i++) {
+			limiter.onSample(TARGET_NANOS / 2, false, 1, now);
+		}
+		assertThat(limiter.limit()).isEqualTo(10);
+
+		for (int i = 0; i < 50; i++) {
+			limiter.onSample(TARGET_NANOS / 2, false, 10, now);
+		}
+		assertThat(limiter.limit()).isBetween(13, 15);
+	}
+}
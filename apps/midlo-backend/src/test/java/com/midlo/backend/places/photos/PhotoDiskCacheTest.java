@@ -0,0 +1,121 @@
+package com.midlo.backend.places.photos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhotoDiskCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadsOnceAndEvictsLeastRecentlyUsed() throws Exception {
+        PhotoDiskCache cache = new PhotoDiskCache(dir, 1_000, 0, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        PhotoDiskCache.Loader loader = target -> {
+            loads.incrementAndGet();
+            Files.write(target, new byte[300]);
+            return "image/jpeg";
+        };
+
+        PhotoFile first = cache.get("a", loader);
+        cache.get("a", loader);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.contentType()).isEqualTo("image/jpeg");
+        assertThat(first.size()).isEqualTo(300);
+
+        Thread.sleep(5);
+        cache.get("b", loader);
+        Thread.sleep(5);
+        cache.get("c", loader);
+        Thread.sleep(5);
+        cache.get("a", loader);
+        Thread.sleep(5);
+        cache.get("d", loader);
+
+        assertThat(cache.totalBytes()).isLessThanOrEqualTo(1_000);
+        assertThat(Files.exists(first.path())).isTrue();
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void keepsPinnedFilesUntilThePinLapses() throws Exception {
+        PhotoDiskCache cache = new PhotoDiskCache(dir, 1_000, 200, new SimpleMeterRegistry());
+        PhotoDiskCache.Loader loader = target -> {
+            Files.write(target, new byte[400]);
+            return "image/jpeg";
+        };
+
+        PhotoFile a = cache.get("a", loader);
+        cache.get("b", loader);
+        cache.get("c", loader);
+        // Over budget, but every file may still be about to be sent.
+        assertThat(Files.exists(a.path())).isTrue();
+        assertThat(cache.size()).isEqualTo(3);
+
+        Thread.sleep(250);
+        PhotoFile d = cache.get("d", loader);
+        assertThat(Files.exists(a.path())).isFalse();
+        assertThat(Files.exists(d.path())).isTrue();
+        assertThat(cache.totalBytes()).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void anErrorInTheLoaderReleasesConcurrentRequesters() throws Exception {
+        PhotoDiskCache cache = new PhotoDiskCache(dir, 1_000, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<PhotoFile> first = pool.submit(() -> cache.get("a", target -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new AssertionError("boom");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<PhotoFile> second = pool.submit(() -> cache.get("a", target -> "image/jpeg"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rebuildsIndexFromDirectory() {
+        PhotoDiskCache cache = new PhotoDiskCache(dir, 10_000, new SimpleMeterRegistry());
+        cache.get("a", target -> {
+            Files.write(target, new byte[42]);
+            return "image/png";
+        });
+
+        PhotoDiskCache reopened = new PhotoDiskCache(dir, 10_000, new SimpleMeterRegistry());
+        PhotoFile file = reopened.get("a", target -> {
+            throw new AssertionError("should be served from disk");
+        });
+
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(file.size()).isEqualTo(42);
+        assertThat(file.contentType()).isEqualTo("image/png");
+    }
+}
@@ -0,0 +1,69 @@
+package com.midlo.backend.places.photos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoVariantServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final PhotoVariantService service = new PhotoVariantService(
+            new PhotoVariantProperties(true, List.of(160, 320, 640, 1200), null, 1, 4, null),
+            new SimpleMeterRegistry());
+
+    @Test
+    void snapsUpToNearestRung() {
+        assertThat(service.snap(100, null)).isEqualTo(new PhotoVariantService.Size(160, null));
+        assertThat(service.snap(320, null)).isEqualTo(new PhotoVariantService.Size(320, null));
+        assertThat(service.snap(700, 300)).isEqualTo(new PhotoVariantService.Size(1200, 320));
+        assertThat(service.snap(null, 500)).isEqualTo(new PhotoVariantService.Size(null, 640));
+        assertThat(service.snap(null, null)).isEqualTo(new PhotoVariantService.Size(1200, null));
+    }
+
+    @Test
+    void leavesSizesAboveTheLadderAlone() {
+        assertThat(service.snap(1600, null)).isEqualTo(new PhotoVariantService.Size(1600, null));
+        assertThat(service.snap(600, 1800)).isEqualTo(new PhotoVariantService.Size(600, 1800));
+        assertThat(service.aboveLadder(1600)).isTrue();
+        assertThat(service.aboveLadder(1200)).isFalse();
+    }
+
+    @Test
+    void derivesSmallerJpegKeepingAspect() throws Exception {
+        Path source = dir.resolve("source.jpg");
+        ImageIO.write(new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB), "jpg", source.toFile());
+        PhotoFile canonical = new PhotoFile(source, Files.size(source), "image/jpeg", "\"x\"");
+
+        Path target = dir.resolve("variant.jpg");
+        String contentType = service.resize(canonical, target, 320, null);
+
+        BufferedImage variant = ImageIO.read(target.toFile());
+        assertThat(contentType).isEqualTo("image/jpeg");
+        assertThat(variant.getWidth()).isEqualTo(320);
+        assertThat(variant.getHeight()).isEqualTo(213);
+    }
+
+    @Test
+    void fitsWithinHeightBound() throws Exception {
+        Path source = dir.resolve("source.jpg");
+        ImageIO.write(new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB), "jpg", source.toFile());
+        PhotoFile canonical = new PhotoFile(source, Files.size(source), "image/jpeg", "\"x\"");
+
+        Path target = dir.resolve("variant.jpg");
+        service.resize(canonical, target, 640, 320);
+
+        BufferedImage variant = ImageIO.read(target.toFile());
+        assertThat(variant.getWidth()).isEqualTo(480);
+        assertThat(variant.getHeight()).isEqualTo(320);
+    }
+}
@@ -0,0 +1,136 @@
+package com.midlo.backend.places.provider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalPlaceProviderTest {
+
+	private static final String EXTRACT = """
+			<?xml version="1.0" encoding="UTF-8"?>
+			<osm version="0.6">
+			  <node id="1" lat="40.7010" lon="-74.0000">
+			    <tag k="amenity" v="cafe"/>
+			    <tag k="name" v="Near Cafe"/>
+			  </node>
+			  <node id="2" lat="40.7100" lon="-74.0000">
+			    <tag k="amenity" v="restaurant"/>
+			    <tag k="name" v="Far Diner"/>
+			  </node>
+			  <node id="3" lat="40.7002" lon="-74.0000">
+			    <tag k="amenity" v="bar"/>
+			    <tag k="name" v="Closest Bar"/>
+			  </node>
+			  <node id="4" lat="40.7003" lon="-74.0000">
+			    <tag k="amenity" v="bench"/>
+			    <tag k="name" v="Unmapped"/>
+			  </node>
+			  <node id="5" lat="40.7004" lon="-74.0000">
+			    <tag k="amenity" v="cafe"/>
+			  </node>
+			  <node id="6" lat="41.5000" lon="-74.0000">
+			    <tag k="amenity" v="cafe"/>
+			    <tag k="name" v="Out Of Range"/>
+			  </node>
+			</osm>
+			""";
+
+	@TempDir
+	Path dir;
+
+	private LocalPlaceProvider provider() throws IOException {
+		Path osm = dir.resolve("extract.osm");
+		Files.writeString(osm, EXTRACT);
+		LocalPlacesProperties properties = new LocalPlacesProperties(true, osm.toString(),
+				dir.resolve("pois.bin").toString(), null, null, null);
+		return new LocalPlaceProvider(properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void importsOnlyNamedMappedNodes() throws IOException {
+		List<PoiStore.Poi> pois = OsmPoiImporter.read(
+				new ByteArrayInputStream(EXTRACT.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(pois).extracting(PoiStore.Poi::name)
+				.containsExactlyInAnyOrder("Near Cafe", "Far Diner", "Closest Bar", "Out Of Range");
+	}
+
+	@Test
+	void returnsMatchingTypesWithinRadiusNearestFirst() throws IOException {
+		LocalPlaceProvider provider = provider();
+		assertThat(provider.available()).isTrue();
+
+		List<PlaceCandidate> found = provider.searchNearby(40.7000, -74.0000, 5_000,
+				List.of("restaurant", "cafe", "bar"));
+
+		assertThat(found).extracting(PlaceCandidate::name)
+				.containsExactly("Closest Bar", "Near Cafe", "Far Diner");
+		assertThat(found).allSatisfy(c -> {
+			assertThat(LocalPlaceProvider.isLocalId(c.placeId())).isTrue();
+			assertThat(c.source()).isEqualTo(LocalPlaceProvider.NAME);
+		});
+	}
+
+	@Test
+	void filtersByTypeAndRadius() throws IOException {
+		LocalPlaceProvider provider = provider();
+
+		assertThat(provider.searchNearby(40.7000, -74.0000, 500, List.of("cafe", "restaurant")))
+				.extracting(PlaceCandidate::name)
+				.containsExactly("Near Cafe");
+		assertThat(provider.searchNearby(40.7000, -74.0000, 5_000, List.of("museum"))).isEmpty();
+	}
+
+	@Test
+	void reopensAnExistingStoreWithoutTheExtract() throws IOException {
+		provider();
+		LocalPlacesProperties storeOnly = new LocalPlacesProperties(true, null,
+				dir.resolve("pois.bin").toString(), null, null, null);
+
+		LocalPlaceProvider provider = new LocalPlaceProvider(storeOnly, new SimpleMeterRegistry());
+
+		assertThat(provider.searchNearby(40.7000, -74.0000, 300, List.of("bar")))
+				.extracting(PlaceCandidate::placeId)
+				.containsExactly("osm_n3");
+	}
+
+	@Test
+	void keepsTheNearestHitsAcrossTheAntimeridian() throws IOException {
+		Path file = dir.resolve("dateline.bin");
+		PoiStore.write(List.of(
+				new PoiStore.Poi(1, 'n', "East Cafe", "cafe", 0.0, 179.9990),
+				new PoiStore.Poi(2, 'n', "West Cafe", "cafe", 0.0, -179.9995),
+				new PoiStore.Poi(3, 'n', "Far West Cafe", "cafe", 0.0, -179.9950)), file);
+		PoiStore store = PoiStore.open(file);
+		long cafes = store.typeMask(List.of("cafe"));
+
+		assertThat(store.nearby(0.0, 179.9999, 1_000, cafes, 10))
+				.extracting(PoiStore.Hit::name)
+				.containsExactly("West Cafe", "East Cafe", "Far West Cafe");
+		assertThat(store.nearby(0.0, 179.9999, 1_000, cafes, 2))
+				.extracting(PoiStore.Hit::name)
+				.containsExactly("West Cafe", "East Cafe");
+	}
+
+	@Test
+	void findsAPlaceByItsLocalId() throws IOException {
+		LocalPlaceProvider provider = provider();
+
+		assertThat(provider.find("osm_n3")).hasValueSatisfying(c -> {
+			assertThat(c.name()).isEqualTo("Closest Bar");
+			assertThat(c.lat()).isEqualTo(40.7002);
+		});
+		assertThat(provider.find("osm_n4")).isEmpty();
+		assertThat(provider.find("osm_nx")).isEmpty();
+		assertThat(provider.find("ChIJplace")).isEmpty();
+	}
+}
@@ -0,0 +1,48 @@
+package com.midlo.backend.places.provider;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceMergePolicyTest {
+
+	private final PlaceMergePolicy policy = new PlaceMergePolicy(75);
+
+	@Test
+	void sameNameNearbyIsOnePlace() {
+		assertThat(policy.samePlace("Joe's Pizza", 40.7000, -74.0000, "Joes Pizza", 40.7003, -74.0002)).isTrue();
+		assertThat(policy.samePlace("Café Grumpy", 40.7000, -74.0000, "Cafe Grumpy Chelsea", 40.7001, -74.0000))
+				.isTrue();
+		assertThat(policy.samePlace("Joe's", 40.7000, -74.0000, "Joe's Pizza", 40.7001, -74.0000)).isTrue();
+		assertThat(policy.samePlace("The Starbucks", 40.7000, -74.0000, "Starbucks Coffee", 40.7001, -74.0000))
+				.isTrue();
+	}
+
+	@Test
+	void sameNameFarApartIsNot() {
+		// ~110 m apart.
+		assertThat(policy.samePlace("Starbucks", 40.7000, -74.0000, "Starbucks", 40.7010, -74.0000)).isFalse();
+	}
+
+	@Test
+	void differentNamesNearbyAreNot() {
+		assertThat(policy.samePlace("Blue Bottle Cafe", 40.7000, -74.0000, "Red Door Cafe", 40.7001, -74.0000))
+				.isFalse();
+		assertThat(policy.samePlace("", 40.7000, -74.0000, "Anything", 40.7000, -74.0000)).isFalse();
+	}
+
+	@Test
+	void partialWordsDoNotMatch() {
+		assertThat(PlaceMergePolicy.namesMatch("Bar", "Barbecue Joint")).isFalse();
+		assertThat(PlaceMergePolicy.namesMatch("Rio", "Rios Tacos")).isFalse();
+	}
+
+	@Test
+	void sharedGenericWordsAndStopwordsDoNotMatch() {
+		assertThat(PlaceMergePolicy.namesMatch("The Coffee Bar", "The Wine Bar")).isFalse();
+		assertThat(PlaceMergePolicy.namesMatch("Cafe", "Cafe Rio")).isFalse();
+		assertThat(PlaceMergePolicy.namesMatch("The Grill", "Grill")).isTrue();
+		assertThat(PlaceMergePolicy.namesMatch("Blue Door Kitchen", "Green Door Kitchen")).isFalse();
+		assertThat(PlaceMergePolicy.namesMatch("Blue Bottle Coffee", "Blue Fin Sushi Bar")).isFalse();
+	}
+}
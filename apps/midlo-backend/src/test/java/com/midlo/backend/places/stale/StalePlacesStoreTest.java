@@ -0,0 +1,48 @@
+package com.midlo.backend.places.stale;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midlo.backend.places.dto.PlaceResponse;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotProperties;
+import com.midlo.backend.shared.cache.snapshot.CacheSnapshotter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StalePlacesStoreTest {
+
+	private static StalePlacesStore newStore() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		CacheSnapshotter snapshotter = new CacheSnapshotter(
+				new CacheSnapshotProperties(false, null, null, null, null), registry);
+		return new StalePlacesStore(new StalePlacesProperties(true, Duration.ofHours(1), 500, 100, null),
+				registry, snapshotter, new ObjectMapper());
+	}
+
+	private static final List<PlaceResponse> PLACES = List.of(
+			new PlaceResponse("p1", "Cafe", "0.1 mi", 40.7001, -74.0001));
+
+	@Test
+	void findsResultsStoredForANearbyMidpoint() {
+		StalePlacesStore store = newStore();
+		store.put(40.7000, -74.0000, PLACES);
+
+		// ~450 m north-east: usually a neighbouring cell.
+		StalePlaces stale = store.lookup(40.7030, -73.9965);
+		assertThat(stale).isNotNull();
+		assertThat(stale.places()).isEqualTo(PLACES);
+		assertThat(stale.ageMillis(System.currentTimeMillis())).isLessThan(1_000);
+	}
+
+	@Test
+	void ignoresResultsTooFarAway() {
+		StalePlacesStore store = newStore();
+		store.put(40.7000, -74.0000, PLACES);
+
+		assertThat(store.lookup(40.7200, -74.0000)).isNull();
+		assertThat(store.lookup(-40.7000, 74.0000)).isNull();
+	}
+}
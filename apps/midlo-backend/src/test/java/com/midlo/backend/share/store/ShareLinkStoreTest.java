@@ -0,0 +1,112 @@
+package com.midlo.backend.share.store;
+
+import com.midlo.backend.shared.cache.l2.L2CacheProperties;
+import com.midlo.backend.shared.cache.l2.NearCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShareLinkStoreTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<ShareLinkStore> stores = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		stores.forEach(ShareLinkStore::shutdown);
+	}
+
+	private ShareLinkStore newStore(long maxDiskBytes) {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ShareLinkProperties properties = new ShareLinkProperties(true, null, dir.toString(), maxDiskBytes, 100,
+				null, null);
+		NearCacheManager noL2 = new NearCacheManager(null, new L2CacheProperties(null, null, null, null, null, null,
+				null, null, null, null, null, null, null), registry);
+		ShareLinkStore store = new ShareLinkStore(properties, registry, noL2);
+		stores.add(store);
+		return store;
+	}
+
+	private static byte[] json(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void servesLinksAcrossRestarts() throws IOException {
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		newStore(1 << 20).put("abcDEF1234", json("{\"id\":\"abcDEF1234\"}"), expiresAt);
+
+		ShareLinkStore restarted = newStore(1 << 20);
+
+		assertThat(restarted.size()).isEqualTo(1);
+		assertThat(restarted.get("abcDEF1234").json()).asString(StandardCharsets.UTF_8).isEqualTo("{\"id\":\"abcDEF1234\"}");
+		assertThat(restarted.contains("abcDEF1234")).isTrue();
+	}
+
+	@Test
+	void seesLinksWrittenByAnotherInstanceSharingTheDirectory() throws IOException {
+		ShareLinkStore a = newStore(1 << 20);
+		ShareLinkStore b = newStore(1 << 20);
+		long now = System.currentTimeMillis();
+
+		a.put("fromA12345", json("{\"id\":\"fromA12345\"}"), now + 60_000);
+		a.put("expiredA12", json("{}"), now - 1);
+
+		assertThat(b.contains("fromA12345")).isTrue();
+		assertThat(b.get("fromA12345").json()).asString(StandardCharsets.UTF_8).isEqualTo("{\"id\":\"fromA12345\"}");
+		assertThat(b.get("expiredA12")).isNull();
+		// The sweep covers the whole directory, not just this instance's links.
+		assertThat(b.sweep()).isEqualTo(1);
+		assertThat(Files.exists(dir.resolve("expiredA12.link"))).isFalse();
+		assertThat(b.size()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsMalformedIdsWithoutTouchingDisk() {
+		ShareLinkStore store = newStore(1 << 20);
+
+		assertThat(store.get("../../etc/passwd")).isNull();
+		assertThat(store.get("short")).isNull();
+	}
+
+	@Test
+	void sweepDropsExpiredLinks() throws Exception {
+		ShareLinkStore store = newStore(1 << 20);
+		store.put("expiresNow", json("{}"), System.currentTimeMillis() + 20);
+		store.put("keepsGoing", json("{}"), System.currentTimeMillis() + 60_000);
+		Thread.sleep(40);
+
+		assertThat(store.sweep()).isEqualTo(1);
+		assertThat(store.get("expiresNow")).isNull();
+		assertThat(store.get("keepsGoing")).isNotNull();
+		assertThat(Files.exists(dir.resolve("expiresNow.link"))).isFalse();
+	}
+
+	@Test
+	void sweepKeepsDiskUnderItsBoundByDroppingTheOldest() throws IOException {
+		ShareLinkStore store = newStore(1_000);
+		long now = System.currentTimeMillis();
+		byte[] body = json("x".repeat(180));
+		for (int i = 0; i < 8; i++) {
+			store.put("link00000" + i, body, now + 60_000 + i * 1_000L);
+		}
+
+		store.sweep();
+
+		assertThat(store.size()).isLessThan(8);
+		assertThat(store.get("link000000")).isNull();
+		assertThat(store.get("link000007")).isNotNull();
+	}
+}
@@ -0,0 +1,48 @@
+package com.midlo.backend.shared.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheLookupEventTest {
+
+	@Test
+	void bundledSettingsRecordCacheLookups(@TempDir Path dir) throws Exception {
+		Configuration settings;
+		try (Reader reader = new InputStreamReader(
+				getClass().getResourceAsStream("/jfr/midlo.jfc"), StandardCharsets.UTF_8)) {
+			settings = Configuration.create(reader);
+		}
+		ExpiringCache<String, String> cache = new ExpiringCache<>("jfr-test", 10, 1_000, String::length,
+				new SimpleMeterRegistry());
+		cache.put("k", "v", Duration.ofMinutes(1));
+
+		Path file = dir.resolve("test.jfr");
+		try (Recording recording = new Recording(settings)) {
+			recording.start();
+			cache.get("k");
+			cache.get("missing");
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(e -> e.getEventType().getName().equals("midlo.CacheLookup"))
+				.filter(e -> "jfr-test".equals(e.getString("cache")))
+				.toList();
+		assertThat(events).extracting(e -> e.getBoolean("hit")).containsExactly(true, false);
+	}
+}
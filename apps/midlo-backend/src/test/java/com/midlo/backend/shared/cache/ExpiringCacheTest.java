@@ -0,0 +1,140 @@
+package com.midlo.backend.shared.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringCacheTest {
+
+	@Test
+	void boundsEntriesAndWeight() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 1_000, String::length,
+				new SimpleMeterRegistry());
+		for (int i = 0; i < 100; i++) {
+			cache.put("k" + i, "x".repeat(50), Duration.ofMinutes(1));
+		}
+
+		assertThat(cache.size()).isLessThanOrEqualTo(10);
+		assertThat(cache.weight()).isLessThanOrEqualTo(1_000);
+		assertThat(cache.get("k99")).isNotNull();
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 1_000, String::length,
+				new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = pool.submit(() -> cache.get("k", Duration.ofMinutes(1), k -> {
+					loads.incrementAndGet();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return "v";
+				}));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			for (Future<?> f : futures) {
+				assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	void reloadJoinsARefreshInFlight() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 1_000, String::length,
+				new SimpleMeterRegistry());
+		cache.put("k", "old", Duration.ofMinutes(1));
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			cache.refreshAsync("k", Duration.ofMinutes(1), k -> {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "refreshed";
+			}, pool);
+			AtomicInteger reloads = new AtomicInteger();
+			Future<String> reload = pool.submit(() -> cache.reload("k", Duration.ofMinutes(1), k -> {
+				reloads.incrementAndGet();
+				return "reloaded";
+			}));
+			Thread.sleep(100);
+			assertThat(cache.peek("k")).isEqualTo("old");
+			release.countDown();
+
+			assertThat(reload.get(5, TimeUnit.SECONDS)).isEqualTo("refreshed");
+			assertThat(reloads.get()).isZero();
+			assertThat(cache.reload("k", Duration.ofMinutes(1), k -> "reloaded")).isEqualTo("reloaded");
+			assertThat(cache.peek("k")).isEqualTo("reloaded");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void anErrorInTheLoaderReleasesEveryWaiter() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 1_000, String::length,
+				new SimpleMeterRegistry());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> loader = pool.submit(() -> cache.get("k", Duration.ofMinutes(1), k -> {
+				started.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				throw new AssertionError("boom");
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Future<String> joiner = pool.submit(() -> cache.get("k", Duration.ofMinutes(1), k -> "unused"));
+			Thread.sleep(100);
+			release.countDown();
+
+			assertThatThrownBy(() -> loader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+			assertThatThrownBy(() -> joiner.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+			assertThat(cache.get("k", Duration.ofMinutes(1), k -> "loaded")).isEqualTo("loaded");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void removeExpiredReclaimsWeight() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 1_000, String::length,
+				new SimpleMeterRegistry());
+		cache.put("short", "x".repeat(20), Duration.ofMillis(20));
+		cache.put("long", "y".repeat(30), Duration.ofMinutes(1));
+		Thread.sleep(50);
+
+		assertThat(cache.removeExpired()).isEqualTo(1);
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.weight()).isEqualTo(30);
+	}
+}
@@ -0,0 +1,82 @@
+package com.midlo.backend.shared.cache.l2;
+
+import com.midlo.backend.shared.cache.ExpiringCache;
+import com.midlo.backend.shared.cache.snapshot.CacheCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheManagerTest {
+
+	private final InMemoryL2Cache shared = new InMemoryL2Cache();
+
+	/** One application instance: its own near cache, attached to the shared L2. */
+	private ExpiringCache<String, String> instance() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		L2CacheProperties properties = new L2CacheProperties(L2CacheProperties.Mode.MEMORY, null, null, null, null,
+				null, null, null, null, null, null, 64, null);
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", 100, 100_000, String::length, registry);
+		new NearCacheManager(shared, properties, registry).attach(cache, CacheCodec.strings());
+		return cache;
+	}
+
+	@Test
+	void missReadsWhatAnotherInstanceLoaded() {
+		ExpiringCache<String, String> a = instance();
+		ExpiringCache<String, String> b = instance();
+		AtomicInteger loads = new AtomicInteger();
+
+		a.get("k", Duration.ofMinutes(1), k -> "v" + loads.incrementAndGet());
+		String fromB = b.get("k", Duration.ofMinutes(1), k -> "v" + loads.incrementAndGet());
+
+		assertThat(fromB).isEqualTo("v1");
+		assertThat(loads).hasValue(1);
+		// Now local to b as well.
+		shared.delete("midlo:test:1:k");
+		assertThat(b.get("k")).isEqualTo("v1");
+	}
+
+	@Test
+	void replacingAKeyDropsOtherInstancesLocalCopies() {
+		ExpiringCache<String, String> a = instance();
+		ExpiringCache<String, String> b = instance();
+		a.put("k", "old", Duration.ofMinutes(1));
+		assertThat(b.get("k")).isEqualTo("old");
+
+		a.put("k", "new", Duration.ofMinutes(1));
+
+		assertThat(b.get("k")).isEqualTo("new");
+		assertThat(a.get("k")).isEqualTo("new");
+	}
+
+	@Test
+	void invalidationReachesEveryInstance() {
+		ExpiringCache<String, String> a = instance();
+		ExpiringCache<String, String> b = instance();
+		a.put("k", "v", Duration.ofMinutes(1));
+		assertThat(b.get("k")).isEqualTo("v");
+
+		a.invalidate("k");
+
+		assertThat(b.get("k")).isNull();
+		assertThat(shared.size()).isZero();
+	}
+
+	@Test
+	void largeValuesAreCompressedAndKeepTheirExpiry() {
+		ExpiringCache<String, String> a = instance();
+		ExpiringCache<String, String> b = instance();
+		String big = "photo-uri ".repeat(200);
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		a.putUntil("k", big, expiresAt);
+
+		assertThat(shared.get("midlo:test:1:k")).hasSizeLessThan(big.length() / 4);
+		assertThat(b.hottest(1)).isEmpty();
+		assertThat(b.get("k")).isEqualTo(big);
+		assertThat(b.hottest(1).get(0).expiresAtMillis()).isEqualTo(expiresAt);
+	}
+}
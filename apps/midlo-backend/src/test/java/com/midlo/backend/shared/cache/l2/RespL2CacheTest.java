@@ -0,0 +1,219 @@
+package com.midlo.backend.shared.cache.l2;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RespL2CacheTest {
+
+	private FakeRespServer server;
+	private RespL2Cache cache;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (cache != null) {
+			cache.close();
+		}
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	private RespL2Cache connect(int port) {
+		return new RespL2Cache(new L2CacheProperties(L2CacheProperties.Mode.RESP, "127.0.0.1", port, null, null,
+				null, Duration.ofMillis(500), Duration.ofMillis(500), 2, 16, null, null, Duration.ofSeconds(30)),
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void pipelinesWritesAndReadsThemBack() throws Exception {
+		server = new FakeRespServer();
+		cache = connect(server.port());
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		for (int i = 0; i < 50; i++) {
+			cache.set("k" + i, ("v" + i).getBytes(StandardCharsets.UTF_8), expiresAt);
+		}
+		cache.delete("k0");
+
+		byte[] last = null;
+		for (int i = 0; i < 100 && last == null; i++) {
+			last = cache.get("k49");
+			Thread.sleep(10);
+		}
+
+		assertThat(last).asString(StandardCharsets.UTF_8).isEqualTo("v49");
+		assertThat(cache.get("k0")).isNull();
+		// Fewer round trips than commands: writes were batched.
+		assertThat(server.flushes.get()).isLessThan(51);
+	}
+
+	@Test
+	void deliversPublishedInvalidations() throws Exception {
+		server = new FakeRespServer();
+		cache = connect(server.port());
+		BlockingQueue<String> received = new LinkedBlockingQueue<>();
+		cache.subscribe("inv", received::add);
+		server.awaitSubscriber();
+
+		cache.publish("inv", "a\ntest\nk");
+
+		assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("a\ntest\nk");
+	}
+
+	@Test
+	void unreachableServerReadsAsEmpty() throws IOException {
+		int port;
+		try (ServerSocket probe = new ServerSocket(0)) {
+			port = probe.getLocalPort();
+		}
+		cache = connect(port);
+
+		long start = System.nanoTime();
+		assertThat(cache.get("k")).isNull();
+		assertThat(cache.get("k")).isNull();
+		cache.set("k", new byte[] { 1 }, System.currentTimeMillis() + 60_000);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+	}
+
+	/** Enough of GET, SET, DEL, PUBLISH and SUBSCRIBE to exercise the client. */
+	private static final class FakeRespServer {
+		private final ServerSocket socket = new ServerSocket(0);
+		private final Map<String, byte[]> data = new ConcurrentHashMap<>();
+		private final List<OutputStream> subscribers = new CopyOnWriteArrayList<>();
+		private final AtomicInteger flushes = new AtomicInteger();
+
+		FakeRespServer() throws IOException {
+			Thread acceptor = new Thread(() -> {
+				while (!socket.isClosed()) {
+					try {
+						Socket client = socket.accept();
+						Thread t = new Thread(() -> serve(client));
+						t.setDaemon(true);
+						t.start();
+					} catch (IOException e) {
+						return;
+					}
+				}
+			});
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int port() {
+			return socket.getLocalPort();
+		}
+
+		void awaitSubscriber() throws InterruptedException {
+			for (int i = 0; i < 500 && subscribers.isEmpty(); i++) {
+				Thread.sleep(10);
+			}
+		}
+
+		void close() throws IOException {
+			socket.close();
+		}
+
+		private void serve(Socket client) {
+			try (client) {
+				InputStream in = new BufferedInputStream(client.getInputStream());
+				OutputStream out = client.getOutputStream();
+				StringBuilder replies = new StringBuilder();
+				while (true) {
+					List<byte[]> command = readCommand(in);
+					if (command == null) {
+						return;
+					}
+					String name = new String(command.get(0), StandardCharsets.UTF_8);
+					String key = command.size() > 1 ? new String(command.get(1), StandardCharsets.UTF_8) : null;
+					switch (name) {
+						case "GET" -> {
+							byte[] v = data.get(key);
+							replies.append(v == null ? "$-1\r\n" : "$" + v.length + "\r\n"
+									+ new String(v, StandardCharsets.ISO_8859_1) + "\r\n");
+						}
+						case "SET" -> {
+							data.put(key, command.get(2));
+							replies.append("+OK\r\n");
+						}
+						case "DEL" -> replies.append(":").append(data.remove(key) == null ? 0 : 1).append("\r\n");
+						case "PUBLISH" -> {
+							String message = "*3\r\n$7\r\nmessage\r\n$" + command.get(1).length + "\r\n" + key
+									+ "\r\n$" + command.get(2).length + "\r\n"
+									+ new String(command.get(2), StandardCharsets.ISO_8859_1) + "\r\n";
+							for (OutputStream s : subscribers) {
+								synchronized (s) {
+									s.write(message.getBytes(StandardCharsets.ISO_8859_1));
+									s.flush();
+								}
+							}
+							replies.append(":").append(subscribers.size()).append("\r\n");
+						}
+						case "SUBSCRIBE" -> {
+							replies.append("*3\r\n$9\r\nsubscribe\r\n$").append(key.length()).append("\r\n")
+									.append(key).append("\r\n:1\r\n");
+							subscribers.add(out);
+						}
+						default -> replies.append("-ERR unknown command\r\n");
+					}
+					// Reply once the client has sent everything it pipelined.
+					if (in.available() == 0) {
+						synchronized (out) {
+							out.write(replies.toString().getBytes(StandardCharsets.ISO_8859_1));
+							out.flush();
+						}
+						replies.setLength(0);
+						flushes.incrementAndGet();
+					}
+				}
+			} catch (IOException e) {
+				// Client went away.
+			}
+		}
+
+		private static List<byte[]> readCommand(InputStream in) throws IOException {
+			int first = in.read();
+			if (first == -1) {
+				return null;
+			}
+			int count = Integer.parseInt(line(in));
+			List<byte[]> args = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				in.read(); // '$'
+				int length = Integer.parseInt(line(in));
+				args.add(in.readNBytes(length));
+				in.readNBytes(2);
+			}
+			return args;
+		}
+
+		private static String line(InputStream in) throws IOException {
+			StringBuilder sb = new StringBuilder();
+			for (int c = in.read(); c != '\r'; c = in.read()) {
+				sb.append((char) c);
+			}
+			in.read();
+			return sb.toString();
+		}
+	}
+}
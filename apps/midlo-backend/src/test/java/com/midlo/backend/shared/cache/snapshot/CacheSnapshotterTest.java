@@ -0,0 +1,116 @@
+package com.midlo.backend.shared.cache.snapshot;
+
+import com.midlo.backend.shared.cache.ExpiringCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheSnapshotterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void restoresLiveEntriesWithTheirExpiry() throws Exception {
+		ExpiringCache<String, String> before = cache();
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		before.putUntil("a", "uri-a", expiresAt);
+		before.put("short", "uri-short", Duration.ofMillis(50));
+		snapshotter(before).shutdown();
+
+		Thread.sleep(100);
+		ExpiringCache<String, String> after = cache();
+		snapshotter(after);
+
+		assertThat(after.get("a")).isEqualTo("uri-a");
+		assertThat(after.get("short")).isNull();
+		assertThat(after.hottest(10)).singleElement()
+				.extracting(Snapshottable.SnapshotEntry::expiresAtMillis)
+				.isEqualTo(expiresAt);
+	}
+
+	@Test
+	void writesHottestEntriesFirstUpToTheLimit() throws Exception {
+		ExpiringCache<String, String> cache = cache();
+		cache.put("hot", "1", Duration.ofMinutes(1));
+		cache.put("cold", "2", Duration.ofMinutes(1));
+		Thread.sleep(5);
+		cache.get("hot");
+
+		assertThat(cache.hottest(1)).extracting(Snapshottable.SnapshotEntry::key).containsExactly("hot");
+	}
+
+	@Test
+	void restoredEntriesKeepTheirRelativeIdleTime() throws Exception {
+		ExpiringCache<String, String> before = cache();
+		before.put("cold", "1", Duration.ofMinutes(1));
+		before.put("hot", "2", Duration.ofMinutes(1));
+		Thread.sleep(100);
+		before.get("hot");
+		snapshotter(before).shutdown();
+
+		ExpiringCache<String, String> after = cache();
+		snapshotter(after);
+
+		assertThat(after.hottest(2)).extracting(Snapshottable.SnapshotEntry::key).containsExactly("hot", "cold");
+		assertThat(after.hottest(2).get(1).idleMillis()).isGreaterThanOrEqualTo(100);
+	}
+
+	@Test
+	void corruptOrTruncatedFileIsSkippedAndMovedAside() throws Exception {
+		ExpiringCache<String, String> before = cache();
+		before.put("a", "uri-a", Duration.ofMinutes(1));
+		snapshotter(before).shutdown();
+		Path file = dir.resolve("test.snap");
+		byte[] bytes = Files.readAllBytes(file);
+
+		bytes[bytes.length - 12] ^= 0x5A;
+		Files.write(file, bytes);
+		ExpiringCache<String, String> flipped = cache();
+		snapshotter(flipped);
+		assertThat(flipped.size()).isZero();
+		assertThat(file).doesNotExist();
+		assertThat(dir.resolve("test.snap.corrupt")).exists();
+
+		Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+		ExpiringCache<String, String> truncated = cache();
+		snapshotter(truncated);
+		assertThat(truncated.size()).isZero();
+		assertThat(file).doesNotExist();
+	}
+
+	@Test
+	void doesNotOverwriteSnapshotBeforeRestoreRan() throws Exception {
+		ExpiringCache<String, String> before = cache();
+		before.put("a", "uri-a", Duration.ofMinutes(1));
+		snapshotter(before).shutdown();
+		long size = Files.size(dir.resolve("test.snap"));
+
+		CacheSnapshotter notStarted = new CacheSnapshotter(properties(), new SimpleMeterRegistry());
+		notStarted.register(cache(), CacheCodec.strings());
+		notStarted.shutdown();
+
+		assertThat(Files.size(dir.resolve("test.snap"))).isEqualTo(size);
+	}
+
+	private CacheSnapshotter snapshotter(ExpiringCache<String, String> cache) {
+		CacheSnapshotter snapshotter = new CacheSnapshotter(properties(), new SimpleMeterRegistry());
+		snapshotter.register(cache, CacheCodec.strings());
+		snapshotter.run(null);
+		return snapshotter;
+	}
+
+	private CacheSnapshotProperties properties() {
+		return new CacheSnapshotProperties(true, dir.toString(), Duration.ofHours(1), 100, null);
+	}
+
+	private static ExpiringCache<String, String> cache() {
+		return new ExpiringCache<>("test", 100, 100_000, String::length, new SimpleMeterRegistry());
+	}
+}
@@ -0,0 +1,76 @@
+package com.midlo.backend.shared.json;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedJsonTest {
+
+	private static final byte[] LARGE = ("{\"places\":[" + "{\"name\":\"Cafe\",\"rating\":4.5},".repeat(40) + "{}]}")
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void etagDependsOnlyOnContent() {
+		assertThat(EncodedJson.of(LARGE).etag()).isEqualTo(EncodedJson.of(LARGE.clone()).etag());
+		assertThat(EncodedJson.of("{}".getBytes(StandardCharsets.UTF_8)).etag())
+				.isNotEqualTo(EncodedJson.of(LARGE).etag())
+				.startsWith("\"").endsWith("\"");
+	}
+
+	@Test
+	void gzipsOnlyBodiesWorthCompressing() throws IOException {
+		assertThat(EncodedJson.of("{\"id\":1}".getBytes(StandardCharsets.UTF_8)).gzip()).isNull();
+
+		byte[] gzip = EncodedJson.of(LARGE).gzip();
+		assertThat(gzip).isNotNull().hasSizeLessThan(LARGE.length);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			assertThat(in.readAllBytes()).isEqualTo(LARGE);
+		}
+	}
+
+	@Test
+	void parsesAcceptEncoding() {
+		assertThat(EncodedJson.acceptsGzip("gzip, deflate, br")).isTrue();
+		assertThat(EncodedJson.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+		assertThat(EncodedJson.acceptsGzip("*")).isTrue();
+		assertThat(EncodedJson.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(EncodedJson.acceptsGzip("*, gzip;q=0")).isFalse();
+		assertThat(EncodedJson.acceptsGzip("identity")).isFalse();
+		assertThat(EncodedJson.acceptsGzip(null)).isFalse();
+	}
+
+	@Test
+	void servesTheAcceptedVariantAndHonoursIfNoneMatch() {
+		EncodedJson json = EncodedJson.of(LARGE);
+
+		MockHttpServletRequest plainRequest = new MockHttpServletRequest("GET", "/x");
+		ResponseEntity<byte[]> plain = json.respond(new ServletWebRequest(plainRequest), null);
+		assertThat(plain.getBody()).isEqualTo(LARGE);
+		assertThat(plain.getHeaders().getETag()).isEqualTo(json.etag());
+		assertThat(plain.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+
+		MockHttpServletRequest gzipRequest = new MockHttpServletRequest("GET", "/x");
+		gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		ResponseEntity<byte[]> gzipped = json.respond(new ServletWebRequest(gzipRequest), null);
+		assertThat(gzipped.getBody()).isEqualTo(json.gzip());
+		assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gzipped.getHeaders().getETag()).isNotEqualTo(json.etag());
+
+		MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/x");
+		revalidate.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, gzipped.getHeaders().getETag());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertThat(json.respond(new ServletWebRequest(revalidate, response), null)).isNull();
+		assertThat(response.getStatus()).isEqualTo(304);
+	}
+}
@@ -0,0 +1,121 @@
+package com.midlo.backend.shared.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.midlo.backend.places.details.PlaceDetailsResponse;
+import com.midlo.backend.places.details.PlacePhoto;
+import com.midlo.backend.places.dto.PlaceResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Single-threaded throughput of writing a cache-hit response body: a full
+ * details card and a 20-place list, serialized with plain Jackson, with
+ * Jackson plus Blackbird, and written from pre-encoded bytes.
+ *
+ * Not a test; run it with {@code scripts/json-benchmark.sh}.
+ */
+public final class JsonSerializationBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5;
+		ObjectMapper reflective = new ObjectMapper().findAndRegisterModules();
+		ObjectMapper blackbird = new ObjectMapper().findAndRegisterModules().registerModule(new BlackbirdModule());
+
+		PlaceDetailsResponse card = card();
+		List<PlaceResponse> places = places();
+		EncodedJson encodedCard = EncodedJson.encode(blackbird, card);
+		EncodedJson encodedPlaces = EncodedJson.encode(blackbird, places);
+		if (!new String(encodedCard.json(), StandardCharsets.UTF_8).equals(reflective.writeValueAsString(card))) {
+			throw new IllegalStateException("Blackbird output differs from plain Jackson");
+		}
+		// Discards writes; unlike OutputStream.nullOutputStream() it survives
+		// Jackson closing it.
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		};
+
+		System.out.printf("%-10s %-10s %14s %10s%n", "payload", "writer", "ops/s", "ns/op");
+		run("details", "jackson", seconds, () -> reflective.writeValue(out, card));
+		run("details", "blackbird", seconds, () -> blackbird.writeValue(out, card));
+		run("details", "encoded", seconds, () -> out.write(encodedCard.json()));
+		// The list is rebuilt per op, as the uncached path builds its records per request.
+		run("places", "jackson", seconds, () -> reflective.writeValue(out, places()));
+		run("places", "blackbird", seconds, () -> blackbird.writeValue(out, places()));
+		run("places", "encoded", seconds, () -> out.write(encodedPlaces.json()));
+		System.out.printf("%nbody bytes: details %d (gzip %d), places %d (gzip %d)%n",
+				encodedCard.json().length, encodedCard.gzip() == null ? 0 : encodedCard.gzip().length,
+				encodedPlaces.json().length, encodedPlaces.gzip() == null ? 0 : encodedPlaces.gzip().length);
+	}
+
+	private interface Op {
+		void run() throws IOException;
+	}
+
+	private static void run(String payload, String writer, long seconds, Op op) throws IOException {
+		// Warm up for as long as we measure so the JIT has settled.
+		measure(op, seconds * 1_000_000_000L);
+		long[] result = measure(op, seconds * 1_000_000_000L);
+		double opsPerSecond = result[0] * 1e9 / result[1];
+		System.out.printf(Locale.ROOT, "%-10s %-10s %,14.0f %10.1f%n", payload, writer, opsPerSecond,
+				result[1] / (double) result[0]);
+	}
+
+	private static long[] measure(Op op, long nanos) throws IOException {
+		long ops = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			for (int i = 0; i < 1_000; i++) {
+				op.run();
+			}
+			ops += 1_000;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < nanos);
+		return new long[] { ops, elapsed };
+	}
+
+	private static PlaceDetailsResponse card() {
+		List<PlacePhoto> photos = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			photos.add(new PlacePhoto("places/ChIJN1t_tDeuEmsRUsoyG83frY4/photos/AUc7tXW" + i + "xq3kLmZpQ", 4032,
+					3024));
+		}
+		return new PlaceDetailsResponse(
+				"ChIJN1t_tDeuEmsRUsoyG83frY4",
+				"Blue Bottle Coffee",
+				"300 Webster St, Oakland, CA 94607, USA",
+				37.7980,
+				-122.2769,
+				4.5,
+				1287,
+				"https://maps.google.com/?cid=10281119596374313554",
+				"https://bluebottlecoffee.com/",
+				"+1 510-653-3394",
+				true,
+				List.of("Monday: 7:00 AM – 6:00 PM", "Tuesday: 7:00 AM – 6:00 PM",
+						"Wednesday: 7:00 AM – 6:00 PM", "Thursday: 7:00 AM – 6:00 PM",
+						"Friday: 7:00 AM – 6:00 PM", "Saturday: 7:00 AM – 7:00 PM", "Sunday: 7:00 AM – 7:00 PM"),
+				photos);
+	}
+
+	private static List<PlaceResponse> places() {
+		List<PlaceResponse> places = new ArrayList<>(20);
+		for (int i = 0; i < 20; i++) {
+			places.add(new PlaceResponse("ChIJplace" + i + "xYzAbCdEfGh", "Place number " + i,
+					(i / 10) + "." + (i % 10) + " mi", 37.79 + i * 0.001, -122.27 - i * 0.001));
+		}
+		return places;
+	}
+}
@@ -0,0 +1,57 @@
+package com.midlo.backend.shared.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KpiEventRingTest {
+
+	@Test
+	void dropsWhenFullAndReusesSlotsAfterDrain() {
+		KpiEventRing ring = new KpiEventRing(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(ring.offer(i, "GET", "/p" + i, null, 200, 10, "ua")).isTrue();
+		}
+		assertThat(ring.offer(5, "GET", "/full", null, 200, 10, "ua")).isFalse();
+
+		List<String> paths = new ArrayList<>();
+		assertThat(ring.drain(e -> paths.add(e.path), 100)).isEqualTo(4);
+		assertThat(paths).containsExactly("/p0", "/p1", "/p2", "/p3");
+		assertThat(ring.offer(6, "GET", "/again", null, 200, 10, "ua")).isTrue();
+	}
+
+	@Test
+	void concurrentProducersNeverLoseAcceptedEvents() throws Exception {
+		KpiEventRing ring = new KpiEventRing(1024);
+		AtomicInteger accepted = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			pool.execute(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					if (ring.offer(i, "GET", "/x", null, 200, i, null)) {
+						accepted.incrementAndGet();
+					}
+				}
+			});
+		}
+
+		int drained = 0;
+		pool.shutdown();
+		while (!pool.isTerminated()) {
+			drained += ring.drain(e -> {
+			}, 512);
+		}
+		assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		drained += ring.drain(e -> {
+		}, Integer.MAX_VALUE);
+
+		assertThat(drained).isEqualTo(accepted.get());
+	}
+}
@@ -0,0 +1,61 @@
+package com.midlo.backend.shared.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+	private static ClientRateLimiter newLimiter(int maxClients) {
+		RateLimitProperties properties = new RateLimitProperties(true, null, List.of(), maxClients,
+				Duration.ofMinutes(1), Map.of("places", new RateLimitProperties.Rule(null, 20.0, 60.0, 60.0)));
+		return new ClientRateLimiter(properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void chargesRequestsByCostAndReportsTheWait() {
+		ClientRateLimiter limiter = newLimiter(100);
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("/places", "ip:a")).isZero();
+		}
+		long wait = limiter.tryAcquire("/places", "ip:a");
+
+		// 20 tokens at 1 token/s.
+		assertThat(wait).isBetween(TimeUnit.SECONDS.toNanos(19), TimeUnit.SECONDS.toNanos(20));
+		assertThat(limiter.tryAcquire("/places", "ip:b")).isZero();
+		assertThat(limiter.tryAcquire("/autocomplete", "ip:a")).isZero();
+		limiter.shutdown();
+	}
+
+	@Test
+	void newClientsShareAnOverflowBucketWhenFull() {
+		ClientRateLimiter limiter = newLimiter(2);
+		limiter.tryAcquire("/places", "ip:a");
+		limiter.tryAcquire("/places", "ip:b");
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("/places", "ip:rotating-" + i)).isZero();
+		}
+
+		assertThat(limiter.tryAcquire("/places", "ip:rotating-3")).isPositive();
+		assertThat(limiter.size()).isEqualTo(3);
+		limiter.shutdown();
+	}
+
+	@Test
+	void sweepKeepsBucketsUntilTheyWouldBeFullAgain() {
+		ClientRateLimiter limiter = newLimiter(100);
+		limiter.tryAcquire("/places", "ip:a");
+		long now = System.nanoTime();
+
+		assertThat(limiter.sweep(now + TimeUnit.SECONDS.toNanos(30))).isZero();
+		assertThat(limiter.sweep(now + TimeUnit.SECONDS.toNanos(61))).isEqualTo(1);
+		assertThat(limiter.size()).isZero();
+		limiter.shutdown();
+	}
+}
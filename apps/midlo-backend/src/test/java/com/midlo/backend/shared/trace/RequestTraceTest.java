@@ -0,0 +1,86 @@
+package com.midlo.backend.shared.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestTraceTest {
+
+	@AfterEach
+	void clear() {
+		RequestTrace.end();
+	}
+
+	@Test
+	void inactiveTraceHandsOutSharedNoopSpan() {
+		assertThat(RequestTrace.active()).isFalse();
+		RequestTrace.Span span = RequestTrace.start("nearby");
+		assertThat(span).isSameAs(RequestTrace.Span.NOOP);
+		assertThat(span.recording()).isFalse();
+		span.describe("ignored").close();
+		RequestTrace.mark("cache", "details hit");
+	}
+
+	@Test
+	void rendersPhasesAsServerTimingEntries() {
+		RequestTrace trace = RequestTrace.begin();
+		try (RequestTrace.Span span = RequestTrace.start("nearby").describe("r=8000 restaurant+4")) {
+			assertThat(span.recording()).isTrue();
+		}
+		RequestTrace.mark("cache", "details \"hit\"");
+		RequestTrace.handlerDone();
+
+		String header = trace.toHeader(System.nanoTime());
+
+		assertThat(header).startsWith("nearby;dur=");
+		assertThat(header).contains(";desc=\"r=8000 restaurant+4\"");
+		assertThat(header).contains("cache;desc=\"details \\\"hit\\\"\"");
+		assertThat(header).contains("app;dur=", "serialize;dur=");
+		assertThat(header).containsPattern("total;dur=\\d+\\.\\d{3}$");
+	}
+
+	@Test
+	void timedRecordsThePhaseEvenWhenTheCallThrows() {
+		RequestTrace trace = RequestTrace.begin();
+
+		assertThat(RequestTrace.timed("geocode", "google", () -> "ok")).isEqualTo("ok");
+		assertThatThrownBy(() -> RequestTrace.timed("l2", null, () -> {
+			throw new IOException("down");
+		})).isInstanceOf(IOException.class);
+
+		assertThat(trace.toHeader(System.nanoTime()))
+				.containsPattern("^geocode;dur=[\\d.]+;desc=\"google\", l2;dur=");
+	}
+
+	@Test
+	void capsEntriesAndReportsTheRest() {
+		RequestTrace trace = RequestTrace.begin();
+		for (int i = 0; i < RequestTrace.MAX_ENTRIES + 5; i++) {
+			RequestTrace.mark("cache", "miss");
+		}
+
+		assertThat(trace.toHeader(System.nanoTime())).contains("truncated;desc=\"5 more\"");
+	}
+
+	@Test
+	void wrappedTasksRecordIntoTheRequestTraceFromAnotherThread() throws Exception {
+		RequestTrace trace = RequestTrace.begin();
+		Runnable task = RequestTrace.wrap(() -> {
+			try (RequestTrace.Span span = RequestTrace.start("google").describe("autocomplete")) {
+				assertThat(span.recording()).isTrue();
+			}
+		});
+		RequestTrace.end();
+
+		CompletableFuture.runAsync(task).get(5, TimeUnit.SECONDS);
+
+		assertThat(trace.toHeader(System.nanoTime())).startsWith("google;dur=").contains("desc=\"autocomplete\"");
+		assertThat(RequestTrace.wrap(() -> "untraced").get()).isEqualTo("untraced");
+	}
+}
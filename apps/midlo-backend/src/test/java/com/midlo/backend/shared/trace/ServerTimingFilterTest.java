@@ -0,0 +1,50 @@
+package com.midlo.backend.shared.trace;
+
+import com.midlo.backend.shared.config.MidloCorsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+	private final ServerTimingFilter filter = new ServerTimingFilter(
+			new RequestTraceProperties(true, 0.0, 0.0, List.of("ops-key")),
+			RequestTraceConfig.timingOrigins(new MidloCorsProperties(List.of("https://midlo.ai"), List.of())));
+
+	@Test
+	void onlyTrustedKeysForceATrace() throws Exception {
+		assertThat(run(request("1")).getHeader(ServerTimingFilter.HEADER)).isNull();
+		assertThat(run(request(null)).getHeader(ServerTimingFilter.HEADER)).isNull();
+		assertThat(run(request("ops-key")).getHeader(ServerTimingFilter.HEADER)).contains("total;dur=");
+	}
+
+	@Test
+	void allowsTimingsOnlyForCorsOrigins() throws Exception {
+		MockHttpServletRequest allowed = request("ops-key");
+		allowed.addHeader("Origin", "https://midlo.ai");
+		MockHttpServletRequest other = request("ops-key");
+		other.addHeader("Origin", "https://evil.example");
+
+		assertThat(run(allowed).getHeader("Timing-Allow-Origin")).isEqualTo("https://midlo.ai");
+		assertThat(run(other).getHeader("Timing-Allow-Origin")).isNull();
+	}
+
+	private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String forceKey) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/places");
+		if (forceKey != null) {
+			request.addHeader(ServerTimingFilter.FORCE_HEADER, forceKey);
+		}
+		return request;
+	}
+}
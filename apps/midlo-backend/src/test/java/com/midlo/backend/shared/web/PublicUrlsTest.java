@@ -0,0 +1,42 @@
+package com.midlo.backend.shared.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicUrlsTest {
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void prefersTheConfiguredBaseUrl() {
+		PublicUrls urls = new PublicUrls(new PublicUrlProperties("https://api.midlo.ai/"));
+		bindRequest();
+
+		assertThat(urls.absolute("/m/abc")).isEqualTo("https://api.midlo.ai/m/abc");
+	}
+
+	@Test
+	void fallsBackToTheCurrentRequest() {
+		PublicUrls urls = new PublicUrls(new PublicUrlProperties(" "));
+
+		assertThat(urls.absolute("/m/abc")).isEqualTo("/m/abc");
+		bindRequest();
+		assertThat(urls.absolute("/place-photo?name=x")).isEqualTo("https://midlo.example:8443/place-photo?name=x");
+	}
+
+	private static void bindRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/places/p1");
+		request.setScheme("https");
+		request.setServerName("midlo.example");
+		request.setServerPort(8443);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+}
@@ -1,6 +1,6 @@
 import React from "react";
 import "../styles/theme.css";
-import { api } from "../services/api";
+import { api, newAutocompleteSessionToken } from "../services/api";
 import type { AutocompleteSuggestion } from "../services/api";
 
 type Props = {
@@ -24,6 +24,7 @@ export default function SearchBar({ placeholder = "Search", value = "", onChange
   const abortRef = React.useRef<AbortController | null>(null);
   const blurTimerRef = React.useRef<number | null>(null);
   const committedValueRef = React.useRef<string | null>(null);
+  const sessionTokenRef = React.useRef<string | null>(null);
 
   const query = value.trim();
 
@@ -54,8 +55,13 @@ export default function SearchBar({ placeholder = "Search", value = "", onChange
       const controller = new AbortController();
       abortRef.current = controller;
 
+      if (!sessionTokenRef.current) {
+        sessionTokenRef.current = newAutocompleteSessionToken();
+      }
+
       try {
-        const results = await api.autocomplete(query, controller.signal);
+        const results = await api.autocomplete(query, sessionTokenRef.current, controller.signal);
+        if (results === null) return;
         setSuggestions(results);
       } catch (err) {
         if (err instanceof Error && err.name === "AbortError") return;
@@ -98,6 +104,8 @@ export default function SearchBar({ placeholder = "Search", value = "", onChange
 
     abortRef.current?.abort();
     abortRef.current = null;
+    // The next keystroke starts a new session.
+    sessionTokenRef.current = null;
 
     onChange?.(text);
     setIsTyping(false);
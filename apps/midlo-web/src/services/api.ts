@@ -84,16 +84,31 @@ async function getJson<T>(path: string, signal?: AbortSignal): Promise<T> {
   return (await res.json()) as T;
 }
 
+// One token per typing session: sent with every keystroke so the backend can
+// debounce and supersede them, and dropped once a suggestion is picked.
+export function newAutocompleteSessionToken() {
+  if (typeof crypto !== "undefined" && typeof crypto.randomUUID === "function") {
+    return crypto.randomUUID();
+  }
+  return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2, 12)}`;
+}
+
 export const api = {
+  // Resolves to null when a newer keystroke of the same session replaced this one.
   autocomplete: async (
     input: string,
+    sessionToken: string,
     signal?: AbortSignal,
-  ): Promise<AutocompleteSuggestion[]> => {
+  ): Promise<AutocompleteSuggestion[] | null> => {
     if (!input || input.trim().length < 3) return [];
-    const suggestions = await getJson<AutocompleteSuggestion[]>(
-      `/autocomplete?input=${encodeURIComponent(input)}`,
-      signal,
-    );
+    const params = new URLSearchParams({ input, sessionToken });
+    const res = await fetch(toApiUrl(`/autocomplete?${params.toString()}`), { signal });
+    if (!res.ok) {
+      const text = await res.text().catch(() => "");
+      throw new ApiError(res.status, text || res.statusText || "");
+    }
+    if (res.headers.get("X-Midlo-Superseded") === "true") return null;
+    const suggestions = (await res.json()) as AutocompleteSuggestion[];
 
     // Hardening: backend should return these, but keep UI stable.
     return Array.isArray(suggestions)